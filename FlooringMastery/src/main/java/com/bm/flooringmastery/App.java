@@ -1,33 +1,191 @@
 package com.bm.flooringmastery;
 
+import com.bm.flooringmastery.controller.FlooringMasteryCommandLine;
 import com.bm.flooringmastery.controller.FlooringMasteryController;
+import com.bm.flooringmastery.controller.FlooringMasteryHttpServer;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
 import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderJournal;
 import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
 import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
 import com.bm.flooringmastery.service.FlooringMasteryService;
 import com.bm.flooringmastery.view.FlooringMasteryView;
 import com.bm.flooringmastery.view.UserIoConsoleImpl;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
 
 /**
  * Acts as the entry point of the whole application
  *
+ * Without arguments, the menu is shown. With "serve [port]", the orders are
+ * served over HTTP (see FlooringMasteryHttpServer) until the process is
+ * stopped. Otherwise the arguments are run as a single command (see
+ * FlooringMasteryCommandLine) and the process exits with its status.
+ *
+ * The menu and serve save changed orders in the background shortly after
+ * they change (see FlooringMasteryOrderAutosaver), and save whatever is left
+ * as the process stops. They, and the commands which change orders, claim
+ * the orders for the whole process, and exit with
+ * FlooringMasteryCommandLine.EXIT_FAILED if another process already has.
+ *
+ * Started with -Dflooringmastery.metrics=true, any mode publishes its metrics
+ * over JMX, and dumps them to standard error every
+ * flooringmastery.metrics.dumpSeconds if that is set (see
+ * FlooringMasteryMetrics).
+ *
  * @author Benjamin Munoz
  * email: driver396@gmail.com
  * date: Aug 5, 2021
  */
 public class App {
+    /**
+     * The most orders a command keeps in memory at once; day files are only
+     * read as a command needs their dates
+     */
+    private static final int COMMAND_CACHED_ORDERS = 10_000;
+    
+    /**
+     * Changed orders are saved once none has changed for this long, or once
+     * the oldest change has waited the longer delay, by the menu and serve
+     */
+    private static final long AUTOSAVE_QUIET_MILLIS = 2_000;
+    private static final long AUTOSAVE_MAX_DELAY_MILLIS = 30_000;
+    
     public static void main(String[] args) {
+        FlooringMasteryMetrics.startReporting(System.err);
+        if (args.length > 0 && args[0].equals("serve")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0) {
+            System.exit(runCommand(args));
+        }
+        
+        FlooringMasteryTaxDaoFileImpl taxDao = new FlooringMasteryTaxDaoFileImpl();
+        FlooringMasteryProductDaoFileImpl productDao = new FlooringMasteryProductDaoFileImpl();
+        // saved from a snapshot, so the menu never waits on a save
+        FlooringMasteryService service = new FlooringMasteryService(
+            taxDao,
+            productDao,
+            new FlooringMasteryOrderDaoConcurrentFileImpl()
+        );
+        try {
+            service.lockOrders();
+        } catch (FlooringMasteryFailedLoadException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(FlooringMasteryCommandLine.EXIT_FAILED);
+        }
+        try {
+            // price and tax changes then apply without a restart
+            taxDao.startWatching();
+            productDao.startWatching();
+        } catch (IOException ex) {
+            // they still apply after one
+        }
+        
         FlooringMasteryController controller = new FlooringMasteryController(
             new FlooringMasteryView(
                 new UserIoConsoleImpl()
             ),
-            new FlooringMasteryService(
-                new FlooringMasteryTaxDaoFileImpl(),
-                new FlooringMasteryProductDaoFileImpl(),
-                new FlooringMasteryOrderDaoFileImpl()
-            )
+            service
         );
         
+        service.startAutosave(AUTOSAVE_QUIET_MILLIS, AUTOSAVE_MAX_DELAY_MILLIS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stopAutosave(service), "autosave-shutdown"));
         controller.run();
     }
+    
+    private static int runCommand(String[] args) {
+        FlooringMasteryService service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(),
+            new FlooringMasteryProductDaoFileImpl(),
+            new FlooringMasteryOrderDaoFileImpl(
+                "Orders",
+                "Backup/DataExport.txt",
+                1,
+                new FlooringMasteryOrderJournal("Orders.journal", 50),
+                COMMAND_CACHED_ORDERS
+            )
+        );
+        PrintStream out = new PrintStream(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+            false
+        );
+        return new FlooringMasteryCommandLine(out, System.err, service).run(args);
+    }
+    
+    private static void serve(String[] args) {
+        int port = FlooringMasteryHttpServer.DEFAULT_PORT;
+        try {
+            if (args.length > 2) {
+                throw new NumberFormatException();
+            }
+            if (args.length == 2) {
+                port = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("usage: serve [port]");
+            System.exit(FlooringMasteryCommandLine.EXIT_USAGE);
+        }
+        // see FlooringMasteryHttpServer; read once, as its first server is
+        // created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        
+        FlooringMasteryTaxDaoFileImpl taxDao = new FlooringMasteryTaxDaoFileImpl();
+        FlooringMasteryProductDaoFileImpl productDao = new FlooringMasteryProductDaoFileImpl();
+        FlooringMasteryService service = new FlooringMasteryService(
+            taxDao,
+            productDao,
+            new FlooringMasteryOrderDaoConcurrentFileImpl()
+        );
+        FlooringMasteryHttpServer server;
+        try {
+            service.lockOrders();
+            service.loadDaos();
+            System.err.print(service.getStartupReport());
+            server = new FlooringMasteryHttpServer(service, new InetSocketAddress(port));
+        } catch (FlooringMasteryFailedLoadException | IOException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(FlooringMasteryCommandLine.EXIT_FAILED);
+            return;
+        }
+        try {
+            taxDao.startWatching();
+            productDao.startWatching();
+        } catch (IOException ex) {
+            // they still apply after a restart
+        }
+        
+        service.startAutosave(AUTOSAVE_QUIET_MILLIS, AUTOSAVE_MAX_DELAY_MILLIS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            stopAutosave(service);
+        }, "http-shutdown"));
+        server.start();
+        System.out.println(
+            "Serving orders on port " + server.getAddress().getPort() + " with "
+            + (server.isUsingVirtualThreads() ? "virtual threads" : "a pool of threads")
+        );
+    }
+    
+    /**
+     * Saves whatever the background saves have not yet
+     */
+    private static void stopAutosave(FlooringMasteryService service) {
+        try {
+            service.stopAutosave();
+        } catch (FlooringMasteryFailedSaveException ex) {
+            // the journal still holds every change
+            System.err.println(ex.getMessage());
+        }
+    }
 }
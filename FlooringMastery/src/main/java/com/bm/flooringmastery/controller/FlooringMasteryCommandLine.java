@@ -0,0 +1,303 @@
+package com.bm.flooringmastery.controller;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import com.bm.flooringmastery.service.FlooringMasteryImportReport;
+import com.bm.flooringmastery.service.FlooringMasteryOrderQuery;
+import com.bm.flooringmastery.service.FlooringMasteryOrderSummary;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+/**
+ * Acts as the controller for a single command given on the command line,
+ * for scripts and scheduled jobs rather than people
+ *
+ * Each command loads only the data it uses, writes its results to the output
+ * as CSV with a header row, writes any problems to the error stream one per
+ * line, and returns one of the EXIT_ statuses. Commands which change orders
+ * claim them first, failing if another process such as the menu has, and
+ * save them before returning.
+ */
+public class FlooringMasteryCommandLine {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_REJECTED = 3;
+
+    public static final String USAGE = String.join(System.lineSeparator(),
+        "usage: list <yyyy-mm-dd>",
+        "       add <yyyy-mm-dd> <customer name> <state> <product type> <area>",
+        "       export",
+        "       import <file.csv|file.jsonl>",
+        "       report <from yyyy-mm-dd> <to yyyy-mm-dd> [NONE|DATE|MONTH|STATE|PRODUCT_TYPE]"
+    );
+
+    private static final String ORDER_HEADER =
+        "OrderDate,OrderNumber,CustomerName,State,TaxRate,ProductType,Area,"
+        + "CostPerSquareFoot,LaborCostPerSquareFoot,MaterialCost,LaborCost,Tax,Total";
+    private static final String SUMMARY_HEADER =
+        "Group,Orders,Area,MaterialCost,LaborCost,Tax,Total";
+    private static final String IMPORT_HEADER =
+        "RowsRead,Imported,Rejected,RowsPerSecond";
+
+    private static final BigDecimal MIN_AREA = new BigDecimal("100");
+
+    private final PrintStream OUT;
+    private final PrintStream ERR;
+    private final FlooringMasteryService SERVICE;
+
+    public FlooringMasteryCommandLine(PrintStream OUT, PrintStream ERR, FlooringMasteryService SERVICE) {
+        this.OUT = OUT;
+        this.ERR = ERR;
+        this.SERVICE = SERVICE;
+    }
+
+    /**
+     * Runs the command named by the first argument
+     *
+     * @param args
+     * @return The exit status
+     */
+    public int run(String... args) {
+        try {
+            if (args.length == 0) {
+                throw new UsageException("No command given");
+            }
+            String[] params = Arrays.copyOfRange(args, 1, args.length);
+            switch (args[0]) {
+                case "list":
+                    return list(params);
+                case "add":
+                    return add(params);
+                case "export":
+                    return export(params);
+                case "import":
+                    return importOrders(params);
+                case "report":
+                    return report(params);
+                default:
+                    throw new UsageException("Unknown command \"" + args[0] + "\"");
+            }
+        } catch (UsageException ex) {
+            ERR.println(ex.getMessage());
+            ERR.println(USAGE);
+            return EXIT_USAGE;
+        } catch (FlooringMasteryFailedLoadException
+            | FlooringMasteryFailedSaveException
+            | FlooringMasteryFailedExportException ex) {
+
+            ERR.println(ex.getMessage());
+            return EXIT_FAILED;
+        } finally {
+            OUT.flush();
+            ERR.flush();
+        }
+    }
+
+    private int list(String[] params) throws UsageException, FlooringMasteryFailedLoadException {
+        expectParams(params, 1, 1);
+        LocalDate date = parseDate(params[0]);
+
+        SERVICE.loadOrders();
+        OUT.println(ORDER_HEADER);
+        StringBuilder row = new StringBuilder();
+        for (FlooringMasteryOrder order : SERVICE.getOrdersByDate(date)) {
+            row.setLength(0);
+            OUT.append(appendOrder(row, order).append(System.lineSeparator()));
+        }
+        return EXIT_OK;
+    }
+
+    private int add(String[] params)
+        throws UsageException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        expectParams(params, 5, 5);
+        LocalDate orderDate = parseDate(params[0]);
+        String customerName = params[1].trim();
+        String abbr = params[2].trim();
+        String prodType = params[3].trim();
+        BigDecimal area;
+        try {
+            area = new BigDecimal(params[4].trim());
+        } catch (NumberFormatException ex) {
+            throw new UsageException("Invalid area \"" + params[4] + "\"");
+        }
+
+        if (!LocalDate.now().isBefore(orderDate)) {
+            return reject("The order date " + orderDate + " is not in the future");
+        }
+        if (customerName.isEmpty()) {
+            return reject("The customer name is empty");
+        }
+        if (FlooringMasteryService.hasLineBreak(customerName)) {
+            return reject("The customer name holds a line break");
+        }
+        if (area.compareTo(MIN_AREA) < 0) {
+            return reject("The area " + area + " is less than " + MIN_AREA + " sq. ft.");
+        }
+        SERVICE.loadTaxes();
+        Optional<BigDecimal> percentTaxRate = SERVICE.percentTaxRateForStateAbbr(abbr);
+        if (percentTaxRate.isEmpty()) {
+            return reject("No tax data for the state \"" + abbr + "\"");
+        }
+        SERVICE.loadProducts();
+        Optional<FlooringMasteryProduct> orderedProd = SERVICE.getProductByType(prodType);
+        if (orderedProd.isEmpty()) {
+            return reject("The product type \"" + prodType + "\" is not available");
+        }
+
+        SERVICE.lockOrders();
+        SERVICE.loadOrders();
+        FlooringMasteryOrder order = SERVICE.pushNewOrder(new FlooringMasteryOrder(
+            orderDate,
+            0,
+            customerName,
+            abbr,
+            percentTaxRate.get(),
+            orderedProd.get(),
+            area
+        ));
+        SERVICE.saveOrders();
+
+        OUT.println(ORDER_HEADER);
+        OUT.println(appendOrder(new StringBuilder(), order));
+        return EXIT_OK;
+    }
+
+    private int export(String[] params)
+        throws UsageException, FlooringMasteryFailedLoadException, FlooringMasteryFailedExportException {
+
+        expectParams(params, 0, 0);
+        SERVICE.loadOrders();
+        SERVICE.exportOrders();
+        return EXIT_OK;
+    }
+
+    private int importOrders(String[] params)
+        throws UsageException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        expectParams(params, 1, 1);
+        SERVICE.lockOrders();
+        SERVICE.loadTaxes();
+        SERVICE.loadProducts();
+        SERVICE.loadOrders();
+        FlooringMasteryImportReport report = SERVICE.importOrders(Paths.get(params[0]));
+        SERVICE.saveOrders();
+
+        OUT.println(IMPORT_HEADER);
+        OUT.println(
+            report.getRowsRead() + ","
+            + report.getImported() + ","
+            + report.getRejectedCount() + ","
+            + Math.round(report.getRowsPerSecond())
+        );
+        report.getRejects().forEach(ERR::println);
+        return report.getRejectedCount() == 0 ? EXIT_OK : EXIT_REJECTED;
+    }
+
+    private int report(String[] params) throws UsageException, FlooringMasteryFailedLoadException {
+        expectParams(params, 2, 3);
+        LocalDate from = parseDate(params[0]);
+        LocalDate to = parseDate(params[1]);
+        if (to.isBefore(from)) {
+            throw new UsageException("The range ends before it starts");
+        }
+        FlooringMasteryOrderQuery.GroupBy groupBy = FlooringMasteryOrderQuery.GroupBy.NONE;
+        if (params.length == 3) {
+            try {
+                groupBy = FlooringMasteryOrderQuery.GroupBy.valueOf(params[2].toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new UsageException("Unknown grouping \"" + params[2] + "\"");
+            }
+        }
+
+        SERVICE.loadOrders();
+        OUT.println(SUMMARY_HEADER);
+        for (Entry<String, FlooringMasteryOrderSummary> entry
+            : SERVICE.summarizeOrders(new FlooringMasteryOrderQuery(from, to), groupBy).entrySet()) {
+
+            FlooringMasteryOrderSummary summary = entry.getValue();
+            OUT.println(
+                quote(entry.getKey()) + ","
+                + summary.getCount() + ","
+                + summary.getArea() + ","
+                + money(summary.getMaterialCost()) + ","
+                + money(summary.getLaborCost()) + ","
+                + money(summary.getTax()) + ","
+                + money(summary.getTotal())
+            );
+        }
+        return EXIT_OK;
+    }
+
+    private int reject(String reason) {
+        ERR.println(reason);
+        return EXIT_REJECTED;
+    }
+
+    private static void expectParams(String[] params, int min, int max) throws UsageException {
+        if (params.length < min || params.length > max) {
+            throw new UsageException("Wrong number of arguments");
+        }
+    }
+
+    private static LocalDate parseDate(String param) throws UsageException {
+        try {
+            return LocalDate.parse(param.trim());
+        } catch (DateTimeParseException ex) {
+            throw new UsageException("Invalid date \"" + param + "\"");
+        }
+    }
+
+    private static StringBuilder appendOrder(StringBuilder builder, FlooringMasteryOrder order) {
+        return builder
+            .append(order.getOrderDate()).append(',')
+            .append(order.getOrderNum()).append(',')
+            .append(quote(order.getCustomerName())).append(',')
+            .append(quote(order.getState())).append(',')
+            .append(order.getPercentTaxRate()).append(',')
+            .append(quote(order.getProductType())).append(',')
+            .append(order.getArea()).append(',')
+            .append(order.getCostPerSqFt()).append(',')
+            .append(order.getLaborCostPerSqFt()).append(',')
+            .append(money(order.getMaterialCost())).append(',')
+            .append(money(order.getLaborCost())).append(',')
+            .append(money(order.getTax())).append(',')
+            .append(money(order.getTotal()));
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toString();
+    }
+
+    /**
+     * @return The value as a CSV field, quoted only if it must be
+     */
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+            && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Thrown when the arguments do not form a command
+     */
+    private static class UsageException extends Exception {
+        private UsageException(String message) {
+            super(message);
+        }
+    }
+}
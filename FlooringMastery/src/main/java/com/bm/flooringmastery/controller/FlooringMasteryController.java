@@ -6,15 +6,26 @@
 
 package com.bm.flooringmastery.controller;
 
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
 import com.bm.flooringmastery.model.FlooringMasteryOrder;
 import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import com.bm.flooringmastery.service.FlooringMasteryImportReport;
 import com.bm.flooringmastery.service.FlooringMasteryService;
 import com.bm.flooringmastery.view.FlooringMasteryView;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Acts as the controller for this application
@@ -28,6 +39,11 @@ public class FlooringMasteryController {
     private final FlooringMasteryService SERVICE;
 
     private final RoundingMode COMMON_ROUNDING_MODE = RoundingMode.CEILING;
+    private final int MAX_DISPLAYED_REJECTS = 20;
+    private final int MAX_DISPLAYED_MATCHES = 20;
+    private final String PREFIX_MARKER = "...";
+    
+    private boolean ordersErrorShown = false;
     
     public FlooringMasteryController(FlooringMasteryView VIEW, FlooringMasteryService SERVICE) {
         this.VIEW = VIEW;
@@ -36,8 +52,11 @@ public class FlooringMasteryController {
     
     public void run() {
         
+        // the orders keep loading behind the menu; every action on them
+        // waits for them first
+        SERVICE.startLoadingDaos();
         try {
-            SERVICE.loadDaos();
+            SERVICE.awaitCatalogs();
         } catch (FlooringMasteryFailedLoadException ex) {
             VIEW.displayErrorLine(ex.getMessage());
         }
@@ -47,7 +66,7 @@ public class FlooringMasteryController {
             displayMainMenu();
             int choice = VIEW.getInt(
                 "Select an option", 
-                val -> (1 <= val && val <= 6),
+                val -> (1 <= val && val <= 8),
                 "The input must be one of the numbers above"
             );
             switch (choice) {
@@ -58,16 +77,23 @@ public class FlooringMasteryController {
                     addOrder();
                     break;
                 case 3:
-                    VIEW.displayLine("EDIT");
+                    editOrder();
                     break;
                 case 4:
-                    VIEW.displayLine("REMOVE");
+                    removeOrder();
                     break;
                 case 5:
-                    VIEW.displayLine("EXPORT");
+                    exportOrders();
                     break;
                 case 6:
+                    importOrders();
+                    break;
+                case 7:
+                    findOrdersByCustomer();
+                    break;
+                case 8:
                     VIEW.displayLine("QUIT");
+                    saveOrders();
                     active = false;
                     break;
                 default:
@@ -82,7 +108,8 @@ public class FlooringMasteryController {
             val -> true, 
             "The entered input was invalid"
         );
-        Set<FlooringMasteryOrder> orders = SERVICE.getOrdersByDate(filterDate);
+        waitForOrders();
+        Collection<FlooringMasteryOrder> orders = SERVICE.getOrdersByDate(filterDate);
         if (orders.isEmpty()) {
             VIEW.displayErrorLine("There are no orders with this date");
         } else {
@@ -92,8 +119,12 @@ public class FlooringMasteryController {
     }
     
     private void displayOrder(FlooringMasteryOrder order) {
+        displayOrder("Order " + order.getOrderNum(), order);
+    }
+    
+    private void displayOrder(String header, FlooringMasteryOrder order) {
         VIEW.displayAroundContents(
-            "Order " + order.getOrderNum(),
+            header,
             "Date: " + order.getOrderDate(),
             "Customer: " + order.getCustomerName(),
             "Product Type: " + order.getProductType(),
@@ -117,25 +148,68 @@ public class FlooringMasteryController {
             "The entered date was invalid or not in in the future"
         );
         
-        int orderNum = SERVICE.ordersSet().stream()
-            .map(order -> order.getOrderNum())
-            .reduce(1, (a, b) -> Math.max(a, b));
-        orderNum++;
-        
         String customerName = VIEW.getString(
             "Enter the customer's name for the order", 
             str -> !str.isEmpty(),
             "The name must be nonempty"
         );
         
-        String abbr = VIEW.getString(
+        Map.Entry<String, BigDecimal> taxRate = promptForLookup(
             "Enter a State abbreviation for the order",
-            str -> SERVICE.hasTaxDataForStateAbbr(str),
+            false,
+            this::taxRateForStateAbbr,
             "Either the input was not a state abbreviation, or there is "
             + "insufficient tax data for that state"
+        ).get();
+        String abbr = taxRate.getKey();
+        BigDecimal percentTaxRate = taxRate.getValue();
+        
+        displayProducts();
+        
+        FlooringMasteryProduct orderedProd = promptForLookup(
+            "Choose the floor type for this order", 
+            false,
+            SERVICE::getProductByType,
+            "That floor type is not available"
+        ).get();
+        
+        BigDecimal area = VIEW.getBigDecimal(
+            "Enter total area (in sq. ft.) demanded for this floor type in this"
+            + " order (Min Allowed: 100)", 
+            val -> val.compareTo(new BigDecimal("100")) >= 0,
+            "The input must be some area no less than 100 sq. ft."
+        );
+        
+        // numbered only once submitted, so a declined order uses up none
+        FlooringMasteryOrder draft = new FlooringMasteryOrder(
+            orderDate,
+            0,
+            customerName,
+            abbr,
+            percentTaxRate,
+            orderedProd,
+            area
         );
-        BigDecimal percentTaxRate = SERVICE.percentTaxRateForStateAbbr(abbr).get();
         
+        VIEW.displayInformationalLine("Order Review");
+        displayOrder("New Order", draft);
+        if (confirm("Submit order? (Y/n)")) {
+            // the number must follow every loaded order
+            waitForOrders();
+            try {
+                FlooringMasteryOrder order = SERVICE.pushNewOrder(draft);
+                VIEW.displayInformationalLine("Order " + order.getOrderNum() + " submitted");
+            } catch (FlooringMasteryFailedSaveException ex) {
+                VIEW.displayErrorLine(ex.getMessage());
+            }
+        } else {
+            VIEW.displayLine("Order not submitted");
+        }
+        
+        pauseBeforeContinuation();
+    }
+    
+    private void displayProducts() {
         VIEW.displayInformationalLine("Available Products");
         SERVICE.productsSet().forEach(product -> {
             VIEW.displayAroundContents(
@@ -144,24 +218,76 @@ public class FlooringMasteryController {
                 "Labor cost per sq. ft.: $" + product.getLaborCostPerSqFt().toString()
             );
         });
+    }
+    
+    /**
+     * Asks for an order number and looks up its order, whatever its date
+     * 
+     * @return The order, or an empty instance, of which the user has already
+     *         been told, if there is none
+     */
+    private Optional<FlooringMasteryOrder> promptForOrder() {
+        int orderNum = VIEW.getInt(
+            "Enter the number of the order",
+            val -> val > 0,
+            "The input must be a positive whole number"
+        );
+        waitForOrders();
+        Optional<FlooringMasteryOrder> order = SERVICE.getOrderByNumber(orderNum);
+        if (order.isEmpty()) {
+            VIEW.displayErrorLine("There is no order with this number");
+        }
+        return order;
+    }
+    
+    private void editOrder() {
+        Optional<FlooringMasteryOrder> found = promptForOrder();
+        if (found.isEmpty()) {
+            pauseBeforeContinuation();
+            return;
+        }
+        FlooringMasteryOrder current = found.get();
+        displayOrder(current);
+        VIEW.displayLine("Press ENTER at any prompt to keep the current value");
         
-        String prodType = VIEW.getString(
-            "Choose the floor type for this order", 
-            str -> SERVICE.hasProductWithType(str),
-            "That floor type is not available"
+        String customerName = VIEW.getString(
+            "Enter the customer's name (" + current.getCustomerName() + ")",
+            str -> true,
+            ""
         );
-        FlooringMasteryProduct orderedProd = SERVICE.getProductByType(prodType).get();
+        if (customerName.isEmpty()) {
+            customerName = current.getCustomerName();
+        }
         
-        BigDecimal area = VIEW.getBigDecimal(
-            "Enter total area (in sq. ft.) demanded for this floor type in this"
-            + " order (Min Allowed: 100)", 
-            val -> val.compareTo(new BigDecimal("100")) >= 0,
+        Map.Entry<String, BigDecimal> taxRate = promptForLookup(
+            "Enter a State abbreviation (" + current.getState() + ")",
+            true,
+            this::taxRateForStateAbbr,
+            "Either the input was not a state abbreviation, or there is "
+            + "insufficient tax data for that state"
+        ).orElse(Map.entry(current.getState(), current.getPercentTaxRate()));
+        String abbr = taxRate.getKey();
+        BigDecimal percentTaxRate = taxRate.getValue();
+        
+        displayProducts();
+        FlooringMasteryProduct orderedProd = promptForLookup(
+            "Choose the floor type (" + current.getProductType() + ")",
+            true,
+            SERVICE::getProductByType,
+            "That floor type is not available"
+        ).orElse(current.getOrderedProduct());
+        
+        String areaText = VIEW.getString(
+            "Enter total area in sq. ft. (" + current.getArea() + ")",
+            str -> str.isEmpty() || isAllowedArea(str),
             "The input must be some area no less than 100 sq. ft."
         );
-         
-        FlooringMasteryOrder order = new FlooringMasteryOrder(
-            orderDate,
-            orderNum,
+        BigDecimal area = areaText.isEmpty() ? current.getArea() : new BigDecimal(areaText);
+        
+        // the stored order is left as is until the edit is submitted
+        FlooringMasteryOrder edited = new FlooringMasteryOrder(
+            current.getOrderDate(),
+            current.getOrderNum(),
             customerName,
             abbr,
             percentTaxRate,
@@ -170,22 +296,191 @@ public class FlooringMasteryController {
         );
         
         VIEW.displayInformationalLine("Order Review");
-        displayOrder(order);
+        displayOrder(edited);
+        if (confirm("Save changes? (Y/n)")) {
+            try {
+                SERVICE.pushOrder(edited);
+                VIEW.displayInformationalLine("Order updated");
+            } catch (FlooringMasteryFailedSaveException ex) {
+                VIEW.displayErrorLine(ex.getMessage());
+            }
+        } else {
+            VIEW.displayLine("Order not changed");
+        }
+        pauseBeforeContinuation();
+    }
+    
+    /**
+     * Prompts until the input is one the lookup finds something for
+     * 
+     * What was found is kept from the check of the input, rather than looked
+     * up again, since the tax rates and products may be reloaded in between.
+     * 
+     * @param prompt
+     * @param emptyAllowed Whether an empty input is accepted, finding nothing
+     * @param lookup
+     * @param errorText
+     * @return What the lookup found for the accepted input, or an empty
+     *         instance if that input was empty
+     */
+    private <T> Optional<T> promptForLookup(
+        String prompt, 
+        boolean emptyAllowed, 
+        Function<String, Optional<T>> lookup, 
+        String errorText) {
+        
+        AtomicReference<T> found = new AtomicReference<>();
+        VIEW.getString(
+            prompt,
+            str -> {
+                if (str.isEmpty() && emptyAllowed) {
+                    found.set(null);
+                    return true;
+                }
+                Optional<T> value = lookup.apply(str);
+                found.set(value.orElse(null));
+                return value.isPresent();
+            },
+            errorText
+        );
+        return Optional.ofNullable(found.get());
+    }
+    
+    private Optional<Map.Entry<String, BigDecimal>> taxRateForStateAbbr(String abbr) {
+        return SERVICE.percentTaxRateForStateAbbr(abbr).map(rate -> Map.entry(abbr, rate));
+    }
+    
+    private static boolean isAllowedArea(String str) {
+        try {
+            return new BigDecimal(str).compareTo(new BigDecimal("100")) >= 0;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+    
+    private void removeOrder() {
+        Optional<FlooringMasteryOrder> found = promptForOrder();
+        if (found.isPresent()) {
+            displayOrder(found.get());
+            if (confirm("Remove this order? (Y/n)")) {
+                try {
+                    SERVICE.removeOrderByNumber(found.get().getOrderNum());
+                    VIEW.displayInformationalLine("Order removed");
+                } catch (FlooringMasteryFailedSaveException ex) {
+                    VIEW.displayErrorLine(ex.getMessage());
+                }
+            } else {
+                VIEW.displayLine("Order not removed");
+            }
+        }
+        pauseBeforeContinuation();
+    }
+    
+    private boolean confirm(String prompt) {
         String yesNo = VIEW.getString(
-            "Submit order? (Y/n)",
+            prompt,
             str -> str.equals("Y") || str.equals("n"),
             "Please enter \"Y\" or \"n\""
         );
-        if (yesNo.equals("Y")) {
-            SERVICE.pushOrder(order);
-            VIEW.displayInformationalLine("Order submitted");
+        return yesNo.equals("Y");
+    }
+    
+    private void exportOrders() {
+        waitForOrders();
+        try {
+            SERVICE.exportOrders();
+            VIEW.displayInformationalLine("Orders exported");
+        } catch (FlooringMasteryFailedExportException ex) {
+            VIEW.displayErrorLine(ex.getMessage());
+        }
+        pauseBeforeContinuation();
+    }
+    
+    private void importOrders() {
+        Path path = Paths.get(VIEW.getString(
+            "Enter the path of a CSV or JSON lines file of orders to import",
+            str -> Files.isRegularFile(Paths.get(str)),
+            "There is no such file"
+        ));
+        waitForOrders();
+        try {
+            FlooringMasteryImportReport report = SERVICE.importOrders(path);
+            VIEW.displayInformationalLine(
+                report.getImported() + " orders imported, " 
+                + report.getRejectedCount() + " rows rejected ("
+                + Math.round(report.getRowsPerSecond()) + " rows/s)"
+            );
+            report.getRejects().stream()
+                .limit(MAX_DISPLAYED_REJECTS)
+                .forEach(reject -> VIEW.displayErrorLine(reject.toString()));
+            if (report.getRejectedCount() > MAX_DISPLAYED_REJECTS) {
+                VIEW.displayErrorLine(
+                    "... and " + (report.getRejectedCount() - MAX_DISPLAYED_REJECTS) + " more"
+                );
+            }
+        } catch (FlooringMasteryFailedLoadException | FlooringMasteryFailedSaveException ex) {
+            VIEW.displayErrorLine(ex.getMessage());
+        }
+        pauseBeforeContinuation();
+    }
+    
+    private void findOrdersByCustomer() {
+        String name = VIEW.getString(
+            "Enter the customer's name, or the start of it followed by \"" + PREFIX_MARKER + "\"",
+            str -> !str.isEmpty() && !str.equals(PREFIX_MARKER),
+            "The name must be nonempty"
+        );
+        boolean prefix = name.endsWith(PREFIX_MARKER);
+        if (prefix) {
+            name = name.substring(0, name.length() - PREFIX_MARKER.length());
+        }
+        waitForOrders();
+        // one more than shown tells whether there are others
+        List<FlooringMasteryOrder> orders = 
+            SERVICE.findOrdersByCustomer(name, prefix, MAX_DISPLAYED_MATCHES + 1);
+        if (orders.isEmpty()) {
+            VIEW.displayErrorLine("There are no orders for this customer");
         } else {
-            VIEW.displayLine("Order not submitted");
+            orders.stream()
+                .limit(MAX_DISPLAYED_MATCHES)
+                .forEach(order -> displayOrder(order));
+            if (orders.size() > MAX_DISPLAYED_MATCHES) {
+                VIEW.displayErrorLine(
+                    "Only the first " + MAX_DISPLAYED_MATCHES + " orders are shown; enter more of the name"
+                );
+            }
         }
-        
         pauseBeforeContinuation();
     }
     
+    private void saveOrders() {
+        waitForOrders();
+        try {
+            SERVICE.saveOrders();
+        } catch (FlooringMasteryFailedSaveException ex) {
+            VIEW.displayErrorLine(ex.getMessage());
+        }
+    }
+    
+    /**
+     * Waits for the orders to finish loading, if they have not, telling the
+     * user why; if they failed to load, the user is told once and the orders
+     * which did load are used
+     */
+    private void waitForOrders() {
+        if (!SERVICE.areOrdersReady()) {
+            VIEW.displayLine("Waiting for the orders to finish loading...");
+        }
+        try {
+            SERVICE.awaitOrders();
+        } catch (FlooringMasteryFailedLoadException ex) {
+            if (!ordersErrorShown) {
+                VIEW.displayErrorLine(ex.getMessage());
+                ordersErrorShown = true;
+            }
+        }
+    }
+    
     private void pauseBeforeContinuation() {
         VIEW.getString("Press ENTER to Continue", val -> true, "");
     }
@@ -198,7 +493,9 @@ public class FlooringMasteryController {
             "3. Edit an Order",
             "4. Remove an Order",
             "5. Export All Data",
-            "6. Quit"
+            "6. Import Orders",
+            "7. Find Orders by Customer",
+            "8. Quit"
         );
     }    
 }
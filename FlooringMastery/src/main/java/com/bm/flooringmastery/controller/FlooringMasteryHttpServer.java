@@ -0,0 +1,498 @@
+package com.bm.flooringmastery.controller;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import com.bm.flooringmastery.service.FlooringMasteryJson;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acts as the controller for an HTTP API over the service, so that many
+ * terminals can share one store of orders
+ *
+ * Every request and response body is a JSON object, or an array of them;
+ * failures are answered with an object holding only "error". The resources
+ * are:
+ *
+ *   GET    /orders?date=yyyy-mm-dd   the orders of a date
+ *   POST   /orders                   adds an order from its orderDate,
+ *                                    customerName, state, productType and area
+ *   GET    /orders/{date}/{number}   a single order
+ *   PUT    /orders/{date}/{number}   changes any of the customerName, state,
+ *                                    productType and area of an order
+ *   DELETE /orders/{date}/{number}   removes an order
+ *   GET    /products                 the product catalog
+ *   GET    /taxes                    the tax rate of each state
+ *
+ * Requests run on a virtual thread each where the JDK has them, and
+ * otherwise on a bounded pool whose queue, once full, is drained by the
+ * thread accepting connections, which slows the clients down rather than
+ * failing them. The service must therefore be backed by Daos which are safe
+ * to use from many threads at once.
+ *
+ * The JDK's server writes the headers and body of a response separately, so
+ * unless the system property sun.net.httpserver.nodelay is "true" when its
+ * first server is created, each small response waits out the client's
+ * delayed acknowledgement, some 40 ms. Being JVM-wide, it is left to the
+ * application to set.
+ */
+public class FlooringMasteryHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_POOL_THREADS = 64;
+
+    private static final int BACKLOG = 1024;
+    private static final int QUEUED_REQUESTS_PER_THREAD = 16;
+    private static final int MAX_BODY_BYTES = 1 << 16;
+    private static final BigDecimal MIN_AREA = new BigDecimal("100");
+
+    /**
+     * An order's edits and removal are made under the lock its number maps
+     * to, so that one cannot undo the other
+     */
+    private static final int EDIT_LOCK_STRIPES = 64;
+
+    private final FlooringMasteryService SERVICE;
+    private final HttpServer SERVER;
+    private final ExecutorService EXECUTOR;
+    private final boolean VIRTUAL_THREADS;
+    private final Object[] EDIT_LOCKS;
+
+    public FlooringMasteryHttpServer(FlooringMasteryService SERVICE, InetSocketAddress address)
+        throws IOException {
+
+        this(SERVICE, address, DEFAULT_POOL_THREADS);
+    }
+
+    /**
+     * @param SERVICE A service whose Daos are already loaded
+     * @param address The address to listen on
+     * @param poolThreads The size of the pool requests run on if the JDK has
+     *                    no virtual threads
+     * @throws IOException if the address cannot be bound
+     */
+    public FlooringMasteryHttpServer(
+        FlooringMasteryService SERVICE,
+        InetSocketAddress address,
+        int poolThreads) throws IOException {
+
+        this.SERVICE = SERVICE;
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        this.VIRTUAL_THREADS = virtualThreads != null;
+        this.EXECUTOR = VIRTUAL_THREADS ? virtualThreads : newBoundedPool(poolThreads);
+        this.EDIT_LOCKS = new Object[EDIT_LOCK_STRIPES];
+        for (int i = 0; i < EDIT_LOCK_STRIPES; i++) {
+            EDIT_LOCKS[i] = new Object();
+        }
+
+        this.SERVER = HttpServer.create(address, BACKLOG);
+        SERVER.setExecutor(EXECUTOR);
+        SERVER.createContext("/orders", exchange -> respond(exchange, this::orders));
+        SERVER.createContext("/products", exchange -> respond(exchange, this::products));
+        SERVER.createContext("/taxes", exchange -> respond(exchange, this::taxes));
+    }
+
+    /**
+     * @return An executor starting a virtual thread per task, or null if this
+     *         JDK has none
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // looked up reflectively, as the build targets JDKs without it
+            return (ExecutorService) java.util.concurrent.Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newBoundedPool(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * QUEUED_REQUESTS_PER_THREAD),
+            runnable -> {
+                Thread thread = new Thread(runnable, "http-worker-" + created.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    public void start() {
+        SERVER.start();
+    }
+
+    /**
+     * Stops accepting requests, and waits for those underway to finish
+     *
+     * @param delaySeconds The longest time to wait for them
+     */
+    public void stop(int delaySeconds) {
+        SERVER.stop(delaySeconds);
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The address listened on, whose port is the one chosen if
+     *         asked to listen on port 0
+     */
+    public InetSocketAddress getAddress() {
+        return SERVER.getAddress();
+    }
+
+    /**
+     * @return Whether requests run on virtual threads rather than a pool
+     */
+    public boolean isUsingVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    private interface Route {
+        Response handle(HttpExchange exchange) throws HttpError, FlooringMasteryFailedSaveException;
+    }
+
+    private static final class Response {
+        private final int STATUS;
+        private final String BODY;
+
+        private Response(int STATUS, String BODY) {
+            this.STATUS = STATUS;
+            this.BODY = BODY;
+        }
+    }
+
+    /**
+     * A request which cannot be carried out, and the status saying why
+     */
+    private static final class HttpError extends Exception {
+        private final int STATUS;
+
+        private HttpError(int STATUS, String message) {
+            super(message);
+            this.STATUS = STATUS;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.handle(exchange);
+        } catch (HttpError ex) {
+            response = new Response(ex.STATUS, errorJson(ex.getMessage()));
+        } catch (FlooringMasteryFailedSaveException | RuntimeException ex) {
+            response = new Response(500, errorJson(String.valueOf(ex.getMessage())));
+        }
+
+        byte[] body = response.BODY.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.STATUS, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\":" + FlooringMasteryJson.quote(message) + "}";
+    }
+
+    private Response orders(HttpExchange exchange) throws HttpError, FlooringMasteryFailedSaveException {
+        String path = exchange.getRequestURI().getPath().substring("/orders".length());
+        if (path.isEmpty() || path.equals("/")) {
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    return ordersByDate(parseDate(queryParam(exchange, "date"), "date"));
+                case "POST":
+                    return addOrder(readBody(exchange));
+                default:
+                    throw methodNotAllowed(exchange);
+            }
+        }
+
+        String[] segments = path.substring(1).split("/", -1);
+        if (segments.length != 2) {
+            throw new HttpError(404, "No such resource");
+        }
+        LocalDate date = parseDate(segments[0], "date");
+        int num;
+        try {
+            num = Integer.parseInt(segments[1]);
+        } catch (NumberFormatException ex) {
+            throw new HttpError(404, "No such resource");
+        }
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                return new Response(200, orderJson(new StringBuilder(), findOrder(date, num)).toString());
+            case "PUT":
+                return editOrder(date, num, readBody(exchange));
+            case "DELETE":
+                return removeOrder(date, num);
+            default:
+                throw methodNotAllowed(exchange);
+        }
+    }
+
+    private Response ordersByDate(LocalDate date) {
+        StringBuilder json = new StringBuilder().append('[');
+        for (FlooringMasteryOrder order : SERVICE.getOrdersByDate(date)) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            orderJson(json, order);
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private Response addOrder(Map<String, String> fields) throws HttpError, FlooringMasteryFailedSaveException {
+        LocalDate orderDate = parseDate(requiredField(fields, "orderDate"), "orderDate");
+        if (!LocalDate.now().isBefore(orderDate)) {
+            throw new HttpError(422, "The order date " + orderDate + " is not in the future");
+        }
+        String customerName = checkCustomerName(requiredField(fields, "customerName"));
+        String abbr = requiredField(fields, "state").trim();
+        BigDecimal percentTaxRate = checkState(abbr);
+        FlooringMasteryProduct product = checkProduct(requiredField(fields, "productType"));
+        BigDecimal area = checkArea(requiredField(fields, "area"));
+
+        FlooringMasteryOrder order = SERVICE.pushNewOrder(new FlooringMasteryOrder(
+            orderDate,
+            0,
+            customerName,
+            abbr,
+            percentTaxRate,
+            product,
+            area
+        ));
+        return new Response(201, orderJson(new StringBuilder(), order).toString());
+    }
+
+    private Response editOrder(LocalDate date, int num, Map<String, String> fields)
+        throws HttpError, FlooringMasteryFailedSaveException {
+
+        synchronized (editLock(num)) {
+            FlooringMasteryOrder existing = findOrder(date, num);
+
+            String customerName = fields.get("customerName") == null
+                ? existing.getCustomerName()
+                : checkCustomerName(fields.get("customerName"));
+            String abbr = existing.getState();
+            BigDecimal percentTaxRate = existing.getPercentTaxRate();
+            if (fields.get("state") != null) {
+                abbr = fields.get("state").trim();
+                percentTaxRate = checkState(abbr);
+            }
+            FlooringMasteryProduct product = fields.get("productType") == null
+                ? existing.getOrderedProduct()
+                : checkProduct(fields.get("productType"));
+            BigDecimal area = fields.get("area") == null
+                ? existing.getArea()
+                : checkArea(fields.get("area"));
+
+            // a new Order replaces the old, since others may be reading it
+            FlooringMasteryOrder edited = new FlooringMasteryOrder(
+                date,
+                num,
+                customerName,
+                abbr,
+                percentTaxRate,
+                product,
+                area
+            );
+            SERVICE.pushOrder(edited);
+            return new Response(200, orderJson(new StringBuilder(), edited).toString());
+        }
+    }
+
+    private Response removeOrder(LocalDate date, int num) throws HttpError, FlooringMasteryFailedSaveException {
+        synchronized (editLock(num)) {
+            Optional<FlooringMasteryOrder> removed = SERVICE.removeOrder(date, num);
+            if (removed.isEmpty()) {
+                throw new HttpError(404, "No order " + num + " on " + date);
+            }
+            return new Response(200, orderJson(new StringBuilder(), removed.get()).toString());
+        }
+    }
+
+    private Response products(HttpExchange exchange) throws HttpError {
+        expectGet(exchange, "/products");
+        StringBuilder json = new StringBuilder().append('[');
+        for (FlooringMasteryProduct product : SERVICE.productsSet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"productType\":").append(FlooringMasteryJson.quote(product.getType()))
+                .append(",\"costPerSqFt\":").append(product.getCostPerSqFt().toPlainString())
+                .append(",\"laborCostPerSqFt\":").append(product.getLaborCostPerSqFt().toPlainString())
+                .append('}');
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private Response taxes(HttpExchange exchange) throws HttpError {
+        expectGet(exchange, "/taxes");
+        StringBuilder json = new StringBuilder().append('[');
+        for (Entry<String, BigDecimal> entry : SERVICE.percentTaxRatesByStateAbbr().entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"state\":").append(FlooringMasteryJson.quote(entry.getKey()))
+                .append(",\"percentTaxRate\":").append(entry.getValue().toPlainString())
+                .append('}');
+        }
+        return new Response(200, json.append(']').toString());
+    }
+
+    private Object editLock(int num) {
+        return EDIT_LOCKS[Math.floorMod(num, EDIT_LOCK_STRIPES)];
+    }
+
+    private FlooringMasteryOrder findOrder(LocalDate date, int num) throws HttpError {
+        return SERVICE.getOrder(date, num)
+            .orElseThrow(() -> new HttpError(404, "No order " + num + " on " + date));
+    }
+
+    private static void expectGet(HttpExchange exchange, String path) throws HttpError {
+        if (!exchange.getRequestURI().getPath().equals(path)) {
+            throw new HttpError(404, "No such resource");
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            throw methodNotAllowed(exchange);
+        }
+    }
+
+    private static HttpError methodNotAllowed(HttpExchange exchange) {
+        return new HttpError(405, exchange.getRequestMethod() + " is not allowed here");
+    }
+
+    private static String queryParam(HttpExchange exchange, String name) throws HttpError {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new HttpError(400, "Missing the query parameter " + name);
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws HttpError {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        } catch (IOException ex) {
+            throw new HttpError(400, "Unable to read the request body");
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "The request body is too large");
+        }
+        try {
+            return FlooringMasteryJson.parseObject(new String(body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new HttpError(400, "Malformed JSON: " + ex.getMessage());
+        }
+    }
+
+    private static String requiredField(Map<String, String> fields, String name) throws HttpError {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new HttpError(400, "Missing " + name);
+        }
+        return value;
+    }
+
+    private static LocalDate parseDate(String value, String name) throws HttpError {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new HttpError(400, "Invalid " + name + " \"" + value + "\"");
+        }
+    }
+
+    private static String checkCustomerName(String value) throws HttpError {
+        String customerName = value.trim();
+        if (customerName.isEmpty()) {
+            throw new HttpError(422, "The customer name is empty");
+        }
+        if (FlooringMasteryService.hasLineBreak(customerName)) {
+            throw new HttpError(422, "The customer name holds a line break");
+        }
+        return customerName;
+    }
+
+    private BigDecimal checkState(String abbr) throws HttpError {
+        return SERVICE.percentTaxRateForStateAbbr(abbr)
+            .orElseThrow(() -> new HttpError(422, "No tax data for the state \"" + abbr + "\""));
+    }
+
+    private FlooringMasteryProduct checkProduct(String value) throws HttpError {
+        String prodType = value.trim();
+        return SERVICE.getProductByType(prodType)
+            .orElseThrow(() -> new HttpError(422, "The product type \"" + prodType + "\" is not available"));
+    }
+
+    private static BigDecimal checkArea(String value) throws HttpError {
+        BigDecimal area;
+        try {
+            area = new BigDecimal(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new HttpError(400, "Invalid area \"" + value + "\"");
+        }
+        if (area.compareTo(MIN_AREA) < 0) {
+            throw new HttpError(422, "The area " + area + " is less than " + MIN_AREA + " sq. ft.");
+        }
+        return area;
+    }
+
+    private static StringBuilder orderJson(StringBuilder json, FlooringMasteryOrder order) {
+        return json
+            .append("{\"orderDate\":\"").append(order.getOrderDate())
+            .append("\",\"orderNumber\":").append(order.getOrderNum())
+            .append(",\"customerName\":").append(FlooringMasteryJson.quote(order.getCustomerName()))
+            .append(",\"state\":").append(FlooringMasteryJson.quote(order.getState()))
+            .append(",\"percentTaxRate\":").append(order.getPercentTaxRate().toPlainString())
+            .append(",\"productType\":").append(FlooringMasteryJson.quote(order.getProductType()))
+            .append(",\"area\":").append(order.getArea().toPlainString())
+            .append(",\"costPerSqFt\":").append(order.getCostPerSqFt().toPlainString())
+            .append(",\"laborCostPerSqFt\":").append(order.getLaborCostPerSqFt().toPlainString())
+            .append(",\"materialCost\":").append(money(order.getMaterialCost()))
+            .append(",\"laborCost\":").append(money(order.getLaborCost()))
+            .append(",\"tax\":").append(money(order.getTax()))
+            .append(",\"total\":").append(money(order.getTotal()))
+            .append('}');
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bm.flooringmastery.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files so that readers only ever observe the old or the new
+ * contents, never a partially written file
+ */
+final class FlooringMasteryAtomicFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private FlooringMasteryAtomicFiles() {
+    }
+
+    /**
+     * Writes the contents to a temporary sibling of the target, forces them
+     * to disk, and then renames the temporary file over the target
+     *
+     * @param target
+     * @param contents
+     * @return The number of bytes written
+     * @throws IOException
+     */
+    static long write(Path target, ByteBuffer contents) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+
+            while (contents.hasRemaining()) {
+                written += channel.write(contents);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(
+                temp,
+                target,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,339 @@
+package com.bm.flooringmastery.dao;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the rows of a comma separated file by loading or memory-mapping it
+ * whole and scanning the bytes in place
+ *
+ * Only the offsets of each row's commas are recorded; numeric fields are
+ * parsed straight from the mapped bytes, and a String is only created for a
+ * field that is asked for as one. Blank lines are skipped, and a trailing
+ * carriage return or a leading byte order mark is ignored.
+ */
+final class FlooringMasteryCsvReader {
+    /**
+     * Decimals with more digits than this are handed to BigDecimal's own
+     * parser, since their unscaled value may not fit in a long
+     */
+    private static final int MAX_FAST_DECIMAL_DIGITS = 18;
+
+    /**
+     * Files smaller than this are read onto the heap rather than mapped;
+     * every day file is far smaller
+     */
+    private static final long MIN_MAPPED_BYTES = 4 << 20;
+
+    private final ByteBuffer BYTES;
+
+    private int position;
+    private int lineNumber;
+    private int rowStart;
+    private int fieldCount;
+    private int[] fieldEnds = new int[16];
+    private byte[] scratch = new byte[64];
+
+    private FlooringMasteryCsvReader(ByteBuffer BYTES) {
+        this.BYTES = BYTES;
+        if (BYTES.limit() >= 3
+            && BYTES.get(0) == (byte) 0xEF
+            && BYTES.get(1) == (byte) 0xBB
+            && BYTES.get(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    /**
+     * Reads the whole file onto the heap if it is small, or maps it into
+     * memory otherwise
+     *
+     * The channel is closed straight away. A mapping is only released once
+     * the reader is garbage collected, and until then Windows will neither
+     * delete nor replace the file, so a file large enough to be mapped must
+     * not be one a save replaces while the application runs.
+     *
+     * @param path
+     * @return A reader positioned before the first row
+     * @throws IOException if the file cannot be opened or is 2 GiB or larger
+     */
+    static FlooringMasteryCsvReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be read");
+            }
+            if (size >= MIN_MAPPED_BYTES) {
+                return new FlooringMasteryCsvReader(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                );
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                // a file that shrank while read is taken as it was
+            }
+            bytes.flip();
+            return new FlooringMasteryCsvReader(bytes);
+        }
+    }
+
+    /**
+     * Reads the whole file onto the heap
+     *
+     * Unlike open, nothing stays mapped, so the file may be replaced or
+     * truncated while it is read, and the worst that can happen is a
+     * malformed row; meant for small files that are rewritten in place.
+     *
+     * @param path
+     * @return A reader positioned before the first row
+     * @throws IOException if the file cannot be read or is 2 GiB or larger
+     */
+    static FlooringMasteryCsvReader read(Path path) throws IOException {
+        return new FlooringMasteryCsvReader(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * @return The size of the file in bytes
+     */
+    long size() {
+        return BYTES.limit();
+    }
+
+    /**
+     * Advances to the next non-blank row
+     *
+     * @return true if there was such a row, false at the end of the file
+     */
+    boolean nextRow() {
+        int limit = BYTES.limit();
+        while (position < limit) {
+            int start = position;
+            int end = start;
+            fieldCount = 0;
+            lineNumber++;
+            while (end < limit) {
+                byte b = BYTES.get(end);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ',') {
+                    addFieldEnd(end);
+                }
+                end++;
+            }
+            position = end + 1;
+            if (end > start && BYTES.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > start) {
+                rowStart = start;
+                addFieldEnd(end);
+                return true;
+            }
+        }
+        fieldCount = 0;
+        return false;
+    }
+
+    /**
+     * @return The line number of the current row, counting from 1
+     */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return The number of fields in the current row
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param field
+     * @return The field of the current row decoded as UTF-8
+     */
+    String getString(int field) {
+        return getString(field, field);
+    }
+
+    /**
+     * @param first
+     * @param last
+     * @return The fields first through last of the current row, together
+     *         with the commas between them, decoded as UTF-8
+     */
+    String getString(int first, int last) {
+        int start = fieldStart(first);
+        int length = fieldEnd(last) - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = BYTES.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param field
+     * @return The field of the current row parsed as a decimal integer
+     * @throws NumberFormatException if the field is not such an integer
+     */
+    int getInt(int field) {
+        int pos = fieldStart(field);
+        int end = fieldEnd(field);
+        boolean negative = pos < end && BYTES.get(pos) == '-';
+        if (negative || pos < end && BYTES.get(pos) == '+') {
+            pos++;
+        }
+        if (pos == end || end - pos > 10) {
+            throw notANumber(field);
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = BYTES.get(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw notANumber(field);
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw notANumber(field);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as a plain decimal such as 4.45 or -12, keeping the
+     * scale it is written with, exactly as new BigDecimal(String) would
+     *
+     * @param field
+     * @return The aforementioned decimal
+     * @throws NumberFormatException if the field is not a decimal
+     */
+    BigDecimal getDecimal(int field) {
+        int pos = fieldStart(field);
+        int end = fieldEnd(field);
+        boolean negative = pos < end && BYTES.get(pos) == '-';
+        if (negative || pos < end && BYTES.get(pos) == '+') {
+            pos++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; pos < end; pos++) {
+            byte b = BYTES.get(pos);
+            if (b >= '0' && b <= '9') {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                // exponents and the like
+                return slowDecimal(field);
+            }
+        }
+        if (digits == 0) {
+            throw notANumber(field);
+        }
+        if (digits > MAX_FAST_DECIMAL_DIGITS) {
+            return slowDecimal(field);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * @param field
+     * @return A hash of the raw bytes of the field of the current row, equal
+     *         to Arrays.hashCode of those bytes
+     */
+    int hashField(int field) {
+        int pos = fieldStart(field);
+        int end = fieldEnd(field);
+        int hash = 1;
+        for (; pos < end; pos++) {
+            hash = 31 * hash + BYTES.get(pos);
+        }
+        return hash;
+    }
+
+    /**
+     * @param field
+     * @param bytes
+     * @return true if the field of the current row holds exactly these bytes
+     */
+    boolean fieldEquals(int field, byte[] bytes) {
+        int pos = fieldStart(field);
+        if (fieldEnd(field) - pos != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (BYTES.get(pos + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param field
+     * @return A copy of the raw bytes of the field of the current row
+     */
+    byte[] getBytes(int field) {
+        int pos = fieldStart(field);
+        byte[] bytes = new byte[fieldEnd(field) - pos];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = BYTES.get(pos + i);
+        }
+        return bytes;
+    }
+
+    private BigDecimal slowDecimal(int field) {
+        return new BigDecimal(getString(field));
+    }
+
+    private NumberFormatException notANumber(int field) {
+        return new NumberFormatException("Not a number: \"" + getString(field) + "\"");
+    }
+
+    private int fieldStart(int field) {
+        checkField(field);
+        return field == 0 ? rowStart : fieldEnds[field - 1] + 1;
+    }
+
+    private int fieldEnd(int field) {
+        checkField(field);
+        return fieldEnds[field];
+    }
+
+    /**
+     * A missing field is malformed input rather than a bug, so it is reported
+     * the way a malformed number is, as an IllegalArgumentException
+     */
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IllegalArgumentException(
+                "Field " + field + " of a row with " + fieldCount + " fields"
+            );
+        }
+    }
+
+    private void addFieldEnd(int end) {
+        if (fieldCount == fieldEnds.length) {
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldEnds[fieldCount++] = end;
+    }
+}
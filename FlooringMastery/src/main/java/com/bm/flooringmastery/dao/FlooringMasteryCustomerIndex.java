@@ -0,0 +1,163 @@
+package com.bm.flooringmastery.dao;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The Orders of every customer, by customer name regardless of case, so that
+ * a customer's Orders can be found without reading every date
+ *
+ * Names are folded to lower case and kept sorted, so that every name with a
+ * given prefix lies in one contiguous range. Each name holds its Orders as a
+ * sorted array of packed references, the epoch day in the high half of a
+ * long and the order number in the low half, so that they sort by date and
+ * then number. A reference costs 8 bytes, and adding one that is already
+ * there changes nothing, so a date may be indexed again after being read a
+ * second time.
+ *
+ * Not thread-safe.
+ */
+final class FlooringMasteryCustomerIndex {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final NavigableMap<String, Refs> REFS_BY_NAME = new TreeMap<>();
+
+    /**
+     * @param date
+     * @param num
+     * @return The reference to the Order with this date and number
+     */
+    static long pack(LocalDate date, int num) {
+        return (date.toEpochDay() << 32) | (num & 0xFFFFFFFFL);
+    }
+
+    static LocalDate dateOf(long ref) {
+        return LocalDate.ofEpochDay(ref >> 32);
+    }
+
+    static int numOf(long ref) {
+        return (int) ref;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param customerName
+     * @param date
+     * @param num
+     */
+    void add(String customerName, LocalDate date, int num) {
+        REFS_BY_NAME.computeIfAbsent(fold(customerName), key -> new Refs()).add(pack(date, num));
+    }
+
+    /**
+     * @param customerName
+     * @param date
+     * @param num
+     */
+    void remove(String customerName, LocalDate date, int num) {
+        String key = fold(customerName);
+        Refs refs = REFS_BY_NAME.get(key);
+        if (refs != null && refs.remove(pack(date, num)) && refs.size == 0) {
+            REFS_BY_NAME.remove(key);
+        }
+    }
+
+    /**
+     * Finds the Orders of a customer, or of every customer whose name starts
+     * with a prefix, regardless of case
+     *
+     * @param name
+     * @param prefix Whether name is only the start of the names to match
+     * @param limit The most references to return, at least 0
+     * @return The references to the matching Orders, in order of date and
+     *         then number, up to the limit
+     */
+    long[] find(String name, boolean prefix, int limit) {
+        String key = fold(name);
+        if (!prefix) {
+            Refs refs = REFS_BY_NAME.get(key);
+            return refs == null ? new long[0] : Arrays.copyOf(refs.refs, Math.min(refs.size, limit));
+        }
+
+        // Each name's references are merged into the lowest found so far,
+        // and a name whose lowest reference is above all of those is passed
+        // over outright, so that a short prefix matching many names costs
+        // little more than walking them.
+        long[] lowest = new long[0];
+        int size = 0;
+        for (Entry<String, Refs> entry : REFS_BY_NAME.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            Refs refs = entry.getValue();
+            if (size == limit && (limit == 0 || refs.refs[0] >= lowest[size - 1])) {
+                continue;
+            }
+            long[] merged = new long[(int) Math.min(limit, (long) size + refs.size)];
+            int mergedSize = 0;
+            int i = 0;
+            int j = 0;
+            while (mergedSize < merged.length) {
+                if (j == refs.size || (i < size && lowest[i] < refs.refs[j])) {
+                    merged[mergedSize++] = lowest[i++];
+                } else {
+                    merged[mergedSize++] = refs.refs[j++];
+                }
+            }
+            lowest = merged;
+            size = mergedSize;
+        }
+        return lowest;
+    }
+
+    /**
+     * The references of one name, sorted and without duplicates
+     */
+    private static final class Refs {
+        private long[] refs = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(long ref) {
+            // Orders mostly arrive in order of date and number
+            if (size > 0 && refs[size - 1] < ref) {
+                append(ref);
+                return;
+            }
+            int idx = Arrays.binarySearch(refs, 0, size, ref);
+            if (idx >= 0) {
+                return;
+            }
+            int insertAt = -idx - 1;
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+            }
+            System.arraycopy(refs, insertAt, refs, insertAt + 1, size - insertAt);
+            refs[insertAt] = ref;
+            size++;
+        }
+
+        private void append(long ref) {
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+            }
+            refs[size++] = ref;
+        }
+
+        private boolean remove(long ref) {
+            int idx = Arrays.binarySearch(refs, 0, size, ref);
+            if (idx < 0) {
+                return false;
+            }
+            System.arraycopy(refs, idx + 1, refs, idx, size - idx - 1);
+            size--;
+            return true;
+        }
+    }
+}
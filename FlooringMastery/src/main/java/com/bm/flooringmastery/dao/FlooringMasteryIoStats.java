@@ -0,0 +1,81 @@
+package com.bm.flooringmastery.dao;
+
+/**
+ * Summarizes the amount of work done by a single load, save, or export pass
+ * over external files, along with how long that pass took
+ */
+public class FlooringMasteryIoStats {
+    public static final FlooringMasteryIoStats NONE = new FlooringMasteryIoStats(0, 0, 0, 0);
+
+    private final long FILES;
+    private final long ROWS;
+    private final long BYTES;
+    private final long NANOS;
+
+    public FlooringMasteryIoStats(long files, long rows, long bytes, long nanos) {
+        this.FILES = files;
+        this.ROWS = rows;
+        this.BYTES = bytes;
+        this.NANOS = nanos;
+    }
+
+    /**
+     * @return The number of files read or written
+     */
+    public long getFiles() {
+        return FILES;
+    }
+
+    /**
+     * @return The number of order rows read or written
+     */
+    public long getRows() {
+        return ROWS;
+    }
+
+    /**
+     * @return The number of bytes read or written
+     */
+    public long getBytes() {
+        return BYTES;
+    }
+
+    /**
+     * @return The wall clock time taken, in nanoseconds
+     */
+    public long getNanos() {
+        return NANOS;
+    }
+
+    public double getFilesPerSecond() {
+        return perSecond(FILES);
+    }
+
+    public double getRowsPerSecond() {
+        return perSecond(ROWS);
+    }
+
+    public double getBytesPerSecond() {
+        return perSecond(BYTES);
+    }
+
+    private double perSecond(long amount) {
+        if (NANOS <= 0) {
+            return 0;
+        }
+        return amount * 1e9 / NANOS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d files, %d rows, %d bytes in %.3f ms (%.1f files/s, %.1f rows/s)",
+            FILES,
+            ROWS,
+            BYTES,
+            NANOS / 1e6,
+            getFilesPerSecond(),
+            getRowsPerSecond()
+        );
+    }
+}
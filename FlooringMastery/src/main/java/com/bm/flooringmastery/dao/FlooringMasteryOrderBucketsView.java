@@ -0,0 +1,66 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable, live view of the Orders held in a series of date buckets
+ *
+ * Nothing is copied: iterating walks the buckets in place, and the size is
+ * the sum of the bucket sizes.
+ */
+class FlooringMasteryOrderBucketsView extends AbstractCollection<FlooringMasteryOrder> {
+    private final Collection<? extends Map<Integer, FlooringMasteryOrder>> BUCKETS;
+
+    FlooringMasteryOrderBucketsView(Collection<? extends Map<Integer, FlooringMasteryOrder>> BUCKETS) {
+        this.BUCKETS = BUCKETS;
+    }
+
+    @Override
+    public Iterator<FlooringMasteryOrder> iterator() {
+        Iterator<? extends Map<Integer, FlooringMasteryOrder>> buckets = BUCKETS.iterator();
+        return new Iterator<FlooringMasteryOrder>() {
+            private Iterator<FlooringMasteryOrder> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && buckets.hasNext()) {
+                    current = buckets.next().values().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public FlooringMasteryOrder next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Map<Integer, FlooringMasteryOrder> bucket : BUCKETS) {
+            size += bucket.size();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Map<Integer, FlooringMasteryOrder> bucket : BUCKETS) {
+            if (!bucket.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
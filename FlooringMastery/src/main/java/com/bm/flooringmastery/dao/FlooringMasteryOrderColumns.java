@@ -0,0 +1,316 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The Orders of a single date, held as parallel arrays of primitives rather
+ * than as Order objects, and presented as a map from order number to Order
+ *
+ * Row i of the arrays holds the i-th lowest order number along with its
+ * customer name, the ids of its state and product in a shared dictionary,
+ * and its area as a fixed-point number (an unscaled long and a scale). An
+ * Order costs some 21 bytes here plus its customer name, where an Order
+ * object in a TreeMap costs several times that.
+ *
+ * Orders are built from the arrays each time the map hands one out, so they
+ * are copies: changing one changes nothing here until it is put back. The
+ * views are live, and fail fast if the map changes while iterating.
+ */
+final class FlooringMasteryOrderColumns extends AbstractMap<Integer, FlooringMasteryOrder> {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final BigInteger MIN_UNSCALED = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_UNSCALED = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final LocalDate DATE;
+    private final FlooringMasteryOrderDictionary DICTIONARY;
+
+    private int size;
+    private int modCount;
+
+    private int[] orderNums;
+    private String[] customerNames;
+    private short[] stateIds;
+    private short[] productIds;
+    private long[] areas;
+    private byte[] areaScales;
+
+    private Collection<FlooringMasteryOrder> values;
+    private Set<Entry<Integer, FlooringMasteryOrder>> entrySet;
+
+    FlooringMasteryOrderColumns(LocalDate DATE, FlooringMasteryOrderDictionary DICTIONARY) {
+        this.DATE = DATE;
+        this.DICTIONARY = DICTIONARY;
+        this.orderNums = new int[INITIAL_CAPACITY];
+        this.customerNames = new String[INITIAL_CAPACITY];
+        this.stateIds = new short[INITIAL_CAPACITY];
+        this.productIds = new short[INITIAL_CAPACITY];
+        this.areas = new long[INITIAL_CAPACITY];
+        this.areaScales = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Checks that an Order fits in the columns, registering its state and
+     * product in the dictionary
+     *
+     * @param order
+     * @param dictionary
+     * @throws IllegalArgumentException if the Order cannot be stored, in
+     *                                  which case put would fail alike
+     */
+    static void checkStorable(FlooringMasteryOrder order, FlooringMasteryOrderDictionary dictionary) {
+        unscaledArea(order.getArea());
+        dictionary.stateId(order.getState(), order.getPercentTaxRate());
+        dictionary.productId(order.getOrderedProduct());
+    }
+
+    private static long unscaledArea(BigDecimal area) {
+        BigInteger unscaled = area.unscaledValue();
+        if (area.scale() < Byte.MIN_VALUE
+            || area.scale() > Byte.MAX_VALUE
+            || unscaled.compareTo(MIN_UNSCALED) < 0
+            || unscaled.compareTo(MAX_UNSCALED) > 0) {
+
+            throw new IllegalArgumentException("The area " + area + " is too precise to store");
+        }
+        return unscaled.longValue();
+    }
+
+    /**
+     * @return The highest order number held; only meaningful if not empty
+     */
+    int lastOrderNum() {
+        return orderNums[size - 1];
+    }
+
+    /**
+     * @param idx Below size
+     * @return The idx-th lowest order number held, without building its
+     *         Order
+     */
+    int orderNumAt(int idx) {
+        return orderNums[idx];
+    }
+
+    /**
+     * @param idx Below size
+     * @return The customer name of the idx-th lowest order number held,
+     *         without building its Order
+     */
+    String customerNameAt(int idx) {
+        return customerNames[idx];
+    }
+
+    /**
+     * Shrinks the arrays to hold exactly the current Orders, such as once a
+     * whole day file has been read into them
+     */
+    void trimToSize() {
+        resize(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && indexOf((Integer) key) >= 0;
+    }
+
+    @Override
+    public FlooringMasteryOrder get(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int idx = indexOf((Integer) key);
+        return idx < 0 ? null : orderAt(idx);
+    }
+
+    /**
+     * Stores an Order under its number, replacing any Order of that number
+     *
+     * The Order is stored under the date of these columns whatever its own.
+     *
+     * @throws IllegalArgumentException if the Order cannot be stored, in
+     *                                  which case nothing is changed
+     */
+    @Override
+    public FlooringMasteryOrder put(Integer orderNum, FlooringMasteryOrder order) {
+        // everything that can fail is done before anything is changed
+        long area = unscaledArea(order.getArea());
+        int stateId = DICTIONARY.stateId(order.getState(), order.getPercentTaxRate());
+        int productId = DICTIONARY.productId(order.getOrderedProduct());
+
+        FlooringMasteryOrder previous = null;
+        int idx = size > 0 && orderNums[size - 1] < orderNum
+            // day files are written in order, so rows are nearly always appended
+            ? -size - 1
+            : indexOf(orderNum);
+        if (idx >= 0) {
+            previous = orderAt(idx);
+        } else {
+            idx = -idx - 1;
+            if (size == orderNums.length) {
+                resize(Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+            }
+            shift(idx, idx + 1, size - idx);
+            size++;
+        }
+        orderNums[idx] = orderNum;
+        customerNames[idx] = order.getCustomerName();
+        stateIds[idx] = (short) stateId;
+        productIds[idx] = (short) productId;
+        areas[idx] = area;
+        areaScales[idx] = (byte) order.getArea().scale();
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public FlooringMasteryOrder remove(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int idx = indexOf((Integer) key);
+        if (idx < 0) {
+            return null;
+        }
+        FlooringMasteryOrder removed = orderAt(idx);
+        shift(idx + 1, idx, size - idx - 1);
+        size--;
+        customerNames[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(customerNames, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Collection<FlooringMasteryOrder> values() {
+        if (values == null) {
+            values = new AbstractCollection<FlooringMasteryOrder>() {
+                @Override
+                public Iterator<FlooringMasteryOrder> iterator() {
+                    return new RowIterator<FlooringMasteryOrder>() {
+                        @Override
+                        FlooringMasteryOrder row(int idx) {
+                            return orderAt(idx);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<Integer, FlooringMasteryOrder>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<Integer, FlooringMasteryOrder>>() {
+                @Override
+                public Iterator<Entry<Integer, FlooringMasteryOrder>> iterator() {
+                    return new RowIterator<Entry<Integer, FlooringMasteryOrder>>() {
+                        @Override
+                        Entry<Integer, FlooringMasteryOrder> row(int idx) {
+                            return new SimpleImmutableEntry<>(orderNums[idx], orderAt(idx));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * @return The row of this order number if held, otherwise -(the row it
+     *         would be inserted at) - 1
+     */
+    private int indexOf(int orderNum) {
+        return Arrays.binarySearch(orderNums, 0, size, orderNum);
+    }
+
+    private FlooringMasteryOrder orderAt(int idx) {
+        int stateId = stateIds[idx] & 0xFFFF;
+        return new FlooringMasteryOrder(
+            DATE,
+            orderNums[idx],
+            customerNames[idx],
+            DICTIONARY.state(stateId),
+            DICTIONARY.percentTaxRate(stateId),
+            DICTIONARY.product(productIds[idx] & 0xFFFF),
+            BigDecimal.valueOf(areas[idx], areaScales[idx])
+        );
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(orderNums, from, orderNums, to, length);
+        System.arraycopy(customerNames, from, customerNames, to, length);
+        System.arraycopy(stateIds, from, stateIds, to, length);
+        System.arraycopy(productIds, from, productIds, to, length);
+        System.arraycopy(areas, from, areas, to, length);
+        System.arraycopy(areaScales, from, areaScales, to, length);
+    }
+
+    private void resize(int capacity) {
+        orderNums = Arrays.copyOf(orderNums, capacity);
+        customerNames = Arrays.copyOf(customerNames, capacity);
+        stateIds = Arrays.copyOf(stateIds, capacity);
+        productIds = Arrays.copyOf(productIds, capacity);
+        areas = Arrays.copyOf(areas, capacity);
+        areaScales = Arrays.copyOf(areaScales, capacity);
+    }
+
+    /**
+     * Walks the rows in order, building whatever each one is presented as
+     */
+    private abstract class RowIterator<T> implements Iterator<T> {
+        private final int expectedModCount = modCount;
+        private int next;
+
+        abstract T row(int idx);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return row(next++);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryHistogram;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Describes the layout of the Orders_MMDDYYYY.txt files and of the export
+ * file, and reads and writes them
+ *
+ * Rows are read through FlooringMasteryCsvReader, so that only the text
+ * columns ever become Strings.
+ */
+final class FlooringMasteryOrderCsv {
+    static final String HEADER =
+        "OrderNumber,CustomerName,State,TaxRate,ProductType,Area,"
+        + "CostPerSquareFoot,LaborCostPerSquareFoot,MaterialCost,"
+        + "LaborCost,Tax,Total";
+    static final String EXPORT_HEADER = HEADER + ",OrderDate";
+
+    /**
+     * The number of columns in a full row, and the number of leading columns
+     * actually needed to rebuild an Order
+     */
+    static final int COLUMNS = 12;
+    static final int REQUIRED_COLUMNS = 8;
+
+    private static final int EXPORT_BUFFER_CHARS = 1 << 18;
+
+    private static final FlooringMasteryHistogram READ_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.dayFile.read.nanos");
+    private static final FlooringMasteryCounter READ_ROWS = 
+        FlooringMasteryMetrics.counter("orders.dayFile.read.rows");
+    private static final FlooringMasteryCounter READ_BYTES = 
+        FlooringMasteryMetrics.counter("orders.dayFile.read.bytes");
+    private static final FlooringMasteryHistogram WRITE_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.dayFile.write.nanos");
+
+    private static final String PREFIX = "Orders_";
+    private static final String SUFFIX = ".txt";
+
+    private FlooringMasteryOrderCsv() {
+    }
+
+    /**
+     * Parses the date out of a filename of the form Orders_MMDDYYYY.txt
+     *
+     * If the filename is not of that form, an empty instance is returned
+     *
+     * @param filename
+     * @return The aforementioned instances
+     */
+    static Optional<LocalDate> dateFromFilename(String filename) {
+        if (filename.length() != PREFIX.length() + 8 + SUFFIX.length()
+            || !filename.startsWith(PREFIX)
+            || !filename.endsWith(SUFFIX)) {
+            return Optional.empty();
+        }
+        int start = PREFIX.length();
+        for (int i = start; i < start + 8; i++) {
+            char c = filename.charAt(i);
+            if (c < '0' || c > '9') {
+                return Optional.empty();
+            }
+        }
+        try {
+            return Optional.of(LocalDate.of(
+                digits(filename, start + 4, start + 8),
+                digits(filename, start, start + 2),
+                digits(filename, start + 2, start + 4)
+            ));
+        } catch (RuntimeException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param date
+     * @return The filename of the form Orders_MMDDYYYY.txt for this date
+     */
+    static String filenameForDate(LocalDate date) {
+        StringBuilder builder = new StringBuilder(PREFIX.length() + 8 + SUFFIX.length());
+        builder.append(PREFIX);
+        appendPadded(builder, date.getMonthValue(), 2);
+        appendPadded(builder, date.getDayOfMonth(), 2);
+        appendPadded(builder, date.getYear(), 4);
+        return builder.append(SUFFIX).toString();
+    }
+
+    /**
+     * Gathers every Orders_MMDDYYYY.txt file directly in a directory, keyed
+     * and sorted by the date encoded in its name
+     *
+     * Only a flat directory is listed so; the day files of a partitioned one
+     * are found through FlooringMasteryOrderLayout
+     *
+     * @param directory
+     * @return The aforementioned files
+     * @throws IOException
+     */
+    static NavigableMap<LocalDate, Path> listDayFiles(Path directory) throws IOException {
+        NavigableMap<LocalDate, Path> dayFiles = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                dateFromFilename(path.getFileName().toString())
+                    .ifPresent(date -> dayFiles.put(date, path));
+            });
+        }
+        return dayFiles;
+    }
+
+    /**
+     * Parses a whole day file into a bucket of its orders keyed by number
+     *
+     * @param date
+     * @param path
+     * @param bucket The map to put the orders in
+     * @param interner The interner to resolve each row's repeated values with
+     * @return The size of the file in bytes
+     * @throws FlooringMasteryFailedLoadException if the file cannot be read
+     *                                            or holds a malformed row
+     */
+    static long readDayFile(
+        LocalDate date,
+        Path path,
+        Map<Integer, FlooringMasteryOrder> bucket,
+        FlooringMasteryOrderInterner interner) throws FlooringMasteryFailedLoadException {
+
+        long startNanos = FlooringMasteryMetrics.start();
+        FlooringMasteryCsvReader reader;
+        try {
+            reader = FlooringMasteryCsvReader.open(path);
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedLoadException("Unable to load orders", ex);
+        }
+        try {
+            reader.nextRow(); // ignore header
+            long rows = 0;
+            while (reader.nextRow()) {
+                FlooringMasteryOrder order = parseRow(date, reader, interner);
+                bucket.put(order.getOrderNum(), order);
+                rows++;
+            }
+            READ_NANOS.recordSince(startNanos);
+            READ_ROWS.add(rows);
+            READ_BYTES.add(reader.size());
+            return reader.size();
+        } catch (IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedLoadException(
+                "Malformed order in " + path.getFileName() + " at line " + reader.getLineNumber(),
+                ex
+            );
+        }
+    }
+
+    /**
+     * Atomically replaces a day file with one holding the given orders
+     *
+     * @param target
+     * @param orders
+     * @param contents A scratch builder, which may be reused between calls
+     * @param crc A checksum to update with the bytes written, or null
+     * @return The number of bytes written
+     * @throws IOException
+     */
+    static long writeDayFile(
+        Path target,
+        Iterable<FlooringMasteryOrder> orders,
+        StringBuilder contents,
+        CRC32 crc) throws IOException {
+
+        long startNanos = FlooringMasteryMetrics.start();
+        contents.setLength(0);
+        contents.append(HEADER).append('\n');
+        for (FlooringMasteryOrder order : orders) {
+            appendRow(contents, order).append('\n');
+        }
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(contents));
+        if (crc != null) {
+            crc.update(encoded.duplicate());
+        }
+        long bytes = FlooringMasteryAtomicFiles.write(target, encoded);
+        WRITE_NANOS.recordSince(startNanos);
+        return bytes;
+    }
+
+    /**
+     * Writes the export file, gzip-compressed if its name ends in ".gz"
+     *
+     * Rows are appended straight into one large buffer, which is handed to
+     * the writer whenever it fills up, so neither the rows nor the file are
+     * ever held in memory as a whole.
+     *
+     * @param exportPath
+     * @param buckets The orders to export, bucket by bucket
+     * @return The number of rows written
+     * @throws IOException
+     */
+    static long writeExport(
+        Path exportPath,
+        Iterable<? extends Collection<FlooringMasteryOrder>> buckets) throws IOException {
+
+        long rows = 0;
+        try (Writer writer = openExportWriter(exportPath)) {
+            StringBuilder buffer = new StringBuilder(EXPORT_BUFFER_CHARS + 1024);
+            char[] chars = new char[buffer.capacity()];
+            buffer.append(EXPORT_HEADER).append('\n');
+            for (Collection<FlooringMasteryOrder> bucket : buckets) {
+                for (FlooringMasteryOrder order : bucket) {
+                    appendExportRow(buffer, order).append('\n');
+                    rows++;
+                    if (buffer.length() >= EXPORT_BUFFER_CHARS) {
+                        chars = drain(buffer, chars, writer);
+                    }
+                }
+            }
+            drain(buffer, chars, writer);
+        }
+        return rows;
+    }
+
+    private static Writer openExportWriter(Path exportPath) throws IOException {
+        OutputStream out = Files.newOutputStream(exportPath);
+        if (exportPath.getFileName().toString().endsWith(".gz")) {
+            out = new GZIPOutputStream(out, EXPORT_BUFFER_CHARS);
+        }
+        return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes out and empties the buffer, returning the scratch array used to
+     * do so (which grows if a row overran the buffer)
+     */
+    private static char[] drain(StringBuilder buffer, char[] chars, Writer writer)
+        throws IOException {
+
+        if (chars.length < buffer.length()) {
+            chars = new char[buffer.length()];
+        }
+        buffer.getChars(0, buffer.length(), chars, 0);
+        writer.write(chars, 0, buffer.length());
+        buffer.setLength(0);
+        return chars;
+    }
+
+    /**
+     * @param row
+     * @return The customer name of the current row of a reader over a day
+     *         file, without parsing the rest of the row
+     */
+    static String customerNameOf(FlooringMasteryCsvReader row) {
+        int extra = Math.max(0, row.getFieldCount() - COLUMNS);
+        return row.getString(1, 1 + extra);
+    }
+
+    /**
+     * Parses the current row of a reader over the file of the given date
+     *
+     * Customer names were never escaped when written, so any commas beyond
+     * the expected column count are assumed to belong to the name.
+     *
+     * Every field but the order number, name and area is resolved through
+     * the interner, so that Orders share their states, rates and products.
+     *
+     * @param date
+     * @param row
+     * @param interner
+     * @return The Order described by the row
+     * @throws IllegalArgumentException if the row is malformed
+     */
+    static FlooringMasteryOrder parseRow(
+        LocalDate date,
+        FlooringMasteryCsvReader row,
+        FlooringMasteryOrderInterner interner) {
+
+        int count = row.getFieldCount();
+        if (count < REQUIRED_COLUMNS) {
+            throw new IllegalArgumentException(
+                "Expected at least " + REQUIRED_COLUMNS + " columns but found " + count
+            );
+        }
+        // the number of commas that belong to the customer name
+        int extra = Math.max(0, count - COLUMNS);
+
+        int orderNum = row.getInt(0);
+        String customerName = row.getString(1, 1 + extra);
+        String state = interner.string(row, 2 + extra);
+        BigDecimal percentTaxRate = interner.decimal(row, 3 + extra);
+        String type = interner.string(row, 4 + extra);
+        BigDecimal area = row.getDecimal(5 + extra);
+        BigDecimal costPerSqFt = interner.decimal(row, 6 + extra);
+        BigDecimal laborCostPerSqFt = interner.decimal(row, 7 + extra);
+
+        return new FlooringMasteryOrder(
+            date,
+            orderNum,
+            customerName,
+            state,
+            percentTaxRate,
+            interner.product(type, costPerSqFt, laborCostPerSqFt),
+            area
+        );
+    }
+
+    /**
+     * Appends the full row describing this order, without a line terminator
+     *
+     * The computed amounts are written rounded to the cent, as they appear in
+     * the original files; they are recomputed from the other columns on load.
+     *
+     * @param builder
+     * @param order
+     * @return The builder
+     */
+    static StringBuilder appendRow(StringBuilder builder, FlooringMasteryOrder order) {
+        return builder
+            .append(order.getOrderNum()).append(',')
+            .append(order.getCustomerName()).append(',')
+            .append(order.getState()).append(',')
+            .append(order.getPercentTaxRate().toString()).append(',')
+            .append(order.getProductType()).append(',')
+            .append(order.getArea().toString()).append(',')
+            .append(order.getCostPerSqFt().toString()).append(',')
+            .append(order.getLaborCostPerSqFt().toString()).append(',')
+            .append(money(order.getMaterialCost())).append(',')
+            .append(money(order.getLaborCost())).append(',')
+            .append(money(order.getTax())).append(',')
+            .append(money(order.getTotal()));
+    }
+
+    /**
+     * Appends the full row describing this order followed by its date in the
+     * form MM-DD-YYYY, as found in the export file, without a line terminator
+     *
+     * @param builder
+     * @param order
+     * @return The builder
+     */
+    static StringBuilder appendExportRow(StringBuilder builder, FlooringMasteryOrder order) {
+        LocalDate date = order.getOrderDate();
+        appendRow(builder, order).append(',');
+        appendPadded(builder, date.getMonthValue(), 2);
+        builder.append('-');
+        appendPadded(builder, date.getDayOfMonth(), 2);
+        builder.append('-');
+        appendPadded(builder, date.getYear(), 4);
+        return builder;
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toString();
+    }
+
+    private static int digits(String str, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (str.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static void appendPadded(StringBuilder builder, int value, int width) {
+        for (int bound = 10; width > 1; width--, bound *= 10) {
+            if (value < bound) {
+                builder.append('0');
+            }
+        }
+        builder.append(value);
+    }
+}
@@ -4,13 +4,20 @@ import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportExceptio
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
 import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * A Dao for gathering and storing Order information
  *
+ * An implementation that reads its Orders lazily may throw the unchecked
+ * FlooringMasteryFailedLazyLoadException from any method reading Orders that
+ * declares no checked exception for the purpose.
+ *
  * @author Benjamin Munoz
  * email: driver396@gmail.com
  * date: Aug 5, 2021
@@ -25,19 +32,106 @@ public interface FlooringMasteryOrderDao {
      */
     public void loadFromExternals() throws FlooringMasteryFailedLoadException;
     
+    /**
+     * Offers the current product catalog, so that Orders loaded afterwards
+     * naming a product equal to one of the catalog's can share that instance
+     * rather than each hold a copy
+     * 
+     * The default implementation does nothing.
+     * 
+     * @param products 
+     */
+    public default void registerCanonicalProducts(Collection<FlooringMasteryProduct> products) {
+    }
+    
+    /**
+     * Claims the external copies for this process, before it loads and
+     * changes them, so that no other process may change them at the same time
+     * 
+     * The default implementation does nothing.
+     * 
+     * If they are claimed by another process already, the below exception
+     * will be thrown
+     * 
+     * @throws com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException
+     */
+    public default void lockExternals() throws FlooringMasteryFailedLoadException {
+    }
+    
     /**
      * Adds a new Order to the collection
      * 
      * Any existing order with the same date and number will be overwritten
+     * 
+     * If the Order cannot be recorded, the below exception will be thrown and
+     * the collection is left unchanged
+     * 
      * @param order 
+     * @throws com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException
      */
-    public void pushOrder(FlooringMasteryOrder order);
+    public void pushOrder(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException;
+    
+    /**
+     * Allocates a new order number, higher than that of any Order loaded or
+     * pushed so far
+     * 
+     * Each call returns a distinct number, even when called concurrently
+     * 
+     * @return The allocated number
+     */
+    public int nextOrderNumber();
+    
+    /**
+     * Allocates a contiguous block of new order numbers at once, such as for
+     * a batch of imported Orders
+     * 
+     * @param count The size of the block, at least 1
+     * @return The first number of the block; the block spans this number up
+     *         to, but excluding, this number plus count
+     */
+    public int reserveOrderNumbers(int count);
     
     /**
      * @return The set of all Orders in this collection
      */
     public Set<FlooringMasteryOrder> ordersSet();
     
+    /**
+     * Obtains the Orders of a single date, in order of their numbers
+     * 
+     * The returned collection is an unmodifiable view rather than a copy, so
+     * obtaining it costs nothing beyond the lookup of the date
+     * 
+     * @param date
+     * @return The Orders of this date, which is empty if there are none
+     */
+    public Collection<FlooringMasteryOrder> getOrdersByDate(LocalDate date);
+    
+    /**
+     * Obtains the Orders whose dates lie in a range, in order of their dates
+     * and then their numbers
+     * 
+     * The returned collection is an unmodifiable view rather than a copy
+     * 
+     * @param from The first date of the range
+     * @param to The last date of the range, inclusive
+     * @return The Orders in this range, which is empty if there are none
+     */
+    public Collection<FlooringMasteryOrder> getOrdersByDateRange(LocalDate from, LocalDate to);
+    
+    /**
+     * Obtains the Orders whose dates lie in a range, as one unmodifiable view
+     * per date, in order of their dates
+     * 
+     * Unlike getOrdersByDateRange, the dates can be split up and processed
+     * independently of one another
+     * 
+     * @param from The first date of the range
+     * @param to The last date of the range, inclusive
+     * @return The Orders of each date in this range
+     */
+    public List<Collection<FlooringMasteryOrder>> getOrderBucketsByDateRange(LocalDate from, LocalDate to);
+    
     /**
      * Attempts to obtain an Order matching the date and number
      * 
@@ -59,24 +153,91 @@ public interface FlooringMasteryOrderDao {
      * 
      * Otherwise, the matching Order is removed and then returned
      * 
+     * If the removal cannot be recorded, the below exception will be thrown
+     * and the collection is left unchanged
+     * 
      * @param date
      * @param num
      * @return 
+     * @throws com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException
      */
-    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num);
+    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num) 
+        throws FlooringMasteryFailedSaveException;
+    
+    /**
+     * Attempts to obtain the Order with this number, whatever its date
+     * 
+     * The date of every number is indexed, so this costs no more than
+     * getOrderByDateAndNumber
+     * 
+     * If no such Order can be found, an empty instance will be returned
+     * 
+     * Otherwise, an instance containing the matching Order will be returned
+     * 
+     * @param num
+     * @return The aforementioned instances
+     */
+    public Optional<FlooringMasteryOrder> getOrderByNumber(int num);
+    
+    /**
+     * Attempts to remove the Order with this number, whatever its date
+     * 
+     * Behaves as removeOrderByDateAndNumber given the date of the Order
+     * 
+     * @param num
+     * @return The removed Order, or an empty instance if there was none
+     * @throws com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException
+     */
+    public Optional<FlooringMasteryOrder> removeOrderByNumber(int num) 
+        throws FlooringMasteryFailedSaveException;
+    
+    /**
+     * Finds the Orders of a customer, or of every customer whose name starts
+     * with a prefix, regardless of case
+     * 
+     * Every customer name is indexed, so this costs about as much as looking
+     * up the Orders found, however many dates there are
+     * 
+     * @param name The customer name, or the start of the customer names
+     * @param prefix Whether name is only the start of the names to match
+     * @param limit The most Orders to return
+     * @return The matching Orders, in order of date and then number, up to
+     *         the limit
+     */
+    public List<FlooringMasteryOrder> getOrdersByCustomer(String name, boolean prefix, int limit);
     
     /**
      * Saves all Orders to external sources
      * 
+     * Only the dates whose Orders were pushed or removed since the last
+     * successful save are rewritten. Once they are, any journal of those
+     * changes is no longer needed and is cleared.
+     * 
      * If the saving is unsuccessful, the below exception will be thrown
      * 
      * @throws com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException
      */
     public void saveToExternals() throws FlooringMasteryFailedSaveException;
     
+    /**
+     * Tells whether saveToExternals may run on another thread while Orders
+     * are pushed and removed, saving a consistent snapshot of them and
+     * leaving later changes for the next save
+     * 
+     * The default implementation returns false.
+     * 
+     * @return 
+     */
+    public default boolean supportsBackgroundSave() {
+        return false;
+    }
+    
     /**
      * Exports all Orders
      * 
+     * The export is streamed out rather than built in memory, and is 
+     * gzip-compressed when the export file's name ends in ".gz"
+     * 
      * If this exporting fails, the below exception will be thrown
      * @throws FlooringMasteryFailedExportException 
      */
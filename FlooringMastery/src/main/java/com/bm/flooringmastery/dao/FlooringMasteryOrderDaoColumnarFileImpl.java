@@ -0,0 +1,194 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * An implementation of the OrderDao interface which holds its Orders in
+ * columns of primitives instead of as Order objects, to keep archives of
+ * tens of millions of Orders in a modest heap
+ *
+ * Each date's Orders live in a FlooringMasteryOrderColumns, and the states
+ * and products they refer to are stored once, in a dictionary shared by
+ * every date. Order objects are only built when one is asked for, so every
+ * Order handed out is a copy: a changed Order must be pushed again for the
+ * change to take hold. Building them makes iterating a little slower than
+ * with FlooringMasteryOrderDaoFileImpl, which should be preferred unless
+ * memory is tight.
+ *
+ * The day files and journal are read and written exactly as by
+ * FlooringMasteryOrderDaoFileImpl, so either may be used on the same data.
+ */
+public class FlooringMasteryOrderDaoColumnarFileImpl
+    extends FlooringMasteryOrderDaoFileBase<FlooringMasteryOrderColumns> {
+
+    private final FlooringMasteryOrderDictionary DICTIONARY;
+    private final NavigableMap<LocalDate, FlooringMasteryOrderColumns> ORDERS_MAP;
+    private final Set<LocalDate> DIRTY_DATES;
+
+    public FlooringMasteryOrderDaoColumnarFileImpl() {
+        this("Orders", "Backup/DataExport.txt", new FlooringMasteryOrderJournal("Orders.journal", 50));
+    }
+
+    public FlooringMasteryOrderDaoColumnarFileImpl(String SRC_DIRECTORY, String EXP_FILE) {
+        this(SRC_DIRECTORY, EXP_FILE, null);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     */
+    public FlooringMasteryOrderDaoColumnarFileImpl(
+        String SRC_DIRECTORY,
+        String EXP_FILE,
+        FlooringMasteryOrderJournal JOURNAL) {
+
+        super(SRC_DIRECTORY, EXP_FILE, JOURNAL);
+        this.DICTIONARY = new FlooringMasteryOrderDictionary();
+        this.ORDERS_MAP = new TreeMap<>();
+        this.DIRTY_DATES = new TreeSet<>();
+        FlooringMasteryOrderGauges.register(this, dao -> dao.ORDERS_MAP);
+    }
+
+    @Override
+    NavigableMap<LocalDate, FlooringMasteryOrderColumns> buckets() {
+        return ORDERS_MAP;
+    }
+
+    @Override
+    public void loadFromExternals() throws FlooringMasteryFailedLoadException {
+        long startNanos = System.nanoTime();
+        Map<LocalDate, Path> dayFiles = listDayFiles();
+
+        // The day files are read one at a time, as the dictionary is shared
+        // by every date, and indexed from the columns without building
+        // Order objects.
+        long rows = 0;
+        long bytes = 0;
+        for (Entry<LocalDate, Path> entry : dayFiles.entrySet()) {
+            FlooringMasteryOrderColumns bucket = columnsOf(entry.getKey());
+            bytes += FlooringMasteryOrderCsv.readDayFile(entry.getKey(), entry.getValue(), bucket, INTERNER);
+            bucket.trimToSize();
+            if (bucket.isEmpty()) {
+                ORDERS_MAP.remove(entry.getKey());
+            } else {
+                // seeds the order number sequence
+                bumpHighestOrderNum(bucket.lastOrderNum());
+                for (int i = 0; i < bucket.size(); i++) {
+                    NUMBER_INDEX.put(bucket.orderNumAt(i), entry.getKey());
+                    CUSTOMER_INDEX.add(bucket.customerNameAt(i), entry.getKey(), bucket.orderNumAt(i));
+                }
+                rows += bucket.size();
+            }
+        }
+
+        replayJournal();
+
+        lastLoadStats = new FlooringMasteryIoStats(
+            dayFiles.size(),
+            rows,
+            bytes,
+            System.nanoTime() - startNanos
+        );
+    }
+
+    private FlooringMasteryOrderColumns columnsOf(LocalDate date) {
+        return ORDERS_MAP.computeIfAbsent(
+            date,
+            key -> new FlooringMasteryOrderColumns(key, DICTIONARY)
+        );
+    }
+
+    @Override
+    public void pushOrder(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException {
+        try {
+            // an Order that cannot be stored must not be journaled either
+            FlooringMasteryOrderColumns.checkStorable(order, DICTIONARY);
+        } catch (IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedSaveException("Unable to store the order", ex);
+        }
+        if (JOURNAL != null) {
+            try {
+                JOURNAL.appendPush(order);
+            } catch (IOException ex) {
+                throw new FlooringMasteryFailedSaveException("Unable to record the order", ex);
+            }
+        }
+        applyPush(order);
+    }
+
+    @Override
+    void applyPush(FlooringMasteryOrder order) {
+        FlooringMasteryOrder previous = columnsOf(order.getOrderDate()).put(order.getOrderNum(), order);
+        indexPush(order, previous);
+        DIRTY_DATES.add(order.getOrderDate());
+        bumpHighestOrderNum(order.getOrderNum());
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num)
+        throws FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderColumns bucket = ORDERS_MAP.get(date);
+        if (bucket == null || !bucket.containsKey(num)) {
+            return Optional.empty();
+        }
+        if (JOURNAL != null) {
+            try {
+                JOURNAL.appendRemove(date, num);
+            } catch (IOException ex) {
+                throw new FlooringMasteryFailedSaveException("Unable to record the removal", ex);
+            }
+        }
+        return applyRemove(date, num);
+    }
+
+    @Override
+    Optional<FlooringMasteryOrder> applyRemove(LocalDate date, int num) {
+        FlooringMasteryOrderColumns bucket = ORDERS_MAP.get(date);
+        if (bucket == null) {
+            return Optional.empty();
+        }
+        FlooringMasteryOrder order = bucket.remove(num);
+        if (order == null) {
+            return Optional.empty();
+        }
+        indexRemove(order);
+        DIRTY_DATES.add(date);
+        if (bucket.isEmpty()) {
+            ORDERS_MAP.remove(date);
+        }
+        return Optional.of(order);
+    }
+
+    @Override
+    public void saveToExternals() throws FlooringMasteryFailedSaveException {
+        long startNanos = System.nanoTime();
+        long journalMark = markJournal();
+        writeDayFiles(
+            DIRTY_DATES.iterator(),
+            date -> {
+                FlooringMasteryOrderColumns bucket = ORDERS_MAP.get(date);
+                return bucket == null ? null : bucket.values();
+            },
+            startNanos
+        );
+
+        // every journaled change is now in the day files
+        checkpointJournal(journalMark);
+    }
+}
@@ -0,0 +1,380 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An implementation of the OrderDao interface which may be shared by any
+ * number of threads, such as one per session
+ *
+ * Reads take no locks: the date buckets live in skip list maps, so lookups,
+ * views and range queries see every completed mutation and never block.
+ * Pushes and removals to the same date are applied one at a time under that
+ * date's bucket, each as a single step, and proceed in parallel with those
+ * to other dates. A bucket emptied by a removal is retired from the map
+ * under its own lock, and a writer that finds it retired starts over.
+ *
+ * Saving captures a copy of every changed date while writers are briefly
+ * held off, then writes the day files while writers carry on. Changes made
+ * after the capture stay marked for the next save, and stay in the journal,
+ * which is checkpointed at the position it had reached at the capture.
+ * Views and exports are weakly consistent.
+ *
+ * The date of every order number and the Orders of every customer are kept
+ * in indexes guarded by a StampedLock, which writers take only to update the
+ * entries of a single Order. Lookups by number do not take it at all unless
+ * a write raced them; searches by customer take it to read.
+ *
+ * loadFromExternals is meant to be called once, before the DAO is shared.
+ * Like FlooringMasteryOrderDaoFileImpl, it reads a fresh snapshot written
+ * by writeSnapshot instead of the day files, and otherwise parses the day
+ * files on a pool of threads.
+ */
+public class FlooringMasteryOrderDaoConcurrentFileImpl
+    extends FlooringMasteryOrderDaoFileBase<ConcurrentNavigableMap<Integer, FlooringMasteryOrder>> {
+
+    private final int LOADER_THREADS;
+
+    private final ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<Integer, FlooringMasteryOrder>> ORDERS_MAP;
+
+    private final Set<LocalDate> DIRTY_DATES;
+
+    private final StampedLock INDEX_LOCK;
+
+    /**
+     * Writers hold the read lock, so any number of them run at once; saves
+     * hold the write lock only while capturing the changed dates
+     */
+    private final ReadWriteLock CAPTURE_LOCK;
+    private final Lock SAVE_LOCK;
+
+    public FlooringMasteryOrderDaoConcurrentFileImpl() {
+        this(
+            "Orders",
+            "Backup/DataExport.txt",
+            Runtime.getRuntime().availableProcessors(),
+            new FlooringMasteryOrderJournal("Orders.journal", 50)
+        );
+    }
+
+    public FlooringMasteryOrderDaoConcurrentFileImpl(String SRC_DIRECTORY, String EXP_FILE) {
+        this(SRC_DIRECTORY, EXP_FILE, null);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     */
+    public FlooringMasteryOrderDaoConcurrentFileImpl(
+        String SRC_DIRECTORY,
+        String EXP_FILE,
+        FlooringMasteryOrderJournal JOURNAL) {
+
+        this(SRC_DIRECTORY, EXP_FILE, 1, JOURNAL);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param LOADER_THREADS The number of day files parsed in parallel while
+     *                       loading; 1 parses them one at a time
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     */
+    public FlooringMasteryOrderDaoConcurrentFileImpl(
+        String SRC_DIRECTORY,
+        String EXP_FILE,
+        int LOADER_THREADS,
+        FlooringMasteryOrderJournal JOURNAL) {
+
+        super(SRC_DIRECTORY, EXP_FILE, JOURNAL);
+        this.LOADER_THREADS = Math.max(1, LOADER_THREADS);
+        this.ORDERS_MAP = new ConcurrentSkipListMap<>();
+        this.DIRTY_DATES = new ConcurrentSkipListSet<>();
+        this.INDEX_LOCK = new StampedLock();
+        this.CAPTURE_LOCK = new ReentrantReadWriteLock();
+        this.SAVE_LOCK = new ReentrantLock();
+        FlooringMasteryOrderGauges.register(this, dao -> dao.ORDERS_MAP);
+    }
+
+    @Override
+    NavigableMap<LocalDate, ConcurrentNavigableMap<Integer, FlooringMasteryOrder>> buckets() {
+        return ORDERS_MAP;
+    }
+
+    @Override
+    public void loadFromExternals() throws FlooringMasteryFailedLoadException {
+        long startNanos = System.nanoTime();
+        Map<LocalDate, Path> dayFiles = listDayFiles();
+
+        long files;
+        long rows = 0;
+        long bytes = 0;
+        NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> snapshot = readFreshSnapshot(dayFiles);
+        lastLoadFromSnapshot = snapshot != null;
+        if (snapshot != null) {
+            for (Entry<LocalDate, Map<Integer, FlooringMasteryOrder>> entry : snapshot.entrySet()) {
+                installBucket(entry.getKey(), new ConcurrentSkipListMap<>(entry.getValue()));
+                rows += entry.getValue().size();
+            }
+            files = 1;
+            bytes = sizeOf(getSnapshotPath());
+        } else {
+            FlooringMasteryIoStats read = readDayFiles(
+                dayFiles,
+                LOADER_THREADS,
+                date -> new ConcurrentSkipListMap<>(),
+                this::installBucket
+            );
+            files = read.getFiles();
+            rows = read.getRows();
+            bytes = read.getBytes();
+        }
+
+        replayJournal();
+
+        lastLoadStats = new FlooringMasteryIoStats(
+            files,
+            rows,
+            bytes,
+            System.nanoTime() - startNanos
+        );
+    }
+
+    private void installBucket(LocalDate date, ConcurrentNavigableMap<Integer, FlooringMasteryOrder> bucket) {
+        ORDERS_MAP.merge(date, bucket, (existing, loaded) -> {
+            existing.putAll(loaded);
+            return existing;
+        });
+        indexLoaded(date, bucket);
+    }
+
+    @Override
+    public void pushOrder(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException {
+        LocalDate date = order.getOrderDate();
+        CAPTURE_LOCK.readLock().lock();
+        try {
+            while (true) {
+                ConcurrentNavigableMap<Integer, FlooringMasteryOrder> bucket =
+                    ORDERS_MAP.computeIfAbsent(date, key -> new ConcurrentSkipListMap<>());
+                synchronized (bucket) {
+                    if (ORDERS_MAP.get(date) != bucket) {
+                        // emptied and retired by a removal in the meantime
+                        continue;
+                    }
+                    if (JOURNAL != null) {
+                        try {
+                            JOURNAL.appendPush(order);
+                        } catch (IOException ex) {
+                            if (bucket.isEmpty()) {
+                                ORDERS_MAP.remove(date, bucket);
+                            }
+                            throw new FlooringMasteryFailedSaveException("Unable to record the order", ex);
+                        }
+                    }
+                    indexPush(order, bucket.put(order.getOrderNum(), order));
+                    DIRTY_DATES.add(date);
+                    bumpHighestOrderNum(order.getOrderNum());
+                    return;
+                }
+            }
+        } finally {
+            CAPTURE_LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a journaled push while loading, when nothing else runs
+     */
+    @Override
+    void applyPush(FlooringMasteryOrder order) {
+        FlooringMasteryOrder previous = ORDERS_MAP
+            .computeIfAbsent(order.getOrderDate(), key -> new ConcurrentSkipListMap<>())
+            .put(order.getOrderNum(), order);
+        indexPush(order, previous);
+        DIRTY_DATES.add(order.getOrderDate());
+        bumpHighestOrderNum(order.getOrderNum());
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num)
+        throws FlooringMasteryFailedSaveException {
+
+        CAPTURE_LOCK.readLock().lock();
+        try {
+            while (true) {
+                ConcurrentNavigableMap<Integer, FlooringMasteryOrder> bucket = ORDERS_MAP.get(date);
+                if (bucket == null) {
+                    return Optional.empty();
+                }
+                synchronized (bucket) {
+                    if (ORDERS_MAP.get(date) != bucket) {
+                        continue;
+                    }
+                    if (!bucket.containsKey(num)) {
+                        return Optional.empty();
+                    }
+                    if (JOURNAL != null) {
+                        try {
+                            JOURNAL.appendRemove(date, num);
+                        } catch (IOException ex) {
+                            throw new FlooringMasteryFailedSaveException("Unable to record the removal", ex);
+                        }
+                    }
+                    return Optional.of(removeFrom(bucket, date, num));
+                }
+            }
+        } finally {
+            CAPTURE_LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a journaled removal while loading, when nothing else runs
+     */
+    @Override
+    Optional<FlooringMasteryOrder> applyRemove(LocalDate date, int num) {
+        ConcurrentNavigableMap<Integer, FlooringMasteryOrder> bucket = ORDERS_MAP.get(date);
+        if (bucket == null || !bucket.containsKey(num)) {
+            return Optional.empty();
+        }
+        return Optional.of(removeFrom(bucket, date, num));
+    }
+
+    private FlooringMasteryOrder removeFrom(
+        ConcurrentNavigableMap<Integer, FlooringMasteryOrder> bucket,
+        LocalDate date,
+        int num) {
+
+        FlooringMasteryOrder order = bucket.remove(num);
+        if (bucket.isEmpty()) {
+            ORDERS_MAP.remove(date, bucket);
+        }
+        indexRemove(order);
+        DIRTY_DATES.add(date);
+        return order;
+    }
+
+    @Override
+    LocalDate indexedDateOf(int num) {
+        long stamp = INDEX_LOCK.tryOptimisticRead();
+        long epochDay = NUMBER_INDEX.epochDayOf(num);
+        if (!INDEX_LOCK.validate(stamp)) {
+            stamp = INDEX_LOCK.readLock();
+            try {
+                epochDay = NUMBER_INDEX.epochDayOf(num);
+            } finally {
+                INDEX_LOCK.unlockRead(stamp);
+            }
+        }
+        return epochDay == FlooringMasteryOrderNumberIndex.ABSENT ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    @Override
+    long[] findCustomerRefs(String name, boolean prefix, int limit) {
+        long stamp = INDEX_LOCK.readLock();
+        try {
+            return super.findCustomerRefs(name, prefix, limit);
+        } finally {
+            INDEX_LOCK.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    void indexPush(FlooringMasteryOrder order, FlooringMasteryOrder previous) {
+        long stamp = INDEX_LOCK.writeLock();
+        try {
+            super.indexPush(order, previous);
+        } finally {
+            INDEX_LOCK.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    void indexRemove(FlooringMasteryOrder order) {
+        long stamp = INDEX_LOCK.writeLock();
+        try {
+            super.indexRemove(order);
+        } finally {
+            INDEX_LOCK.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void saveToExternals() throws FlooringMasteryFailedSaveException {
+        SAVE_LOCK.lock();
+        try {
+            long startNanos = System.nanoTime();
+
+            // a null list stands for a date whose last order was removed
+            Map<LocalDate, List<FlooringMasteryOrder>> captured = new TreeMap<>();
+            long journalMark;
+            CAPTURE_LOCK.writeLock().lock();
+            try {
+                // every mutation journaled so far is in the capture
+                journalMark = markJournal();
+                for (LocalDate date : DIRTY_DATES) {
+                    Map<Integer, FlooringMasteryOrder> subMap = ORDERS_MAP.get(date);
+                    captured.put(date, subMap == null ? null : new ArrayList<>(subMap.values()));
+                }
+                DIRTY_DATES.clear();
+            } finally {
+                CAPTURE_LOCK.writeLock().unlock();
+            }
+
+            try {
+                writeDayFiles(captured.keySet().iterator(), captured::get, startNanos);
+            } catch (FlooringMasteryFailedSaveException ex) {
+                // the captured dates not yet written must be saved again
+                DIRTY_DATES.addAll(captured.keySet());
+                throw ex;
+            }
+
+            // the mutations journaled since the capture are kept for the
+            // next save
+            checkpointJournal(journalMark);
+        } finally {
+            SAVE_LOCK.unlock();
+        }
+    }
+
+    @Override
+    public boolean supportsBackgroundSave() {
+        return true;
+    }
+
+    @Override
+    public void export() throws FlooringMasteryFailedExportException {
+        SAVE_LOCK.lock();
+        try {
+            super.export();
+        } finally {
+            SAVE_LOCK.unlock();
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLazyLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * What the Order Daos kept in day files share: the layout of the day files,
+ * the journal, the interner, the indexes by number and customer and the
+ * order number sequence, and the lookups, views, loading and saving built
+ * on them
+ *
+ * Each Dao keeps its date buckets its own way, as Maps of Orders by number,
+ * and hands them over through buckets. The other package-private methods
+ * are hooks, with defaults for a Dao that holds every date in memory; one
+ * that guards its indexes with a lock of its own, or reads its dates
+ * lazily, overrides them.
+ *
+ * @param <B> The type of the date buckets
+ */
+abstract class FlooringMasteryOrderDaoFileBase<B extends Map<Integer, FlooringMasteryOrder>>
+    implements FlooringMasteryOrderDao {
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    final String SRC_DIRECTORY;
+    final String EXP_FILE;
+    final FlooringMasteryOrderLayout LAYOUT;
+    final FlooringMasteryOrderJournal JOURNAL;
+    final FlooringMasteryOrderInterner INTERNER;
+
+    /**
+     * The date of every order number and the Orders of every customer
+     */
+    final FlooringMasteryOrderNumberIndex NUMBER_INDEX;
+    final FlooringMasteryCustomerIndex CUSTOMER_INDEX;
+
+    final AtomicInteger HIGHEST_ORDER_NUM;
+
+    volatile boolean lastLoadFromSnapshot;
+    volatile FlooringMasteryIoStats lastLoadStats = FlooringMasteryIoStats.NONE;
+    volatile FlooringMasteryIoStats lastSaveStats = FlooringMasteryIoStats.NONE;
+    volatile FlooringMasteryIoStats lastExportStats = FlooringMasteryIoStats.NONE;
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     */
+    FlooringMasteryOrderDaoFileBase(String SRC_DIRECTORY, String EXP_FILE, FlooringMasteryOrderJournal JOURNAL) {
+        this.SRC_DIRECTORY = SRC_DIRECTORY;
+        this.EXP_FILE = EXP_FILE;
+        this.LAYOUT = new FlooringMasteryOrderLayout(FileSystems.getDefault().getPath(SRC_DIRECTORY));
+        this.JOURNAL = JOURNAL;
+        this.INTERNER = new FlooringMasteryOrderInterner();
+        this.NUMBER_INDEX = new FlooringMasteryOrderNumberIndex();
+        this.CUSTOMER_INDEX = new FlooringMasteryCustomerIndex();
+        this.HIGHEST_ORDER_NUM = new AtomicInteger(0);
+    }
+
+    /**
+     * @return The buckets in memory, by date
+     */
+    abstract NavigableMap<LocalDate, B> buckets();
+
+    /**
+     * Applies a push, once journaled or while replaying the journal
+     */
+    abstract void applyPush(FlooringMasteryOrder order);
+
+    /**
+     * Applies a removal, once journaled or while replaying the journal
+     *
+     * @return The Order removed, or an empty instance if there was none
+     */
+    abstract Optional<FlooringMasteryOrder> applyRemove(LocalDate date, int num);
+
+    /**
+     * @return The bucket of a date, or null if it has no orders
+     */
+    B bucketOf(LocalDate date) {
+        return buckets().get(date);
+    }
+
+    /**
+     * @return The bucket of a date, or null if it has no orders, for passes
+     *         over many dates which should not keep them all in memory
+     */
+    B peekBucketOf(LocalDate date) {
+        return bucketOf(date);
+    }
+
+    /**
+     * @return The buckets of the dates in a range, in order of date
+     */
+    Collection<B> bucketsInRange(LocalDate from, LocalDate to) {
+        return buckets().subMap(from, true, to, true).values();
+    }
+
+    /**
+     * @return Every bucket, by date
+     */
+    NavigableMap<LocalDate, B> allBuckets() {
+        return buckets();
+    }
+
+    /**
+     * Completes the indexes and the order number sequence before either is
+     * used; they are always complete unless the dates are read lazily
+     *
+     * @throws FlooringMasteryFailedLazyLoadException if a day file cannot be
+     *                                                 read to do so
+     */
+    void seedIndexes() {
+    }
+
+    /**
+     * Notes that a save wrote the day file of a date, or deleted it
+     */
+    void dayFileWritten(LocalDate date, boolean deleted) {
+    }
+
+    /**
+     * Indexes a pushed Order in place of the one it replaced, if any
+     */
+    void indexPush(FlooringMasteryOrder order, FlooringMasteryOrder previous) {
+        NUMBER_INDEX.put(order.getOrderNum(), order.getOrderDate());
+        if (previous != null) {
+            CUSTOMER_INDEX.remove(previous.getCustomerName(), previous.getOrderDate(), previous.getOrderNum());
+        }
+        CUSTOMER_INDEX.add(order.getCustomerName(), order.getOrderDate(), order.getOrderNum());
+    }
+
+    void indexRemove(FlooringMasteryOrder order) {
+        NUMBER_INDEX.remove(order.getOrderNum(), order.getOrderDate());
+        CUSTOMER_INDEX.remove(order.getCustomerName(), order.getOrderDate(), order.getOrderNum());
+    }
+
+    /**
+     * @return The date of the Order with this number, or null if there is none
+     */
+    LocalDate indexedDateOf(int num) {
+        return NUMBER_INDEX.dateOf(num);
+    }
+
+    /**
+     * @return The references of the customer's Orders, as
+     *         FlooringMasteryCustomerIndex.find gives them
+     */
+    long[] findCustomerRefs(String name, boolean prefix, int limit) {
+        return CUSTOMER_INDEX.find(name, prefix, limit);
+    }
+
+    @Override
+    public void registerCanonicalProducts(Collection<FlooringMasteryProduct> products) {
+        INTERNER.registerProducts(products);
+    }
+
+    /**
+     * Locks the journal, which every process that changes these Orders
+     * shares; without a journal there is nothing to lock
+     */
+    @Override
+    public void lockExternals() throws FlooringMasteryFailedLoadException {
+        if (JOURNAL == null) {
+            return;
+        }
+        try {
+            JOURNAL.lock();
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedLoadException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Gathers every day file of the source directory, flat or partitioned,
+     * keyed and sorted by date
+     */
+    Map<LocalDate, Path> listDayFiles() throws FlooringMasteryFailedLoadException {
+        try {
+            LAYOUT.open();
+            return LAYOUT.listDayFiles();
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedLoadException("Unable to load orders", ex);
+        }
+    }
+
+    /**
+     * Parses every day file into a new bucket and hands each to install, in
+     * order of date
+     *
+     * With more than one thread, each worker parses a whole day file into a
+     * bucket of its own, so install is the only shared step and is always
+     * called from the calling thread. The manifest of a partitioned directory
+     * gives the size of every day file, so the largest are started first and
+     * no worker is left parsing a big one at the end.
+     *
+     * @param dayFiles
+     * @param threads The number of day files parsed at once
+     * @param newBucket Creates the bucket for a date
+     * @param install
+     * @return Statistics describing the files read
+     * @throws FlooringMasteryFailedLoadException
+     */
+    FlooringMasteryIoStats readDayFiles(
+        Map<LocalDate, Path> dayFiles,
+        int threads,
+        Function<LocalDate, B> newBucket,
+        BiConsumer<LocalDate, B> install) throws FlooringMasteryFailedLoadException {
+
+        long startNanos = System.nanoTime();
+        long rows = 0;
+        long bytes = 0;
+        threads = Math.min(threads, dayFiles.size());
+        if (threads <= 1) {
+            for (Entry<LocalDate, Path> entry : dayFiles.entrySet()) {
+                B bucket = newBucket.apply(entry.getKey());
+                bytes += FlooringMasteryOrderCsv.readDayFile(entry.getKey(), entry.getValue(), bucket, INTERNER);
+                rows += bucket.size();
+                install.accept(entry.getKey(), bucket);
+            }
+            return new FlooringMasteryIoStats(dayFiles.size(), rows, bytes, System.nanoTime() - startNanos);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<LocalDate> plan = new ArrayList<>(dayFiles.keySet());
+            plan.sort(Comparator.comparingLong(LAYOUT::plannedBytes).reversed());
+            Map<LocalDate, B> buckets = new HashMap<>();
+            Map<LocalDate, Future<Long>> futures = new HashMap<>();
+            for (LocalDate date : plan) {
+                Path path = dayFiles.get(date);
+                B bucket = newBucket.apply(date);
+                buckets.put(date, bucket);
+                futures.put(date, pool.submit(
+                    () -> FlooringMasteryOrderCsv.readDayFile(date, path, bucket, INTERNER)
+                ));
+            }
+            for (LocalDate date : dayFiles.keySet()) {
+                bytes += awaitDay(futures.get(date));
+                rows += buckets.get(date).size();
+                install.accept(date, buckets.get(date));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new FlooringMasteryIoStats(dayFiles.size(), rows, bytes, System.nanoTime() - startNanos);
+    }
+
+    private static long awaitDay(Future<Long> future) throws FlooringMasteryFailedLoadException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlooringMasteryFailedLoadException("Interrupted while loading orders", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof FlooringMasteryFailedLoadException) {
+                throw (FlooringMasteryFailedLoadException) ex.getCause();
+            }
+            throw new FlooringMasteryFailedLoadException("Unable to load orders", ex.getCause());
+        }
+    }
+
+    /**
+     * Indexes the Orders of a loaded bucket and keeps the order number
+     * sequence above them
+     */
+    void indexLoaded(LocalDate date, Map<Integer, FlooringMasteryOrder> bucket) {
+        int highestOrderNum = 0;
+        for (Entry<Integer, FlooringMasteryOrder> entry : bucket.entrySet()) {
+            NUMBER_INDEX.put(entry.getKey(), date);
+            CUSTOMER_INDEX.add(entry.getValue().getCustomerName(), date, entry.getKey());
+            highestOrderNum = Math.max(highestOrderNum, entry.getKey());
+        }
+        bumpHighestOrderNum(highestOrderNum);
+    }
+
+    /**
+     * Applies every mutation left in the journal by an unsaved session on
+     * top of the day files, then opens the journal for this session; does
+     * nothing without a journal
+     */
+    void replayJournal() throws FlooringMasteryFailedLoadException {
+        if (JOURNAL == null) {
+            return;
+        }
+        try {
+            JOURNAL.replay(new FlooringMasteryOrderJournal.Replayer() {
+                @Override
+                public void replayPush(FlooringMasteryOrder order) {
+                    applyPush(order);
+                }
+
+                @Override
+                public void replayRemove(LocalDate date, int num) {
+                    applyRemove(date, num);
+                }
+            });
+            JOURNAL.open();
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedLoadException("Unable to replay the order journal", ex);
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedLoadException(ex.getMessage(), ex.getCause());
+        } catch (IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedLoadException("Unable to store a journaled order", ex);
+        }
+    }
+
+    /**
+     * @return Statistics describing the most recent call to loadFromExternals
+     */
+    public FlooringMasteryIoStats getLastLoadStats() {
+        return lastLoadStats;
+    }
+
+    /**
+     * @return Whether the most recent call to loadFromExternals read the
+     *         snapshot rather than the day files
+     */
+    public boolean isLastLoadFromSnapshot() {
+        return lastLoadFromSnapshot;
+    }
+
+    /**
+     * @return The path of the snapshot, which sits next to the source
+     *         directory and is named after it
+     */
+    public Path getSnapshotPath() {
+        Path ordersDirectoryPath = FileSystems.getDefault().getPath(SRC_DIRECTORY);
+        return ordersDirectoryPath.resolveSibling(
+            ordersDirectoryPath.getFileName() + SNAPSHOT_SUFFIX
+        );
+    }
+
+    /**
+     * Saves any unsaved changes, then writes a binary snapshot of every order
+     * next to the source directory, which later eager loads read instead of
+     * the day files for as long as it is newer than all of them
+     *
+     * Saving changes afterwards makes the snapshot stale until it is written
+     * again; the day files remain the authoritative copy.
+     *
+     * If the saving or writing is unsuccessful, the below exception will be
+     * thrown
+     *
+     * @return The size of the snapshot in bytes
+     * @throws FlooringMasteryFailedSaveException
+     */
+    public long writeSnapshot() throws FlooringMasteryFailedSaveException {
+        saveToExternals();
+        try {
+            return FlooringMasteryOrderSnapshot.write(getSnapshotPath(), allBuckets());
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedSaveException("Unable to write the order snapshot", ex);
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedSaveException(ex.getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Reads the snapshot, provided it is newer than the source directory and
+     * every day file in it and covers exactly the same dates
+     *
+     * @return The snapshot's orders, or null if the day files must be read
+     */
+    NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> readFreshSnapshot(
+        Map<LocalDate, Path> dayFiles) {
+
+        Path snapshotPath = getSnapshotPath();
+        try {
+            if (!Files.isRegularFile(snapshotPath)) {
+                return null;
+            }
+            FileTime snapshotTime = Files.getLastModifiedTime(snapshotPath);
+            // removing a day file only shows in the directory's time, or in
+            // the manifest's
+            if (Files.getLastModifiedTime(LAYOUT.changeMarker()).compareTo(snapshotTime) >= 0) {
+                return null;
+            }
+            for (Path path : dayFiles.values()) {
+                if (Files.getLastModifiedTime(path).compareTo(snapshotTime) >= 0) {
+                    return null;
+                }
+            }
+            NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> orders =
+                FlooringMasteryOrderSnapshot.read(snapshotPath);
+            return orders.keySet().equals(dayFiles.keySet()) ? orders : null;
+        } catch (IOException ex) {
+            // an unreadable snapshot only costs the shortcut
+            return null;
+        }
+    }
+
+    static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    @Override
+    public int nextOrderNumber() {
+        seedIndexes();
+        return HIGHEST_ORDER_NUM.incrementAndGet();
+    }
+
+    @Override
+    public int reserveOrderNumbers(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one order number must be reserved");
+        }
+        seedIndexes();
+        return HIGHEST_ORDER_NUM.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Keeps numbers handed out later above any number already in use
+     */
+    void bumpHighestOrderNum(int orderNum) {
+        HIGHEST_ORDER_NUM.accumulateAndGet(orderNum, Math::max);
+    }
+
+    @Override
+    public Set<FlooringMasteryOrder> ordersSet() {
+        Set<FlooringMasteryOrder> receivedOrders = new HashSet<>();
+        allBuckets().values().forEach(subMap -> {
+            receivedOrders.addAll(subMap.values());
+        });
+
+        return receivedOrders;
+    }
+
+    @Override
+    public Collection<FlooringMasteryOrder> getOrdersByDate(LocalDate date) {
+        B subMap = bucketOf(date);
+        if (subMap == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(subMap.values());
+    }
+
+    @Override
+    public Collection<FlooringMasteryOrder> getOrdersByDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        return new FlooringMasteryOrderBucketsView(bucketsInRange(from, to));
+    }
+
+    @Override
+    public List<Collection<FlooringMasteryOrder>> getOrderBucketsByDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        List<Collection<FlooringMasteryOrder>> buckets = new ArrayList<>();
+        for (B subMap : bucketsInRange(from, to)) {
+            buckets.add(Collections.unmodifiableCollection(subMap.values()));
+        }
+        return buckets;
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> getOrderByDateAndNumber(LocalDate date, int num) {
+        B subMap = bucketOf(date);
+        if (subMap == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(subMap.get(num));
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> getOrderByNumber(int num) {
+        seedIndexes();
+        LocalDate date = indexedDateOf(num);
+        if (date == null) {
+            return Optional.empty();
+        }
+        return getOrderByDateAndNumber(date, num);
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> removeOrderByNumber(int num)
+        throws FlooringMasteryFailedSaveException {
+
+        try {
+            seedIndexes();
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedSaveException(ex.getMessage(), ex.getCause());
+        }
+        LocalDate date = indexedDateOf(num);
+        if (date == null) {
+            return Optional.empty();
+        }
+        // a removal racing this one leaves nothing to remove on that date
+        return removeOrderByDateAndNumber(date, num);
+    }
+
+    @Override
+    public List<FlooringMasteryOrder> getOrdersByCustomer(String name, boolean prefix, int limit) {
+        seedIndexes();
+        long[] refs = findCustomerRefs(name, prefix, limit);
+        List<FlooringMasteryOrder> orders = new ArrayList<>(refs.length);
+        LocalDate date = null;
+        B subMap = null;
+        for (long ref : refs) {
+            // The references come in order of date, so each date is looked
+            // up once, and without being kept in memory if read lazily.
+            if (!FlooringMasteryCustomerIndex.dateOf(ref).equals(date)) {
+                date = FlooringMasteryCustomerIndex.dateOf(ref);
+                subMap = peekBucketOf(date);
+            }
+            // skips any Order removed since
+            FlooringMasteryOrder order = subMap == null ? null : subMap.get(FlooringMasteryCustomerIndex.numOf(ref));
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Writes the day file of each date dates gives, or deletes it where
+     * ordersOf gives null, removing each date from dates once it is done,
+     * then commits the manifest
+     *
+     * @param dates
+     * @param ordersOf The Orders to write for a date, in order of number
+     * @param startNanos When the save started, for its statistics
+     * @throws FlooringMasteryFailedSaveException
+     */
+    void writeDayFiles(
+        Iterator<LocalDate> dates,
+        Function<LocalDate, ? extends Collection<FlooringMasteryOrder>> ordersOf,
+        long startNanos) throws FlooringMasteryFailedSaveException {
+
+        long files = 0;
+        long rows = 0;
+        long bytes = 0;
+        StringBuilder contents = new StringBuilder();
+        while (dates.hasNext()) {
+            LocalDate date = dates.next();
+            Collection<FlooringMasteryOrder> orders = ordersOf.apply(date);
+            try {
+                if (orders == null) {
+                    // the last order of this date was removed
+                    LAYOUT.deleteDayFile(date);
+                } else {
+                    bytes += LAYOUT.writeDayFile(date, orders, orders.size(), contents);
+                    files++;
+                    rows += orders.size();
+                }
+            } catch (IOException ex) {
+                throw new FlooringMasteryFailedSaveException("Unable to save orders", ex);
+            }
+            dayFileWritten(date, orders == null);
+            dates.remove();
+        }
+        try {
+            LAYOUT.commit();
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedSaveException("Unable to save the order manifest", ex);
+        }
+
+        lastSaveStats = new FlooringMasteryIoStats(
+            files,
+            rows,
+            bytes,
+            System.nanoTime() - startNanos
+        );
+    }
+
+    /**
+     * @return The position in the journal of the mutations a save is about to
+     *         capture, or 0 without a journal
+     */
+    long markJournal() throws FlooringMasteryFailedSaveException {
+        if (JOURNAL == null) {
+            return 0;
+        }
+        try {
+            return JOURNAL.mark();
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedSaveException("Unable to mark the order journal", ex);
+        }
+    }
+
+    /**
+     * Drops the journaled mutations up to a mark, once they are all in the
+     * day files; does nothing without a journal
+     */
+    void checkpointJournal(long mark) throws FlooringMasteryFailedSaveException {
+        if (JOURNAL == null) {
+            return;
+        }
+        try {
+            JOURNAL.checkpoint(mark);
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedSaveException("Unable to checkpoint the order journal", ex);
+        }
+    }
+
+    /**
+     * @return Statistics describing the most recent call to saveToExternals
+     */
+    public FlooringMasteryIoStats getLastSaveStats() {
+        return lastSaveStats;
+    }
+
+    @Override
+    public void export() throws FlooringMasteryFailedExportException {
+        long startNanos = System.nanoTime();
+        long rows;
+        long bytes;
+        Path exportPath = FileSystems.getDefault().getPath(EXP_FILE);
+
+        try {
+            rows = FlooringMasteryOrderCsv.writeExport(exportPath, this::exportBuckets);
+            bytes = Files.size(exportPath);
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedExportException("Unable to export orders", ex);
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedExportException(ex.getMessage(), ex.getCause());
+        }
+
+        lastExportStats = new FlooringMasteryIoStats(
+            1,
+            rows,
+            bytes,
+            System.nanoTime() - startNanos
+        );
+    }
+
+    /**
+     * @return The Orders of every date, in order of date, as the export
+     *         writes them
+     */
+    Iterator<Collection<FlooringMasteryOrder>> exportBuckets() {
+        return buckets().values().stream()
+            .map(bucket -> (Collection<FlooringMasteryOrder>) bucket.values())
+            .iterator();
+    }
+
+    /**
+     * @return Statistics describing the most recent call to export
+     */
+    public FlooringMasteryIoStats getLastExportStats() {
+        return lastExportStats;
+    }
+}
@@ -1,30 +1,27 @@
 package com.bm.flooringmastery.dao;
 
-import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLazyLoadException;
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
 import com.bm.flooringmastery.model.FlooringMasteryOrder;
-import com.bm.flooringmastery.model.FlooringMasteryProduct;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.math.BigDecimal;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 /**
  * An implementation of the OrderDao interface
@@ -33,137 +30,423 @@ import java.util.stream.Collectors;
  * email: driver396@gmail.com
  * date: Aug 5, 2021
  */
-public class FlooringMasteryOrderDaoFileImpl implements FlooringMasteryOrderDao {
-    private final String SRC_DIRECTORY;
-    private final String EXP_FILE;
-    
-    private final Map<LocalDate, Map<Integer, FlooringMasteryOrder>> ORDERS_MAP;
-    
+public class FlooringMasteryOrderDaoFileImpl extends FlooringMasteryOrderDaoFileBase<Map<Integer, FlooringMasteryOrder>> {
+    private static final FlooringMasteryCounter LAZY_HITS =
+        FlooringMasteryMetrics.counter("orders.lazy.hits");
+    private static final FlooringMasteryCounter LAZY_MISSES =
+        FlooringMasteryMetrics.counter("orders.lazy.misses");
+
+    private final int LOADER_THREADS;
+    private final int LAZY_CACHE_ORDERS;
+
+    /**
+     * The buckets in memory: every date's in the eager mode, and in the lazy
+     * mode those recently read plus every dirty one
+     */
+    private final NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> ORDERS_MAP;
+
+    /**
+     * The day file of every date as of the last load or save
+     */
+    private final NavigableMap<LocalDate, Path> DAY_FILES;
+
+    private final Set<LocalDate> DIRTY_DATES;
+
+    /**
+     * The dates in ORDERS_MAP from least to most recently used, in the lazy
+     * mode only, along with the number of orders they hold in total
+     */
+    private final Map<LocalDate, Boolean> RECENT_DATES;
+    private long cachedOrders;
+
+    /**
+     * In the lazy mode, the indexes and the order number sequence are
+     * complete only once the order numbers are seeded
+     */
+    private boolean orderNumsSeeded;
+
     public FlooringMasteryOrderDaoFileImpl() {
-        this("Orders", "Backup/DataExport.txt");
+        this(
+            "Orders",
+            "Backup/DataExport.txt",
+            Runtime.getRuntime().availableProcessors(),
+            new FlooringMasteryOrderJournal("Orders.journal", 50)
+        );
     }
 
     public FlooringMasteryOrderDaoFileImpl(String SRC_DIRECTORY, String EXP_FILE) {
-        this.SRC_DIRECTORY = SRC_DIRECTORY;
-        this.EXP_FILE = EXP_FILE;
+        this(SRC_DIRECTORY, EXP_FILE, 1);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param LOADER_THREADS The number of day files parsed in parallel while
+     *                       loading; 1 parses them one at a time
+     */
+    public FlooringMasteryOrderDaoFileImpl(String SRC_DIRECTORY, String EXP_FILE, int LOADER_THREADS) {
+        this(SRC_DIRECTORY, EXP_FILE, LOADER_THREADS, null);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param LOADER_THREADS The number of day files parsed in parallel while
+     *                       loading; 1 parses them one at a time
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     */
+    public FlooringMasteryOrderDaoFileImpl(
+        String SRC_DIRECTORY,
+        String EXP_FILE,
+        int LOADER_THREADS,
+        FlooringMasteryOrderJournal JOURNAL) {
+
+        this(SRC_DIRECTORY, EXP_FILE, LOADER_THREADS, JOURNAL, 0);
+    }
+
+    /**
+     * @param SRC_DIRECTORY
+     * @param EXP_FILE
+     * @param LOADER_THREADS The number of day files parsed in parallel while
+     *                       loading; 1 parses them one at a time
+     * @param JOURNAL A journal to record every push and removal in before it
+     *                is applied, or null to keep changes only in memory until
+     *                they are saved
+     * @param LAZY_CACHE_ORDERS 0 to parse every day file while loading;
+     *                          otherwise loading only lists the day files,
+     *                          each is parsed the first time its date is
+     *                          read, and the least recently used dates are
+     *                          dropped from memory once more than this many
+     *                          orders are held (dates with unsaved changes
+     *                          are kept until they are saved)
+     */
+    public FlooringMasteryOrderDaoFileImpl(
+        String SRC_DIRECTORY,
+        String EXP_FILE,
+        int LOADER_THREADS,
+        FlooringMasteryOrderJournal JOURNAL,
+        int LAZY_CACHE_ORDERS) {
+
+        super(SRC_DIRECTORY, EXP_FILE, JOURNAL);
+        this.LOADER_THREADS = Math.max(1, LOADER_THREADS);
+        this.LAZY_CACHE_ORDERS = Math.max(0, LAZY_CACHE_ORDERS);
         this.ORDERS_MAP = new TreeMap<>();
+        this.DAY_FILES = new TreeMap<>();
+        this.DIRTY_DATES = new TreeSet<>();
+        this.RECENT_DATES = new LinkedHashMap<>(16, 0.75f, true);
+        FlooringMasteryOrderGauges.register(this, dao -> dao.ORDERS_MAP);
+    }
+
+    private boolean isLazy() {
+        return LAZY_CACHE_ORDERS > 0;
     }
-        
+
+    @Override
+    NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> buckets() {
+        return ORDERS_MAP;
+    }
+
     @Override
     public void loadFromExternals() throws FlooringMasteryFailedLoadException {
-        List<String> filenames;
-        try {
-            Path ordersDirectoryPath = FileSystems.getDefault().getPath(SRC_DIRECTORY);
-            // gather all the filenames in this directory
-            filenames = Files.walk(ordersDirectoryPath, 1).skip(1)
-                .map(path -> path.getFileName().toString())
-                .collect(Collectors.toList());
-        } catch (IOException ex) {
-            throw new FlooringMasteryFailedLoadException("Unable to load orders", ex);
+        long startNanos = System.nanoTime();
+        Map<LocalDate, Path> dayFiles = listDayFiles();
+        DAY_FILES.putAll(dayFiles);
+
+        long files;
+        long rows = 0;
+        long bytes = 0;
+        NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> snapshot =
+            isLazy() ? null : readFreshSnapshot(dayFiles);
+        lastLoadFromSnapshot = snapshot != null;
+        if (isLazy()) {
+            // day files are parsed as their dates are read
+            files = dayFiles.size();
+        } else if (snapshot != null) {
+            for (Entry<LocalDate, Map<Integer, FlooringMasteryOrder>> entry : snapshot.entrySet()) {
+                installBucket(entry.getKey(), entry.getValue());
+                rows += entry.getValue().size();
+            }
+            files = 1;
+            bytes = sizeOf(getSnapshotPath());
+            orderNumsSeeded = true;
+        } else {
+            FlooringMasteryIoStats read = readDayFiles(
+                dayFiles,
+                LOADER_THREADS,
+                date -> new TreeMap<>(),
+                this::installBucket
+            );
+            files = read.getFiles();
+            rows = read.getRows();
+            bytes = read.getBytes();
+            orderNumsSeeded = true;
+        }
+
+        replayJournal();
+
+        lastLoadStats = new FlooringMasteryIoStats(
+            files,
+            rows,
+            bytes,
+            System.nanoTime() - startNanos
+        );
+    }
+
+    private void installBucket(LocalDate date, Map<Integer, FlooringMasteryOrder> bucket) {
+        ORDERS_MAP.merge(date, bucket, (existing, loaded) -> {
+            existing.putAll(loaded);
+            return existing;
+        });
+        // dates read again in the lazy mode are indexed again, to no effect
+        indexLoaded(date, bucket);
+    }
+
+    /**
+     * Obtains the bucket of a date, in the lazy mode parsing its day file
+     * into memory if it is not there yet
+     *
+     * @return The bucket, or null if the date has no orders
+     * @throws FlooringMasteryFailedLazyLoadException if the day file cannot
+     *                                                 be loaded
+     */
+    @Override
+    Map<Integer, FlooringMasteryOrder> bucketOf(LocalDate date) {
+        Map<Integer, FlooringMasteryOrder> bucket = ORDERS_MAP.get(date);
+        if (!isLazy()) {
+            return bucket;
+        }
+        if (bucket != null) {
+            LAZY_HITS.increment();
+            RECENT_DATES.put(date, Boolean.TRUE);
+            return bucket;
+        }
+        Path path = DAY_FILES.get(date);
+        // a dirty date missing from memory had its last order removed
+        if (path == null || DIRTY_DATES.contains(date)) {
+            return null;
+        }
+        LAZY_MISSES.increment();
+        Map<Integer, FlooringMasteryOrder> loaded = loadDayFileLazily(date, path);
+        // room is made before the bucket is added, so that it stays in
+        // memory at least until the next one is read
+        evictCleanBuckets(LAZY_CACHE_ORDERS - loaded.size());
+        installBucket(date, loaded);
+        RECENT_DATES.put(date, Boolean.TRUE);
+        cachedOrders += loaded.size();
+        return loaded;
+    }
+
+    /**
+     * Obtains the bucket of a date without keeping it in memory if it is not
+     * there already, for passes over every date
+     *
+     * @return The bucket, or null if the date has no orders
+     * @throws FlooringMasteryFailedLazyLoadException if the day file cannot
+     *                                                 be loaded
+     */
+    @Override
+    Map<Integer, FlooringMasteryOrder> peekBucketOf(LocalDate date) {
+        Map<Integer, FlooringMasteryOrder> bucket = ORDERS_MAP.get(date);
+        if (bucket != null || !isLazy()) {
+            return bucket;
+        }
+        Path path = DAY_FILES.get(date);
+        if (path == null || DIRTY_DATES.contains(date)) {
+            return null;
         }
-        
-        Scanner reader;
-        for (String filename : filenames) {
-            // Parse date from file name, which is assumed to have the form
-            // Orders_MMDDYYYY.txt
-            String monthStr = filename.substring(7, 9);
-            String dayStr = filename.substring(9, 11);
-            String yearStr = filename.substring(11, 15);
-            LocalDate orderDate = LocalDate.parse(
-                String.format(
-                    "%s-%s-%s", 
-                    yearStr, 
-                    monthStr, 
-                    dayStr
-                )
+        return loadDayFileLazily(date, path);
+    }
+
+    private Map<Integer, FlooringMasteryOrder> loadDayFileLazily(LocalDate date, Path path) {
+        Map<Integer, FlooringMasteryOrder> bucket = new TreeMap<>();
+        try {
+            FlooringMasteryOrderCsv.readDayFile(date, path, bucket, INTERNER);
+        } catch (FlooringMasteryFailedLoadException ex) {
+            throw new FlooringMasteryFailedLazyLoadException(
+                "Unable to load the orders of " + date,
+                ex
             );
+        }
+        return bucket;
+    }
 
-            try {
-                reader = new Scanner(
-                    new BufferedReader(
-                        new FileReader(
-                            SRC_DIRECTORY + "/" + filename
-                        )
-                    )
-                );
-            } catch (FileNotFoundException ex) {
-                throw new FlooringMasteryFailedLoadException("Unable to load orders", ex);
+    /**
+     * @return Every date with orders in a range, whether or not they are in
+     *         memory
+     */
+    private NavigableSet<LocalDate> datesInRange(LocalDate from, LocalDate to) {
+        NavigableSet<LocalDate> dates = new TreeSet<>(ORDERS_MAP.subMap(from, true, to, true).keySet());
+        for (LocalDate date : DAY_FILES.subMap(from, true, to, true).keySet()) {
+            if (!DIRTY_DATES.contains(date)) {
+                dates.add(date);
             }
-            
-            reader.nextLine(); // ignore header
-            while (reader.hasNextLine()) {
-                String[] tokens = reader.nextLine().split(",");
-                int orderNum = Integer.parseInt(tokens[0]);
-                String customerName = tokens[1];
-                String state = tokens[2];
-                BigDecimal percentTaxRate = new BigDecimal(tokens[3]);
-
-                String type = tokens[4];
-                BigDecimal area = new BigDecimal(tokens[5]);
-                BigDecimal costPerSqFt = new BigDecimal(tokens[6]);
-                BigDecimal laborCostPerSqFt = new BigDecimal(tokens[7]);
-
-                FlooringMasteryOrder order = new FlooringMasteryOrder(
-                    orderDate,
-                    orderNum,
-                    customerName,
-                    state,
-                    percentTaxRate,
-                    new FlooringMasteryProduct(
-                        type,
-                        costPerSqFt,
-                        laborCostPerSqFt
-                    ),
-                    area
-                );
-                if (!ORDERS_MAP.containsKey(orderDate)) {
-                    ORDERS_MAP.put(orderDate, new TreeMap<>());
-                }
-                ORDERS_MAP.get(orderDate).put(order.getOrderNum(), order);
+        }
+        return dates;
+    }
+
+    @Override
+    Collection<Map<Integer, FlooringMasteryOrder>> bucketsInRange(LocalDate from, LocalDate to) {
+        if (!isLazy()) {
+            return super.bucketsInRange(from, to);
+        }
+        // holds on to the buckets read, whether or not they stay cached
+        List<Map<Integer, FlooringMasteryOrder>> buckets = new ArrayList<>();
+        for (LocalDate date : datesInRange(from, to)) {
+            buckets.add(bucketOf(date));
+        }
+        return buckets;
+    }
+
+    /**
+     * @return Every bucket, which in the lazy mode means reading every day
+     *         file not in memory
+     */
+    @Override
+    NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> allBuckets() {
+        if (!isLazy()) {
+            return ORDERS_MAP;
+        }
+        NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> buckets = new TreeMap<>();
+        for (LocalDate date : datesInRange(LocalDate.MIN, LocalDate.MAX)) {
+            buckets.put(date, peekBucketOf(date));
+        }
+        return buckets;
+    }
+
+    /**
+     * @return The Orders of every date, which in the lazy mode are read one
+     *         by one as they are written
+     */
+    @Override
+    Iterator<Collection<FlooringMasteryOrder>> exportBuckets() {
+        if (!isLazy()) {
+            return super.exportBuckets();
+        }
+        return datesInRange(LocalDate.MIN, LocalDate.MAX).stream()
+            .map(date -> (Collection<FlooringMasteryOrder>) peekBucketOf(date).values())
+            .iterator();
+    }
+
+    /**
+     * Drops the least recently used buckets without unsaved changes until no
+     * more than the given number of orders are held
+     */
+    private void evictCleanBuckets(long limit) {
+        Iterator<LocalDate> dates = RECENT_DATES.keySet().iterator();
+        while (cachedOrders > limit && dates.hasNext()) {
+            LocalDate date = dates.next();
+            if (DIRTY_DATES.contains(date)) {
+                continue;
+            }
+            dates.remove();
+            Map<Integer, FlooringMasteryOrder> bucket = ORDERS_MAP.remove(date);
+            if (bucket != null) {
+                cachedOrders -= bucket.size();
             }
-            reader.close();
         }
     }
 
+    /**
+     * In the lazy mode, finds the highest order number in use and indexes
+     * every Order by reading the first two columns of every day file not in
+     * memory, before the first number is handed out or an Order is looked up
+     * by number or customer
+     */
     @Override
-    public void pushOrder(FlooringMasteryOrder order) {
-        if (!ORDERS_MAP.containsKey(order.getOrderDate())) {
-            ORDERS_MAP.put(order.getOrderDate(), new TreeMap<>());
+    void seedIndexes() {
+        if (orderNumsSeeded) {
+            return;
         }
-        ORDERS_MAP.get(order.getOrderDate()).put(order.getOrderNum(), order);
+        for (Entry<LocalDate, Path> entry : DAY_FILES.entrySet()) {
+            if (ORDERS_MAP.containsKey(entry.getKey()) || DIRTY_DATES.contains(entry.getKey())) {
+                continue;
+            }
+            try {
+                FlooringMasteryCsvReader reader = FlooringMasteryCsvReader.open(entry.getValue());
+                reader.nextRow(); // ignore header
+                while (reader.nextRow()) {
+                    int orderNum = reader.getInt(0);
+                    bumpHighestOrderNum(orderNum);
+                    NUMBER_INDEX.put(orderNum, entry.getKey());
+                    CUSTOMER_INDEX.add(
+                        FlooringMasteryOrderCsv.customerNameOf(reader),
+                        entry.getKey(),
+                        orderNum
+                    );
+                }
+            } catch (IOException | IllegalArgumentException ex) {
+                throw new FlooringMasteryFailedLazyLoadException(
+                    "Unable to load the orders of " + entry.getKey(),
+                    ex
+                );
+            }
+        }
+        orderNumsSeeded = true;
     }
 
     @Override
-    public Set<FlooringMasteryOrder> ordersSet() {
-        Set<FlooringMasteryOrder> receivedOrders = new HashSet<>();
-        ORDERS_MAP.values().forEach(subMap -> {
-            receivedOrders.addAll(subMap.values());
-        });
-        
-        return receivedOrders;
+    public void pushOrder(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException {
+        try {
+            // the existing orders of the date must be in memory first
+            bucketOf(order.getOrderDate());
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedSaveException(ex.getMessage(), ex.getCause());
+        }
+        if (JOURNAL != null) {
+            try {
+                JOURNAL.appendPush(order);
+            } catch (IOException ex) {
+                throw new FlooringMasteryFailedSaveException("Unable to record the order", ex);
+            }
+        }
+        applyPush(order);
     }
 
     @Override
-    public Optional<FlooringMasteryOrder> getOrderByDateAndNumber(LocalDate date, int num) {
-        Optional<FlooringMasteryOrder> receivedInstance;
-        Map<Integer, FlooringMasteryOrder> subMap = ORDERS_MAP.get(date);
+    void applyPush(FlooringMasteryOrder order) {
+        Map<Integer, FlooringMasteryOrder> subMap = bucketOf(order.getOrderDate());
         if (subMap == null) {
-            receivedInstance = Optional.empty();
-        } else {        
-            FlooringMasteryOrder order = subMap.get(num);
-            if (order == null) {
-                receivedInstance = Optional.empty();
-            } else {
-                receivedInstance = Optional.of(order);
+            subMap = new TreeMap<>();
+            ORDERS_MAP.put(order.getOrderDate(), subMap);
+            if (isLazy()) {
+                RECENT_DATES.put(order.getOrderDate(), Boolean.TRUE);
             }
         }
-        return receivedInstance;
+        FlooringMasteryOrder previous = subMap.put(order.getOrderNum(), order);
+        if (previous == null) {
+            cachedOrders++;
+        }
+        indexPush(order, previous);
+        DIRTY_DATES.add(order.getOrderDate());
+        bumpHighestOrderNum(order.getOrderNum());
+    }
+
+    @Override
+    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num)
+        throws FlooringMasteryFailedSaveException {
+
+        boolean present;
+        try {
+            present = getOrderByDateAndNumber(date, num).isPresent();
+        } catch (FlooringMasteryFailedLazyLoadException ex) {
+            throw new FlooringMasteryFailedSaveException(ex.getMessage(), ex.getCause());
+        }
+        if (JOURNAL != null && present) {
+            try {
+                JOURNAL.appendRemove(date, num);
+            } catch (IOException ex) {
+                throw new FlooringMasteryFailedSaveException("Unable to record the removal", ex);
+            }
+        }
+        return applyRemove(date, num);
     }
 
     @Override
-    public Optional<FlooringMasteryOrder> removeOrderByDateAndNumber(LocalDate date, int num) {
+    Optional<FlooringMasteryOrder> applyRemove(LocalDate date, int num) {
         Optional<FlooringMasteryOrder> receivedInstance;
-        Map<Integer, FlooringMasteryOrder> subMap = ORDERS_MAP.get(date);
+        Map<Integer, FlooringMasteryOrder> subMap = bucketOf(date);
         if (subMap == null) {
             receivedInstance = Optional.empty();
         } else {
@@ -172,8 +455,12 @@ public class FlooringMasteryOrderDaoFileImpl implements FlooringMasteryOrderDao
                 receivedInstance = Optional.empty();
             } else {
                 receivedInstance = Optional.of(order);
+                cachedOrders--;
+                indexRemove(order);
+                DIRTY_DATES.add(date);
                 if (subMap.isEmpty()) {
                     ORDERS_MAP.remove(date);
+                    RECENT_DATES.remove(date);
                 }
             }
         }
@@ -182,92 +469,31 @@ public class FlooringMasteryOrderDaoFileImpl implements FlooringMasteryOrderDao
 
     @Override
     public void saveToExternals() throws FlooringMasteryFailedSaveException {
-        for (Entry<LocalDate, Map<Integer, FlooringMasteryOrder>> entry : ORDERS_MAP.entrySet()) {
-            LocalDate date = entry.getKey();
-            String filename = String.format(
-                "Orders_%2d%2d%4d.txt",
-                date.getMonthValue(),
-                date.getDayOfMonth(),
-                date.getYear()
-            );
-            
-            PrintWriter writer;
-            try {
-                writer = new PrintWriter(new FileWriter("Orders/" + filename));
-            } catch (IOException ex) {
-                throw new FlooringMasteryFailedSaveException("Unable to save orders", ex);
-            }
-            
-            writer.println(
-                "OrderNumber,CustomerName,State,TaxRate,ProductType,Area,"
-                + "CostPerSquareFoot,LaborCostPerSquareFoot,MaterialCost,"
-                + "LaborCost,Tax,Total"
-            );
-            
-            entry.getValue().values().forEach(order -> {
-                String line = String.format(
-                    "%d,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    order.getOrderNum(),
-                    order.getCustomerName(),
-                    order.getState(),
-                    order.getPercentTaxRate().toString(),
-                    order.getProductType(),
-                    order.getArea().toString(),
-                    order.getCostPerSqFt().toString(),
-                    order.getLaborCostPerSqFt().toString(),
-                    order.getMaterialCost().toString(),
-                    order.getLaborCost().toString(),
-                    order.getTax().toString(),
-                    order.getTotal().toString()
-                );
-                writer.println(line);
-            });
-            writer.close();
+        long startNanos = System.nanoTime();
+        long journalMark = markJournal();
+        writeDayFiles(
+            DIRTY_DATES.iterator(),
+            date -> {
+                Map<Integer, FlooringMasteryOrder> subMap = ORDERS_MAP.get(date);
+                return subMap == null ? null : subMap.values();
+            },
+            startNanos
+        );
+        if (isLazy()) {
+            // the saved dates are no longer pinned in memory
+            evictCleanBuckets(LAZY_CACHE_ORDERS);
         }
+
+        // every journaled change is now in the day files
+        checkpointJournal(journalMark);
     }
 
     @Override
-    public void export() throws FlooringMasteryFailedExportException {
-        PrintWriter writer;
-        
-        try {
-            writer = new PrintWriter(new FileWriter(EXP_FILE));
-        } catch (IOException ex) {
-            throw new FlooringMasteryFailedExportException("Unable to export orders");
-        }
-        
-        writer.println(
-            "OrderNumber,CustomerName,State,TaxRate,ProductType,Area,"
-            + "CostPerSquareFoot,LaborCostPerSquareFoot,MaterialCost,LaborCost,"
-            + "Tax,Total,OrderDate"
-        );
-        
-        for (Map<Integer, FlooringMasteryOrder> subMap : ORDERS_MAP.values()) {
-            for (FlooringMasteryOrder order : subMap.values()) {
-                String line = String.format(
-                    "%d,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    order.getOrderNum(),
-                    order.getCustomerName(),
-                    order.getState(),
-                    order.getPercentTaxRate().toString(),
-                    order.getProductType(),
-                    order.getArea(),
-                    order.getCostPerSqFt().toString(),
-                    order.getLaborCostPerSqFt().toString(),
-                    order.getMaterialCost().toString(),
-                    order.getLaborCost().toString(),
-                    order.getTax().toString(),
-                    order.getTotal().toString(),
-                    String.format(
-                        "%2d-%2d-%4d",
-                        order.getOrderDate().getMonthValue(),
-                        order.getOrderDate().getDayOfYear(),
-                        order.getOrderDate().getYear()
-                    )
-                );
-                writer.println(line);
-            }
+    void dayFileWritten(LocalDate date, boolean deleted) {
+        if (deleted) {
+            DAY_FILES.remove(date);
+        } else {
+            DAY_FILES.put(date, LAYOUT.pathOf(date));
         }
-        writer.close();
     }
 }
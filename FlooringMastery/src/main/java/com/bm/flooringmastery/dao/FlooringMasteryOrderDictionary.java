@@ -0,0 +1,120 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Numbers the distinct states (each with its tax rate) and products that
+ * Orders refer to, so that columns of Orders can store a small id in place of
+ * each
+ *
+ * Ids are handed out from 0 upward and never reused, and there can be at
+ * most MAX_IDS of each kind, so that they fit in 16 bits. The values looked
+ * up by id are the single instances registered first, and are shared by
+ * every Order rebuilt from the columns.
+ */
+final class FlooringMasteryOrderDictionary {
+    static final int MAX_IDS = 1 << 16;
+
+    private final Map<StateRate, Integer> STATE_IDS;
+    private final List<StateRate> STATES;
+
+    private final Map<FlooringMasteryProduct, Integer> PRODUCT_IDS;
+    private final List<FlooringMasteryProduct> PRODUCTS;
+
+    FlooringMasteryOrderDictionary() {
+        this.STATE_IDS = new HashMap<>();
+        this.STATES = new ArrayList<>();
+        this.PRODUCT_IDS = new HashMap<>();
+        this.PRODUCTS = new ArrayList<>();
+    }
+
+    /**
+     * @param state
+     * @param percentTaxRate
+     * @return The id of this state at this tax rate, registering the pair if
+     *         it is new
+     * @throws IllegalArgumentException if MAX_IDS pairs are already registered
+     */
+    int stateId(String state, BigDecimal percentTaxRate) {
+        StateRate key = new StateRate(state, percentTaxRate);
+        Integer id = STATE_IDS.get(key);
+        if (id == null) {
+            id = register(STATES, key, "states and tax rates");
+            STATE_IDS.put(key, id);
+        }
+        return id;
+    }
+
+    String state(int stateId) {
+        return STATES.get(stateId).STATE;
+    }
+
+    BigDecimal percentTaxRate(int stateId) {
+        return STATES.get(stateId).PERCENT_TAX_RATE;
+    }
+
+    /**
+     * @param product
+     * @return The id of this product, registering it if it is new
+     * @throws IllegalArgumentException if MAX_IDS products are already
+     *                                  registered
+     */
+    int productId(FlooringMasteryProduct product) {
+        Integer id = PRODUCT_IDS.get(product);
+        if (id == null) {
+            id = register(PRODUCTS, product, "products");
+            PRODUCT_IDS.put(product, id);
+        }
+        return id;
+    }
+
+    FlooringMasteryProduct product(int productId) {
+        return PRODUCTS.get(productId);
+    }
+
+    private static <T> int register(List<T> values, T value, String kind) {
+        if (values.size() == MAX_IDS) {
+            throw new IllegalArgumentException("More than " + MAX_IDS + " distinct " + kind);
+        }
+        values.add(value);
+        return values.size() - 1;
+    }
+
+    /**
+     * A state along with the tax rate an Order was charged in it, which
+     * differs between Orders placed before and after a change of rate
+     */
+    private static final class StateRate {
+        private final String STATE;
+        private final BigDecimal PERCENT_TAX_RATE;
+
+        private StateRate(String STATE, BigDecimal PERCENT_TAX_RATE) {
+            this.STATE = STATE;
+            this.PERCENT_TAX_RATE = PERCENT_TAX_RATE;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(STATE) + Objects.hashCode(PERCENT_TAX_RATE);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof StateRate)) {
+                return false;
+            }
+            StateRate other = (StateRate) obj;
+            return Objects.equals(STATE, other.STATE)
+                && Objects.equals(PERCENT_TAX_RATE, other.PERCENT_TAX_RATE);
+        }
+    }
+}
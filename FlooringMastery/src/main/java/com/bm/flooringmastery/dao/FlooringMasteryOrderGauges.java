@@ -0,0 +1,38 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registers the gauges describing the buckets an order Dao holds in memory:
+ * orders.dates, the number of dates; orders.count, the number of orders; and
+ * orders.largestDate, the number of orders of the busiest date
+ */
+final class FlooringMasteryOrderGauges {
+    private FlooringMasteryOrderGauges() {
+    }
+
+    /**
+     * @param dao
+     * @param buckets Gives the buckets of the Dao by date
+     */
+    static <T> void register(T dao, Function<T, ? extends Map<LocalDate, ? extends Map<?, ?>>> buckets) {
+        FlooringMasteryMetrics.gauge("orders.dates", dao, owner -> buckets.apply(owner).size());
+        FlooringMasteryMetrics.gauge("orders.count", dao, owner -> {
+            long count = 0;
+            for (Map<?, ?> bucket : buckets.apply(owner).values()) {
+                count += bucket.size();
+            }
+            return count;
+        });
+        FlooringMasteryMetrics.gauge("orders.largestDate", dao, owner -> {
+            long largest = 0;
+            for (Map<?, ?> bucket : buckets.apply(owner).values()) {
+                largest = Math.max(largest, bucket.size());
+            }
+            return largest;
+        });
+    }
+}
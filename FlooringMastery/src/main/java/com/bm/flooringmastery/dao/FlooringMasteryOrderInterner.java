@@ -0,0 +1,366 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Resolves the states, product types, rates, prices and products of the
+ * order rows being read to single shared instances, so that a loaded archive
+ * holds each distinct value once rather than once per Order
+ *
+ * Fields are looked up by their raw bytes in the file, so a value seen before
+ * is found without decoding it or allocating anything. Products are looked
+ * up by the values of their type and prices: one equal to a product of the
+ * registered catalog resolves to that catalog instance, and any other, such
+ * as one at a historical price, to a single instance shared by every row
+ * naming it.
+ *
+ * Lookups may be made from any number of threads at once without locking;
+ * adding a value takes a lock and replaces the table it goes into. Each
+ * table stops taking the values of rows at MAX_VALUES, after which new
+ * values are simply decoded each time, so an archive of mostly distinct
+ * values cannot make the interner itself a burden. Registered products and
+ * their fields are always kept, however full the tables, since the catalog
+ * is what most rows name; it is registered again whenever it is reloaded.
+ */
+final class FlooringMasteryOrderInterner {
+    static final int MAX_VALUES = 4096;
+
+    private final Pool<String> STRINGS;
+    private final Pool<BigDecimal> DECIMALS;
+    private final ProductPool PRODUCTS;
+
+    FlooringMasteryOrderInterner() {
+        this.STRINGS = new Pool<>(FlooringMasteryCsvReader::getString);
+        this.DECIMALS = new Pool<>(FlooringMasteryCsvReader::getDecimal);
+        this.PRODUCTS = new ProductPool();
+    }
+
+    /**
+     * Makes each product of a catalog the instance that rows naming an equal
+     * product resolve to from now on, whether or not the tables are full
+     *
+     * @param catalog
+     */
+    void registerProducts(Collection<FlooringMasteryProduct> catalog) {
+        for (FlooringMasteryProduct product : catalog) {
+            PRODUCTS.register(
+                STRINGS.register(product.getType()),
+                DECIMALS.register(product.getCostPerSqFt()),
+                DECIMALS.register(product.getLaborCostPerSqFt()),
+                product
+            );
+        }
+    }
+
+    /**
+     * @param row
+     * @param field
+     * @return The field of the current row as a shared String
+     */
+    String string(FlooringMasteryCsvReader row, int field) {
+        return STRINGS.get(row, field);
+    }
+
+    /**
+     * @param row
+     * @param field
+     * @return The field of the current row as a shared decimal
+     * @throws NumberFormatException if the field is not a decimal
+     */
+    BigDecimal decimal(FlooringMasteryCsvReader row, int field) {
+        return DECIMALS.get(row, field);
+    }
+
+    /**
+     * @param type A type, ideally interned
+     * @param costPerSqFt A price, ideally interned
+     * @param laborCostPerSqFt A price, ideally interned
+     * @return The shared product with this type and these prices
+     */
+    FlooringMasteryProduct product(String type, BigDecimal costPerSqFt, BigDecimal laborCostPerSqFt) {
+        return PRODUCTS.get(type, costPerSqFt, laborCostPerSqFt);
+    }
+
+    private interface Decoder<T> {
+        T decode(FlooringMasteryCsvReader row, int field);
+    }
+
+    /**
+     * Values keyed by the bytes they are written as
+     */
+    private static final class Pool<T> {
+        private final Decoder<T> DECODER;
+        private volatile Table table = new Table(16);
+        // guarded by this; the values added for rows, which alone count
+        // towards MAX_VALUES
+        private int rowValues;
+
+        private Pool(Decoder<T> DECODER) {
+            this.DECODER = DECODER;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T get(FlooringMasteryCsvReader row, int field) {
+            int hash = row.hashField(field);
+            Object value = table.find(row, field, hash);
+            return value != null ? (T) value : add(row, field, hash);
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized T add(FlooringMasteryCsvReader row, int field, int hash) {
+            Table current = table;
+            Object value = current.find(row, field, hash);
+            if (value != null) {
+                return (T) value;
+            }
+            T decoded = DECODER.decode(row, field);
+            if (rowValues < MAX_VALUES) {
+                table = current.with(row.getBytes(field), hash, decoded);
+                rowValues++;
+            }
+            return decoded;
+        }
+
+        /**
+         * @return The value already held for the way this one is written
+         *         to a day file, after first adding this one, even to a full
+         *         table, if there is none
+         */
+        @SuppressWarnings("unchecked")
+        private synchronized T register(T value) {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            int hash = Arrays.hashCode(bytes);
+            Object existing = table.find(bytes, hash);
+            if (existing != null) {
+                return (T) existing;
+            }
+            table = table.with(bytes, hash, value);
+            return value;
+        }
+    }
+
+    /**
+     * An open addressing table which is never changed once published
+     */
+    private static final class Table {
+        private final byte[][] KEYS;
+        private final int[] HASHES;
+        private final Object[] VALUES;
+        private final int size;
+
+        private Table(int capacity) {
+            this(new byte[capacity][], new int[capacity], new Object[capacity], 0);
+        }
+
+        private Table(byte[][] KEYS, int[] HASHES, Object[] VALUES, int size) {
+            this.KEYS = KEYS;
+            this.HASHES = HASHES;
+            this.VALUES = VALUES;
+            this.size = size;
+        }
+
+        private Object find(FlooringMasteryCsvReader row, int field, int hash) {
+            int mask = KEYS.length - 1;
+            for (int idx = hash & mask; KEYS[idx] != null; idx = (idx + 1) & mask) {
+                if (HASHES[idx] == hash && row.fieldEquals(field, KEYS[idx])) {
+                    return VALUES[idx];
+                }
+            }
+            return null;
+        }
+
+        private Object find(byte[] key, int hash) {
+            int mask = KEYS.length - 1;
+            for (int idx = hash & mask; KEYS[idx] != null; idx = (idx + 1) & mask) {
+                if (HASHES[idx] == hash && Arrays.equals(KEYS[idx], key)) {
+                    return VALUES[idx];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return A copy of this table with the key added, kept at most half
+         *         full
+         */
+        private Table with(byte[] key, int hash, Object value) {
+            int capacity = KEYS.length;
+            while ((size + 1) * 2 > capacity) {
+                capacity *= 2;
+            }
+            Table copy = new Table(capacity);
+            for (int i = 0; i < KEYS.length; i++) {
+                if (KEYS[i] != null) {
+                    copy.put(KEYS[i], HASHES[i], VALUES[i]);
+                }
+            }
+            copy.put(key, hash, value);
+            return new Table(copy.KEYS, copy.HASHES, copy.VALUES, size + 1);
+        }
+
+        private void put(byte[] key, int hash, Object value) {
+            int mask = KEYS.length - 1;
+            int idx = hash & mask;
+            while (KEYS[idx] != null) {
+                idx = (idx + 1) & mask;
+            }
+            KEYS[idx] = key;
+            HASHES[idx] = hash;
+            VALUES[idx] = value;
+        }
+    }
+
+    /**
+     * Products keyed by their type and prices, kept like Table in a
+     * copy-on-write open addressing table
+     *
+     * The keys are compared by value, since a type or price decoded once
+     * its pool was full is an equal but distinct instance; the interned ones
+     * are still compared at the cost of a reference check.
+     */
+    private static final class ProductPool {
+        private volatile ProductTable table = new ProductTable(16);
+        // guarded by this; as in Pool
+        private int rowProducts;
+
+        private FlooringMasteryProduct get(String type, BigDecimal cost, BigDecimal laborCost) {
+            int hash = hash(type, cost, laborCost);
+            int idx = table.indexOf(type, cost, laborCost, hash);
+            return idx >= 0 ? table.PRODUCTS[idx] : put(type, cost, laborCost, hash, null);
+        }
+
+        private void register(String type, BigDecimal cost, BigDecimal laborCost, FlooringMasteryProduct product) {
+            put(type, cost, laborCost, hash(type, cost, laborCost), product);
+        }
+
+        /**
+         * @param product The product to hold, replacing any held for these
+         *                keys, or null to hold a new one only if none is
+         * @return The product held for these keys
+         */
+        private synchronized FlooringMasteryProduct put(
+            String type,
+            BigDecimal cost,
+            BigDecimal laborCost,
+            int hash,
+            FlooringMasteryProduct product) {
+
+            ProductTable current = table;
+            int idx = current.indexOf(type, cost, laborCost, hash);
+            if (product != null) {
+                table = current.with(type, cost, laborCost, hash, product);
+                return product;
+            }
+            if (idx >= 0) {
+                return current.PRODUCTS[idx];
+            }
+            product = new FlooringMasteryProduct(type, cost, laborCost);
+            if (rowProducts < MAX_VALUES) {
+                table = current.with(type, cost, laborCost, hash, product);
+                rowProducts++;
+            }
+            return product;
+        }
+
+        private static int hash(String type, BigDecimal cost, BigDecimal laborCost) {
+            int hash = type.hashCode();
+            hash = 31 * hash + cost.hashCode();
+            return 31 * hash + laborCost.hashCode();
+        }
+    }
+
+    private static final class ProductTable {
+        private final String[] TYPES;
+        private final BigDecimal[] COSTS;
+        private final BigDecimal[] LABOR_COSTS;
+        private final int[] HASHES;
+        private final FlooringMasteryProduct[] PRODUCTS;
+        private final int size;
+
+        private ProductTable(int capacity) {
+            this.TYPES = new String[capacity];
+            this.COSTS = new BigDecimal[capacity];
+            this.LABOR_COSTS = new BigDecimal[capacity];
+            this.HASHES = new int[capacity];
+            this.PRODUCTS = new FlooringMasteryProduct[capacity];
+            this.size = 0;
+        }
+
+        private ProductTable(ProductTable filled, int size) {
+            this.TYPES = filled.TYPES;
+            this.COSTS = filled.COSTS;
+            this.LABOR_COSTS = filled.LABOR_COSTS;
+            this.HASHES = filled.HASHES;
+            this.PRODUCTS = filled.PRODUCTS;
+            this.size = size;
+        }
+
+        private int indexOf(String type, BigDecimal cost, BigDecimal laborCost, int hash) {
+            int mask = PRODUCTS.length - 1;
+            for (int idx = hash & mask; PRODUCTS[idx] != null; idx = (idx + 1) & mask) {
+                if (HASHES[idx] == hash
+                    && TYPES[idx].equals(type)
+                    && COSTS[idx].equals(cost)
+                    && LABOR_COSTS[idx].equals(laborCost)) {
+                    return idx;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return A copy of this table with the product held for these keys,
+         *         kept at most half full
+         */
+        private ProductTable with(
+            String type,
+            BigDecimal cost,
+            BigDecimal laborCost,
+            int hash,
+            FlooringMasteryProduct product) {
+
+            boolean replacing = indexOf(type, cost, laborCost, hash) >= 0;
+            int size = replacing ? this.size : this.size + 1;
+            int capacity = PRODUCTS.length;
+            while (size * 2 > capacity) {
+                capacity *= 2;
+            }
+            ProductTable copy = new ProductTable(capacity);
+            for (int i = 0; i < PRODUCTS.length; i++) {
+                if (PRODUCTS[i] != null
+                    && !(HASHES[i] == hash
+                        && TYPES[i].equals(type)
+                        && COSTS[i].equals(cost)
+                        && LABOR_COSTS[i].equals(laborCost))) {
+
+                    copy.put(TYPES[i], COSTS[i], LABOR_COSTS[i], HASHES[i], PRODUCTS[i]);
+                }
+            }
+            copy.put(type, cost, laborCost, hash, product);
+            return new ProductTable(copy, size);
+        }
+
+        private void put(
+            String type,
+            BigDecimal cost,
+            BigDecimal laborCost,
+            int hash,
+            FlooringMasteryProduct product) {
+
+            int mask = PRODUCTS.length - 1;
+            int idx = hash & mask;
+            while (PRODUCTS[idx] != null) {
+                idx = (idx + 1) & mask;
+            }
+            TYPES[idx] = type;
+            COSTS[idx] = cost;
+            LABOR_COSTS[idx] = laborCost;
+            HASHES[idx] = hash;
+            PRODUCTS[idx] = product;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only, write-ahead journal of Order mutations
+ *
+ * Every push or removal is appended as a single length-prefixed, checksummed
+ * record before it is applied in memory. Appended records are forced to disk
+ * in groups: with a group-commit interval of 0 every append is forced before
+ * returning, otherwise a background thread forces whatever has accumulated
+ * once per interval, so at most one interval's worth of mutations can be lost
+ * in a crash.
+ *
+ * A torn or corrupt record at the end of the journal (e.g. from a crash
+ * mid-append) ends the replay, and the journal is truncated back to the last
+ * intact record.
+ *
+ * A save that runs alongside appends marks the journal when it captures the
+ * Orders, and once they are in the day files checkpoints it at that mark:
+ * the records before it are dropped, and those appended since are kept for
+ * the next save.
+ *
+ * A process that changes Orders first locks the journal, through a lock on
+ * a file named after it with ".lock" appended, so that a second such process
+ * on the same data fails to start rather than interleave its saves and
+ * records with the first's. The lock is held until the journal is closed, or
+ * the process ends. A process that only reads Orders need not lock; its
+ * replay leaves a torn tail alone while another process holds the lock.
+ */
+public class FlooringMasteryOrderJournal {
+    private static final byte PUSH = 1;
+    private static final byte REMOVE = 2;
+
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    /**
+     * The lock files held by journals of this process. The operating system
+     * releases a process's lock on a file as soon as it closes any channel to
+     * that file, so a second journal on the same file must fail without ever
+     * opening it.
+     */
+    private static final Set<Path> LOCKED_FILES = ConcurrentHashMap.newKeySet();
+
+    private final Path JOURNAL_FILE;
+    private final Path LOCK_FILE;
+    private final long GROUP_COMMIT_MILLIS;
+
+    private final ByteArrayOutputStream RECORD_BYTES = new ByteArrayOutputStream(256);
+    private final DataOutputStream RECORD_OUT = new DataOutputStream(RECORD_BYTES);
+    private final CRC32 CRC = new CRC32();
+
+    private FileChannel channel;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private ScheduledExecutorService committer;
+
+    private long appendedRecords;
+    private long syncedRecords;
+    private long syncs;
+
+    /**
+     * @param JOURNAL_FILE
+     * @param GROUP_COMMIT_MILLIS The longest time an appended record may wait
+     *                            before being forced to disk; 0 forces every
+     *                            record as it is appended
+     */
+    public FlooringMasteryOrderJournal(String JOURNAL_FILE, long GROUP_COMMIT_MILLIS) {
+        this.JOURNAL_FILE = Paths.get(JOURNAL_FILE);
+        this.LOCK_FILE = this.JOURNAL_FILE.toAbsolutePath().normalize()
+            .resolveSibling(this.JOURNAL_FILE.getFileName() + ".lock");
+        this.GROUP_COMMIT_MILLIS = Math.max(0, GROUP_COMMIT_MILLIS);
+    }
+
+    /**
+     * Receives the mutations read back from the journal
+     */
+    public interface Replayer {
+        public void replayPush(FlooringMasteryOrder order);
+
+        public void replayRemove(LocalDate date, int num);
+    }
+
+    /**
+     * Feeds every intact record of the journal, in order, to the replayer
+     *
+     * @param replayer
+     * @return The number of records replayed
+     * @throws IOException
+     */
+    public synchronized long replay(Replayer replayer) throws IOException {
+        if (!Files.exists(JOURNAL_FILE)) {
+            return 0;
+        }
+
+        long replayed = 0;
+        long goodLength = 0;
+        try (FileChannel reader = FileChannel.open(JOURNAL_FILE, StandardOpenOption.READ)) {
+            long size = reader.size();
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            while (goodLength + Integer.BYTES <= size) {
+                header.clear();
+                readFully(reader, header, goodLength);
+                int length = header.getInt(0);
+                if (length <= 0 || length > MAX_RECORD_LENGTH
+                    || goodLength + Integer.BYTES + length + Integer.BYTES > size) {
+                    break;
+                }
+
+                ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+                readFully(reader, body, goodLength + Integer.BYTES);
+                CRC.reset();
+                CRC.update(body.array(), 0, length);
+                if ((int) CRC.getValue() != body.getInt(length)) {
+                    break;
+                }
+
+                apply(body.array(), length, replayer);
+                replayed++;
+                goodLength += Integer.BYTES + length + Integer.BYTES;
+            }
+        }
+
+        if (goodLength < Files.size(JOURNAL_FILE)) {
+            truncateTornTail(goodLength);
+        }
+        return replayed;
+    }
+
+    /**
+     * Truncates the journal back to its last intact record, unless another
+     * process holds the lock, in which case the tail may be a record it is
+     * still appending
+     */
+    private void truncateTornTail(long goodLength) throws IOException {
+        boolean locked = lock != null;
+        if (!locked) {
+            try {
+                lock();
+            } catch (IOException ex) {
+                return;
+            }
+        }
+        try (FileChannel truncater = FileChannel.open(JOURNAL_FILE, StandardOpenOption.WRITE)) {
+            truncater.truncate(goodLength);
+            truncater.force(true);
+        } finally {
+            if (!locked) {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Locks the journal for this process, before it replays the journal and
+     * changes any Order; does nothing if this journal holds the lock already
+     *
+     * @throws IOException if another process holds the lock, or it cannot be
+     *                     taken
+     */
+    public synchronized void lock() throws IOException {
+        if (lock != null) {
+            return;
+        }
+        if (!LOCKED_FILES.add(LOCK_FILE)) {
+            throw new IOException("The orders are in use (" + LOCK_FILE + " is locked)");
+        }
+        try {
+            FileChannel newLockChannel = FileChannel.open(
+                LOCK_FILE,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE
+            );
+            try {
+                lock = newLockChannel.tryLock();
+            } finally {
+                if (lock == null) {
+                    newLockChannel.close();
+                }
+            }
+            if (lock == null) {
+                throw new IOException(
+                    "The orders are in use by another process (" + LOCK_FILE + " is locked)"
+                );
+            }
+            lockChannel = newLockChannel;
+        } finally {
+            if (lock == null) {
+                LOCKED_FILES.remove(LOCK_FILE);
+            }
+        }
+    }
+
+    /**
+     * @return Whether this journal holds the lock
+     */
+    public synchronized boolean isLocked() {
+        return lock != null;
+    }
+
+    /**
+     * Opens the journal for appending, creating it if necessary
+     *
+     * @throws IOException
+     */
+    public synchronized void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        channel = FileChannel.open(
+            JOURNAL_FILE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND
+        );
+        if (GROUP_COMMIT_MILLIS > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-journal-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(
+                this::syncQuietly,
+                GROUP_COMMIT_MILLIS,
+                GROUP_COMMIT_MILLIS,
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Appends a record of this order being pushed
+     *
+     * @param order
+     * @throws IOException
+     */
+    public synchronized void appendPush(FlooringMasteryOrder order) throws IOException {
+        RECORD_BYTES.reset();
+        RECORD_OUT.writeByte(PUSH);
+        RECORD_OUT.writeInt((int) order.getOrderDate().toEpochDay());
+        RECORD_OUT.writeInt(order.getOrderNum());
+        RECORD_OUT.writeUTF(order.getCustomerName());
+        RECORD_OUT.writeUTF(order.getState());
+        RECORD_OUT.writeUTF(order.getPercentTaxRate().toString());
+        RECORD_OUT.writeUTF(order.getProductType());
+        RECORD_OUT.writeUTF(order.getArea().toString());
+        RECORD_OUT.writeUTF(order.getCostPerSqFt().toString());
+        RECORD_OUT.writeUTF(order.getLaborCostPerSqFt().toString());
+        appendRecord();
+    }
+
+    /**
+     * Appends a record of the order with this date and number being removed
+     *
+     * @param date
+     * @param num
+     * @throws IOException
+     */
+    public synchronized void appendRemove(LocalDate date, int num) throws IOException {
+        RECORD_BYTES.reset();
+        RECORD_OUT.writeByte(REMOVE);
+        RECORD_OUT.writeInt((int) date.toEpochDay());
+        RECORD_OUT.writeInt(num);
+        appendRecord();
+    }
+
+    /**
+     * Forces every appended record to disk
+     *
+     * @throws IOException
+     */
+    public synchronized void sync() throws IOException {
+        if (channel != null && syncedRecords < appendedRecords) {
+            channel.force(false);
+            syncedRecords = appendedRecords;
+            syncs++;
+        }
+    }
+
+    /**
+     * @return The position just past the last record appended, to checkpoint
+     *         the journal at once every mutation up to it is saved
+     * @throws IOException
+     */
+    public synchronized long mark() throws IOException {
+        if (channel != null) {
+            return channel.size();
+        }
+        return Files.exists(JOURNAL_FILE) ? Files.size(JOURNAL_FILE) : 0;
+    }
+
+    /**
+     * Discards the records before a mark, once their effects are safely in
+     * the day files, and keeps every record appended since
+     *
+     * The kept records are copied to a new file which then replaces the
+     * journal, so a crash midway leaves either the old journal or the new
+     * one; replaying the old one on top of the day files still yields the
+     * latest state.
+     *
+     * @param position A position mark gave
+     * @throws IOException
+     */
+    public synchronized void checkpoint(long position) throws IOException {
+        long size = mark();
+        if (position >= size) {
+            reset();
+            return;
+        }
+        if (position <= 0) {
+            return;
+        }
+
+        Path tail = JOURNAL_FILE.resolveSibling(JOURNAL_FILE.getFileName() + ".tmp");
+        try (FileChannel reader = FileChannel.open(JOURNAL_FILE, StandardOpenOption.READ);
+             FileChannel writer = FileChannel.open(
+                 tail,
+                 StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING,
+                 StandardOpenOption.WRITE
+             )) {
+            long copied = 0;
+            while (copied < size - position) {
+                copied += reader.transferTo(position + copied, size - position - copied, writer);
+            }
+            writer.force(true);
+        }
+
+        if (channel == null) {
+            Files.move(tail, JOURNAL_FILE, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        channel.close();
+        try {
+            Files.move(tail, JOURNAL_FILE, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            // the kept records were forced along with the new file
+            syncedRecords = appendedRecords;
+        } finally {
+            // appends carry on in whichever file is now the journal
+            channel = FileChannel.open(
+                JOURNAL_FILE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+            );
+        }
+    }
+
+    /**
+     * Discards every record, once their effects are safely in the day files
+     *
+     * @throws IOException
+     */
+    public synchronized void reset() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+            channel.force(true);
+            syncedRecords = appendedRecords;
+        } else {
+            Files.deleteIfExists(JOURNAL_FILE);
+        }
+    }
+
+    /**
+     * Forces any remaining records to disk and releases the journal
+     *
+     * @throws IOException
+     */
+    public synchronized void close() throws IOException {
+        if (committer != null) {
+            committer.shutdownNow();
+            committer = null;
+        }
+        if (channel != null) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+        unlock();
+    }
+
+    private void unlock() throws IOException {
+        if (lockChannel != null) {
+            // closing the channel releases the lock
+            try {
+                lockChannel.close();
+            } finally {
+                lockChannel = null;
+                lock = null;
+                LOCKED_FILES.remove(LOCK_FILE);
+            }
+        }
+    }
+
+    /**
+     * @return The number of records appended since this journal was created
+     */
+    public synchronized long getAppendedRecords() {
+        return appendedRecords;
+    }
+
+    /**
+     * @return The number of times appended records were forced to disk
+     */
+    public synchronized long getSyncCount() {
+        return syncs;
+    }
+
+    private void appendRecord() throws IOException {
+        if (channel == null) {
+            throw new IOException("The order journal is not open");
+        }
+        RECORD_OUT.flush();
+        byte[] body = RECORD_BYTES.toByteArray();
+        int length = body.length;
+        CRC.reset();
+        CRC.update(body, 0, length);
+
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        record.putInt(length);
+        record.put(body);
+        record.putInt((int) CRC.getValue());
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        appendedRecords++;
+
+        if (GROUP_COMMIT_MILLIS == 0) {
+            sync();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException ex) {
+            // the next interval or an explicit sync will try again
+        }
+    }
+
+    private static void apply(byte[] record, int length, Replayer replayer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+        byte type = in.readByte();
+        LocalDate date = LocalDate.ofEpochDay(in.readInt());
+        int num = in.readInt();
+        if (type == PUSH) {
+            String customerName = in.readUTF();
+            String state = in.readUTF();
+            BigDecimal percentTaxRate = new BigDecimal(in.readUTF());
+            String productType = in.readUTF();
+            BigDecimal area = new BigDecimal(in.readUTF());
+            BigDecimal costPerSqFt = new BigDecimal(in.readUTF());
+            BigDecimal laborCostPerSqFt = new BigDecimal(in.readUTF());
+            replayer.replayPush(new FlooringMasteryOrder(
+                date,
+                num,
+                customerName,
+                state,
+                percentTaxRate,
+                new FlooringMasteryProduct(productType, costPerSqFt, laborCostPerSqFt),
+                area
+            ));
+        } else if (type == REMOVE) {
+            replayer.replayRemove(date, num);
+        } else {
+            throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    private static void readFully(FileChannel reader, ByteBuffer buffer, long position)
+        throws IOException {
+
+        while (buffer.hasRemaining()) {
+            int read = reader.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of the order journal");
+            }
+        }
+    }
+}
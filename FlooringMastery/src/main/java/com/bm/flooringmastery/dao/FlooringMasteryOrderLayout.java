@@ -0,0 +1,378 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Where the day files of an Orders directory live, and the manifest which
+ * lists them
+ *
+ * A directory is either flat, every Orders_MMDDYYYY.txt file directly in it,
+ * or partitioned, each in a YYYY/MM subdirectory, such as
+ * Orders/2021/08/Orders_08052021.txt. A partitioned directory holds a
+ * manifest, manifest.csv, recording the date, row count, size, modification
+ * time and CRC32 of every day file, and is told apart by it: a directory
+ * without one is read as flat, exactly as before.
+ *
+ * The day files of a partitioned directory are planned from the manifest
+ * alone, so loading costs one small read however many files there are,
+ * rather than a listing of them all. Saves keep it up to date, writing it
+ * after the day files and before the journal is emptied, so that a crash
+ * between the two is repaired by replaying the journal. A day file added by
+ * hand is not seen until migrateToPartitioned is run again.
+ *
+ * Not thread-safe; each Dao saves one pass at a time.
+ */
+public final class FlooringMasteryOrderLayout {
+    public static final String MANIFEST_NAME = "manifest.csv";
+
+    private static final String MANIFEST_HEADER = "Date,Rows,Bytes,ModifiedMillis,Crc32";
+
+    /**
+     * Where MMDDYYYY starts in the name of a day file
+     */
+    private static final int MONTH_START = "Orders_".length();
+
+    private final Path DIRECTORY;
+
+    /**
+     * The entries of the manifest, or null while the directory is flat
+     */
+    private NavigableMap<LocalDate, DayFile> manifest;
+    private boolean opened;
+    private boolean manifestChanged;
+
+    FlooringMasteryOrderLayout(Path DIRECTORY) {
+        this.DIRECTORY = DIRECTORY;
+    }
+
+    /**
+     * Reads the manifest, if there is one; done again by every load, and
+     * otherwise before the first save
+     *
+     * @throws IOException
+     */
+    void open() throws IOException {
+        Path manifestPath = DIRECTORY.resolve(MANIFEST_NAME);
+        manifest = Files.isRegularFile(manifestPath) ? readManifest(manifestPath) : null;
+        manifestChanged = false;
+        opened = true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!opened) {
+            open();
+        }
+    }
+
+    boolean isPartitioned() {
+        return manifest != null;
+    }
+
+    /**
+     * Gathers every day file, from the manifest if the directory is
+     * partitioned and otherwise by listing it, keyed and sorted by date
+     *
+     * @return The aforementioned files
+     * @throws IOException
+     */
+    NavigableMap<LocalDate, Path> listDayFiles() throws IOException {
+        ensureOpen();
+        if (manifest == null) {
+            return FlooringMasteryOrderCsv.listDayFiles(DIRECTORY);
+        }
+        NavigableMap<LocalDate, Path> dayFiles = new TreeMap<>();
+        for (LocalDate date : manifest.keySet()) {
+            dayFiles.put(date, pathOf(date));
+        }
+        return dayFiles;
+    }
+
+    /**
+     * @param date
+     * @return The size of the date's day file as of the manifest, or 0 if the
+     *         directory is flat or the date has none
+     */
+    long plannedBytes(LocalDate date) {
+        DayFile dayFile = manifest == null ? null : manifest.get(date);
+        return dayFile == null ? 0 : dayFile.BYTES;
+    }
+
+    /**
+     * @return The file whose modification time changes whenever a day file
+     *         is added or removed: the manifest if the directory is
+     *         partitioned, otherwise the directory itself
+     */
+    Path changeMarker() {
+        return manifest == null ? DIRECTORY : DIRECTORY.resolve(MANIFEST_NAME);
+    }
+
+    /**
+     * @param date
+     * @return Where the day file of this date belongs in this directory
+     */
+    Path pathOf(LocalDate date) {
+        return manifest == null
+            ? DIRECTORY.resolve(FlooringMasteryOrderCsv.filenameForDate(date))
+            : partitionedPathOf(DIRECTORY, date);
+    }
+
+    private static Path partitionedPathOf(Path directory, LocalDate date) {
+        // built as one relative path, since resolving is the costly part
+        String filename = FlooringMasteryOrderCsv.filenameForDate(date);
+        StringBuilder relative = new StringBuilder(8 + filename.length());
+        relative.append(filename, MONTH_START + 4, MONTH_START + 8).append('/')
+            .append(filename, MONTH_START, MONTH_START + 2).append('/')
+            .append(filename);
+        return directory.resolve(relative.toString());
+    }
+
+    /**
+     * Atomically replaces the day file of a date, recording it in the
+     * manifest if there is one
+     *
+     * @param date
+     * @param orders
+     * @param rows The number of orders
+     * @param contents A scratch builder, which may be reused between calls
+     * @return The number of bytes written
+     * @throws IOException
+     */
+    long writeDayFile(
+        LocalDate date,
+        Iterable<FlooringMasteryOrder> orders,
+        int rows,
+        StringBuilder contents) throws IOException {
+
+        ensureOpen();
+        Path target = pathOf(date);
+        if (manifest == null) {
+            return FlooringMasteryOrderCsv.writeDayFile(target, orders, contents, null);
+        }
+        Files.createDirectories(target.getParent());
+        CRC32 crc = new CRC32();
+        long bytes = FlooringMasteryOrderCsv.writeDayFile(target, orders, contents, crc);
+        manifest.put(date, new DayFile(
+            rows,
+            bytes,
+            Files.getLastModifiedTime(target).toMillis(),
+            crc.getValue()
+        ));
+        manifestChanged = true;
+        return bytes;
+    }
+
+    /**
+     * Deletes the day file of a date whose last order was removed
+     *
+     * @param date
+     * @throws IOException
+     */
+    void deleteDayFile(LocalDate date) throws IOException {
+        ensureOpen();
+        Files.deleteIfExists(pathOf(date));
+        if (manifest != null && manifest.remove(date) != null) {
+            manifestChanged = true;
+        }
+    }
+
+    /**
+     * Writes the manifest, if the day files written or deleted since it was
+     * last written changed it
+     *
+     * @throws IOException
+     */
+    void commit() throws IOException {
+        if (manifest != null && manifestChanged) {
+            writeManifest(DIRECTORY.resolve(MANIFEST_NAME), manifest);
+            manifestChanged = false;
+        }
+    }
+
+    /**
+     * Moves every day file of a flat directory into its YYYY/MM
+     * subdirectory, then writes the manifest from every day file there
+     *
+     * A directory already partitioned is left as is, apart from any day file
+     * placed directly in it since; running this again also repairs a
+     * manifest that no longer matches the day files. A flat day file whose
+     * date already has a partitioned one is left in place and reported. Only
+     * to be run while no application is using the directory.
+     *
+     * @param directory
+     * @return A description of each flat day file which could not be moved
+     * @throws IOException
+     */
+    public static List<String> migrateToPartitioned(Path directory) throws IOException {
+        List<String> conflicts = new ArrayList<>();
+        for (Entry<LocalDate, Path> entry : FlooringMasteryOrderCsv.listDayFiles(directory).entrySet()) {
+            Path target = partitionedPathOf(directory, entry.getKey());
+            if (Files.exists(target)) {
+                conflicts.add(entry.getValue().getFileName() + " was left in place, as "
+                    + directory.relativize(target) + " already exists");
+                continue;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(entry.getValue(), target);
+        }
+
+        NavigableMap<LocalDate, DayFile> entries = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory, 3)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Optional<LocalDate> date = FlooringMasteryOrderCsv.dateFromFilename(path.getFileName().toString());
+                if (date.isPresent() && path.equals(partitionedPathOf(directory, date.get()))) {
+                    entries.put(date.get(), describe(path));
+                }
+            }
+        }
+        writeManifest(directory.resolve(MANIFEST_NAME), entries);
+        return conflicts;
+    }
+
+    /**
+     * Checks every day file listed in the manifest of a partitioned directory
+     * against it, reading each in full
+     *
+     * @param directory
+     * @return A description of each mismatch, which is empty if there are
+     *         none
+     * @throws IOException if the directory has no readable manifest
+     */
+    public static List<String> verify(Path directory) throws IOException {
+        Path manifestPath = directory.resolve(MANIFEST_NAME);
+        if (!Files.isRegularFile(manifestPath)) {
+            throw new IOException(directory + " has no " + MANIFEST_NAME + "; it is not partitioned");
+        }
+        List<String> mismatches = new ArrayList<>();
+        for (Entry<LocalDate, DayFile> entry : readManifest(manifestPath).entrySet()) {
+            Path path = partitionedPathOf(directory, entry.getKey());
+            String name = directory.relativize(path).toString();
+            if (!Files.isRegularFile(path)) {
+                mismatches.add(name + " is missing");
+                continue;
+            }
+            DayFile expected = entry.getValue();
+            DayFile actual = describe(path);
+            if (actual.BYTES != expected.BYTES || actual.CRC != expected.CRC) {
+                mismatches.add(name + " has changed since it was recorded");
+            } else if (actual.ROWS != expected.ROWS) {
+                mismatches.add(name + " holds " + actual.ROWS + " orders, not " + expected.ROWS);
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Reads a day file in full to describe it as the manifest would
+     */
+    private static DayFile describe(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        int lines = 0;
+        for (byte b : bytes) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        if (bytes.length > 0 && bytes[bytes.length - 1] != '\n') {
+            lines++;
+        }
+        FileTime modified = Files.getLastModifiedTime(path);
+        // the header is not an order
+        return new DayFile(Math.max(0, lines - 1), bytes.length, modified.toMillis(), crc.getValue());
+    }
+
+    private static NavigableMap<LocalDate, DayFile> readManifest(Path manifestPath) throws IOException {
+        NavigableMap<LocalDate, DayFile> entries = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String line = reader.readLine(); // ignore header
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                // Read field by field rather than split, and the date by its
+                // fixed positions, as a manifest may list tens of thousands
+                // of dates
+                try {
+                    int rowsAt = line.indexOf(',') + 1;
+                    int bytesAt = line.indexOf(',', rowsAt) + 1;
+                    int modifiedAt = line.indexOf(',', bytesAt) + 1;
+                    int crcAt = line.indexOf(',', modifiedAt) + 1;
+                    if (rowsAt != 11 || bytesAt == 0 || modifiedAt == 0 || crcAt == 0
+                        || line.charAt(4) != '-' || line.charAt(7) != '-') {
+                        throw new IllegalArgumentException();
+                    }
+                    entries.put(
+                        LocalDate.of(
+                            Integer.parseInt(line, 0, 4, 10),
+                            Integer.parseInt(line, 5, 7, 10),
+                            Integer.parseInt(line, 8, 10, 10)
+                        ),
+                        new DayFile(
+                            Integer.parseInt(line, rowsAt, bytesAt - 1, 10),
+                            Long.parseLong(line, bytesAt, modifiedAt - 1, 10),
+                            Long.parseLong(line, modifiedAt, crcAt - 1, 10),
+                            Long.parseLong(line, crcAt, line.length(), 16)
+                        )
+                    );
+                } catch (RuntimeException ex) {
+                    throw new IOException("Malformed entry in " + manifestPath + " at line " + lineNumber, ex);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static void writeManifest(Path manifestPath, Map<LocalDate, DayFile> entries) throws IOException {
+        StringBuilder contents = new StringBuilder(MANIFEST_HEADER.length() + 1 + entries.size() * 48);
+        contents.append(MANIFEST_HEADER).append('\n');
+        for (Entry<LocalDate, DayFile> entry : entries.entrySet()) {
+            DayFile dayFile = entry.getValue();
+            contents.append(entry.getKey()).append(',')
+                .append(dayFile.ROWS).append(',')
+                .append(dayFile.BYTES).append(',')
+                .append(dayFile.MODIFIED_MILLIS).append(',')
+                .append(Long.toHexString(dayFile.CRC)).append('\n');
+        }
+        FlooringMasteryAtomicFiles.write(
+            manifestPath,
+            ByteBuffer.wrap(contents.toString().getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * One entry of the manifest
+     */
+    private static final class DayFile {
+        private final int ROWS;
+        private final long BYTES;
+        private final long MODIFIED_MILLIS;
+        private final long CRC;
+
+        private DayFile(int ROWS, long BYTES, long MODIFIED_MILLIS, long CRC) {
+            this.ROWS = ROWS;
+            this.BYTES = BYTES;
+            this.MODIFIED_MILLIS = MODIFIED_MILLIS;
+            this.CRC = CRC;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.bm.flooringmastery.dao;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The date of every Order by its number, so that an Order can be found from
+ * its number alone without searching every date
+ *
+ * Numbers and dates are kept as ints in a single open-addressed table with
+ * linear probing, rather than as boxed keys and values in a HashMap: an
+ * entry costs 8 bytes at most, and a lookup allocates nothing. Removals
+ * shift the following entries of a probe run back instead of leaving
+ * tombstones, so the table never needs cleaning.
+ *
+ * Not thread-safe. A reader racing a writer cannot loop or fail, as a lookup
+ * reads the table once and probes it at most once around, but may miss or
+ * misread an entry; such a reader must validate what it read, as with a
+ * StampedLock.
+ */
+final class FlooringMasteryOrderNumberIndex {
+    /**
+     * Returned by epochDayOf for a number not in the index
+     */
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_LOAD_PERCENT = 60;
+
+    /**
+     * put refuses dates with this epoch day, so it marks a free slot
+     */
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private Table table;
+    private int size;
+
+    FlooringMasteryOrderNumberIndex() {
+        this.table = new Table(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param num
+     * @return The epoch day of the Order with this number, or ABSENT
+     */
+    long epochDayOf(int num) {
+        Table current = table;
+        int mask = current.NUMS.length - 1;
+        int idx = slotOf(num, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            int day = current.DAYS[idx];
+            if (day == FREE) {
+                return ABSENT;
+            }
+            if (current.NUMS[idx] == num) {
+                return day;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * @param num
+     * @return The date of the Order with this number, or null
+     */
+    LocalDate dateOf(int num) {
+        long epochDay = epochDayOf(num);
+        return epochDay == ABSENT ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Records the date of a number, replacing any date it had
+     *
+     * @param num
+     * @param date
+     * @throws IllegalArgumentException if the date is millions of years away
+     */
+    void put(int num, LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay <= FREE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The date " + date + " is too far away to index");
+        }
+        int day = (int) epochDay;
+        if ((size + 1) * 100L > table.NUMS.length * (long) MAX_LOAD_PERCENT) {
+            rehash(table.NUMS.length * 2);
+        }
+        Table current = table;
+        int mask = current.NUMS.length - 1;
+        int idx = slotOf(num, mask);
+        while (current.DAYS[idx] != FREE) {
+            if (current.NUMS[idx] == num) {
+                current.DAYS[idx] = day;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+        current.NUMS[idx] = num;
+        current.DAYS[idx] = day;
+        size++;
+    }
+
+    /**
+     * Forgets a number, provided it is still recorded under the given date;
+     * an Order pushed since under the same number on another date keeps its
+     * entry
+     *
+     * @param num
+     * @param date
+     */
+    void remove(int num, LocalDate date) {
+        Table current = table;
+        int mask = current.NUMS.length - 1;
+        int idx = slotOf(num, mask);
+        while (current.DAYS[idx] != FREE) {
+            if (current.NUMS[idx] == num) {
+                if (current.DAYS[idx] == date.toEpochDay()) {
+                    shiftBack(current, idx);
+                    size--;
+                }
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    /**
+     * Frees a slot, moving back any later entry of the probe run that would
+     * otherwise no longer be reachable from its home slot
+     */
+    private static void shiftBack(Table current, int free) {
+        int mask = current.NUMS.length - 1;
+        int idx = free;
+        while (true) {
+            idx = (idx + 1) & mask;
+            if (current.DAYS[idx] == FREE) {
+                break;
+            }
+            int home = slotOf(current.NUMS[idx], mask);
+            // the entry may move back unless its home lies cyclically in
+            // (free, idx]
+            boolean reachable = free <= idx
+                ? free < home && home <= idx
+                : free < home || home <= idx;
+            if (!reachable) {
+                current.NUMS[free] = current.NUMS[idx];
+                current.DAYS[free] = current.DAYS[idx];
+                free = idx;
+            }
+        }
+        current.DAYS[free] = FREE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        table = new Table(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        Table old = table;
+        Table grown = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.NUMS.length; i++) {
+            if (old.DAYS[i] != FREE) {
+                int idx = slotOf(old.NUMS[i], mask);
+                while (grown.DAYS[idx] != FREE) {
+                    idx = (idx + 1) & mask;
+                }
+                grown.NUMS[idx] = old.NUMS[i];
+                grown.DAYS[idx] = old.DAYS[i];
+            }
+        }
+        // published whole, so a racing reader sees either table
+        table = grown;
+    }
+
+    /**
+     * Order numbers are mostly consecutive, so they are scrambled before
+     * masking to spread runs of them over the table
+     */
+    private static int slotOf(int num, int mask) {
+        int hash = num * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * The two columns of the table, held together so that a reader can never
+     * pair the numbers of one with the dates of another
+     */
+    private static final class Table {
+        private final int[] NUMS;
+        private final int[] DAYS;
+
+        private Table(int capacity) {
+            this.NUMS = new int[capacity];
+            this.DAYS = new int[capacity];
+            Arrays.fill(DAYS, FREE);
+        }
+    }
+}
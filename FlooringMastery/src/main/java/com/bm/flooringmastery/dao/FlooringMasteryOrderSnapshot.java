@@ -0,0 +1,295 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A compact, binary, column-oriented image of an entire order archive
+ *
+ * Loading a snapshot involves no decimal text parsing: each column of the
+ * archive is stored contiguously, states and product types are stored once
+ * in a dictionary and referenced by index, and every decimal is stored as its
+ * unscaled long value next to its scale, so it comes back exactly as it was
+ * written (2.10 stays 2.10). The computed amounts are not stored at all.
+ *
+ * The layout, all big-endian, is:
+ * <pre>
+ *   int magic, int version
+ *   int dateCount, then per date: int epochDay, int orderCount
+ *   string dictionary of states, string dictionary of product types
+ *   per order, column by column: order number, customer name, state index,
+ *   tax rate, product type index, area, cost and labor cost per square foot
+ *   int CRC32 of everything before it
+ * </pre>
+ * Strings are an unsigned short byte length followed by UTF-8 bytes, and
+ * dictionary indexes take 1, 2 or 4 bytes depending on the dictionary size.
+ */
+public final class FlooringMasteryOrderSnapshot {
+    private static final int MAGIC = 0x464D534E; // "FMSN"
+    private static final int VERSION = 1;
+
+    private FlooringMasteryOrderSnapshot() {
+    }
+
+    /**
+     * Atomically writes a snapshot of the given date buckets
+     *
+     * @param target
+     * @param ordersByDate
+     * @return The number of bytes written
+     * @throws IOException
+     * @throws IllegalArgumentException if a value cannot be represented
+     */
+    public static long write(
+        Path target,
+        Map<LocalDate, ? extends Map<Integer, FlooringMasteryOrder>> ordersByDate)
+        throws IOException {
+
+        List<FlooringMasteryOrder> orders = new ArrayList<>();
+        Dictionary states = new Dictionary();
+        Dictionary types = new Dictionary();
+        for (Map<Integer, FlooringMasteryOrder> bucket : ordersByDate.values()) {
+            for (FlooringMasteryOrder order : bucket.values()) {
+                orders.add(order);
+                states.indexOf(order.getState());
+                types.indexOf(order.getProductType());
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + orders.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(ordersByDate.size());
+        for (Map.Entry<LocalDate, ? extends Map<Integer, FlooringMasteryOrder>> entry
+            : ordersByDate.entrySet()) {
+
+            out.writeInt(Math.toIntExact(entry.getKey().toEpochDay()));
+            out.writeInt(entry.getValue().size());
+        }
+        states.writeTo(out);
+        types.writeTo(out);
+
+        for (FlooringMasteryOrder order : orders) {
+            out.writeInt(order.getOrderNum());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeString(out, order.getCustomerName());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeIndex(out, states.indexOf(order.getState()), states.size());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeDecimal(out, order.getPercentTaxRate());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeIndex(out, types.indexOf(order.getProductType()), types.size());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeDecimal(out, order.getArea());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeDecimal(out, order.getCostPerSqFt());
+        }
+        for (FlooringMasteryOrder order : orders) {
+            writeDecimal(out, order.getLaborCostPerSqFt());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+
+        return FlooringMasteryAtomicFiles.write(target, ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * Reads a snapshot back into date buckets of Orders keyed by number
+     *
+     * @param source
+     * @return The aforementioned buckets, sorted by date
+     * @throws IOException if the file cannot be read, or is not an intact
+     *                     snapshot of a supported version
+     */
+    public static NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> read(Path source)
+        throws IOException {
+
+        byte[] bytes = Files.readAllBytes(source);
+        if (bytes.length < 12) {
+            throw new IOException(source + " is not an order snapshot");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.getInt() != MAGIC
+            || in.getInt() != VERSION
+            || in.getInt(bytes.length - 4) != (int) crc.getValue()) {
+
+            throw new IOException(source + " is not an intact order snapshot");
+        }
+
+        try {
+            int dateCount = in.getInt();
+            LocalDate[] dates = new LocalDate[dateCount];
+            int[] dateSizes = new int[dateCount];
+            int count = 0;
+            for (int i = 0; i < dateCount; i++) {
+                dates[i] = LocalDate.ofEpochDay(in.getInt());
+                dateSizes[i] = in.getInt();
+                count = Math.addExact(count, dateSizes[i]);
+            }
+            String[] states = readDictionary(in);
+            String[] types = readDictionary(in);
+
+            int[] nums = new int[count];
+            for (int i = 0; i < count; i++) {
+                nums[i] = in.getInt();
+            }
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = readString(in);
+            }
+            int[] stateIdxs = readIndexes(in, count, states.length);
+            BigDecimal[] rates = readDecimals(in, count);
+            int[] typeIdxs = readIndexes(in, count, types.length);
+            BigDecimal[] areas = readDecimals(in, count);
+            BigDecimal[] costs = readDecimals(in, count);
+            BigDecimal[] laborCosts = readDecimals(in, count);
+
+            NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> ordersByDate = new TreeMap<>();
+            int i = 0;
+            for (int d = 0; d < dateCount; d++) {
+                Map<Integer, FlooringMasteryOrder> bucket = new TreeMap<>();
+                for (int end = i + dateSizes[d]; i < end; i++) {
+                    bucket.put(nums[i], new FlooringMasteryOrder(
+                        dates[d],
+                        nums[i],
+                        names[i],
+                        states[stateIdxs[i]],
+                        rates[i],
+                        new FlooringMasteryProduct(types[typeIdxs[i]], costs[i], laborCosts[i]),
+                        areas[i]
+                    ));
+                }
+                ordersByDate.put(dates[d], bucket);
+            }
+            return ordersByDate;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ArithmeticException ex) {
+            throw new IOException(source + " is not an intact order snapshot", ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] encoded = str.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for a snapshot: " + str);
+        }
+        out.writeShort(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        String str = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return str;
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] entries = new String[in.getInt()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = readString(in);
+        }
+        return entries;
+    }
+
+    private static void writeIndex(DataOutputStream out, int index, int dictionarySize)
+        throws IOException {
+
+        if (dictionarySize <= 1 << 8) {
+            out.writeByte(index);
+        } else if (dictionarySize <= 1 << 16) {
+            out.writeShort(index);
+        } else {
+            out.writeInt(index);
+        }
+    }
+
+    private static int[] readIndexes(ByteBuffer in, int count, int dictionarySize) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (dictionarySize <= 1 << 8) {
+                indexes[i] = in.get() & 0xFF;
+            } else if (dictionarySize <= 1 << 16) {
+                indexes[i] = in.getShort() & 0xFFFF;
+            } else {
+                indexes[i] = in.getInt();
+            }
+        }
+        return indexes;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value.scale() < Byte.MIN_VALUE || value.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Scale too large for a snapshot: " + value);
+        }
+        out.writeLong(value.unscaledValue().longValueExact());
+        out.writeByte(value.scale());
+    }
+
+    private static BigDecimal[] readDecimals(ByteBuffer in, int count) {
+        BigDecimal[] values = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            long unscaled = in.getLong();
+            values[i] = BigDecimal.valueOf(unscaled, in.get());
+        }
+        return values;
+    }
+
+    /**
+     * Assigns each distinct string an index in order of first appearance
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> INDEXES = new HashMap<>();
+        private final List<String> ENTRIES = new ArrayList<>();
+
+        private int indexOf(String entry) {
+            Integer index = INDEXES.get(entry);
+            if (index == null) {
+                index = ENTRIES.size();
+                INDEXES.put(entry, index);
+                ENTRIES.add(entry);
+            }
+            return index;
+        }
+
+        private int size() {
+            return ENTRIES.size();
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(ENTRIES.size());
+            for (String entry : ENTRIES) {
+                writeString(out, entry);
+            }
+        }
+    }
+}
@@ -44,4 +44,14 @@ public interface FlooringMasteryProductDao {
      * @return The aforementioned instances
      */
     public Optional<FlooringMasteryProduct> getProductByType(String type);
+    
+    /**
+     * Sets what to run each time the products are replaced while in use
+     * 
+     * The default implementation does nothing.
+     * 
+     * @param listener 
+     */
+    public default void setReloadListener(Runnable listener) {
+    }
 }
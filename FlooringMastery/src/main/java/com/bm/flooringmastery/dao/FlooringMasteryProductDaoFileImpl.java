@@ -1,82 +1,148 @@
 package com.bm.flooringmastery.dao;
 
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
 import com.bm.flooringmastery.model.FlooringMasteryProduct;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
 
 /**
  * An implementation of the ProductDao interface
  *
+ * Once startWatching is called, changes to the products file are picked up
+ * without a restart; see FlooringMasteryReloadableMap.
+ *
  * @author Benjamin Munoz
  * email: driver396@gmail.com
  * date: Aug 5, 2021
  */
 public class FlooringMasteryProductDaoFileImpl implements FlooringMasteryProductDao {
-    private final String SRC_FILE;
-    private final Map<String, FlooringMasteryProduct> PRODUCTS_MAP;
+    private static final FlooringMasteryCounter HITS = FlooringMasteryMetrics.counter("products.hits");
+    private static final FlooringMasteryCounter MISSES = FlooringMasteryMetrics.counter("products.misses");
+    
+    private final FlooringMasteryReloadableMap<String, FlooringMasteryProduct> PRODUCTS_MAP;
     
     public FlooringMasteryProductDaoFileImpl() {
         this("Data/Products.txt");
     }
     
     public FlooringMasteryProductDaoFileImpl(String SRC_FILE) {
-        this.SRC_FILE = SRC_FILE;
-        PRODUCTS_MAP = new HashMap<>();
+        PRODUCTS_MAP = new FlooringMasteryReloadableMap<>(
+            Paths.get(SRC_FILE),
+            FlooringMasteryProductDaoFileImpl::readProducts
+        );
     }
     
     @Override
     public void loadDataFromExternals() throws FlooringMasteryFailedLoadException {
-        Scanner reader;
+        PRODUCTS_MAP.load();
+    }
+
+    private static Map<String, FlooringMasteryProduct> readProducts(Path path) 
+        throws FlooringMasteryFailedLoadException {
+        
+        FlooringMasteryCsvReader reader;
         try {
-            reader = new Scanner(new BufferedReader(new FileReader(SRC_FILE)));
-        } catch (FileNotFoundException ex) {
+            reader = FlooringMasteryCsvReader.read(path);
+        } catch (IOException ex) {
             throw new FlooringMasteryFailedLoadException(
                 "Unable to load product information"
             );
         }
         
         // ignore header
-        reader.nextLine();
+        reader.nextRow();
         
-        while(reader.hasNextLine()) {
-            String[] tokens = reader.nextLine().split(",");
-            String type = tokens[0];
-            BigDecimal costPerSqFt = new BigDecimal(tokens[1]);
-            BigDecimal laborCostPerSqFt = new BigDecimal(tokens[2]);
-            
-            PRODUCTS_MAP.put(
-                type,
-                new FlooringMasteryProduct(type, costPerSqFt, laborCostPerSqFt)
+        Map<String, FlooringMasteryProduct> products = new HashMap<>();
+        try {
+            while (reader.nextRow()) {
+                if (reader.getFieldCount() < 3) {
+                    throw new IllegalArgumentException("Missing columns");
+                }
+                String type = reader.getString(0);
+                BigDecimal costPerSqFt = reader.getDecimal(1);
+                BigDecimal laborCostPerSqFt = reader.getDecimal(2);
+
+                products.put(
+                    type,
+                    new FlooringMasteryProduct(type, costPerSqFt, laborCostPerSqFt)
+                );
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedLoadException(
+                "Malformed product at line " + reader.getLineNumber(),
+                ex
             );
         }
-        
-        reader.close();
+        return products;
+    }
+
+    /**
+     * Starts reloading the products whenever the file changes
+     * 
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public void startWatching() throws IOException {
+        PRODUCTS_MAP.startWatching();
+    }
+
+    public void stopWatching() {
+        PRODUCTS_MAP.stopWatching();
+    }
+
+    @Override
+    public void setReloadListener(Runnable listener) {
+        PRODUCTS_MAP.setReloadListener(listener);
+    }
+
+    /**
+     * @return The number of times the products were reloaded after a change
+     */
+    public long getReloadCount() {
+        return PRODUCTS_MAP.getReloadCount();
+    }
+
+    /**
+     * @return The number of changes to the file that could not be parsed, and
+     *         so left the products as they were
+     */
+    public long getFailedReloadCount() {
+        return PRODUCTS_MAP.getFailedReloadCount();
+    }
+
+    /**
+     * @return Statistics describing the most recent reload, whose time is that
+     *         taken to parse and publish the file
+     */
+    public FlooringMasteryIoStats getLastReloadStats() {
+        return PRODUCTS_MAP.getLastReloadStats();
     }
 
     @Override
     public Set<FlooringMasteryProduct> productsSet() {
-        return Set.copyOf(PRODUCTS_MAP.values());
+        return Set.copyOf(PRODUCTS_MAP.get().values());
     }
 
     @Override
     public boolean hasProductWithType(String type) {
-        return PRODUCTS_MAP.containsKey(type);
+        return PRODUCTS_MAP.get().containsKey(type);
     }
 
     @Override
     public Optional<FlooringMasteryProduct> getProductByType(String type) {
-        FlooringMasteryProduct product = PRODUCTS_MAP.get(type);
+        FlooringMasteryProduct product = PRODUCTS_MAP.get().get(type);
         if (product == null) {
+            MISSES.increment();
             return Optional.empty();
         }
+        HITS.increment();
         return Optional.of(product);
     }
 }
@@ -0,0 +1,208 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An immutable map parsed from a file, which can be kept up to date with the
+ * file while in use
+ *
+ * Each parse builds a whole new map, which is then published with a single
+ * reference swap, so readers never wait and never see a partly read file.
+ * Once watching, a thread of its own waits for the file to be changed, lets
+ * a burst of changes settle, and parses it again. If that parse fails, the
+ * last good map stays in place and the failure is only counted. Parsers
+ * should read the file onto the heap rather than map it, since it may be
+ * rewritten while being parsed.
+ */
+final class FlooringMasteryReloadableMap<K, V> {
+    /**
+     * How long the file must go unchanged before it is parsed again, since
+     * an editor or a copy may write it in several steps
+     */
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path PATH;
+    private final Parser<K, V> PARSER;
+
+    private final AtomicReference<Map<K, V>> CURRENT;
+    private final AtomicLong RELOADS;
+    private final AtomicLong FAILED_RELOADS;
+    private volatile FlooringMasteryIoStats lastReloadStats = FlooringMasteryIoStats.NONE;
+    private volatile Runnable reloadListener = () -> {};
+
+    private WatchService watcher;
+
+    /**
+     * Reads a whole file into a map
+     */
+    interface Parser<K, V> {
+        Map<K, V> parse(Path path) throws FlooringMasteryFailedLoadException;
+    }
+
+    FlooringMasteryReloadableMap(Path PATH, Parser<K, V> PARSER) {
+        this.PATH = PATH;
+        this.PARSER = PARSER;
+        this.CURRENT = new AtomicReference<>(Collections.emptyMap());
+        this.RELOADS = new AtomicLong();
+        this.FAILED_RELOADS = new AtomicLong();
+    }
+
+    /**
+     * @return The map as of the latest successful parse, which is empty
+     *         before the first one
+     */
+    Map<K, V> get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Parses the file and publishes the result
+     *
+     * @throws FlooringMasteryFailedLoadException if the file cannot be parsed,
+     *                                            leaving the map unchanged
+     */
+    void load() throws FlooringMasteryFailedLoadException {
+        CURRENT.set(Map.copyOf(PARSER.parse(PATH)));
+    }
+
+    /**
+     * Starts reloading the file whenever it changes, until stopWatching is
+     * called; does nothing if already watching
+     *
+     * @throws IOException if the file's directory cannot be watched
+     */
+    synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        Path directory = PATH.toAbsolutePath().getParent();
+        WatchService newWatcher = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(
+                newWatcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+            );
+        } catch (IOException ex) {
+            newWatcher.close();
+            throw ex;
+        }
+        watcher = newWatcher;
+
+        Thread thread = new Thread(() -> watch(newWatcher), PATH.getFileName() + "-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops reloading the file; does nothing if not watching
+     */
+    synchronized void stopWatching() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            // wakes the watching thread, which then ends
+            watcher.close();
+        } catch (IOException ex) {
+            // nothing further can be done with it either way
+        }
+        watcher = null;
+    }
+
+    /**
+     * Sets what to run, on the watching thread, after each successful reload
+     *
+     * @param listener
+     */
+    void setReloadListener(Runnable listener) {
+        this.reloadListener = listener;
+    }
+
+    long getReloadCount() {
+        return RELOADS.get();
+    }
+
+    long getFailedReloadCount() {
+        return FAILED_RELOADS.get();
+    }
+
+    FlooringMasteryIoStats getLastReloadStats() {
+        return lastReloadStats;
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                if (changed(watchService.take())) {
+                    // keep waiting until the changes stop
+                    WatchKey key;
+                    while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        changed(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ex) {
+            // stopped
+        }
+    }
+
+    /**
+     * Consumes the events of a key
+     *
+     * @return true if any of them concern the file
+     */
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                || PATH.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        long startNanos = System.nanoTime();
+        Map<K, V> parsed;
+        long bytes;
+        try {
+            parsed = Map.copyOf(PARSER.parse(PATH));
+            bytes = Files.size(PATH);
+        } catch (FlooringMasteryFailedLoadException | IOException | RuntimeException ex) {
+            // the last good map stays in place; an unexpected failure must
+            // not end the watching thread either
+            FAILED_RELOADS.incrementAndGet();
+            return;
+        }
+        CURRENT.set(parsed);
+        RELOADS.incrementAndGet();
+        lastReloadStats = new FlooringMasteryIoStats(
+            1,
+            parsed.size(),
+            bytes,
+            System.nanoTime() - startNanos
+        );
+        try {
+            reloadListener.run();
+        } catch (RuntimeException ex) {
+            // the reload itself succeeded; the watching goes on
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.bm.flooringmastery.dao;
 
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -40,4 +41,10 @@ public interface FlooringMasteryTaxDao {
      * @return The aformentioned instances
      */
     public Optional<BigDecimal> percentTaxRateForStateAbbr(String state);
+    
+    /**
+     * @return The percent tax rate of every state with tax information, 
+     *         keyed by the state's abbreviation
+     */
+    public Map<String, BigDecimal> percentTaxRates();
 }
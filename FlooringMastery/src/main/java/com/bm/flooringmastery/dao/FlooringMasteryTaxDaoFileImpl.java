@@ -1,41 +1,55 @@
 package com.bm.flooringmastery.dao;
 
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
 
 /**
  * An implementation of the TaxDao interface
  *
+ * Once startWatching is called, changes to the taxes file are picked up
+ * without a restart; see FlooringMasteryReloadableMap.
+ *
  * @author Benjamin Munoz
  * email: driver396@gmail.com
  * date: Aug 5, 2021
  */
 public class FlooringMasteryTaxDaoFileImpl implements FlooringMasteryTaxDao {
-    private final String SRC_FILE;
-    private final Map<String, BigDecimal> TAX_MAP;
+    private static final FlooringMasteryCounter HITS = FlooringMasteryMetrics.counter("taxes.hits");
+    private static final FlooringMasteryCounter MISSES = FlooringMasteryMetrics.counter("taxes.misses");
+    
+    private final FlooringMasteryReloadableMap<String, BigDecimal> TAX_MAP;
     
     public FlooringMasteryTaxDaoFileImpl() {
         this("Data/Taxes.txt");
     }
     
     public FlooringMasteryTaxDaoFileImpl(String SRC_FILE) {
-        this.SRC_FILE = SRC_FILE;
-        this.TAX_MAP = new HashMap<>();
+        this.TAX_MAP = new FlooringMasteryReloadableMap<>(
+            Paths.get(SRC_FILE),
+            FlooringMasteryTaxDaoFileImpl::readTaxes
+        );
     }
     
     @Override
     public void loadDataFromExternals() throws FlooringMasteryFailedLoadException {
-        Scanner reader;
+        TAX_MAP.load();
+    }
+
+    private static Map<String, BigDecimal> readTaxes(Path path) 
+        throws FlooringMasteryFailedLoadException {
+        
+        FlooringMasteryCsvReader reader;
         try {
-            reader = new Scanner(new BufferedReader(new FileReader(SRC_FILE)));
-        } catch (FileNotFoundException ex) {
+            reader = FlooringMasteryCsvReader.read(path);
+        } catch (IOException ex) {
             throw new FlooringMasteryFailedLoadException(
                 "Unable to load tax information",
                 ex
@@ -43,16 +57,61 @@ public class FlooringMasteryTaxDaoFileImpl implements FlooringMasteryTaxDao {
         }
         
         // ignore header
-        reader.nextLine();
-        while (reader.hasNextLine()) {
-            String[] tokens = reader.nextLine().split(",");
-            String state = tokens[0];
-            BigDecimal rate = new BigDecimal(tokens[2]);
-            
-            TAX_MAP.put(state, rate);
+        reader.nextRow();
+        Map<String, BigDecimal> taxes = new HashMap<>();
+        try {
+            while (reader.nextRow()) {
+                if (reader.getFieldCount() < 3) {
+                    throw new IllegalArgumentException("Missing columns");
+                }
+                String state = reader.getString(0);
+                BigDecimal rate = reader.getDecimal(2);
+
+                taxes.put(state, rate);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new FlooringMasteryFailedLoadException(
+                "Malformed tax information at line " + reader.getLineNumber(),
+                ex
+            );
         }
-        
-        reader.close();
+        return taxes;
+    }
+
+    /**
+     * Starts reloading the tax rates whenever the file changes
+     * 
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public void startWatching() throws IOException {
+        TAX_MAP.startWatching();
+    }
+
+    public void stopWatching() {
+        TAX_MAP.stopWatching();
+    }
+
+    /**
+     * @return The number of times the tax rates were reloaded after a change
+     */
+    public long getReloadCount() {
+        return TAX_MAP.getReloadCount();
+    }
+
+    /**
+     * @return The number of changes to the file that could not be parsed, and
+     *         so left the tax rates as they were
+     */
+    public long getFailedReloadCount() {
+        return TAX_MAP.getFailedReloadCount();
+    }
+
+    /**
+     * @return Statistics describing the most recent reload, whose time is that
+     *         taken to parse and publish the file
+     */
+    public FlooringMasteryIoStats getLastReloadStats() {
+        return TAX_MAP.getLastReloadStats();
     }
 
     @Override
@@ -62,11 +121,18 @@ public class FlooringMasteryTaxDaoFileImpl implements FlooringMasteryTaxDao {
 
     @Override
     public Optional<BigDecimal> percentTaxRateForStateAbbr(String state) {
-        BigDecimal rate = TAX_MAP.get(state);
+        BigDecimal rate = TAX_MAP.get().get(state);
         if (rate == null) {
+            MISSES.increment();
             return Optional.empty();
         }
+        HITS.increment();
         return Optional.of(rate);
     }
 
+    @Override
+    public Map<String, BigDecimal> percentTaxRates() {
+        return TAX_MAP.get();
+    }
+
 }
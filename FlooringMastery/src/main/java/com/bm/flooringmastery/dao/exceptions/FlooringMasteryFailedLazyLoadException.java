@@ -0,0 +1,16 @@
+package com.bm.flooringmastery.dao.exceptions;
+
+/**
+ * Thrown when a day file read on demand, by a DAO that loads its orders
+ * lazily, cannot be loaded
+ *
+ * Lookups do not declare checked exceptions, so the underlying
+ * FlooringMasteryFailedLoadException is carried as the cause.
+ *
+ * @author Benjamin Munoz
+ */
+public class FlooringMasteryFailedLazyLoadException extends RuntimeException {
+    public FlooringMasteryFailedLazyLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bm.flooringmastery.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count which many threads may add to at once without contending
+ *
+ * While metrics are disabled, adding does nothing.
+ */
+public final class FlooringMasteryCounter {
+    private final LongAdder COUNT = new LongAdder();
+
+    FlooringMasteryCounter() {
+    }
+
+    public void increment() {
+        if (FlooringMasteryMetrics.ENABLED) {
+            COUNT.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (FlooringMasteryMetrics.ENABLED) {
+            COUNT.add(amount);
+        }
+    }
+
+    public long get() {
+        return COUNT.sum();
+    }
+}
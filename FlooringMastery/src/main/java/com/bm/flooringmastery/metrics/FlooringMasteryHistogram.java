@@ -0,0 +1,135 @@
+package com.bm.flooringmastery.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of non-negative values, such as times in nanoseconds, kept
+ * in a fixed number of buckets so that recording one never allocates
+ *
+ * Values below SUB_BUCKETS each have a bucket of their own; every larger
+ * power of two is split into SUB_BUCKETS equal buckets, so a percentile is
+ * off by at most 1 part in SUB_BUCKETS, whatever the magnitude.
+ *
+ * While metrics are disabled, recording does nothing.
+ */
+public final class FlooringMasteryHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray COUNTS = new AtomicLongArray(BUCKETS);
+    private final LongAdder SUM = new LongAdder();
+
+    FlooringMasteryHistogram() {
+    }
+
+    /**
+     * @param value Recorded as 0 if negative
+     */
+    public void record(long value) {
+        if (FlooringMasteryMetrics.ENABLED) {
+            long clamped = Math.max(0, value);
+            COUNTS.incrementAndGet(indexOf(clamped));
+            SUM.add(clamped);
+        }
+    }
+
+    /**
+     * Records the nanoseconds elapsed since a time given by
+     * FlooringMasteryMetrics.start
+     *
+     * @param startNanos
+     */
+    public void recordSince(long startNanos) {
+        if (FlooringMasteryMetrics.ENABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return The smallest value falling in the bucket
+     */
+    private static long lowestOf(int idx) {
+        if (idx < SUB_BUCKETS) {
+            return idx;
+        }
+        int exponent = idx / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = idx % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return A copy of the distribution as it is now
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = COUNTS.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, SUM.sum());
+    }
+
+    /**
+     * The distribution as of one moment
+     */
+    public static final class Snapshot {
+        private final long[] COUNTS;
+        private final long COUNT;
+        private final long SUM;
+
+        private Snapshot(long[] COUNTS, long COUNT, long SUM) {
+            this.COUNTS = COUNTS;
+            this.COUNT = COUNT;
+            this.SUM = SUM;
+        }
+
+        public long getCount() {
+            return COUNT;
+        }
+
+        public double getMean() {
+            return COUNT == 0 ? 0 : (double) SUM / COUNT;
+        }
+
+        /**
+         * @param fraction Between 0 and 1, such as 0.99
+         * @return The lowest value of the bucket holding that fraction of
+         *         the recorded values at or below it, or 0 if there are none
+         */
+        public long getPercentile(double fraction) {
+            long rank = Math.max(1, (long) Math.ceil(fraction * COUNT));
+            long seen = 0;
+            for (int i = 0; i < COUNTS.length; i++) {
+                seen += COUNTS[i];
+                if (seen >= rank) {
+                    return lowestOf(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return The lowest value of the highest bucket with a value in it
+         */
+        public long getMax() {
+            for (int i = COUNTS.length - 1; i >= 0; i--) {
+                if (COUNTS[i] > 0) {
+                    return lowestOf(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.bm.flooringmastery.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The counters, histograms and gauges kept by the application, by name
+ *
+ * Metrics are kept only if the JVM is started with
+ * -Dflooringmastery.metrics=true. Since ENABLED is a constant, every check
+ * of it is compiled away while they are disabled, leaving the instrumented
+ * code as fast as if it were not instrumented at all; while enabled,
+ * counting is a striped add and timing two reads of the clock and an atomic
+ * increment.
+ *
+ * Instrumented classes hold their counters and histograms in static fields,
+ * so that looking one up by name is done only once. Times are recorded in
+ * nanoseconds, between a call to start and one to recordSince.
+ *
+ * Gauges are read only when reported. Each holds its owner weakly, so
+ * registering one does not keep a Dao alive; a later gauge of the same name
+ * replaces it.
+ */
+public final class FlooringMasteryMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("flooringmastery.metrics");
+
+    private static final ConcurrentMap<String, FlooringMasteryCounter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, FlooringMasteryHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Gauge<?>> GAUGES = new ConcurrentHashMap<>();
+
+    private static final String OBJECT_NAME = "com.bm.flooringmastery:type=Metrics";
+
+    private static boolean reporting;
+
+    private FlooringMasteryMetrics() {
+    }
+
+    /**
+     * @param name
+     * @return The counter with this name, created if there is none
+     */
+    public static FlooringMasteryCounter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new FlooringMasteryCounter());
+    }
+
+    /**
+     * @param name
+     * @return The histogram with this name, created if there is none
+     */
+    public static FlooringMasteryHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new FlooringMasteryHistogram());
+    }
+
+    /**
+     * Registers a value to be read from an owner whenever metrics are
+     * reported; does nothing while metrics are disabled
+     *
+     * The function may be called from any thread while the owner is in use,
+     * so it should only read what is safe to read without locking. If it
+     * throws, the gauge is reported as -1.
+     *
+     * @param name
+     * @param owner
+     * @param value
+     */
+    public static <T> void gauge(String name, T owner, ToLongFunction<T> value) {
+        if (ENABLED) {
+            GAUGES.put(name, new Gauge<>(owner, value));
+        }
+    }
+
+    /**
+     * @return The time to pass to recordSince, or 0 while metrics are
+     *         disabled, so that the clock is not read for nothing
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @return The current value of every metric, by name, in order of name;
+     *         each histogram gives its count, mean, p50, p99, p999 and max
+     *         under names with those suffixes
+     */
+    public static Map<String, Number> values() {
+        Map<String, Number> values = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.get()));
+        HISTOGRAMS.forEach((name, histogram) -> {
+            FlooringMasteryHistogram.Snapshot snapshot = histogram.snapshot();
+            values.put(name + ".count", snapshot.getCount());
+            values.put(name + ".mean", snapshot.getMean());
+            values.put(name + ".p50", snapshot.getPercentile(0.50));
+            values.put(name + ".p99", snapshot.getPercentile(0.99));
+            values.put(name + ".p999", snapshot.getPercentile(0.999));
+            values.put(name + ".max", snapshot.getMax());
+        });
+        GAUGES.forEach((name, gauge) -> {
+            Long value = gauge.read();
+            if (value == null) {
+                // its owner is gone
+                GAUGES.remove(name, gauge);
+            } else {
+                values.put(name, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @return Every metric as a line of "name value", after a line giving the
+     *         time of the dump
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder("# metrics at ").append(LocalDateTime.now()).append('\n');
+        for (Entry<String, Number> entry : values().entrySet()) {
+            Number value = entry.getValue();
+            text.append(entry.getKey()).append(' ');
+            if (value instanceof Double) {
+                text.append(String.format("%.1f", value.doubleValue()));
+            } else {
+                text.append(value);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Publishes the metrics as an MBean and starts dumping them periodically
+     * if the JVM was started with -Dflooringmastery.metrics.dumpSeconds set
+     * above 0; does nothing while metrics are disabled
+     *
+     * @param out Where the periodic dumps are written
+     */
+    public static synchronized void startReporting(PrintStream out) {
+        if (!ENABLED || reporting) {
+            return;
+        }
+        reporting = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new FlooringMasteryMetricsDynamicMBean(),
+                new ObjectName(OBJECT_NAME)
+            );
+        } catch (JMException ex) {
+            // only the periodic dumps are left
+        }
+
+        long seconds = Long.getLong("flooringmastery.metrics.dumpSeconds", 0);
+        if (seconds > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> out.print(dump()), seconds, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Gauge<T> {
+        private final WeakReference<T> OWNER;
+        private final ToLongFunction<T> VALUE;
+
+        private Gauge(T owner, ToLongFunction<T> VALUE) {
+            this.OWNER = new WeakReference<>(owner);
+            this.VALUE = VALUE;
+        }
+
+        /**
+         * @return The value, or null if the owner is gone
+         */
+        private Long read() {
+            T owner = OWNER.get();
+            if (owner == null) {
+                return null;
+            }
+            try {
+                return VALUE.applyAsLong(owner);
+            } catch (RuntimeException ex) {
+                return -1L;
+            }
+        }
+    }
+}
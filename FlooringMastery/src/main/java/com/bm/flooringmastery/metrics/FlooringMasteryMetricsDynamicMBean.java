@@ -0,0 +1,93 @@
+package com.bm.flooringmastery.metrics;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Presents every metric as a read-only attribute of one MBean, along with an
+ * operation returning the text dump
+ *
+ * The attributes are those of FlooringMasteryMetrics.values, so metrics
+ * created after registration appear as they are created.
+ */
+final class FlooringMasteryMetricsDynamicMBean implements DynamicMBean {
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Number value = FlooringMasteryMetrics.values().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Number> values = FlooringMasteryMetrics.values();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Number value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (actionName.equals("dump") && (params == null || params.length == 0)) {
+            return FlooringMasteryMetrics.dump();
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Number> values = FlooringMasteryMetrics.values();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+        int idx = 0;
+        for (Entry<String, Number> entry : values.entrySet()) {
+            attributes[idx++] = new MBeanAttributeInfo(
+                entry.getKey(),
+                entry.getValue().getClass().getName(),
+                entry.getKey(),
+                true,
+                false,
+                false
+            );
+        }
+        MBeanOperationInfo dump = new MBeanOperationInfo(
+            "dump",
+            "Every metric as a line of text",
+            null,
+            String.class.getName(),
+            MBeanOperationInfo.INFO
+        );
+        return new MBeanInfo(
+            getClass().getName(),
+            "Flooring Mastery metrics",
+            attributes,
+            null,
+            new MBeanOperationInfo[] {dump},
+            null
+        );
+    }
+}
@@ -1,27 +1,37 @@
 package com.bm.flooringmastery.model;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents an Order
  *
+ * An Order never changes once made; an edit replaces it with a new one. The
+ * derived amounts (material cost, labor cost, tax and total) are computed
+ * together the first time any of them is needed, and kept from then on.
+ *
  * @author Benjamin Munoz
  * email: driver396@gmail.com
  * date: Aug 5, 2021
  */
 public class FlooringMasteryOrder {
-    private LocalDate orderDate;
-    private int orderNum;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final MathContext MONEY_CONTEXT = MathContext.DECIMAL64;
+    
+    private final LocalDate orderDate;
+    private final int orderNum;
     
-    private String customerName;
+    private final String customerName;
     
-    private String state;
-    private BigDecimal percentTaxRate;
+    private final String state;
+    private final BigDecimal percentTaxRate;
     
-    private FlooringMasteryProduct orderedProd;
-    private BigDecimal area;
+    private final FlooringMasteryProduct orderedProd;
+    private final BigDecimal area;
+    
+    private volatile DerivedAmounts derivedAmounts;
 
     public FlooringMasteryOrder(
         LocalDate orderDate, 
@@ -61,6 +71,10 @@ public class FlooringMasteryOrder {
         return percentTaxRate;
     }
 
+    public FlooringMasteryProduct getOrderedProduct() {
+        return orderedProd;
+    }
+
     public String getProductType() {
         return orderedProd.getType();
     }
@@ -68,7 +82,7 @@ public class FlooringMasteryOrder {
     public BigDecimal getArea() {
         return area;
     }
-    
+
     public BigDecimal getCostPerSqFt() {
         return orderedProd.getCostPerSqFt();
     }
@@ -78,24 +92,39 @@ public class FlooringMasteryOrder {
     }
     
     public BigDecimal getMaterialCost() {
-        return getArea().multiply(getCostPerSqFt());
+        return derivedAmounts().MATERIAL_COST;
     }
     
     public BigDecimal getLaborCost() {
-        return getArea().multiply(getLaborCostPerSqFt());
-    }
-    
-    private BigDecimal getUntaxedTotalCost() {
-        return getMaterialCost().add(getLaborCost());
+        return derivedAmounts().LABOR_COST;
     }
     
     public BigDecimal getTax() {
-        BigDecimal trueTaxRate = getPercentTaxRate().divide(new BigDecimal("100"));
-        return getUntaxedTotalCost().multiply(trueTaxRate);
+        return derivedAmounts().TAX;
     }
     
     public BigDecimal getTotal() {
-        return getUntaxedTotalCost().add(getTax());
+        return derivedAmounts().TOTAL;
+    }
+    
+    private DerivedAmounts derivedAmounts() {
+        DerivedAmounts amounts = derivedAmounts;
+        if (amounts == null) {
+            BigDecimal materialCost = area.multiply(orderedProd.getCostPerSqFt());
+            BigDecimal laborCost = area.multiply(orderedProd.getLaborCostPerSqFt());
+            BigDecimal untaxedTotalCost = materialCost.add(laborCost);
+            BigDecimal trueTaxRate = percentTaxRate.divide(ONE_HUNDRED, MONEY_CONTEXT);
+            BigDecimal tax = untaxedTotalCost.multiply(trueTaxRate);
+            
+            amounts = new DerivedAmounts(
+                materialCost, 
+                laborCost, 
+                tax, 
+                untaxedTotalCost.add(tax)
+            );
+            derivedAmounts = amounts;
+        }
+        return amounts;
     }
 
     @Override
@@ -148,4 +177,26 @@ public class FlooringMasteryOrder {
     public String toString() {
         return "FlooringMasteryOrder{" + "orderDate=" + orderDate + ", orderNum=" + orderNum + ", customerName=" + customerName + ", state=" + state + ", percentTaxRate=" + percentTaxRate + ", orderedProd=" + orderedProd + ", area=" + area + '}';
     }
+
+    /**
+     * The amounts computed from an order's other fields, published together
+     */
+    private static class DerivedAmounts {
+        private final BigDecimal MATERIAL_COST;
+        private final BigDecimal LABOR_COST;
+        private final BigDecimal TAX;
+        private final BigDecimal TOTAL;
+
+        private DerivedAmounts(
+            BigDecimal MATERIAL_COST, 
+            BigDecimal LABOR_COST, 
+            BigDecimal TAX, 
+            BigDecimal TOTAL) {
+            
+            this.MATERIAL_COST = MATERIAL_COST;
+            this.LABOR_COST = LABOR_COST;
+            this.TAX = TAX;
+            this.TOTAL = TOTAL;
+        }
+    }
 }
\ No newline at end of file
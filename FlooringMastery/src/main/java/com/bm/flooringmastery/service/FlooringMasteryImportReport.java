@@ -0,0 +1,120 @@
+package com.bm.flooringmastery.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of importing a batch file of Orders
+ */
+public class FlooringMasteryImportReport {
+    /**
+     * The most rejected rows described individually; any beyond are only
+     * counted
+     */
+    static final int MAX_DESCRIBED_REJECTS = 1000;
+
+    private long rowsRead;
+    private long imported;
+    private long rejectedCount;
+    private final List<Reject> REJECTS = new ArrayList<>();
+    private long nanos;
+
+    FlooringMasteryImportReport() {
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void imported(long count) {
+        imported += count;
+    }
+
+    void reject(long lineNumber, String reason) {
+        rejectedCount++;
+        if (REJECTS.size() < MAX_DESCRIBED_REJECTS) {
+            REJECTS.add(new Reject(lineNumber, reason));
+        }
+    }
+
+    void finish(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The number of rows read from the file, not counting its header
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return The number of Orders added
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * @return The number of rows rejected
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return The first rejected rows, in order of their line numbers
+     */
+    public List<Reject> getRejects() {
+        return Collections.unmodifiableList(REJECTS);
+    }
+
+    /**
+     * @return The time the whole import took, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return The rows read per second over the whole import
+     */
+    public double getRowsPerSecond() {
+        return nanos == 0 ? 0 : rowsRead / (nanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return "FlooringMasteryImportReport{" + "rowsRead=" + rowsRead + ", imported=" + imported + ", rejectedCount=" + rejectedCount + ", nanos=" + nanos + '}';
+    }
+
+    /**
+     * A row that was not imported, and why
+     */
+    public static class Reject {
+        private final long LINE_NUMBER;
+        private final String REASON;
+
+        Reject(long LINE_NUMBER, String REASON) {
+            this.LINE_NUMBER = LINE_NUMBER;
+            this.REASON = REASON;
+        }
+
+        /**
+         * @return The line of the file the row was on, counting from 1
+         */
+        public long getLineNumber() {
+            return LINE_NUMBER;
+        }
+
+        public String getReason() {
+            return REASON;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + LINE_NUMBER + ": " + REASON;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.bm.flooringmastery.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the flat JSON objects in which Orders are imported and
+ * served, without any nesting, since that is all either needs
+ */
+public final class FlooringMasteryJson {
+    private FlooringMasteryJson() {
+    }
+
+    /**
+     * Parses a JSON object whose values are all strings, numbers, booleans
+     * or null
+     *
+     * @return The text of each value by its key, where null is null
+     * @throws IllegalArgumentException if the text is no such object
+     */
+    public static Map<String, String> parseObject(String text) {
+        JsonCursor cursor = new JsonCursor(text);
+        Map<String, String> fields = new HashMap<>();
+        cursor.expect('{');
+        if (!cursor.skipIf('}')) {
+            do {
+                String key = cursor.string();
+                cursor.expect(':');
+                fields.put(key, cursor.scalar());
+            } while (cursor.skipIf(','));
+            cursor.expect('}');
+        }
+        cursor.expectEnd();
+        return fields;
+    }
+
+    /**
+     * @param value
+     * @return The value as a JSON string, quotes included
+     */
+    public static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * Walks the characters of a JSON text
+     */
+    private static final class JsonCursor {
+        private final String TEXT;
+        private int pos;
+
+        private JsonCursor(String TEXT) {
+            this.TEXT = TEXT;
+        }
+
+        private void skipWhitespace() {
+            while (pos < TEXT.length() && Character.isWhitespace(TEXT.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean skipIf(char c) {
+            skipWhitespace();
+            if (pos < TEXT.length() && TEXT.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!skipIf(c)) {
+                throw new IllegalArgumentException("expected '" + c + "' at column " + (pos + 1));
+            }
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (pos < TEXT.length()) {
+                throw new IllegalArgumentException("unexpected text at column " + (pos + 1));
+            }
+        }
+
+        /**
+         * @return The text of a string, number, boolean or null value, where
+         *         null is null
+         */
+        private String scalar() {
+            skipWhitespace();
+            if (pos < TEXT.length() && TEXT.charAt(pos) == '"') {
+                return string();
+            }
+            int start = pos;
+            while (pos < TEXT.length() && "-+.eE0123456789truefalsn".indexOf(TEXT.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String literal = TEXT.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "expected a string, number, boolean or null at column " + (start + 1)
+                );
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            while (pos < TEXT.length()) {
+                char c = TEXT.charAt(pos++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                if (pos == TEXT.length()) {
+                    break;
+                }
+                char escaped = TEXT.charAt(pos++);
+                switch (escaped) {
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > TEXT.length()) {
+                            throw new IllegalArgumentException("truncated escape at column " + pos);
+                        }
+                        try {
+                            builder.append((char) Integer.parseInt(TEXT.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalArgumentException("invalid escape at column " + pos);
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        // covers \" \\ and \/
+                        builder.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+    }
+}
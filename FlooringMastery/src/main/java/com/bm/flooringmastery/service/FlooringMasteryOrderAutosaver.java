@@ -0,0 +1,244 @@
+package com.bm.flooringmastery.service;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryHistogram;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Saves the Orders of a Dao in the background, shortly after they change
+ *
+ * Changes are coalesced: a save starts once no change has arrived for the
+ * quiet period, or once the oldest unsaved change has waited the maximum
+ * delay, whichever comes first, so a burst of pushes costs one save. Saves
+ * run on a dedicated thread, so the Dao must be one that saves from a
+ * snapshot while Orders keep being pushed and removed.
+ *
+ * A failed save, whatever it failed with, is retried after the next quiet
+ * period; the journal still holds its changes meanwhile. {@link #close}
+ * saves whatever is left, and is meant to be called from a shutdown hook.
+ *
+ * The number of changes waiting to be saved is published as the gauge
+ * autosave.pending, the time of each save as the histogram
+ * autosave.flush.nanos, and the number of changes each save covered as
+ * autosave.flush.changes.
+ */
+public class FlooringMasteryOrderAutosaver {
+    private static final FlooringMasteryHistogram FLUSH_NANOS =
+        FlooringMasteryMetrics.histogram("autosave.flush.nanos");
+    private static final FlooringMasteryHistogram FLUSH_CHANGES =
+        FlooringMasteryMetrics.histogram("autosave.flush.changes");
+    private static final FlooringMasteryCounter FAILURES =
+        FlooringMasteryMetrics.counter("autosave.failures");
+
+    private final FlooringMasteryOrderDao DAO;
+    private final long QUIET_NANOS;
+    private final long MAX_DELAY_NANOS;
+
+    private final ReentrantLock LOCK = new ReentrantLock();
+    private final Condition CHANGED = LOCK.newCondition();
+    private final Thread SAVER;
+
+    // guarded by LOCK
+    private long pending;
+    private long firstChangeNanos;
+    private long lastChangeNanos;
+    private boolean closed;
+
+    private volatile long flushes;
+    private volatile long lastFlushNanos;
+    private volatile FlooringMasteryFailedSaveException lastFailure;
+
+    /**
+     * @param DAO A Dao whose supportsBackgroundSave is true
+     * @param QUIET_MILLIS How long no change must arrive before a save
+     * @param MAX_DELAY_MILLIS The longest a change may wait for a save
+     */
+    FlooringMasteryOrderAutosaver(FlooringMasteryOrderDao DAO, long QUIET_MILLIS, long MAX_DELAY_MILLIS) {
+        if (!DAO.supportsBackgroundSave()) {
+            throw new IllegalArgumentException("The Dao cannot be saved in the background");
+        }
+        this.DAO = DAO;
+        this.QUIET_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(0, QUIET_MILLIS));
+        this.MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(QUIET_MILLIS, MAX_DELAY_MILLIS));
+        this.SAVER = new Thread(this::run, "order-autosave");
+        SAVER.setDaemon(true);
+        FlooringMasteryMetrics.gauge("autosave.pending", this, FlooringMasteryOrderAutosaver::getPendingChanges);
+    }
+
+    void start() {
+        SAVER.start();
+    }
+
+    /**
+     * Notes that an Order was pushed or removed; never waits for a save
+     */
+    public void changed() {
+        LOCK.lock();
+        try {
+            long now = System.nanoTime();
+            if (pending++ == 0) {
+                firstChangeNanos = now;
+            }
+            lastChangeNanos = now;
+            CHANGED.signal();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long changes;
+            LOCK.lock();
+            try {
+                while (!closed) {
+                    if (pending == 0) {
+                        CHANGED.awaitUninterruptibly();
+                        continue;
+                    }
+                    long waitNanos = nanosUntilDue();
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+                    CHANGED.awaitNanos(waitNanos);
+                }
+                if (closed) {
+                    return;
+                }
+                changes = pending;
+                pending = 0;
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                LOCK.unlock();
+            }
+            flush(changes);
+        }
+    }
+
+    /**
+     * Must be called holding LOCK, with changes pending
+     */
+    private long nanosUntilDue() {
+        long now = System.nanoTime();
+        return Math.min(lastChangeNanos + QUIET_NANOS - now, firstChangeNanos + MAX_DELAY_NANOS - now);
+    }
+
+    private void flush(long changes) {
+        long startNanos = System.nanoTime();
+        FlooringMasteryFailedSaveException failure;
+        try {
+            DAO.saveToExternals();
+            failure = null;
+        } catch (FlooringMasteryFailedSaveException ex) {
+            failure = ex;
+        } catch (RuntimeException ex) {
+            // a bug in the Dao must not end the saving thread, which would
+            // leave every later change unsaved without a word
+            failure = new FlooringMasteryFailedSaveException("Unexpected failure while saving orders", ex);
+        }
+        lastFailure = failure;
+        if (failure != null) {
+            FAILURES.increment();
+            // the Dao still holds the changes as unsaved; wait a quiet
+            // period before trying again
+            LOCK.lock();
+            try {
+                long now = System.nanoTime();
+                if (pending == 0) {
+                    firstChangeNanos = now;
+                }
+                pending += changes;
+                lastChangeNanos = now;
+            } finally {
+                LOCK.unlock();
+            }
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        lastFlushNanos = nanos;
+        flushes++;
+        FLUSH_NANOS.record(nanos);
+        FLUSH_CHANGES.record(changes);
+    }
+
+    /**
+     * Stops the background saves, then saves any change still pending
+     *
+     * If that last save is unsuccessful, the below exception will be thrown
+     *
+     * @throws FlooringMasteryFailedSaveException
+     */
+    public void close() throws FlooringMasteryFailedSaveException {
+        long changes;
+        LOCK.lock();
+        try {
+            closed = true;
+            CHANGED.signal();
+        } finally {
+            LOCK.unlock();
+        }
+        boolean interrupted = false;
+        while (SAVER.isAlive()) {
+            try {
+                SAVER.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        LOCK.lock();
+        try {
+            changes = pending;
+            pending = 0;
+        } finally {
+            LOCK.unlock();
+        }
+        if (changes > 0) {
+            flush(changes);
+            if (lastFailure != null) {
+                throw lastFailure;
+            }
+        }
+    }
+
+    /**
+     * @return The number of pushes and removals not yet saved
+     */
+    public long getPendingChanges() {
+        LOCK.lock();
+        try {
+            return pending;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return The number of successful saves
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * @return How long the most recent successful save took, in nanoseconds
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    /**
+     * @return Why the most recent save failed, or null if it succeeded
+     */
+    public FlooringMasteryFailedSaveException getLastFailure() {
+        return lastFailure;
+    }
+}
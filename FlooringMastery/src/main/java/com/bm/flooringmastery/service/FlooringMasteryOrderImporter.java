@@ -0,0 +1,388 @@
+package com.bm.flooringmastery.service;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports a file of new Orders, such as those sent from sales tools, as a
+ * pipeline of three stages joined by bounded queues
+ *
+ * The parse stage reads the file as a stream and splits each line into its
+ * fields; the validate stage checks them against the same rules as an Order
+ * entered by hand and resolves the state and product; the insert stage
+ * numbers the valid Orders a block at a time and pushes them. Each stage
+ * works on batches of rows, and the queues hold only a few batches, so the
+ * file is never read far ahead of what has been inserted.
+ *
+ * Files whose names end in .jsonl, .ndjson or .json hold one JSON object per
+ * line, with the string or number fields orderDate, customerName, state,
+ * productType and area. Any other file is comma separated, with the header
+ * OrderDate,CustomerName,State,ProductType,Area; as in the day files, any
+ * extra commas are taken to belong to the customer name.
+ *
+ * Tax rates and products are looked up once per distinct state and type, so
+ * a whole import is priced alike even if the catalog is reloaded meanwhile.
+ */
+final class FlooringMasteryOrderImporter {
+    static final int BATCH_ROWS = 1000;
+    private static final int QUEUED_BATCHES = 4;
+    private static final int CSV_COLUMNS = 5;
+    private static final BigDecimal MIN_AREA = new BigDecimal("100");
+
+    private final FlooringMasteryService SERVICE;
+    private final LocalDate TODAY;
+
+    private final Map<String, Optional<BigDecimal>> TAX_RATES = new HashMap<>();
+    private final Map<String, Optional<FlooringMasteryProduct>> PRODUCTS = new HashMap<>();
+
+    /**
+     * @param SERVICE The service to validate against and insert into
+     * @param TODAY Orders must be dated after this day
+     */
+    FlooringMasteryOrderImporter(FlooringMasteryService SERVICE, LocalDate TODAY) {
+        this.SERVICE = SERVICE;
+        this.TODAY = TODAY;
+    }
+
+    /**
+     * Imports every valid row of a file
+     *
+     * Should reading or inserting fail part of the way through, the Orders
+     * inserted until then remain.
+     *
+     * @param path
+     * @return The outcome of the import
+     * @throws FlooringMasteryFailedLoadException if the file cannot be read
+     * @throws FlooringMasteryFailedSaveException if an Order cannot be pushed
+     */
+    FlooringMasteryImportReport importFrom(Path path)
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        long startNanos = System.nanoTime();
+        boolean json = isJsonLines(path);
+        BufferedReader reader;
+        try {
+            reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8),
+                1 << 16
+            );
+        } catch (IOException ex) {
+            throw new FlooringMasteryFailedLoadException("Unable to read " + path, ex);
+        }
+
+        // an empty batch marks the end of the rows
+        BlockingQueue<List<Row>> parsed = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+        BlockingQueue<List<Row>> validated = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+        AtomicReference<Throwable> stageFailure = new AtomicReference<>();
+        FlooringMasteryImportReport report = new FlooringMasteryImportReport();
+
+        Thread parser = stage("import-parse", parsed, stageFailure, () -> {
+            try (BufferedReader lines = reader) {
+                parse(lines, json, parsed);
+            }
+        });
+        Thread validator = stage("import-validate", validated, stageFailure, () -> {
+            List<Row> batch;
+            while (!(batch = parsed.take()).isEmpty()) {
+                List<Row> valid = validate(batch, report);
+                if (!valid.isEmpty()) {
+                    validated.put(valid);
+                }
+            }
+        });
+
+        long imported = 0;
+        try {
+            List<Row> batch;
+            while (!(batch = validated.take()).isEmpty()) {
+                insert(batch);
+                imported += batch.size();
+            }
+            // a parser whose validator failed may be stuck on a full queue
+            parser.interrupt();
+            parser.join();
+            validator.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlooringMasteryFailedLoadException("Interrupted while importing orders", ex);
+        } finally {
+            // only still running if the import was cut short
+            parser.interrupt();
+            validator.interrupt();
+        }
+
+        Throwable failure = stageFailure.get();
+        if (failure instanceof IOException) {
+            throw new FlooringMasteryFailedLoadException(
+                "Unable to read " + path + " after importing " + imported + " orders",
+                failure
+            );
+        }
+        if (failure != null) {
+            throw new FlooringMasteryFailedLoadException(
+                "Unable to import " + path + " after importing " + imported + " orders",
+                failure
+            );
+        }
+        report.imported(imported);
+        report.finish(System.nanoTime() - startNanos);
+        return report;
+    }
+
+    private static boolean isJsonLines(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json");
+    }
+
+    private interface Stage {
+        void run() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Starts a stage, which posts the empty batch to its queue however it
+     * ends, so that the next stage never waits on it forever
+     *
+     * @param failure Where the first failure of any stage is recorded
+     */
+    private static Thread stage(
+        String name,
+        BlockingQueue<List<Row>> out,
+        AtomicReference<Throwable> failure,
+        Stage body) {
+
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                try {
+                    out.put(Collections.emptyList());
+                } catch (InterruptedException ex) {
+                    // the import was cut short, so nothing waits for the end
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * The parse stage: splits every line into a Row, in batches
+     */
+    private static void parse(BufferedReader lines, boolean json, BlockingQueue<List<Row>> out)
+        throws IOException, InterruptedException {
+
+        long lineNumber = 0;
+        if (!json) {
+            lines.readLine(); // ignore header
+            lineNumber++;
+        }
+        List<Row> batch = new ArrayList<>(BATCH_ROWS);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            batch.add(json ? parseJsonLine(lineNumber, line) : parseCsvLine(lineNumber, line));
+            if (batch.size() == BATCH_ROWS) {
+                out.put(batch);
+                batch = new ArrayList<>(BATCH_ROWS);
+            }
+        }
+        if (!batch.isEmpty()) {
+            out.put(batch);
+        }
+    }
+
+    private static Row parseCsvLine(long lineNumber, String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < CSV_COLUMNS) {
+            return Row.malformed(
+                lineNumber,
+                "Expected " + CSV_COLUMNS + " columns but found " + fields.length
+            );
+        }
+        int last = fields.length - 1;
+        return new Row(
+            lineNumber,
+            fields[0].trim(),
+            String.join(",", List.of(fields).subList(1, last - 2)).trim(),
+            fields[last - 2].trim(),
+            fields[last - 1].trim(),
+            fields[last].trim()
+        );
+    }
+
+    private static Row parseJsonLine(long lineNumber, String line) {
+        Map<String, String> fields;
+        try {
+            fields = FlooringMasteryJson.parseObject(line);
+        } catch (IllegalArgumentException ex) {
+            return Row.malformed(lineNumber, "Malformed JSON: " + ex.getMessage());
+        }
+        for (String key : List.of("orderDate", "customerName", "state", "productType", "area")) {
+            if (fields.get(key) == null) {
+                return Row.malformed(lineNumber, "Missing " + key);
+            }
+        }
+        return new Row(
+            lineNumber,
+            fields.get("orderDate").trim(),
+            fields.get("customerName").trim(),
+            fields.get("state").trim(),
+            fields.get("productType").trim(),
+            fields.get("area").trim()
+        );
+    }
+
+    /**
+     * The validate stage: checks each Row, resolving its state and product,
+     * and reports those that fail
+     *
+     * @return The valid Rows of the batch
+     */
+    private List<Row> validate(List<Row> batch, FlooringMasteryImportReport report) {
+        List<Row> valid = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            report.rowRead();
+            String problem = row.problem != null ? row.problem : resolve(row);
+            if (problem == null) {
+                valid.add(row);
+            } else {
+                report.reject(row.LINE_NUMBER, problem);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * @return What is wrong with the Row, or null if it is valid, in which
+     *         case its parsed values are filled in
+     */
+    private String resolve(Row row) {
+        try {
+            row.orderDate = LocalDate.parse(row.ORDER_DATE);
+        } catch (DateTimeParseException ex) {
+            return "Invalid order date \"" + row.ORDER_DATE + "\"";
+        }
+        if (!TODAY.isBefore(row.orderDate)) {
+            return "The order date " + row.orderDate + " is not in the future";
+        }
+        if (row.CUSTOMER_NAME.isEmpty()) {
+            return "The customer name is empty";
+        }
+        if (FlooringMasteryService.hasLineBreak(row.CUSTOMER_NAME)) {
+            return "The customer name holds a line break";
+        }
+        Optional<BigDecimal> percentTaxRate = TAX_RATES.computeIfAbsent(
+            row.STATE,
+            SERVICE::percentTaxRateForStateAbbr
+        );
+        if (percentTaxRate.isEmpty()) {
+            return "No tax data for the state \"" + row.STATE + "\"";
+        }
+        Optional<FlooringMasteryProduct> product = PRODUCTS.computeIfAbsent(
+            row.PRODUCT_TYPE,
+            SERVICE::getProductByType
+        );
+        if (product.isEmpty()) {
+            return "The product type \"" + row.PRODUCT_TYPE + "\" is not available";
+        }
+        try {
+            row.area = new BigDecimal(row.AREA);
+        } catch (NumberFormatException ex) {
+            return "Invalid area \"" + row.AREA + "\"";
+        }
+        if (row.area.compareTo(MIN_AREA) < 0) {
+            return "The area " + row.area + " is less than " + MIN_AREA + " sq. ft.";
+        }
+        row.percentTaxRate = percentTaxRate.get();
+        row.product = product.get();
+        return null;
+    }
+
+    /**
+     * The insert stage: numbers a batch of valid Rows as one block and
+     * pushes them
+     */
+    private void insert(List<Row> batch) throws FlooringMasteryFailedSaveException {
+        int orderNum = SERVICE.reserveOrderNumbers(batch.size());
+        for (Row row : batch) {
+            SERVICE.pushOrder(new FlooringMasteryOrder(
+                row.orderDate,
+                orderNum++,
+                row.CUSTOMER_NAME,
+                row.STATE,
+                row.percentTaxRate,
+                row.product,
+                row.area
+            ));
+        }
+    }
+
+    /**
+     * A line of the file: its raw fields as parsed, then their values once
+     * validated
+     */
+    private static final class Row {
+        private final long LINE_NUMBER;
+        private final String ORDER_DATE;
+        private final String CUSTOMER_NAME;
+        private final String STATE;
+        private final String PRODUCT_TYPE;
+        private final String AREA;
+        private String problem;
+
+        private LocalDate orderDate;
+        private BigDecimal percentTaxRate;
+        private FlooringMasteryProduct product;
+        private BigDecimal area;
+
+        private Row(
+            long LINE_NUMBER,
+            String ORDER_DATE,
+            String CUSTOMER_NAME,
+            String STATE,
+            String PRODUCT_TYPE,
+            String AREA) {
+
+            this.LINE_NUMBER = LINE_NUMBER;
+            this.ORDER_DATE = ORDER_DATE;
+            this.CUSTOMER_NAME = CUSTOMER_NAME;
+            this.STATE = STATE;
+            this.PRODUCT_TYPE = PRODUCT_TYPE;
+            this.AREA = AREA;
+        }
+
+        private static Row malformed(long lineNumber, String problem) {
+            Row row = new Row(lineNumber, null, null, null, null, null);
+            row.problem = problem;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.bm.flooringmastery.service;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Describes which Orders a report covers
+ *
+ * An Order matches when its date lies in the (inclusive) date range, and its
+ * state and product type are among the given ones. An empty set of states or
+ * product types matches every state or product type.
+ */
+public class FlooringMasteryOrderQuery {
+    private final LocalDate FROM;
+    private final LocalDate TO;
+    private final Set<String> STATES;
+    private final Set<String> PRODUCT_TYPES;
+
+    /**
+     * A query matching every Order in the date range
+     *
+     * @param from The first date, or null for no lower bound
+     * @param to The last date, or null for no upper bound
+     */
+    public FlooringMasteryOrderQuery(LocalDate from, LocalDate to) {
+        this(from, to, Set.of(), Set.of());
+    }
+
+    /**
+     * @param from The first date, or null for no lower bound
+     * @param to The last date, or null for no upper bound
+     * @param states The state abbreviations to match, or empty for all
+     * @param productTypes The product types to match, or empty for all
+     */
+    public FlooringMasteryOrderQuery(
+        LocalDate from,
+        LocalDate to,
+        Set<String> states,
+        Set<String> productTypes) {
+
+        this.FROM = from == null ? LocalDate.MIN : from;
+        this.TO = to == null ? LocalDate.MAX : to;
+        this.STATES = Set.copyOf(states);
+        this.PRODUCT_TYPES = Set.copyOf(productTypes);
+    }
+
+    public LocalDate getFrom() {
+        return FROM;
+    }
+
+    public LocalDate getTo() {
+        return TO;
+    }
+
+    public Set<String> getStates() {
+        return STATES;
+    }
+
+    public Set<String> getProductTypes() {
+        return PRODUCT_TYPES;
+    }
+
+    /**
+     * Tests the state and product type of an Order already known to lie in
+     * the date range
+     *
+     * @param order
+     * @return true if the Order matches, false otherwise
+     */
+    public boolean matches(FlooringMasteryOrder order) {
+        return (STATES.isEmpty() || STATES.contains(order.getState()))
+            && (PRODUCT_TYPES.isEmpty() || PRODUCT_TYPES.contains(order.getProductType()));
+    }
+
+    /**
+     * The ways matching Orders can be grouped when summarized
+     */
+    public enum GroupBy {
+        NONE(order -> "ALL"),
+        DATE(order -> order.getOrderDate().toString()),
+        MONTH(order -> order.getOrderDate().toString().substring(0, 7)),
+        STATE(FlooringMasteryOrder::getState),
+        PRODUCT_TYPE(FlooringMasteryOrder::getProductType);
+
+        private final Function<FlooringMasteryOrder, String> KEY;
+
+        private GroupBy(Function<FlooringMasteryOrder, String> KEY) {
+            this.KEY = KEY;
+        }
+
+        /**
+         * @param order
+         * @return The name of the group this Order belongs to
+         */
+        public String keyOf(FlooringMasteryOrder order) {
+            return KEY.apply(order);
+        }
+    }
+}
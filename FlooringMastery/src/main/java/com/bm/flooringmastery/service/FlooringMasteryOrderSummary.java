@@ -0,0 +1,72 @@
+package com.bm.flooringmastery.service;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.math.BigDecimal;
+
+/**
+ * The count and the summed amounts of a group of Orders
+ */
+public class FlooringMasteryOrderSummary {
+    private long count;
+    private BigDecimal area = BigDecimal.ZERO;
+    private BigDecimal materialCost = BigDecimal.ZERO;
+    private BigDecimal laborCost = BigDecimal.ZERO;
+    private BigDecimal tax = BigDecimal.ZERO;
+    private BigDecimal total = BigDecimal.ZERO;
+
+    FlooringMasteryOrderSummary() {
+    }
+
+    /**
+     * Folds one more Order into this summary
+     */
+    void add(FlooringMasteryOrder order) {
+        count++;
+        area = area.add(order.getArea());
+        materialCost = materialCost.add(order.getMaterialCost());
+        laborCost = laborCost.add(order.getLaborCost());
+        tax = tax.add(order.getTax());
+        total = total.add(order.getTotal());
+    }
+
+    /**
+     * Folds another summary of distinct Orders into this summary
+     */
+    void combine(FlooringMasteryOrderSummary other) {
+        count += other.count;
+        area = area.add(other.area);
+        materialCost = materialCost.add(other.materialCost);
+        laborCost = laborCost.add(other.laborCost);
+        tax = tax.add(other.tax);
+        total = total.add(other.total);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getArea() {
+        return area;
+    }
+
+    public BigDecimal getMaterialCost() {
+        return materialCost;
+    }
+
+    public BigDecimal getLaborCost() {
+        return laborCost;
+    }
+
+    public BigDecimal getTax() {
+        return tax;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "FlooringMasteryOrderSummary{" + "count=" + count + ", area=" + area + ", materialCost=" + materialCost + ", laborCost=" + laborCost + ", tax=" + tax + ", total=" + total + '}';
+    }
+}
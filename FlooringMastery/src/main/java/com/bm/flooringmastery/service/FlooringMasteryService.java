@@ -3,16 +3,31 @@ package com.bm.flooringmastery.service;
 import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
 import com.bm.flooringmastery.dao.FlooringMasteryProductDao;
 import com.bm.flooringmastery.dao.FlooringMasteryTaxDao;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
 import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.metrics.FlooringMasteryCounter;
+import com.bm.flooringmastery.metrics.FlooringMasteryHistogram;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
 import com.bm.flooringmastery.model.FlooringMasteryOrder;
 import com.bm.flooringmastery.model.FlooringMasteryProduct;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Acts as the Service Layer for this application
@@ -22,51 +37,270 @@ import java.util.stream.Collectors;
  * date: Aug 5, 2021
  */
 public class FlooringMasteryService {
+    /**
+     * The number of dates a summary must span before its dates are folded
+     * in parallel
+     */
+    private static final int PARALLEL_SUMMARY_DATES = 32;
+    
+    private static final String TAXES_PHASE = "taxes";
+    private static final String PRODUCTS_PHASE = "products";
+    private static final String ORDERS_PHASE = "orders";
+    
+    /**
+     * The number of Daos loaded at once: the orders wait for the products,
+     * so there are never more than two
+     */
+    private static final int LOADER_THREADS = 2;
+    
+    private static final FlooringMasteryHistogram LOAD_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.load.nanos");
+    private static final FlooringMasteryHistogram SAVE_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.save.nanos");
+    private static final FlooringMasteryHistogram EXPORT_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.export.nanos");
+    /**
+     * Only counted, as reading the clock twice would cost about as much as
+     * the lookup itself
+     */
+    private static final FlooringMasteryCounter BY_DATE_CALLS = 
+        FlooringMasteryMetrics.counter("orders.getByDate.calls");
+    private static final FlooringMasteryHistogram BY_DATE_RANGE_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.getByDateRange.nanos");
+    private static final FlooringMasteryHistogram PUSH_NANOS = 
+        FlooringMasteryMetrics.histogram("orders.push.nanos");
+    private static final FlooringMasteryHistogram STARTUP_NANOS = 
+        FlooringMasteryMetrics.histogram("startup.nanos");
+    
     private FlooringMasteryTaxDao taxDao;
     private FlooringMasteryProductDao prodDao;
     private FlooringMasteryOrderDao orderDao;
+    
+    /**
+     * Open unless orders are loading in the background
+     */
+    private volatile CountDownLatch ordersReady = new CountDownLatch(0);
+    private volatile CompletableFuture<Void> catalogsLoaded = CompletableFuture.completedFuture(null);
+    private volatile FlooringMasteryStartupReport startupReport;
+    private volatile FlooringMasteryOrderAutosaver autosaver;
 
     public FlooringMasteryService(FlooringMasteryTaxDao taxDao, FlooringMasteryProductDao prodDao, FlooringMasteryOrderDao orderDao) {
         this.taxDao = taxDao;
         this.prodDao = prodDao;
         this.orderDao = orderDao;
+        // a reloaded catalog is shared by the orders read after it too
+        prodDao.setReloadListener(() -> orderDao.registerCanonicalProducts(prodDao.productsSet()));
     }
     
     /**
-     * Loads each of its Daos
+     * Loads each of its Daos, side by side, and waits for all of them
      * 
      * If any of the Daos fail to be loaded properly, the below exception will
-     * be thrown
+     * be thrown, once every Dao has been tried
      * 
      * @throws FlooringMasteryFailedLoadException 
      */
     public void loadDaos() throws FlooringMasteryFailedLoadException {
-        List<String> loadErrs = new LinkedList<>();
-        
-        try {
-            taxDao.loadDataFromExternals();
-        } catch (FlooringMasteryFailedLoadException ex) {
-            loadErrs.add(ex.getMessage());
+        FlooringMasteryStartupReport report = startLoadingDaos().join();
+        List<String> loadErrs = report.getErrors();
+        if (!loadErrs.isEmpty()) {
+            throw new FlooringMasteryFailedLoadException(
+                loadErrs.stream().collect(Collectors.joining(", "))
+            );
         }
+    }
+    
+    /**
+     * Starts loading each of its Daos in the background and returns at once
+     * 
+     * The taxes and the products are loaded side by side, and the orders as
+     * soon as the products are, so that they can share the catalog's
+     * instances. The small tables are ready long before the orders: 
+     * awaitCatalogs waits only for them, and awaitOrders for the orders.
+     * 
+     * A Dao failing to load does not stop the others; its failure is kept in
+     * the report, in which every phase is timed. Each phase's duration is
+     * also recorded in the metrics as startup.{phase}.nanos.
+     * 
+     * @return The report, once every Dao has been tried
+     */
+    public CompletableFuture<FlooringMasteryStartupReport> startLoadingDaos() {
+        long startNanos = System.nanoTime();
+        FlooringMasteryStartupReport report = 
+            new FlooringMasteryStartupReport(startNanos, TAXES_PHASE, PRODUCTS_PHASE, ORDERS_PHASE);
+        CountDownLatch ordersLatch = new CountDownLatch(1);
+        startupReport = report;
+        ordersReady = ordersLatch;
         
+        ExecutorService loaders = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "dao-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> taxes = CompletableFuture.runAsync(
+            () -> timePhase(report, TAXES_PHASE, null, this::loadTaxes),
+            loaders
+        );
+        CompletableFuture<Void> products = CompletableFuture.runAsync(
+            () -> timePhase(report, PRODUCTS_PHASE, null, this::loadProducts),
+            loaders
+        );
+        CompletableFuture<Void> orders = products
+            .thenRunAsync(() -> timePhase(report, ORDERS_PHASE, PRODUCTS_PHASE, this::loadOrders), loaders)
+            .whenComplete((ignored, ex) -> ordersLatch.countDown());
+        catalogsLoaded = CompletableFuture.allOf(taxes, products);
+        
+        return CompletableFuture.allOf(taxes, orders).handle((ignored, ex) -> {
+            loaders.shutdown();
+            report.finish(System.nanoTime());
+            STARTUP_NANOS.record(report.getWallNanos());
+            return report;
+        });
+    }
+    
+    /**
+     * Runs the loading of one Dao, recording how long it took and why it
+     * failed, if it did, rather than throwing
+     */
+    private void timePhase(
+        FlooringMasteryStartupReport report, 
+        String name, 
+        String after, 
+        Loader loader) {
+        
+        long startNanos = System.nanoTime();
+        String error = null;
         try {
-            prodDao.loadDataFromExternals();
+            loader.load();
         } catch (FlooringMasteryFailedLoadException ex) {
-            loadErrs.add(ex.getMessage());
+            error = ex.getMessage();
+        } catch (RuntimeException ex) {
+            error = "Unable to load the " + name + ": " + ex;
         }
-        
+        long endNanos = System.nanoTime();
+        report.record(name, after, startNanos, endNanos, error);
+        FlooringMasteryMetrics.histogram("startup." + name + ".nanos").record(endNanos - startNanos);
+    }
+    
+    /**
+     * Waits until the taxes and the products have been tried, as started by
+     * startLoadingDaos; returns at once otherwise
+     * 
+     * If either failed to load, the below exception will be thrown
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void awaitCatalogs() throws FlooringMasteryFailedLoadException {
+        catalogsLoaded.join();
+        throwLoadErrors(TAXES_PHASE, PRODUCTS_PHASE);
+    }
+    
+    /**
+     * @return Whether the orders have been tried, as started by
+     *         startLoadingDaos, so that awaitOrders would not wait
+     */
+    public boolean areOrdersReady() {
+        return ordersReady.getCount() == 0;
+    }
+    
+    /**
+     * Waits until the orders have been tried, as started by
+     * startLoadingDaos; returns at once otherwise
+     * 
+     * Every action on the orders must wait for this while they load in the
+     * background. If they failed to load, or the wait is interrupted, the
+     * below exception will be thrown
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void awaitOrders() throws FlooringMasteryFailedLoadException {
         try {
-            orderDao.loadFromExternals();
-        } catch (FlooringMasteryFailedLoadException ex) {
-            loadErrs.add(ex.getMessage());
+            ordersReady.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FlooringMasteryFailedLoadException("Interrupted while loading orders", ex);
+        }
+        throwLoadErrors(ORDERS_PHASE);
+    }
+    
+    private void throwLoadErrors(String... phaseNames) throws FlooringMasteryFailedLoadException {
+        FlooringMasteryStartupReport report = startupReport;
+        if (report == null) {
+            return;
+        }
+        List<String> loadErrs = new LinkedList<>();
+        for (FlooringMasteryStartupReport.Phase phase : report.getPhases()) {
+            if (Arrays.asList(phaseNames).contains(phase.getName()) && phase.getError() != null) {
+                loadErrs.add(phase.getError());
+            }
         }
-        
         if (!loadErrs.isEmpty()) {
-            throw new FlooringMasteryFailedLoadException(
-                loadErrs.stream().collect(Collectors.joining(", "))
-            );
+            throw new FlooringMasteryFailedLoadException(String.join(", ", loadErrs));
         }
     }
+    
+    /**
+     * @return The timings of the last call to startLoadingDaos or loadDaos,
+     *         which only holds the phases finished so far while it runs, or
+     *         null if there was none
+     */
+    public FlooringMasteryStartupReport getStartupReport() {
+        return startupReport;
+    }
+    
+    /**
+     * Loads one Dao
+     */
+    @FunctionalInterface
+    private interface Loader {
+        void load() throws FlooringMasteryFailedLoadException;
+    }
+    
+    /**
+     * Loads only the tax data, for callers which need nothing else
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void loadTaxes() throws FlooringMasteryFailedLoadException {
+        taxDao.loadDataFromExternals();
+    }
+    
+    /**
+     * Loads only the products, for callers which need nothing else
+     * 
+     * Orders loaded afterwards which match the catalog share its products
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void loadProducts() throws FlooringMasteryFailedLoadException {
+        prodDao.loadDataFromExternals();
+        orderDao.registerCanonicalProducts(prodDao.productsSet());
+    }
+    
+    /**
+     * Loads only the orders, for callers which need nothing else
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void loadOrders() throws FlooringMasteryFailedLoadException {
+        long startNanos = FlooringMasteryMetrics.start();
+        orderDao.loadFromExternals();
+        LOAD_NANOS.recordSince(startNanos);
+    }
+    
+    /**
+     * Claims the orders for this process, before they are loaded, so that no
+     * other process changes them until this one ends; every caller which
+     * changes orders does so first
+     * 
+     * If another process has claimed them, the below exception will be
+     * thrown
+     * 
+     * @throws FlooringMasteryFailedLoadException 
+     */
+    public void lockOrders() throws FlooringMasteryFailedLoadException {
+        orderDao.lockExternals();
+    }
 
     /**
      * Tests if the state abbreviation has tax data
@@ -94,6 +328,14 @@ public class FlooringMasteryService {
         return taxDao.percentTaxRateForStateAbbr(abbr);
     }
     
+    /**
+     * @return The percent tax rate of every state with tax data, in order of
+     *         the states' abbreviations
+     */
+    public SortedMap<String, BigDecimal> percentTaxRatesByStateAbbr() {
+        return new TreeMap<>(taxDao.percentTaxRates());
+    }
+    
     /**
      * @return The set of all products in inventory
      */
@@ -125,6 +367,25 @@ public class FlooringMasteryService {
         return prodDao.getProductByType(type);
     }
 
+    /**
+     * Allocates the number for a new order
+     * 
+     * @return A number not used by any other order
+     */
+    public int nextOrderNumber() {
+        return orderDao.nextOrderNumber();
+    }
+    
+    /**
+     * Allocates a contiguous block of numbers for new orders
+     * 
+     * @param count
+     * @return The first number of the block
+     */
+    public int reserveOrderNumbers(int count) {
+        return orderDao.reserveOrderNumbers(count);
+    }
+
     public Set<FlooringMasteryOrder> ordersSet() {
         return orderDao.ordersSet();
     }
@@ -133,21 +394,332 @@ public class FlooringMasteryService {
      * Returns all orders that whose date matches the given date
      * 
      * @param date
+     * @return The aforementioned orders, as an unmodifiable view
+     */
+    public Collection<FlooringMasteryOrder> getOrdersByDate(LocalDate date) {
+        BY_DATE_CALLS.increment();
+        return orderDao.getOrdersByDate(date);
+    }
+    
+    /**
+     * Returns all orders whose date lies between the given dates, inclusive
+     * 
+     * @param from
+     * @param to
+     * @return The aforementioned orders, as an unmodifiable view
+     */
+    public Collection<FlooringMasteryOrder> getOrdersByDateRange(LocalDate from, LocalDate to) {
+        long startNanos = FlooringMasteryMetrics.start();
+        Collection<FlooringMasteryOrder> orders = orderDao.getOrdersByDateRange(from, to);
+        BY_DATE_RANGE_NANOS.recordSince(startNanos);
+        return orders;
+    }
+
+    /**
+     * Returns every order matching the query, in order of date and number
+     * 
+     * @param query
      * @return The aforementioned orders
      */
-    public Set<FlooringMasteryOrder> getOrdersByDate(LocalDate date) {
-        return orderDao.ordersSet().stream()
-                .filter((FlooringMasteryOrder order) -> {
-                    return order.getOrderDate().equals(date);
-                })
-                .collect(Collectors.toSet());
+    public List<FlooringMasteryOrder> findOrders(FlooringMasteryOrderQuery query) {
+        return orderDao.getOrdersByDateRange(query.getFrom(), query.getTo()).stream()
+            .filter(query::matches)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Returns the orders of a customer, or of every customer whose name
+     * starts with a prefix, regardless of case
+     * 
+     * @param name
+     * @param prefix Whether name is only the start of the names to match
+     * @param limit The most orders to return
+     * @return The aforementioned orders, in order of date and number
+     */
+    public List<FlooringMasteryOrder> findOrdersByCustomer(String name, boolean prefix, int limit) {
+        return orderDao.getOrdersByCustomer(name, prefix, limit);
+    }
+    
+    /**
+     * Counts and sums the amounts of every order matching the query
+     * 
+     * @param query
+     * @return The aforementioned summary
+     */
+    public FlooringMasteryOrderSummary summarizeOrders(FlooringMasteryOrderQuery query) {
+        return summarizeOrders(query, FlooringMasteryOrderQuery.GroupBy.NONE)
+            .getOrDefault("ALL", new FlooringMasteryOrderSummary());
+    }
+    
+    /**
+     * Counts and sums the amounts of every order matching the query, 
+     * separately for each group
+     * 
+     * This is done in a single pass over the dates in the query's range. When
+     * the range spans many dates, the dates are folded in parallel and their
+     * results merged.
+     * 
+     * @param query
+     * @param groupBy
+     * @return The summary of each nonempty group, keyed by the group's name
+     */
+    public SortedMap<String, FlooringMasteryOrderSummary> summarizeOrders(
+        FlooringMasteryOrderQuery query, 
+        FlooringMasteryOrderQuery.GroupBy groupBy) {
+        
+        List<Collection<FlooringMasteryOrder>> buckets = 
+            orderDao.getOrderBucketsByDateRange(query.getFrom(), query.getTo());
+        Stream<Collection<FlooringMasteryOrder>> bucketStream = 
+            buckets.size() >= PARALLEL_SUMMARY_DATES 
+                ? buckets.parallelStream() 
+                : buckets.stream();
+        
+        return bucketStream.collect(
+            TreeMap::new,
+            (groups, bucket) -> {
+                for (FlooringMasteryOrder order : bucket) {
+                    if (query.matches(order)) {
+                        groups.computeIfAbsent(
+                            groupBy.keyOf(order), 
+                            key -> new FlooringMasteryOrderSummary()
+                        ).add(order);
+                    }
+                }
+            },
+            (groups, others) -> {
+                others.forEach((key, summary) -> {
+                    groups.merge(key, summary, (mine, theirs) -> {
+                        mine.combine(theirs);
+                        return mine;
+                    });
+                });
+            }
+        );
     }
 
     /**
      * Pushes the indicated order into the collection
+     * 
+     * If the order cannot be recorded, or its customer name holds a line
+     * break, the below exception will be thrown
+     * 
      * @param order 
+     * @throws FlooringMasteryFailedSaveException
      */
-    public void pushOrder(FlooringMasteryOrder order) {
+    public void pushOrder(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException {
+        checkStorable(order);
+        long startNanos = FlooringMasteryMetrics.start();
         orderDao.pushOrder(order);
+        PUSH_NANOS.recordSince(startNanos);
+        noteChange();
+    }
+    
+    /**
+     * Numbers a new order and pushes it into the collection
+     * 
+     * The number is only taken here, once the order is sure to be kept, so
+     * an order abandoned before this never uses one up. If the order cannot
+     * be recorded, the below exception will be thrown
+     * 
+     * @param draft The new order, whose own number is ignored
+     * @return The order as pushed, with its number
+     * @throws FlooringMasteryFailedSaveException
+     */
+    public FlooringMasteryOrder pushNewOrder(FlooringMasteryOrder draft) throws FlooringMasteryFailedSaveException {
+        checkStorable(draft);
+        FlooringMasteryOrder order = new FlooringMasteryOrder(
+            draft.getOrderDate(),
+            orderDao.nextOrderNumber(),
+            draft.getCustomerName(),
+            draft.getState(),
+            draft.getPercentTaxRate(),
+            draft.getOrderedProduct(),
+            draft.getArea()
+        );
+        pushOrder(order);
+        return order;
+    }
+    
+    /**
+     * Whether a customer name holds a carriage return or line feed, which
+     * would split the row of the day file it is saved in; such a name cannot
+     * be stored, however it was entered
+     * 
+     * @param customerName
+     * @return true if the name holds a line break
+     */
+    public static boolean hasLineBreak(String customerName) {
+        return customerName.indexOf('\n') >= 0 || customerName.indexOf('\r') >= 0;
+    }
+    
+    private static void checkStorable(FlooringMasteryOrder order) throws FlooringMasteryFailedSaveException {
+        if (hasLineBreak(order.getCustomerName())) {
+            throw new FlooringMasteryFailedSaveException(
+                "Unable to store the order, as its customer name holds a line break"
+            );
+        }
+    }
+    
+    /**
+     * Adds every valid order of a CSV or JSON lines file
+     * 
+     * Rows are held to the same rules as an order entered by hand; those that
+     * break one are reported rather than added. If reading or pushing fails,
+     * the below exceptions will be thrown, and the orders pushed until then
+     * remain
+     * 
+     * @param path
+     * @return What was added and what was rejected
+     * @throws FlooringMasteryFailedLoadException
+     * @throws FlooringMasteryFailedSaveException 
+     */
+    public FlooringMasteryImportReport importOrders(Path path)
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+        
+        return new FlooringMasteryOrderImporter(this, LocalDate.now()).importFrom(path);
+    }
+    
+    /**
+     * Attempts to obtain the order with the indicated date and number
+     * 
+     * @param date
+     * @param num
+     * @return The order, or an empty instance if there is none
+     */
+    public Optional<FlooringMasteryOrder> getOrder(LocalDate date, int num) {
+        return orderDao.getOrderByDateAndNumber(date, num);
+    }
+    
+    /**
+     * Attempts to obtain the order with the indicated number, whatever its
+     * date
+     * 
+     * @param num
+     * @return The order, or an empty instance if there is none
+     */
+    public Optional<FlooringMasteryOrder> getOrderByNumber(int num) {
+        return orderDao.getOrderByNumber(num);
+    }
+    
+    /**
+     * Removes the order with the indicated number, whatever its date
+     * 
+     * If the removal cannot be recorded, the below exception will be thrown
+     * 
+     * @param num
+     * @return The removed order, or an empty instance if there was none
+     * @throws FlooringMasteryFailedSaveException 
+     */
+    public Optional<FlooringMasteryOrder> removeOrderByNumber(int num) 
+        throws FlooringMasteryFailedSaveException {
+        
+        Optional<FlooringMasteryOrder> removed = orderDao.removeOrderByNumber(num);
+        removed.ifPresent(order -> noteChange());
+        return removed;
+    }
+    
+    /**
+     * Removes the order with the indicated date and number
+     * 
+     * If the removal cannot be recorded, the below exception will be thrown
+     * 
+     * @param date
+     * @param num
+     * @return The removed order, or an empty instance if there was none
+     * @throws FlooringMasteryFailedSaveException 
+     */
+    public Optional<FlooringMasteryOrder> removeOrder(LocalDate date, int num) 
+        throws FlooringMasteryFailedSaveException {
+        
+        Optional<FlooringMasteryOrder> removed = orderDao.removeOrderByDateAndNumber(date, num);
+        removed.ifPresent(order -> noteChange());
+        return removed;
+    }
+    
+    /**
+     * Saves any changed orders to external sources
+     * 
+     * If the saving is unsuccessful, the below exception will be thrown
+     * 
+     * @throws FlooringMasteryFailedSaveException 
+     */
+    public void saveOrders() throws FlooringMasteryFailedSaveException {
+        long startNanos = FlooringMasteryMetrics.start();
+        orderDao.saveToExternals();
+        SAVE_NANOS.recordSince(startNanos);
+    }
+    
+    /**
+     * Starts saving changed orders in the background, once no change has
+     * arrived for the quiet period or the oldest unsaved one has waited the
+     * maximum delay (see FlooringMasteryOrderAutosaver)
+     * 
+     * Only an order Dao whose supportsBackgroundSave is true can be saved so;
+     * with any other, nothing is started and false is returned. Calling this
+     * again while saves are running changes nothing.
+     * 
+     * stopAutosave must be called before exiting, such as from a shutdown
+     * hook, to save what is still pending
+     * 
+     * @param quietMillis
+     * @param maxDelayMillis
+     * @return Whether orders are now saved in the background
+     */
+    public synchronized boolean startAutosave(long quietMillis, long maxDelayMillis) {
+        if (autosaver != null) {
+            return true;
+        }
+        if (!orderDao.supportsBackgroundSave()) {
+            return false;
+        }
+        FlooringMasteryOrderAutosaver started = 
+            new FlooringMasteryOrderAutosaver(orderDao, quietMillis, maxDelayMillis);
+        started.start();
+        autosaver = started;
+        return true;
+    }
+    
+    /**
+     * Stops the background saves started by startAutosave, if any, and saves
+     * whatever changes are still pending
+     * 
+     * If that last save is unsuccessful, the below exception will be thrown
+     * 
+     * @throws FlooringMasteryFailedSaveException 
+     */
+    public synchronized void stopAutosave() throws FlooringMasteryFailedSaveException {
+        FlooringMasteryOrderAutosaver stopped = autosaver;
+        if (stopped != null) {
+            autosaver = null;
+            stopped.close();
+        }
+    }
+    
+    /**
+     * @return The background saver started by startAutosave, or an empty
+     *         instance if orders are not saved in the background
+     */
+    public Optional<FlooringMasteryOrderAutosaver> getAutosaver() {
+        return Optional.ofNullable(autosaver);
+    }
+    
+    private void noteChange() {
+        FlooringMasteryOrderAutosaver current = autosaver;
+        if (current != null) {
+            current.changed();
+        }
+    }
+    
+    /**
+     * Exports every order
+     * 
+     * If the exporting is unsuccessful, the below exception will be thrown
+     * 
+     * @throws FlooringMasteryFailedExportException 
+     */
+    public void exportOrders() throws FlooringMasteryFailedExportException {
+        long startNanos = FlooringMasteryMetrics.start();
+        orderDao.export();
+        EXPORT_NANOS.recordSince(startNanos);
     }
 }
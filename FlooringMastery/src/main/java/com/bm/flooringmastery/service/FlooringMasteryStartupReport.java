@@ -0,0 +1,199 @@
+package com.bm.flooringmastery.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * How long loading each Dao took at startup, when the loads run side by
+ * side
+ *
+ * Each phase is timed from when it started, relative to the start of the
+ * whole startup. A phase may only start after another, such as the orders
+ * after the products; following those back from the phase which ended last
+ * gives the critical path, the chain of phases which the startup had to
+ * wait for and which alone is worth making faster.
+ */
+public class FlooringMasteryStartupReport {
+    private final long START_NANOS;
+    private final Phase[] PHASES;
+    private volatile long wallNanos;
+
+    /**
+     * @param START_NANOS When the startup began, as given by System.nanoTime
+     * @param names The names of the phases, in the order they are reported
+     */
+    FlooringMasteryStartupReport(long START_NANOS, String... names) {
+        this.START_NANOS = START_NANOS;
+        this.PHASES = new Phase[names.length];
+        for (int i = 0; i < names.length; i++) {
+            PHASES[i] = new Phase(names[i]);
+        }
+    }
+
+    /**
+     * Records a finished phase; may be called from any thread
+     *
+     * @param name
+     * @param after The name of the phase this one waited for, or null
+     * @param startNanos
+     * @param endNanos
+     * @param error Why the phase failed, or null if it did not
+     */
+    synchronized void record(String name, String after, long startNanos, long endNanos, String error) {
+        Phase phase = phaseNamed(name);
+        phase.after = after == null ? null : phaseNamed(after);
+        phase.startNanos = startNanos - START_NANOS;
+        phase.endNanos = endNanos - START_NANOS;
+        phase.error = error;
+        phase.done = true;
+    }
+
+    void finish(long endNanos) {
+        this.wallNanos = endNanos - START_NANOS;
+    }
+
+    private Phase phaseNamed(String name) {
+        for (Phase phase : PHASES) {
+            if (phase.NAME.equals(name)) {
+                return phase;
+            }
+        }
+        throw new IllegalArgumentException("No phase is named " + name);
+    }
+
+    /**
+     * @return Every phase finished so far, in the order given
+     */
+    public synchronized List<Phase> getPhases() {
+        List<Phase> phases = new ArrayList<>();
+        for (Phase phase : PHASES) {
+            if (phase.done) {
+                phases.add(phase);
+            }
+        }
+        return Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * @return Why each failed phase failed, in the order of the phases
+     */
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>();
+        for (Phase phase : getPhases()) {
+            if (phase.error != null) {
+                errors.add(phase.error);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * @return The time from the start of the startup to the end of its last
+     *         phase, in nanoseconds, or 0 if it has not finished
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return The chain of phases ending with the one which ended last, each
+     *         after the one it waited for
+     */
+    public synchronized List<Phase> getCriticalPath() {
+        Phase last = null;
+        for (Phase phase : PHASES) {
+            if (phase.done && (last == null || phase.endNanos > last.endNanos)) {
+                last = phase;
+            }
+        }
+        LinkedList<Phase> path = new LinkedList<>();
+        for (Phase phase = last; phase != null; phase = phase.after) {
+            path.addFirst(phase);
+        }
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return The time the phases of the critical path took together, in
+     *         nanoseconds; the rest of the wall clock was spent between them
+     */
+    public long getCriticalPathNanos() {
+        long nanos = 0;
+        for (Phase phase : getCriticalPath()) {
+            nanos += phase.getNanos();
+        }
+        return nanos;
+    }
+
+    /**
+     * @return One line per phase, then the wall clock and critical path
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Startup:\n");
+        for (Phase phase : getPhases()) {
+            text.append(String.format(
+                "  %-10s %8.1f ms  (from %6.1f ms%s)%s%n",
+                phase.NAME,
+                phase.getNanos() / 1e6,
+                phase.startNanos / 1e6,
+                phase.after == null ? "" : ", after " + phase.after.NAME,
+                phase.error == null ? "" : "  FAILED"
+            ));
+        }
+        List<String> path = new ArrayList<>();
+        getCriticalPath().forEach(phase -> path.add(phase.NAME));
+        text.append(String.format("  %-10s %8.1f ms%n", "wall", wallNanos / 1e6));
+        text.append(String.format(
+            "  %-10s %8.1f ms  (%s)%n",
+            "critical",
+            getCriticalPathNanos() / 1e6,
+            String.join(" -> ", path)
+        ));
+        return text.toString();
+    }
+
+    /**
+     * The loading of one Dao
+     */
+    public static class Phase {
+        private final String NAME;
+        private Phase after;
+        private long startNanos;
+        private long endNanos;
+        private String error;
+        private boolean done;
+
+        private Phase(String NAME) {
+            this.NAME = NAME;
+        }
+
+        public String getName() {
+            return NAME;
+        }
+
+        /**
+         * @return When the phase started, in nanoseconds from the start of
+         *         the startup
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * @return How long the phase took, in nanoseconds
+         */
+        public long getNanos() {
+            return endNanos - startNanos;
+        }
+
+        /**
+         * @return Why the phase failed, or null if it did not
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.bm.flooringmastery.tools;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderLayout;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Moves an order archive from the flat layout, every day file directly in
+ * the Orders directory, to the partitioned one, each in a YYYY/MM
+ * subdirectory and listed in a manifest (see FlooringMasteryOrderLayout)
+ *
+ * Run from the application directory, while the application is stopped,
+ * with "java -cp target/classes com.bm.flooringmastery.tools.FlooringMasteryLayoutTool
+ * (partition | verify) [ordersDirectory]", the directory defaulting to
+ * Orders.
+ *
+ * partition moves the day files and writes the manifest; running it again
+ * rebuilds the manifest from the day files. verify reads every day file to
+ * check it against the manifest.
+ */
+public class FlooringMasteryLayoutTool {
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            usage();
+            return;
+        }
+        Path ordersDirectory = Paths.get(args.length == 2 ? args[1] : "Orders");
+        try {
+            switch (args[0]) {
+                case "partition":
+                    partition(ordersDirectory);
+                    break;
+                case "verify":
+                    verify(ordersDirectory);
+                    break;
+                default:
+                    usage();
+            }
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: FlooringMasteryLayoutTool (partition | verify) [ordersDirectory]");
+        System.exit(2);
+    }
+
+    private static void partition(Path ordersDirectory) throws IOException {
+        if (!Files.isDirectory(ordersDirectory)) {
+            throw new IOException(ordersDirectory + " is not a directory");
+        }
+        long startNanos = System.nanoTime();
+        List<String> conflicts = FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+        System.out.printf(
+            "Partitioned %s and wrote its %s in %.1f ms%n",
+            ordersDirectory,
+            FlooringMasteryOrderLayout.MANIFEST_NAME,
+            (System.nanoTime() - startNanos) / 1e6
+        );
+        conflicts.forEach(System.err::println);
+        if (!conflicts.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void verify(Path ordersDirectory) throws IOException {
+        List<String> mismatches = FlooringMasteryOrderLayout.verify(ordersDirectory);
+        if (mismatches.isEmpty()) {
+            System.out.println("Every day file matches the manifest");
+            return;
+        }
+        mismatches.forEach(System.err::println);
+        System.exit(1);
+    }
+}
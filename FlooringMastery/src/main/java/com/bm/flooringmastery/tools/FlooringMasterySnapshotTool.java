@@ -0,0 +1,143 @@
+package com.bm.flooringmastery.tools;
+
+import com.bm.flooringmastery.dao.FlooringMasteryIoStats;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderSnapshot;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Converts an order archive between its day files and its binary snapshot
+ *
+ * Run from the application directory with
+ * "java -cp target/classes com.bm.flooringmastery.tools.FlooringMasterySnapshotTool
+ * (snapshot | csv) [ordersDirectory]", the directory defaulting to Orders.
+ *
+ * snapshot writes the snapshot from the day files, then reports the on-disk
+ * size and the time taken to load each (the best of several loads). csv
+ * rewrites the day files from the snapshot.
+ */
+public class FlooringMasterySnapshotTool {
+    private static final int TIMED_LOADS = 5;
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            usage();
+            return;
+        }
+        String ordersDirectory = args.length == 2 ? args[1] : "Orders";
+        try {
+            switch (args[0]) {
+                case "snapshot":
+                    writeSnapshot(ordersDirectory);
+                    break;
+                case "csv":
+                    writeDayFiles(ordersDirectory);
+                    break;
+                default:
+                    usage();
+            }
+        } catch (IOException
+            | FlooringMasteryFailedLoadException
+            | FlooringMasteryFailedSaveException ex) {
+
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: FlooringMasterySnapshotTool (snapshot | csv) [ordersDirectory]");
+        System.exit(2);
+    }
+
+    private static void writeSnapshot(String ordersDirectory)
+        throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        // a fresh snapshot would be read in place of the day files
+        Files.deleteIfExists(newDao(ordersDirectory).getSnapshotPath());
+        FlooringMasteryIoStats csvStats = timeLoads(ordersDirectory, false);
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao(ordersDirectory);
+        dao.loadFromExternals();
+        long snapshotBytes = dao.writeSnapshot();
+        FlooringMasteryIoStats snapshotStats = timeLoads(ordersDirectory, true);
+
+        System.out.println("Wrote " + dao.getSnapshotPath());
+        System.out.printf(
+            "Day files: %d files, %d orders, %,d bytes, loaded in %.1f ms%n",
+            csvStats.getFiles(),
+            csvStats.getRows(),
+            csvStats.getBytes(),
+            csvStats.getNanos() / 1e6
+        );
+        System.out.printf(
+            "Snapshot:  %,d bytes (%.0f%% of the day files), loaded in %.1f ms (%.1fx faster)%n",
+            snapshotBytes,
+            100.0 * snapshotBytes / Math.max(1, csvStats.getBytes()),
+            snapshotStats.getNanos() / 1e6,
+            (double) csvStats.getNanos() / Math.max(1, snapshotStats.getNanos())
+        );
+    }
+
+    private static void writeDayFiles(String ordersDirectory)
+        throws IOException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao(ordersDirectory);
+        Path snapshotPath = dao.getSnapshotPath();
+        Files.createDirectories(Paths.get(ordersDirectory));
+        long orders = 0;
+        for (Map<Integer, FlooringMasteryOrder> bucket
+            : FlooringMasteryOrderSnapshot.read(snapshotPath).values()) {
+
+            for (FlooringMasteryOrder order : bucket.values()) {
+                dao.pushOrder(order);
+                orders++;
+            }
+        }
+        dao.saveToExternals();
+        System.out.println(
+            "Wrote " + orders + " orders from " + snapshotPath + " to " + ordersDirectory
+        );
+    }
+
+    /**
+     * Loads the archive several times over
+     *
+     * @return The statistics of the fastest load
+     */
+    private static FlooringMasteryIoStats timeLoads(String ordersDirectory, boolean fromSnapshot)
+        throws FlooringMasteryFailedLoadException {
+
+        FlooringMasteryIoStats best = null;
+        for (int i = 0; i < TIMED_LOADS; i++) {
+            FlooringMasteryOrderDaoFileImpl dao = newDao(ordersDirectory);
+            dao.loadFromExternals();
+            if (dao.isLastLoadFromSnapshot() != fromSnapshot) {
+                throw new FlooringMasteryFailedLoadException(
+                    fromSnapshot
+                        ? "The snapshot was not used; a day file may be newer than it"
+                        : "The snapshot was used in place of the day files"
+                );
+            }
+            if (best == null || dao.getLastLoadStats().getNanos() < best.getNanos()) {
+                best = dao.getLastLoadStats();
+            }
+        }
+        return best;
+    }
+
+    private static FlooringMasteryOrderDaoFileImpl newDao(String ordersDirectory) {
+        return new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory,
+            Paths.get(ordersDirectory).resolveSibling("DataExport.txt").toString(),
+            Runtime.getRuntime().availableProcessors()
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.bm.flooringmastery.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryCommandLineTest {
+    private static final String ORDER_DATE = LocalDate.now().plusDays(30).toString();
+
+    private Path root;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-cli");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15"
+        ));
+        Files.createDirectory(root.resolve("Orders"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Runs a command against a new service, as each run of the application
+     * would
+     */
+    private int run(String... args) {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        FlooringMasteryService service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoFileImpl(
+                root.resolve("Orders").toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+        return new FlooringMasteryCommandLine(
+            new PrintStream(out, true, StandardCharsets.UTF_8),
+            new PrintStream(err, true, StandardCharsets.UTF_8),
+            service
+        ).run(args);
+    }
+
+    private List<String> outLines() {
+        return List.of(out.toString(StandardCharsets.UTF_8).split(System.lineSeparator()));
+    }
+
+    @Test
+    public void testAddThenList() {
+        assertEquals(FlooringMasteryCommandLine.EXIT_OK, run("add", ORDER_DATE, "Lovelace, Ada", "TX", "Tile", "200"));
+        assertTrue(outLines().get(1).startsWith(ORDER_DATE + ",1,\"Lovelace, Ada\",TX,"), outLines().get(1));
+
+        assertEquals(FlooringMasteryCommandLine.EXIT_OK, run("list", ORDER_DATE));
+        assertEquals(2, outLines().size());
+        assertTrue(outLines().get(1).endsWith(",700.00,830.00,68.09,1598.09"), outLines().get(1));
+    }
+
+    @Test
+    public void testAddRejectsLineBreakInName() {
+        assertEquals(
+            FlooringMasteryCommandLine.EXIT_REJECTED,
+            run("add", ORDER_DATE, "Ada\nLovelace", "TX", "Tile", "200")
+        );
+        assertEquals("The customer name holds a line break", err.toString(StandardCharsets.UTF_8).trim());
+
+        assertEquals(FlooringMasteryCommandLine.EXIT_OK, run("list", ORDER_DATE));
+        assertEquals(1, outLines().size());
+    }
+
+    @Test
+    public void testAddRejectsInvalidOrders() {
+        assertEquals(FlooringMasteryCommandLine.EXIT_REJECTED, run("add", ORDER_DATE, " ", "TX", "Tile", "200"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_REJECTED, run("add", ORDER_DATE, "Ada", "ZZ", "Tile", "200"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_REJECTED, run("add", ORDER_DATE, "Ada", "TX", "Marble", "200"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_REJECTED, run("add", ORDER_DATE, "Ada", "TX", "Tile", "99"));
+        assertEquals(
+            FlooringMasteryCommandLine.EXIT_REJECTED,
+            run("add", LocalDate.now().toString(), "Ada", "TX", "Tile", "200")
+        );
+    }
+
+    @Test
+    public void testUsageErrors() {
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run());
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run("remove"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run("list"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run("list", "someday"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run("add", ORDER_DATE, "Ada", "TX", "Tile", "lots"));
+        assertEquals(FlooringMasteryCommandLine.EXIT_USAGE, run("report", ORDER_DATE, "2000-01-01"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains(FlooringMasteryCommandLine.USAGE));
+    }
+}
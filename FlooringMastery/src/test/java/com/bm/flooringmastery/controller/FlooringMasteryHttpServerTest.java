@@ -0,0 +1,234 @@
+package com.bm.flooringmastery.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.service.FlooringMasteryJson;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryHttpServerTest {
+    private static final LocalDate ORDER_DATE = LocalDate.now().plusDays(30);
+
+    private Path root;
+    private FlooringMasteryService service;
+    private FlooringMasteryHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException {
+        root = Files.createTempDirectory("flooring-http");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45",
+            "WA,Washington,9.25"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15",
+            "Wood,5.15,4.75"
+        ));
+        Files.createDirectory(root.resolve("Orders"));
+        service = newService();
+        service.loadDaos();
+        server = new FlooringMasteryHttpServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.stop(0);
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private FlooringMasteryService newService() {
+        return new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoConcurrentFileImpl(
+                root.resolve("Orders").toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(
+            "http://localhost:" + server.getAddress().getPort() + path
+        ));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        return send(request("/orders").POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> put(int num, String body) throws IOException, InterruptedException {
+        return send(request("/orders/" + ORDER_DATE + "/" + num).PUT(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> delete(int num) throws IOException, InterruptedException {
+        return send(request("/orders/" + ORDER_DATE + "/" + num).DELETE());
+    }
+
+    private static String orderBody(String customerName) {
+        return "{\"orderDate\":\"" + ORDER_DATE + "\",\"customerName\":" + FlooringMasteryJson.quote(customerName)
+            + ",\"state\":\"TX\",\"productType\":\"Tile\",\"area\":\"200\"}";
+    }
+
+    private static String field(HttpResponse<String> response, String name) {
+        return FlooringMasteryJson.parseObject(response.body()).get(name);
+    }
+
+    @Test
+    public void testOrderLifecycle() throws IOException, InterruptedException {
+        HttpResponse<String> added = post(orderBody("Ada Lovelace"));
+        assertEquals(201, added.statusCode(), added.body());
+        int num = Integer.parseInt(field(added, "orderNumber"));
+
+        HttpResponse<String> listed = send(request("/orders?date=" + ORDER_DATE));
+        assertEquals(200, listed.statusCode());
+        assertTrue(listed.body().contains("\"Ada Lovelace\""), listed.body());
+
+        HttpResponse<String> edited = put(num, "{\"state\":\"WA\",\"productType\":\"Wood\"}");
+        assertEquals(200, edited.statusCode(), edited.body());
+        assertEquals("WA", field(edited, "state"));
+        assertEquals("Ada Lovelace", field(edited, "customerName"));
+        assertEquals("Wood", service.getOrder(ORDER_DATE, num).get().getProductType());
+
+        assertEquals(200, delete(num).statusCode());
+        assertEquals(404, send(request("/orders/" + ORDER_DATE + "/" + num)).statusCode());
+        assertEquals(404, delete(num).statusCode());
+    }
+
+    @Test
+    public void testStatusCodes() throws IOException, InterruptedException {
+        assertEquals(400, post("{\"orderDate\":").statusCode());
+        assertEquals(400, post("{\"orderDate\":\"" + ORDER_DATE + "\"}").statusCode());
+        assertEquals(400, send(request("/orders")).statusCode());
+        assertEquals(400, send(request("/orders?date=someday")).statusCode());
+        assertEquals(404, send(request("/orders/" + ORDER_DATE + "/x")).statusCode());
+        assertEquals(404, send(request("/orders/" + ORDER_DATE + "/1/2")).statusCode());
+        assertEquals(404, send(request("/products/1")).statusCode());
+        assertEquals(405, send(request("/taxes").DELETE()).statusCode());
+        assertEquals(405, send(request("/orders").DELETE()).statusCode());
+
+        assertEquals(422, post(orderBody("Ada Lovelace").replace(ORDER_DATE.toString(), LocalDate.now().toString()))
+            .statusCode());
+        assertEquals(422, post(orderBody(" ")).statusCode());
+        assertEquals(422, post(orderBody("Ada Lovelace").replace("TX", "ZZ")).statusCode());
+        assertEquals(422, post(orderBody("Ada Lovelace").replace("Tile", "Marble")).statusCode());
+        assertEquals(422, post(orderBody("Ada Lovelace").replace("200", "99")).statusCode());
+        assertEquals(400, post(orderBody("Ada Lovelace").replace("200", "lots")).statusCode());
+        assertTrue(service.getOrdersByDate(ORDER_DATE).isEmpty());
+
+        HttpResponse<String> products = send(request("/products"));
+        assertEquals(200, products.statusCode());
+        assertTrue(products.body().contains("\"Wood\""), products.body());
+    }
+
+    /**
+     * A name holding a line break would split its row of the day file, so
+     * that the next load fails; it must be refused, and what was stored must
+     * still load afterwards
+     */
+    @Test
+    public void testLineBreakInNameIsRejected()
+        throws IOException, InterruptedException, FlooringMasteryFailedLoadException,
+        FlooringMasteryFailedSaveException {
+
+        int num = Integer.parseInt(field(post(orderBody("Ada Lovelace")), "orderNumber"));
+
+        HttpResponse<String> added = post(orderBody("Ada\nLovelace"));
+        assertEquals(422, added.statusCode());
+        assertEquals("The customer name holds a line break", field(added, "error"));
+        assertEquals(422, post(orderBody("Ada\rLovelace")).statusCode());
+        assertEquals(422, put(num, "{\"customerName\":\"Ada\\r\\nLovelace\"}").statusCode());
+        service.saveOrders();
+
+        FlooringMasteryService reloaded = newService();
+        reloaded.loadDaos();
+        List<FlooringMasteryOrder> orders = new ArrayList<>(reloaded.getOrdersByDate(ORDER_DATE));
+        assertEquals(1, orders.size());
+        assertEquals("Ada Lovelace", orders.get(0).getCustomerName());
+    }
+
+    /**
+     * Edits and removals of the same orders race; an edit must never bring
+     * back an order once it is removed
+     */
+    @Test
+    public void testEditsCannotUndoRemovals() throws IOException, InterruptedException {
+        int orders = 50;
+        List<Integer> nums = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            nums.add(Integer.parseInt(field(post(orderBody("Customer " + i)), "orderNumber")));
+        }
+
+        List<CompletableFuture<HttpResponse<String>>> edits = new ArrayList<>();
+        List<CompletableFuture<HttpResponse<String>>> removals = new ArrayList<>();
+        for (int num : nums) {
+            edits.add(client.sendAsync(
+                request("/orders/" + ORDER_DATE + "/" + num)
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"area\":\"300\"}")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            ));
+            removals.add(client.sendAsync(
+                request("/orders/" + ORDER_DATE + "/" + num).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString()
+            ));
+        }
+
+        for (int i = 0; i < orders; i++) {
+            int editStatus = edits.get(i).join().statusCode();
+            assertTrue(editStatus == 200 || editStatus == 404, () -> "Edit answered " + editStatus);
+            assertEquals(200, removals.get(i).join().statusCode());
+        }
+        assertTrue(service.getOrdersByDate(ORDER_DATE).isEmpty());
+        for (int num : nums) {
+            assertFalse(service.getOrderByNumber(num).isPresent());
+        }
+    }
+
+    @Test
+    public void testErrorBodyIsJson() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(request("/orders/" + ORDER_DATE + "/1/2"));
+
+        assertEquals(404, response.statusCode());
+        Map<String, String> body = FlooringMasteryJson.parseObject(response.body());
+        assertTrue(body.containsKey("error"), response.body());
+    }
+}
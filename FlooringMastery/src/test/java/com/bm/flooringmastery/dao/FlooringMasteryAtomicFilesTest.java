@@ -0,0 +1,51 @@
+package com.bm.flooringmastery.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryAtomicFilesTest {
+    private Path root;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-atomic");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    @Test
+    public void testWriteReplacesContentsWithoutLeavingTempFile() throws IOException {
+        Path target = root.resolve("Orders_01012030.txt");
+        Files.write(target, "old contents, longer than the new".getBytes(StandardCharsets.UTF_8));
+
+        long written = FlooringMasteryAtomicFiles.write(
+            target,
+            ByteBuffer.wrap("new".getBytes(StandardCharsets.UTF_8))
+        );
+
+        assertEquals(3, written);
+        assertEquals("new", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(root.resolve("Orders_01012030.txt.tmp")));
+    }
+
+    @Test
+    public void testWriteCreatesMissingTarget() throws IOException {
+        Path target = root.resolve("new.txt");
+
+        FlooringMasteryAtomicFiles.write(target, ByteBuffer.wrap(new byte[] {1, 2, 3}));
+
+        assertEquals(3, Files.size(target));
+    }
+}
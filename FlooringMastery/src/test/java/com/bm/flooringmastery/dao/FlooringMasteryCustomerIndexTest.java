@@ -0,0 +1,101 @@
+package com.bm.flooringmastery.dao;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryCustomerIndexTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+
+    private static long ref(LocalDate date, int num) {
+        return FlooringMasteryCustomerIndex.pack(date, num);
+    }
+
+    @Test
+    public void testPackRoundTrip() {
+        long ref = ref(SECOND_DATE, Integer.MAX_VALUE);
+
+        assertEquals(SECOND_DATE, FlooringMasteryCustomerIndex.dateOf(ref));
+        assertEquals(Integer.MAX_VALUE, FlooringMasteryCustomerIndex.numOf(ref));
+        assertTrue(ref(FIRST_DATE, Integer.MAX_VALUE) < ref(SECOND_DATE, 1));
+    }
+
+    @Test
+    public void testExactLookupIgnoresCase() {
+        FlooringMasteryCustomerIndex index = new FlooringMasteryCustomerIndex();
+        index.add("Ada Lovelace", SECOND_DATE, 2);
+        index.add("ADA LOVELACE", FIRST_DATE, 3);
+        index.add("Ada Lovelace Jr.", FIRST_DATE, 1);
+
+        assertArrayEquals(
+            new long[] {ref(FIRST_DATE, 3), ref(SECOND_DATE, 2)},
+            index.find("ada lovelace", false, 10)
+        );
+        assertArrayEquals(new long[0], index.find("Ada", false, 10));
+    }
+
+    @Test
+    public void testAddingTwiceChangesNothing() {
+        FlooringMasteryCustomerIndex index = new FlooringMasteryCustomerIndex();
+        index.add("Ada Lovelace", FIRST_DATE, 1);
+        index.add("Ada Lovelace", FIRST_DATE, 1);
+
+        assertArrayEquals(new long[] {ref(FIRST_DATE, 1)}, index.find("Ada Lovelace", false, 10));
+    }
+
+    @Test
+    public void testPrefixMergesNamesByDateThenNumber() {
+        FlooringMasteryCustomerIndex index = new FlooringMasteryCustomerIndex();
+        index.add("Alan Turing", SECOND_DATE, 1);
+        index.add("Ada Lovelace", SECOND_DATE, 4);
+        index.add("Ada Lovelace", FIRST_DATE, 7);
+        index.add("alan kay", FIRST_DATE, 9);
+        index.add("Grace Hopper", FIRST_DATE, 2);
+
+        assertArrayEquals(
+            new long[] {ref(FIRST_DATE, 7), ref(FIRST_DATE, 9), ref(SECOND_DATE, 1), ref(SECOND_DATE, 4)},
+            index.find("A", true, 10)
+        );
+        assertArrayEquals(
+            new long[] {ref(FIRST_DATE, 9), ref(SECOND_DATE, 1)},
+            index.find("AL", true, 10)
+        );
+        assertArrayEquals(new long[0], index.find("B", true, 10));
+    }
+
+    @Test
+    public void testLimitKeepsEarliest() {
+        FlooringMasteryCustomerIndex index = new FlooringMasteryCustomerIndex();
+        for (int num = 1; num <= 20; num++) {
+            index.add("Customer " + (num % 5), num % 2 == 0 ? FIRST_DATE : SECOND_DATE, num);
+        }
+
+        assertArrayEquals(
+            new long[] {ref(FIRST_DATE, 2), ref(FIRST_DATE, 4), ref(FIRST_DATE, 6)},
+            index.find("customer", true, 3)
+        );
+        assertArrayEquals(
+            new long[] {ref(FIRST_DATE, 10)},
+            index.find("Customer 0", false, 1)
+        );
+        assertArrayEquals(new long[0], index.find("customer", true, 0));
+    }
+
+    @Test
+    public void testRemove() {
+        FlooringMasteryCustomerIndex index = new FlooringMasteryCustomerIndex();
+        index.add("Ada Lovelace", FIRST_DATE, 1);
+        index.add("Ada Lovelace", SECOND_DATE, 2);
+
+        index.remove("ADA LOVELACE", FIRST_DATE, 1);
+        index.remove("Ada Lovelace", FIRST_DATE, 2);
+        assertArrayEquals(new long[] {ref(SECOND_DATE, 2)}, index.find("Ada Lovelace", false, 10));
+
+        index.remove("Ada Lovelace", SECOND_DATE, 2);
+        assertArrayEquals(new long[0], index.find("Ada", true, 10));
+    }
+}
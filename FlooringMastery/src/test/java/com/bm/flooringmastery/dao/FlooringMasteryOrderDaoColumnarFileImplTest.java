@@ -0,0 +1,150 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderDaoColumnarFileImplTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+
+    private Path root;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-columnar");
+        Files.createDirectory(root.resolve("File"));
+        Files.createDirectory(root.resolve("Columnar"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl fileDao() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            root.resolve("File").toString(),
+            root.resolve("FileExport.txt").toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private FlooringMasteryOrderDaoColumnarFileImpl columnarDao() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoColumnarFileImpl dao = new FlooringMasteryOrderDaoColumnarFileImpl(
+            root.resolve("Columnar").toString(),
+            root.resolve("ColumnarExport.txt").toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private static void applyChanges(FlooringMasteryOrderDao dao) throws FlooringMasteryFailedSaveException {
+        dao.pushOrder(order(SECOND_DATE, 7, "Alan Turing"));
+        dao.pushOrder(order(FIRST_DATE, 5, "Ada Lovelace"));
+        dao.pushOrder(order(FIRST_DATE, 2, "Grace Hopper"));
+        dao.pushOrder(order(FIRST_DATE, 9, "Edsger Dijkstra"));
+        dao.pushOrder(new FlooringMasteryOrder(
+            SECOND_DATE,
+            3,
+            "Barbara Liskov",
+            "WA",
+            new BigDecimal("9.25"),
+            FlooringMasteryTestOrders.TILE,
+            new BigDecimal("123.4567")
+        ));
+        dao.pushOrder(order(FIRST_DATE, 5, "Ada King"));
+        dao.removeOrderByDateAndNumber(FIRST_DATE, 9);
+    }
+
+    private static void assertSameOrders(FlooringMasteryOrderDao expected, FlooringMasteryOrderDao actual) {
+        assertEquals(expected.ordersSet(), actual.ordersSet());
+        for (LocalDate date : List.of(FIRST_DATE, SECOND_DATE)) {
+            assertEquals(
+                new ArrayList<>(expected.getOrdersByDate(date)),
+                new ArrayList<>(actual.getOrdersByDate(date))
+            );
+        }
+        assertEquals(
+            new ArrayList<>(expected.getOrdersByDateRange(FIRST_DATE, SECOND_DATE)),
+            new ArrayList<>(actual.getOrdersByDateRange(FIRST_DATE, SECOND_DATE))
+        );
+        for (int num = 1; num <= 10; num++) {
+            assertEquals(expected.getOrderByNumber(num), actual.getOrderByNumber(num));
+        }
+        assertEquals(expected.getOrdersByCustomer("a", true, 10), actual.getOrdersByCustomer("a", true, 10));
+    }
+
+    @Test
+    public void testBehavesLikeTheFileDao()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl file = fileDao();
+        FlooringMasteryOrderDaoColumnarFileImpl columnar = columnarDao();
+        applyChanges(file);
+        applyChanges(columnar);
+        assertSameOrders(file, columnar);
+        assertEquals(file.nextOrderNumber(), columnar.nextOrderNumber());
+
+        file.saveToExternals();
+        columnar.saveToExternals();
+        for (LocalDate date : List.of(FIRST_DATE, SECOND_DATE)) {
+            String name = FlooringMasteryOrderCsv.filenameForDate(date);
+            assertArrayEquals(
+                Files.readAllBytes(root.resolve("File").resolve(name)),
+                Files.readAllBytes(root.resolve("Columnar").resolve(name))
+            );
+        }
+        assertSameOrders(fileDao(), columnarDao());
+    }
+
+    @Test
+    public void testOrdersShareCatalogInstances()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoColumnarFileImpl dao = columnarDao();
+        applyChanges(dao);
+        dao.saveToExternals();
+
+        List<FlooringMasteryOrder> orders = new ArrayList<>(columnarDao().getOrdersByDate(FIRST_DATE));
+        assertEquals(2, orders.size());
+        assertSame(orders.get(0).getOrderedProduct(), orders.get(1).getOrderedProduct());
+        assertSame(orders.get(0).getState(), orders.get(1).getState());
+    }
+
+    @Test
+    public void testUnstorableOrderIsRejected() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoColumnarFileImpl dao = columnarDao();
+        FlooringMasteryOrder tooPrecise = new FlooringMasteryOrder(
+            FIRST_DATE,
+            1,
+            "Ada Lovelace",
+            "TX",
+            new BigDecimal("4.45"),
+            FlooringMasteryTestOrders.TILE,
+            BigDecimal.ONE.setScale(200)
+        );
+
+        assertThrows(FlooringMasteryFailedSaveException.class, () -> dao.pushOrder(tooPrecise));
+        assertTrue(dao.ordersSet().isEmpty());
+        assertTrue(dao.getOrdersByDate(FIRST_DATE).isEmpty());
+    }
+}
@@ -0,0 +1,187 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderDaoConcurrentFileImplTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final int DATES = 12;
+    private static final int WRITERS = 8;
+    private static final int STEPS = 2_000;
+
+    private Path root;
+    private Path ordersDirectory;
+    private String journalFile;
+    private List<FlooringMasteryOrderJournal> journals;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-concurrent");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+        journalFile = root.resolve("Orders.journal").toString();
+        journals = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (FlooringMasteryOrderJournal journal : journals) {
+            journal.close();
+        }
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoConcurrentFileImpl newDao(boolean journaled) {
+        FlooringMasteryOrderJournal journal = null;
+        if (journaled) {
+            journal = new FlooringMasteryOrderJournal(journalFile, 5);
+            journals.add(journal);
+        }
+        return new FlooringMasteryOrderDaoConcurrentFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            4,
+            journal
+        );
+    }
+
+    /**
+     * Runs writers which each push, look up and remove their own orders on
+     * shared dates while another thread saves over and over, then checks
+     * that memory, a reload and the day files all agree on what is left
+     */
+    @Test
+    public void testConcurrentWritersAndSaves()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException,
+        InterruptedException, IOException {
+
+        FlooringMasteryOrderDaoConcurrentFileImpl dao = newDao(true);
+        dao.loadFromExternals();
+
+        Map<Integer, FlooringMasteryOrder> live = new ConcurrentHashMap<>();
+        Set<Integer> taken = ConcurrentHashMap.newKeySet();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch writersDone = new CountDownLatch(WRITERS);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            Random random = new Random(w);
+            threads.add(new Thread(() -> {
+                List<FlooringMasteryOrder> own = new ArrayList<>();
+                try {
+                    for (int step = 0; step < STEPS; step++) {
+                        int choice = random.nextInt(10);
+                        if (choice < 6 || own.isEmpty()) {
+                            int num = dao.nextOrderNumber();
+                            if (!taken.add(num)) {
+                                failures.add("Order number " + num + " was handed out twice");
+                            }
+                            FlooringMasteryOrder order = order(
+                                FIRST_DATE.plusDays(random.nextInt(DATES)),
+                                num,
+                                "Customer " + num
+                            );
+                            dao.pushOrder(order);
+                            live.put(num, order);
+                            own.add(order);
+                        } else if (choice < 8) {
+                            FlooringMasteryOrder order = own.remove(random.nextInt(own.size()));
+                            live.remove(order.getOrderNum());
+                            Optional<FlooringMasteryOrder> removed = random.nextBoolean()
+                                ? dao.removeOrderByNumber(order.getOrderNum())
+                                : dao.removeOrderByDateAndNumber(order.getOrderDate(), order.getOrderNum());
+                            if (!removed.equals(Optional.of(order))) {
+                                failures.add("Removing " + order.getOrderNum() + " gave " + removed);
+                            }
+                        } else {
+                            FlooringMasteryOrder order = own.get(random.nextInt(own.size()));
+                            if (!dao.getOrderByNumber(order.getOrderNum()).equals(Optional.of(order))) {
+                                failures.add("Order " + order.getOrderNum() + " went missing");
+                            }
+                        }
+                    }
+                } catch (FlooringMasteryFailedSaveException | RuntimeException ex) {
+                    failures.add(ex.toString());
+                } finally {
+                    writersDone.countDown();
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                while (writersDone.getCount() > 0) {
+                    dao.saveToExternals();
+                    Thread.sleep(2);
+                }
+            } catch (FlooringMasteryFailedSaveException | RuntimeException ex) {
+                failures.add(ex.toString());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), () -> String.join(System.lineSeparator(), failures));
+        Set<FlooringMasteryOrder> expected = new HashSet<>(live.values());
+        assertEquals(expected, dao.ordersSet());
+
+        // the saves so far raced the writers, so the journal holds the rest
+        journals.get(0).close();
+        FlooringMasteryOrderDaoConcurrentFileImpl replayed = newDao(true);
+        replayed.loadFromExternals();
+        assertEquals(expected, replayed.ordersSet());
+
+        replayed.saveToExternals();
+        FlooringMasteryOrderDaoConcurrentFileImpl reloaded = newDao(false);
+        reloaded.loadFromExternals();
+        assertEquals(expected, reloaded.ordersSet());
+
+        Map<LocalDate, Long> countsByDate = expected.stream()
+            .collect(Collectors.groupingBy(FlooringMasteryOrder::getOrderDate, Collectors.counting()));
+        for (int d = 0; d < DATES; d++) {
+            LocalDate date = FIRST_DATE.plusDays(d);
+            Path dayFile = ordersDirectory.resolve(FlooringMasteryOrderCsv.filenameForDate(date));
+            long count = countsByDate.getOrDefault(date, 0L);
+            if (count == 0) {
+                assertFalse(Files.exists(dayFile), dayFile::toString);
+            } else {
+                // a header row, then one row per order
+                assertEquals(count + 1, Files.readAllLines(dayFile).size(), dayFile::toString);
+            }
+        }
+
+        Map<Integer, FlooringMasteryOrder> byNumber = reloaded.ordersSet().stream()
+            .collect(Collectors.toMap(FlooringMasteryOrder::getOrderNum, Function.identity()));
+        assertEquals(expected.size(), byNumber.size());
+    }
+}
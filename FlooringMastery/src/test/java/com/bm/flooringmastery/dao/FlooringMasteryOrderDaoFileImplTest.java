@@ -0,0 +1,294 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderDaoFileImplTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-dao");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl newDao() {
+        return new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+    }
+
+    private FlooringMasteryOrderDaoFileImpl loadedDao() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private Path dayFile(LocalDate date) {
+        return ordersDirectory.resolve(FlooringMasteryOrderCsv.filenameForDate(date));
+    }
+
+    @Test
+    public void testSaveRewritesOnlyChangedDates()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.pushOrder(order(SECOND_DATE, 2, "Alan Turing"));
+        dao.saveToExternals();
+        assertEquals(2, dao.getLastSaveStats().getFiles());
+        byte[] firstBefore = Files.readAllBytes(dayFile(FIRST_DATE));
+
+        dao = loadedDao();
+        dao.pushOrder(order(SECOND_DATE, 3, "Grace Hopper"));
+        dao.saveToExternals();
+
+        assertEquals(1, dao.getLastSaveStats().getFiles());
+        assertEquals(2, dao.getLastSaveStats().getRows());
+        assertArrayEquals(firstBefore, Files.readAllBytes(dayFile(FIRST_DATE)));
+        assertEquals(2, loadedDao().getOrdersByDate(SECOND_DATE).size());
+    }
+
+    @Test
+    public void testSaveWithoutChangesWritesNothing()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.saveToExternals();
+
+        dao.saveToExternals();
+
+        assertEquals(0, dao.getLastSaveStats().getFiles());
+    }
+
+    @Test
+    public void testSaveDeletesDayFileOfEmptiedDate()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.saveToExternals();
+        assertTrue(Files.exists(dayFile(FIRST_DATE)));
+
+        dao.removeOrderByDateAndNumber(FIRST_DATE, 1);
+        dao.saveToExternals();
+
+        assertFalse(Files.exists(dayFile(FIRST_DATE)));
+        assertTrue(loadedDao().ordersSet().isEmpty());
+    }
+
+    @Test
+    public void testSaveLeavesNoTempFiles()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.pushOrder(order(SECOND_DATE, 2, "Alan Turing"));
+        dao.saveToExternals();
+
+        try (Stream<Path> paths = Files.list(ordersDirectory)) {
+            assertTrue(paths.noneMatch(path -> path.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void testSavedOrdersLoadUnchanged()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.pushOrder(order(FIRST_DATE, 2, "Lovelace, Ada"));
+        dao.pushOrder(order(SECOND_DATE, 3, "Alan Turing"));
+        dao.saveToExternals();
+        Set<FlooringMasteryOrder> saved = dao.ordersSet();
+
+        assertEquals(saved, loadedDao().ordersSet());
+    }
+
+    @Test
+    public void testUnsavedChangesAreReplayedFromJournal()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        String journalFile = root.resolve("Orders.journal").toString();
+        FlooringMasteryOrderJournal journal = new FlooringMasteryOrderJournal(journalFile, 0);
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            journal
+        );
+        dao.loadFromExternals();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.saveToExternals();
+        dao.pushOrder(order(FIRST_DATE, 2, "Alan Turing"));
+        dao.removeOrderByDateAndNumber(FIRST_DATE, 1);
+        Set<FlooringMasteryOrder> unsaved = dao.ordersSet();
+        journal.close();
+
+        FlooringMasteryOrderDaoFileImpl reloaded = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            new FlooringMasteryOrderJournal(journalFile, 0)
+        );
+        reloaded.loadFromExternals();
+
+        assertEquals(unsaved, reloaded.ordersSet());
+        assertEquals(1, loadedDao().ordersSet().size());
+    }
+
+    @Test
+    public void testOrderNumbersContinueAboveHighestLoaded()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        assertEquals(1, dao.nextOrderNumber());
+        dao.pushOrder(order(FIRST_DATE, 41, "Ada Lovelace"));
+        dao.pushOrder(order(SECOND_DATE, 7, "Alan Turing"));
+        dao.saveToExternals();
+
+        assertEquals(42, loadedDao().nextOrderNumber());
+    }
+
+    @Test
+    public void testLazyOrderNumbersContinueAboveHighestOnDisk()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 41, "Ada Lovelace"));
+        dao.pushOrder(order(SECOND_DATE, 7, "Alan Turing"));
+        dao.saveToExternals();
+
+        FlooringMasteryOrderDaoFileImpl lazyDao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            null,
+            1
+        );
+        lazyDao.loadFromExternals();
+
+        assertEquals(42, lazyDao.nextOrderNumber());
+    }
+
+    @Test
+    public void testReservedNumbersAreSkippedAfterwards() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+
+        assertEquals(1, dao.reserveOrderNumbers(100));
+        assertEquals(101, dao.nextOrderNumber());
+        assertThrows(IllegalArgumentException.class, () -> dao.reserveOrderNumbers(0));
+    }
+
+    @Test
+    public void testOrderNumbersAreUniqueAcrossThreads()
+        throws FlooringMasteryFailedLoadException, InterruptedException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        int threads = 8;
+        int perThread = 10_000;
+        Set<Integer> taken = ConcurrentHashMap.newKeySet();
+        List<Thread> takers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread taker = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    taken.add(dao.nextOrderNumber());
+                }
+            });
+            takers.add(taker);
+            taker.start();
+        }
+        for (Thread taker : takers) {
+            taker.join();
+        }
+
+        assertEquals(threads * perThread, taken.size());
+        assertEquals(threads * perThread + 1, dao.nextOrderNumber());
+    }
+
+    @Test
+    public void testDateViewsAreOrderedAndUnmodifiable()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        LocalDate thirdDate = SECOND_DATE.plusDays(1);
+        dao.pushOrder(order(SECOND_DATE, 5, "Alan Turing"));
+        dao.pushOrder(order(FIRST_DATE, 3, "Ada Lovelace"));
+        dao.pushOrder(order(SECOND_DATE, 2, "Grace Hopper"));
+        dao.pushOrder(order(thirdDate, 1, "Edsger Dijkstra"));
+        dao.pushOrder(order(FIRST_DATE, 4, "Barbara Liskov"));
+
+        assertEquals(List.of(3, 4), numbersOf(dao.getOrdersByDate(FIRST_DATE)));
+        assertEquals(List.of(2, 5), numbersOf(dao.getOrdersByDate(SECOND_DATE)));
+        assertTrue(dao.getOrdersByDate(FIRST_DATE.minusDays(1)).isEmpty());
+
+        assertEquals(List.of(3, 4, 2, 5), numbersOf(dao.getOrdersByDateRange(FIRST_DATE, SECOND_DATE)));
+        assertEquals(List.of(1), numbersOf(dao.getOrdersByDateRange(thirdDate, thirdDate)));
+        assertTrue(dao.getOrdersByDateRange(thirdDate.plusDays(1), thirdDate.plusDays(9)).isEmpty());
+
+        List<Collection<FlooringMasteryOrder>> buckets = dao.getOrderBucketsByDateRange(FIRST_DATE, thirdDate);
+        assertEquals(3, buckets.size());
+        assertEquals(List.of(3, 4), numbersOf(buckets.get(0)));
+        assertEquals(List.of(1), numbersOf(buckets.get(2)));
+
+        FlooringMasteryOrder extra = order(FIRST_DATE, 9, "Donald Knuth");
+        assertThrows(UnsupportedOperationException.class, () -> dao.getOrdersByDate(FIRST_DATE).add(extra));
+        assertThrows(UnsupportedOperationException.class,
+            () -> dao.getOrdersByDateRange(FIRST_DATE, SECOND_DATE).add(extra));
+        assertThrows(UnsupportedOperationException.class, () -> buckets.get(0).add(extra));
+    }
+
+    @Test
+    public void testDateViewsReflectLaterChanges()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        Collection<FlooringMasteryOrder> view = dao.getOrdersByDate(FIRST_DATE);
+
+        dao.pushOrder(order(FIRST_DATE, 2, "Alan Turing"));
+        dao.removeOrderByDateAndNumber(FIRST_DATE, 1);
+
+        assertEquals(List.of(2), numbersOf(view));
+    }
+
+    private static List<Integer> numbersOf(Collection<FlooringMasteryOrder> orders) {
+        List<Integer> numbers = new ArrayList<>();
+        for (FlooringMasteryOrder order : orders) {
+            numbers.add(order.getOrderNum());
+        }
+        return numbers;
+    }
+}
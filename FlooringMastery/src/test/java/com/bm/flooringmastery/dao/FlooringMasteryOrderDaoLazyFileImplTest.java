@@ -0,0 +1,159 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLazyLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderDaoLazyFileImplTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final int DATES = 4;
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-lazy");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+
+        FlooringMasteryOrderDaoFileImpl dao = eagerDao();
+        for (int d = 0; d < DATES; d++) {
+            dao.pushOrder(order(date(d), d + 1, "Customer " + (d + 1)));
+        }
+        dao.saveToExternals();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private static LocalDate date(int d) {
+        return FIRST_DATE.plusDays(d);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl eagerDao() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private FlooringMasteryOrderDaoFileImpl lazyDao(int cacheOrders) throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            null,
+            cacheOrders
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private void deleteDayFile(int d) throws IOException {
+        Files.delete(ordersDirectory.resolve(FlooringMasteryOrderCsv.filenameForDate(date(d))));
+    }
+
+    @Test
+    public void testLazyLoadListsDayFilesWithoutReadingThem() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = lazyDao(100);
+
+        assertEquals(DATES, dao.getLastLoadStats().getFiles());
+        assertEquals(0, dao.getLastLoadStats().getRows());
+    }
+
+    @Test
+    public void testLazyReadsMatchEagerReads() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl eager = eagerDao();
+        FlooringMasteryOrderDaoFileImpl lazy = lazyDao(2);
+
+        assertEquals(eager.ordersSet(), lazy.ordersSet());
+        assertEquals(
+            new ArrayList<>(eager.getOrdersByDateRange(FIRST_DATE, date(DATES))),
+            new ArrayList<>(lazy.getOrdersByDateRange(FIRST_DATE, date(DATES)))
+        );
+        for (int d = 0; d < DATES; d++) {
+            assertEquals(
+                new ArrayList<>(eager.getOrdersByDate(date(d))),
+                new ArrayList<>(lazy.getOrdersByDate(date(d)))
+            );
+            assertEquals(eager.getOrderByNumber(d + 1), lazy.getOrderByNumber(d + 1));
+        }
+        assertEquals(
+            eager.getOrdersByCustomer("customer", true, 10),
+            lazy.getOrdersByCustomer("customer", true, 10)
+        );
+    }
+
+    @Test
+    public void testDayFileIsParsedOnFirstReadOnly() throws FlooringMasteryFailedLoadException, IOException {
+        FlooringMasteryOrderDaoFileImpl dao = lazyDao(100);
+
+        assertEquals(1, dao.getOrdersByDate(date(0)).size());
+        deleteDayFile(0);
+        deleteDayFile(1);
+
+        assertEquals(1, dao.getOrdersByDate(date(0)).size());
+        assertThrows(FlooringMasteryFailedLazyLoadException.class, () -> dao.getOrdersByDate(date(1)));
+    }
+
+    @Test
+    public void testLeastRecentlyReadDatesAreDropped() throws FlooringMasteryFailedLoadException, IOException {
+        FlooringMasteryOrderDaoFileImpl dao = lazyDao(2);
+
+        dao.getOrdersByDate(date(0));
+        dao.getOrdersByDate(date(1));
+        dao.getOrdersByDate(date(0));
+        dao.getOrdersByDate(date(2));
+        deleteDayFile(0);
+        deleteDayFile(1);
+
+        assertEquals(1, dao.getOrdersByDate(date(0)).size());
+        assertThrows(FlooringMasteryFailedLazyLoadException.class, () -> dao.getOrdersByDate(date(1)));
+    }
+
+    @Test
+    public void testUnsavedDatesAreKeptUntilSaved()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = lazyDao(1);
+        dao.pushOrder(order(date(0), 10, "Ada Lovelace"));
+        dao.removeOrderByDateAndNumber(date(1), 2);
+        for (int d = 2; d < DATES; d++) {
+            dao.getOrdersByDate(date(d));
+        }
+        deleteDayFile(0);
+
+        assertEquals(2, dao.getOrdersByDate(date(0)).size());
+        assertTrue(dao.getOrdersByDate(date(1)).isEmpty());
+        assertFalse(dao.getOrderByNumber(2).isPresent());
+
+        dao.saveToExternals();
+
+        FlooringMasteryOrderDaoFileImpl reloaded = eagerDao();
+        List<Integer> numbers = new ArrayList<>();
+        for (int d = 0; d < DATES; d++) {
+            reloaded.getOrdersByDate(date(d)).forEach(order -> numbers.add(order.getOrderNum()));
+        }
+        assertEquals(List.of(1, 10, 3, 4), numbers);
+        assertEquals(reloaded.ordersSet(), lazyDao(1).ordersSet());
+    }
+}
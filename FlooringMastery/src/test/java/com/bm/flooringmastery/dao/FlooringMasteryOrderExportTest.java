@@ -0,0 +1,124 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderExportTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-export");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl daoExportingTo(String exportName)
+        throws FlooringMasteryFailedLoadException {
+
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve(exportName).toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private static void pushOrders(FlooringMasteryOrderDao dao, int dates, int perDate)
+        throws FlooringMasteryFailedSaveException {
+
+        int num = 1;
+        for (int d = dates - 1; d >= 0; d--) {
+            for (int i = 0; i < perDate; i++) {
+                dao.pushOrder(order(FIRST_DATE.plusDays(d), num, "Customer " + num));
+                num++;
+            }
+        }
+    }
+
+    @Test
+    public void testExportWritesHeaderAndDatedRowsInDateOrder()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException,
+            FlooringMasteryFailedExportException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = daoExportingTo("DataExport.txt");
+        pushOrders(dao, 2, 1);
+        dao.export();
+
+        List<String> lines = Files.readAllLines(root.resolve("DataExport.txt"));
+        assertEquals(3, lines.size());
+        assertEquals(FlooringMasteryOrderCsv.EXPORT_HEADER, lines.get(0));
+        assertTrue(lines.get(1).startsWith("2,Customer 2,TX,4.45,Tile,"), lines.get(1));
+        assertTrue(lines.get(1).endsWith(",01-01-2030"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("1,Customer 1,"), lines.get(2));
+        assertTrue(lines.get(2).endsWith(",01-02-2030"), lines.get(2));
+        assertEquals(FlooringMasteryOrderCsv.COLUMNS + 1, lines.get(1).split(",").length);
+
+        FlooringMasteryIoStats stats = dao.getLastExportStats();
+        assertEquals(1, stats.getFiles());
+        assertEquals(2, stats.getRows());
+        assertEquals(Files.size(root.resolve("DataExport.txt")), stats.getBytes());
+    }
+
+    @Test
+    public void testExportLargerThanItsBufferKeepsEveryRow()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException,
+            FlooringMasteryFailedExportException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = daoExportingTo("DataExport.txt");
+        pushOrders(dao, 50, 200);
+        dao.export();
+
+        List<String> lines = Files.readAllLines(root.resolve("DataExport.txt"));
+        assertTrue(Files.size(root.resolve("DataExport.txt")) > (1 << 18));
+        assertEquals(50 * 200 + 1, lines.size());
+        assertEquals(50 * 200, dao.getLastExportStats().getRows());
+        assertTrue(lines.get(lines.size() - 1).endsWith(",02-19-2030"));
+    }
+
+    @Test
+    public void testGzipExportHoldsTheSameText()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException,
+            FlooringMasteryFailedExportException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl plain = daoExportingTo("DataExport.txt");
+        pushOrders(plain, 20, 100);
+        plain.export();
+
+        FlooringMasteryOrderDaoFileImpl zipped = daoExportingTo("DataExport.txt.gz");
+        pushOrders(zipped, 20, 100);
+        zipped.export();
+
+        byte[] expected = Files.readAllBytes(root.resolve("DataExport.txt"));
+        byte[] unzipped;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(root.resolve("DataExport.txt.gz")))) {
+            unzipped = in.readAllBytes();
+        }
+        assertEquals(new String(expected, StandardCharsets.UTF_8), new String(unzipped, StandardCharsets.UTF_8));
+        assertTrue(zipped.getLastExportStats().getBytes() < expected.length);
+        assertEquals(2000, zipped.getLastExportStats().getRows());
+    }
+}
@@ -0,0 +1,159 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderInternerTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+    private static final FlooringMasteryProduct OLD_TILE =
+        new FlooringMasteryProduct("Tile", new BigDecimal("3.25"), new BigDecimal("4.00"));
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-interner");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl newDao() {
+        return new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+    }
+
+    private static FlooringMasteryOrder orderOf(LocalDate date, int num, FlooringMasteryProduct product) {
+        return new FlooringMasteryOrder(date, num, "Customer " + num, "TX", new BigDecimal("4.45"), product,
+            new BigDecimal("200.00"));
+    }
+
+    private void saveOrders(FlooringMasteryOrder... orders)
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        for (FlooringMasteryOrder order : orders) {
+            dao.pushOrder(order);
+        }
+        dao.saveToExternals();
+    }
+
+    private static List<FlooringMasteryOrder> ordersOf(FlooringMasteryOrderDao dao) {
+        List<FlooringMasteryOrder> orders = new ArrayList<>(dao.getOrdersByDate(FIRST_DATE));
+        orders.addAll(dao.getOrdersByDate(SECOND_DATE));
+        return orders;
+    }
+
+    @Test
+    public void testLoadedOrdersShareTheirValues()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        saveOrders(
+            order(FIRST_DATE, 1, "Ada Lovelace"),
+            order(FIRST_DATE, 2, "Alan Turing"),
+            order(SECOND_DATE, 3, "Grace Hopper"),
+            orderOf(FIRST_DATE, 4, OLD_TILE),
+            orderOf(SECOND_DATE, 5, OLD_TILE)
+        );
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+
+        List<FlooringMasteryOrder> orders = ordersOf(dao);
+        FlooringMasteryOrder first = orders.get(0);
+        for (FlooringMasteryOrder order : orders) {
+            assertSame(first.getState(), order.getState());
+            assertSame(first.getPercentTaxRate(), order.getPercentTaxRate());
+        }
+        assertSame(dao.getOrderByNumber(1).get().getOrderedProduct(),
+            dao.getOrderByNumber(3).get().getOrderedProduct());
+        assertSame(dao.getOrderByNumber(4).get().getOrderedProduct(),
+            dao.getOrderByNumber(5).get().getOrderedProduct());
+        assertEquals(OLD_TILE, dao.getOrderByNumber(4).get().getOrderedProduct());
+    }
+
+    @Test
+    public void testRegisteredCatalogInstancesAreUsed()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        saveOrders(
+            order(FIRST_DATE, 1, "Ada Lovelace"),
+            order(SECOND_DATE, 2, "Alan Turing"),
+            orderOf(SECOND_DATE, 3, OLD_TILE)
+        );
+        FlooringMasteryProduct catalogTile =
+            new FlooringMasteryProduct("Tile", new BigDecimal("3.50"), new BigDecimal("4.15"));
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.registerCanonicalProducts(Set.of(catalogTile));
+        dao.loadFromExternals();
+
+        assertSame(catalogTile, dao.getOrderByNumber(1).get().getOrderedProduct());
+        assertSame(catalogTile, dao.getOrderByNumber(2).get().getOrderedProduct());
+        assertNotSame(catalogTile, dao.getOrderByNumber(3).get().getOrderedProduct());
+        assertEquals(OLD_TILE, dao.getOrderByNumber(3).get().getOrderedProduct());
+    }
+
+    @Test
+    public void testReregisteredCatalogReplacesTheEarlierOne()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        saveOrders(order(FIRST_DATE, 1, "Ada Lovelace"));
+        FlooringMasteryProduct before =
+            new FlooringMasteryProduct("Tile", new BigDecimal("3.50"), new BigDecimal("4.15"));
+        FlooringMasteryProduct after =
+            new FlooringMasteryProduct("Tile", new BigDecimal("3.50"), new BigDecimal("4.15"));
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.registerCanonicalProducts(Set.of(before));
+        dao.registerCanonicalProducts(Set.of(after));
+        dao.loadFromExternals();
+
+        assertSame(after, dao.getOrderByNumber(1).get().getOrderedProduct());
+    }
+
+    @Test
+    public void testValuesPastTheLimitStillLoad()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        int count = FlooringMasteryOrderInterner.MAX_VALUES + 100;
+        FlooringMasteryOrder[] orders = new FlooringMasteryOrder[count];
+        for (int i = 0; i < count; i++) {
+            FlooringMasteryProduct product = new FlooringMasteryProduct(
+                "Tile",
+                new BigDecimal(i).movePointLeft(2),
+                new BigDecimal("4.15")
+            );
+            orders[i] = orderOf(FIRST_DATE.plusDays(i % 10), i + 1, product);
+        }
+        saveOrders(orders);
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+
+        assertEquals(Set.of(orders), dao.ordersSet());
+    }
+}
@@ -0,0 +1,191 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderJournalTest {
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+
+    private Path root;
+    private Path journalFile;
+    private List<FlooringMasteryOrderJournal> journals;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-journal");
+        journalFile = root.resolve("Orders.journal");
+        journals = new ArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (FlooringMasteryOrderJournal journal : journals) {
+            journal.close();
+        }
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderJournal newJournal() {
+        FlooringMasteryOrderJournal journal = new FlooringMasteryOrderJournal(journalFile.toString(), 0);
+        journals.add(journal);
+        return journal;
+    }
+
+    private FlooringMasteryOrderJournal openJournal() throws IOException {
+        FlooringMasteryOrderJournal journal = newJournal();
+        journal.lock();
+        journal.open();
+        return journal;
+    }
+
+    /**
+     * Records what a replay hands over, pushes as Orders and removals as
+     * "-date/number"
+     */
+    private static class RecordingReplayer implements FlooringMasteryOrderJournal.Replayer {
+        private final List<Object> MUTATIONS = new ArrayList<>();
+
+        @Override
+        public void replayPush(FlooringMasteryOrder order) {
+            MUTATIONS.add(order);
+        }
+
+        @Override
+        public void replayRemove(LocalDate date, int num) {
+            MUTATIONS.add("-" + date + "/" + num);
+        }
+    }
+
+    private List<Object> replay() throws IOException {
+        RecordingReplayer replayer = new RecordingReplayer();
+        newJournal().replay(replayer);
+        return replayer.MUTATIONS;
+    }
+
+    @Test
+    public void testReplayReturnsMutationsInOrder() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        FlooringMasteryOrder first = order(DATE, 1, "Ada Lovelace");
+        FlooringMasteryOrder second = order(DATE, 2, "Lovelace, Ada");
+        journal.appendPush(first);
+        journal.appendRemove(DATE, 1);
+        journal.appendPush(second);
+        journal.close();
+
+        assertEquals(List.of(first, "-" + DATE + "/1", second), replay());
+    }
+
+    @Test
+    public void testReplayOfMissingJournalIsEmpty() throws IOException {
+        assertEquals(0, newJournal().replay(new RecordingReplayer()));
+    }
+
+    @Test
+    public void testReplayTruncatesTornTail() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        journal.appendPush(order(DATE, 1, "Ada Lovelace"));
+        long intactLength = journal.mark();
+        journal.appendPush(order(DATE, 2, "Alan Turing"));
+        journal.close();
+        // a crash partway through appending the second record
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(journalFile) - 3);
+        }
+
+        assertEquals(1, replay().size());
+        assertEquals(intactLength, Files.size(journalFile));
+    }
+
+    @Test
+    public void testReplayTruncatesAtCorruptRecord() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        journal.appendPush(order(DATE, 1, "Ada Lovelace"));
+        long intactLength = journal.mark();
+        journal.appendPush(order(DATE, 2, "Alan Turing"));
+        journal.appendRemove(DATE, 1);
+        journal.close();
+        // flips a byte in the body of the second record
+        byte[] bytes = Files.readAllBytes(journalFile);
+        bytes[(int) intactLength + Integer.BYTES + 2] ^= 0x55;
+        Files.write(journalFile, bytes);
+
+        assertEquals(1, replay().size());
+        assertEquals(intactLength, Files.size(journalFile));
+    }
+
+    @Test
+    public void testAppendsAfterTruncatedTailReplay() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        journal.appendPush(order(DATE, 1, "Ada Lovelace"));
+        journal.close();
+        Files.write(journalFile, new byte[] {0, 0, 0, 42, 1}, StandardOpenOption.APPEND);
+
+        FlooringMasteryOrderJournal reopened = newJournal();
+        reopened.lock();
+        reopened.replay(new RecordingReplayer());
+        reopened.open();
+        reopened.appendRemove(DATE, 1);
+        reopened.close();
+
+        assertEquals(List.of(order(DATE, 1, "Ada Lovelace"), "-" + DATE + "/1"), replay());
+    }
+
+    @Test
+    public void testCheckpointKeepsRecordsAfterMark() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        journal.appendPush(order(DATE, 1, "Ada Lovelace"));
+        long mark = journal.mark();
+        FlooringMasteryOrder later = order(DATE, 2, "Alan Turing");
+        journal.appendPush(later);
+
+        journal.checkpoint(mark);
+        journal.appendRemove(DATE, 2);
+        journal.close();
+
+        assertEquals(List.of(later, "-" + DATE + "/2"), replay());
+    }
+
+    @Test
+    public void testCheckpointAtEndEmptiesJournal() throws IOException {
+        FlooringMasteryOrderJournal journal = openJournal();
+        journal.appendPush(order(DATE, 1, "Ada Lovelace"));
+
+        journal.checkpoint(journal.mark());
+
+        assertEquals(0, Files.size(journalFile));
+        journal.close();
+        assertTrue(replay().isEmpty());
+    }
+
+    @Test
+    public void testSecondLockFails() throws IOException {
+        openJournal();
+
+        assertThrows(IOException.class, () -> newJournal().lock());
+    }
+
+    @Test
+    public void testLockIsReleasedOnClose() throws IOException {
+        openJournal().close();
+
+        FlooringMasteryOrderJournal journal = newJournal();
+        journal.lock();
+
+        assertTrue(journal.isLocked());
+    }
+}
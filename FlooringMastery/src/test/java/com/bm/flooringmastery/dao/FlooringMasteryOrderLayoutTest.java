@@ -0,0 +1,152 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderLayoutTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+    private static final LocalDate THIRD_DATE = LocalDate.of(2031, 3, 4);
+
+    private Path root;
+    private Path ordersDirectory;
+    private Set<FlooringMasteryOrder> saved;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-layout");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.pushOrder(order(FIRST_DATE, 2, "Alan Turing"));
+        dao.pushOrder(order(SECOND_DATE, 3, "Grace Hopper"));
+        dao.pushOrder(order(THIRD_DATE, 4, "Edsger Dijkstra"));
+        dao.saveToExternals();
+        saved = dao.ordersSet();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl loadedDao() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    private Path flatFile(LocalDate date) {
+        return ordersDirectory.resolve(FlooringMasteryOrderCsv.filenameForDate(date));
+    }
+
+    private Path partitionedFile(LocalDate date) {
+        return ordersDirectory
+            .resolve(String.format("%04d", date.getYear()))
+            .resolve(String.format("%02d", date.getMonthValue()))
+            .resolve(FlooringMasteryOrderCsv.filenameForDate(date));
+    }
+
+    @Test
+    public void testMigrationMovesEveryDayFile() throws IOException {
+        assertEquals(List.of(), FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory));
+
+        for (LocalDate date : List.of(FIRST_DATE, SECOND_DATE, THIRD_DATE)) {
+            assertFalse(Files.exists(flatFile(date)), () -> flatFile(date).toString());
+            assertTrue(Files.isRegularFile(partitionedFile(date)), () -> partitionedFile(date).toString());
+        }
+        assertTrue(Files.isRegularFile(ordersDirectory.resolve(FlooringMasteryOrderLayout.MANIFEST_NAME)));
+        assertEquals(List.of(), FlooringMasteryOrderLayout.verify(ordersDirectory));
+    }
+
+    @Test
+    public void testMigratedOrdersLoadUnchanged() throws IOException, FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+
+        assertEquals(saved, loadedDao().ordersSet());
+
+        FlooringMasteryOrderDaoConcurrentFileImpl concurrentDao = new FlooringMasteryOrderDaoConcurrentFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        concurrentDao.loadFromExternals();
+        assertEquals(saved, concurrentDao.ordersSet());
+
+        FlooringMasteryOrderDaoColumnarFileImpl columnarDao = new FlooringMasteryOrderDaoColumnarFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        columnarDao.loadFromExternals();
+        assertEquals(saved, columnarDao.ordersSet());
+    }
+
+    @Test
+    public void testSavesKeepManifestInStep()
+        throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+        FlooringMasteryOrderDaoFileImpl dao = loadedDao();
+        LocalDate newDate = LocalDate.of(2032, 6, 7);
+        dao.pushOrder(order(newDate, 5, "Barbara Liskov"));
+        dao.pushOrder(order(FIRST_DATE, 6, "Donald Knuth"));
+        dao.removeOrderByDateAndNumber(SECOND_DATE, 3);
+        dao.saveToExternals();
+
+        assertEquals(List.of(), FlooringMasteryOrderLayout.verify(ordersDirectory));
+        assertTrue(Files.isRegularFile(partitionedFile(newDate)));
+        assertFalse(Files.exists(flatFile(newDate)));
+        assertFalse(Files.exists(partitionedFile(SECOND_DATE)));
+        assertEquals(dao.ordersSet(), loadedDao().ordersSet());
+    }
+
+    @Test
+    public void testMigrationReportsConflicts() throws IOException {
+        FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+        Files.copy(partitionedFile(FIRST_DATE), flatFile(FIRST_DATE));
+
+        List<String> conflicts = FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+
+        assertEquals(1, conflicts.size());
+        assertTrue(Files.exists(flatFile(FIRST_DATE)));
+        assertEquals(List.of(), FlooringMasteryOrderLayout.verify(ordersDirectory));
+    }
+
+    @Test
+    public void testVerifyFindsChangedAndMissingFiles() throws IOException {
+        FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+        Files.write(partitionedFile(FIRST_DATE), "x".getBytes(), StandardOpenOption.APPEND);
+        Files.delete(partitionedFile(THIRD_DATE));
+
+        List<String> mismatches = FlooringMasteryOrderLayout.verify(ordersDirectory);
+
+        assertEquals(2, mismatches.size());
+        assertTrue(mismatches.get(0).endsWith("has changed since it was recorded"), mismatches.get(0));
+        assertTrue(mismatches.get(1).endsWith("is missing"), mismatches.get(1));
+    }
+
+    @Test
+    public void testVerifyOfFlatDirectoryFails() {
+        assertThrows(IOException.class, () -> FlooringMasteryOrderLayout.verify(ordersDirectory));
+    }
+}
@@ -0,0 +1,102 @@
+package com.bm.flooringmastery.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderNumberIndexTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+
+    @Test
+    public void testPutAndDateOf() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+        index.put(1, FIRST_DATE);
+        index.put(2, SECOND_DATE);
+
+        assertEquals(FIRST_DATE, index.dateOf(1));
+        assertEquals(SECOND_DATE, index.dateOf(2));
+        assertEquals(FIRST_DATE.toEpochDay(), index.epochDayOf(1));
+        assertNull(index.dateOf(3));
+        assertEquals(FlooringMasteryOrderNumberIndex.ABSENT, index.epochDayOf(3));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testPutReplacesDate() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+        index.put(1, FIRST_DATE);
+        index.put(1, SECOND_DATE);
+
+        assertEquals(SECOND_DATE, index.dateOf(1));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRemoveUnderOtherDateKeepsEntry() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+        index.put(1, SECOND_DATE);
+
+        index.remove(1, FIRST_DATE);
+        assertEquals(SECOND_DATE, index.dateOf(1));
+
+        index.remove(1, SECOND_DATE);
+        assertNull(index.dateOf(1));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testFarDateIsRejected() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+
+        assertThrows(IllegalArgumentException.class, () -> index.put(1, LocalDate.MAX));
+    }
+
+    @Test
+    public void testClear() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+        index.put(1, FIRST_DATE);
+        index.clear();
+
+        assertNull(index.dateOf(1));
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Puts and removes enough numbers to rehash several times and to shift
+     * long probe runs back, checking every answer against a HashMap
+     */
+    @Test
+    public void testAgreesWithHashMapAcrossRehashes() {
+        FlooringMasteryOrderNumberIndex index = new FlooringMasteryOrderNumberIndex();
+        Map<Integer, LocalDate> expected = new HashMap<>();
+        Random random = new Random(0);
+
+        for (int step = 0; step < 200_000; step++) {
+            int num = random.nextInt(50_000) - 1_000;
+            LocalDate date = FIRST_DATE.plusDays(random.nextInt(365));
+            if (random.nextInt(4) == 0) {
+                LocalDate indexed = expected.get(num);
+                LocalDate removing = indexed != null && random.nextBoolean() ? indexed : date;
+                index.remove(num, removing);
+                if (removing.equals(indexed)) {
+                    expected.remove(num);
+                }
+            } else {
+                index.put(num, date);
+                expected.put(num, date);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int num = -1_000; num < 49_000; num++) {
+            assertEquals(expected.get(num), index.dateOf(num));
+        }
+    }
+}
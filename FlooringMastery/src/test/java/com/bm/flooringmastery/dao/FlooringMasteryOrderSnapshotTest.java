@@ -0,0 +1,173 @@
+package com.bm.flooringmastery.dao;
+
+import static com.bm.flooringmastery.dao.FlooringMasteryTestOrders.order;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderSnapshotTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate SECOND_DATE = LocalDate.of(2030, 1, 2);
+    private static final LocalDate LAST_DATE = LocalDate.of(2030, 12, 31);
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-snapshot");
+        ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        dao.pushOrder(order(FIRST_DATE, 1, "Ada Lovelace"));
+        dao.pushOrder(order(FIRST_DATE, 2, "Alan Turing, Jr."));
+        dao.pushOrder(order(SECOND_DATE, 3, "Grace \"Amazing\" Hopper"));
+        dao.saveToExternals();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl newDao() {
+        return new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+    }
+
+    /**
+     * Dates the day files and their directory an hour back, so the snapshot
+     * written next is newer whatever the file system's time granularity
+     */
+    private void ageDayFiles() throws IOException {
+        FileTime hourAgo = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(ordersDirectory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.setLastModifiedTime(path, hourAgo);
+            }
+        }
+    }
+
+    private static NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> ordersByDate(
+        FlooringMasteryOrderDao dao) {
+
+        NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> ordersByDate = new TreeMap<>();
+        for (FlooringMasteryOrder order : dao.getOrdersByDateRange(FIRST_DATE, LAST_DATE)) {
+            ordersByDate.computeIfAbsent(order.getOrderDate(), date -> new HashMap<>())
+                .put(order.getOrderNum(), order);
+        }
+        return ordersByDate;
+    }
+
+    @Test
+    public void testSnapshotReadsBackAsWritten()
+        throws FlooringMasteryFailedLoadException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        NavigableMap<LocalDate, Map<Integer, FlooringMasteryOrder>> fromCsv = ordersByDate(dao);
+        Path snapshot = root.resolve("orders.snapshot");
+
+        FlooringMasteryOrderSnapshot.write(snapshot, fromCsv);
+
+        assertEquals(fromCsv, FlooringMasteryOrderSnapshot.read(snapshot));
+    }
+
+    @Test
+    public void testFreshSnapshotLoadsSameOrders()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl csvDao = newDao();
+        csvDao.loadFromExternals();
+        assertFalse(csvDao.isLastLoadFromSnapshot());
+        ageDayFiles();
+        csvDao.writeSnapshot();
+
+        FlooringMasteryOrderDaoFileImpl snapshotDao = newDao();
+        snapshotDao.loadFromExternals();
+
+        assertTrue(snapshotDao.isLastLoadFromSnapshot());
+        assertEquals(ordersByDate(csvDao), ordersByDate(snapshotDao));
+        assertEquals(4, snapshotDao.nextOrderNumber());
+        assertEquals(1, snapshotDao.getOrdersByCustomer("ada", true, 10).size());
+    }
+
+    @Test
+    public void testConcurrentDaoLoadsFreshSnapshot()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl csvDao = newDao();
+        csvDao.loadFromExternals();
+        ageDayFiles();
+        csvDao.writeSnapshot();
+
+        FlooringMasteryOrderDaoConcurrentFileImpl concurrentDao = new FlooringMasteryOrderDaoConcurrentFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        concurrentDao.loadFromExternals();
+
+        assertTrue(concurrentDao.isLastLoadFromSnapshot());
+        assertEquals(ordersByDate(csvDao), ordersByDate(concurrentDao));
+    }
+
+    @Test
+    public void testStaleSnapshotIsIgnored()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        ageDayFiles();
+        dao.writeSnapshot();
+
+        dao.pushOrder(order(SECOND_DATE, 4, "Edsger Dijkstra"));
+        dao.saveToExternals();
+
+        FlooringMasteryOrderDaoFileImpl reloaded = newDao();
+        reloaded.loadFromExternals();
+
+        assertFalse(reloaded.isLastLoadFromSnapshot());
+        assertEquals(ordersByDate(dao), ordersByDate(reloaded));
+    }
+
+    @Test
+    public void testSnapshotIsIgnoredAfterDayFileRemoved()
+        throws FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException, IOException {
+
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        ageDayFiles();
+        dao.writeSnapshot();
+
+        dao.removeOrderByDateAndNumber(SECOND_DATE, 3);
+        dao.saveToExternals();
+
+        FlooringMasteryOrderDaoFileImpl reloaded = newDao();
+        reloaded.loadFromExternals();
+
+        assertFalse(reloaded.isLastLoadFromSnapshot());
+        assertFalse(reloaded.getOrderByDateAndNumber(SECOND_DATE, 3).isPresent());
+    }
+}
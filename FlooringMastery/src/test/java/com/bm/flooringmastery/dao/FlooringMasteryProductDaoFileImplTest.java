@@ -0,0 +1,125 @@
+package com.bm.flooringmastery.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryProductDaoFileImplTest {
+    private static final String HEADER = "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot";
+    private static final long WAIT_MILLIS = 10_000;
+
+    private Path root;
+    private Path productsFile;
+    private FlooringMasteryProductDaoFileImpl dao;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException {
+        root = Files.createTempDirectory("flooring-products");
+        productsFile = Files.write(root.resolve("Products.txt"), List.of(HEADER, "Tile,3.50,4.15"));
+        dao = new FlooringMasteryProductDaoFileImpl(productsFile.toString());
+        dao.loadDataFromExternals();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        dao.stopWatching();
+        FlooringMasteryTestOrders.deleteRecursively(root);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for a reload");
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Replaces the file in one step, as an editor saving it would, so that a
+     * reload never sees it half written
+     */
+    private void rewrite(String... rows) throws IOException {
+        Path temp = Files.write(root.resolve("Products.txt.tmp"), List.of(rows));
+        Files.move(temp, productsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Test
+    public void testLoad() {
+        FlooringMasteryProduct tile = dao.getProductByType("Tile").get();
+
+        assertEquals(new BigDecimal("3.50"), tile.getCostPerSqFt());
+        assertEquals(new BigDecimal("4.15"), tile.getLaborCostPerSqFt());
+        assertFalse(dao.getProductByType("Wood").isPresent());
+    }
+
+    @Test
+    public void testMalformedFileFailsLoad() throws IOException {
+        Files.write(productsFile, List.of(HEADER, "Tile,cheap,4.15"));
+
+        FlooringMasteryFailedLoadException ex = assertThrows(
+            FlooringMasteryFailedLoadException.class,
+            dao::loadDataFromExternals
+        );
+        assertEquals("Malformed product at line 2", ex.getMessage());
+        assertTrue(dao.hasProductWithType("Tile"));
+    }
+
+    @Test
+    public void testRewrittenFileIsReloaded() throws IOException, InterruptedException {
+        AtomicInteger notified = new AtomicInteger();
+        dao.setReloadListener(notified::incrementAndGet);
+        dao.startWatching();
+
+        rewrite(HEADER, "Tile,3.75,4.15", "Wood,5.15,4.75");
+
+        await(() -> dao.hasProductWithType("Wood")
+            && dao.getProductByType("Tile").get().getCostPerSqFt().equals(new BigDecimal("3.75")));
+        assertTrue(dao.getReloadCount() >= 1);
+        assertEquals(2, dao.getLastReloadStats().getRows());
+        await(() -> notified.get() >= 1);
+    }
+
+    @Test
+    public void testMalformedRewriteKeepsLastGoodProducts() throws IOException, InterruptedException {
+        dao.startWatching();
+
+        rewrite(HEADER, "Tile,cheap,4.15", "Wood,5.15,4.75");
+
+        await(() -> dao.getFailedReloadCount() >= 1);
+        assertEquals(0, dao.getReloadCount());
+        assertEquals(new BigDecimal("3.50"), dao.getProductByType("Tile").get().getCostPerSqFt());
+        assertFalse(dao.hasProductWithType("Wood"));
+
+        // a good rewrite afterwards is still picked up
+        rewrite(HEADER, "Wood,5.15,4.75");
+        await(() -> dao.hasProductWithType("Wood"));
+        assertFalse(dao.hasProductWithType("Tile"));
+    }
+
+    @Test
+    public void testStoppedWatchingIgnoresChanges() throws IOException, InterruptedException {
+        dao.startWatching();
+        dao.stopWatching();
+
+        rewrite(HEADER, "Wood,5.15,4.75");
+        Thread.sleep(500);
+
+        assertEquals(0, dao.getReloadCount());
+        assertTrue(dao.hasProductWithType("Tile"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.bm.flooringmastery.dao;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Orders and directories for the Dao tests
+ */
+final class FlooringMasteryTestOrders {
+    static final FlooringMasteryProduct TILE =
+        new FlooringMasteryProduct("Tile", new BigDecimal("3.50"), new BigDecimal("4.15"));
+
+    private FlooringMasteryTestOrders() {
+    }
+
+    static FlooringMasteryOrder order(LocalDate date, int num, String customerName) {
+        return new FlooringMasteryOrder(
+            date,
+            num,
+            customerName,
+            "TX",
+            new BigDecimal("4.45"),
+            TILE,
+            new BigDecimal("200.00")
+        );
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
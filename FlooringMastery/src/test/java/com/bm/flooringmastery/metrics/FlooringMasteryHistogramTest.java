@@ -0,0 +1,110 @@
+package com.bm.flooringmastery.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryHistogramTest {
+    @BeforeEach
+    public void setUp() {
+        // the build turns metrics on for the tests
+        assumeTrue(FlooringMasteryMetrics.ENABLED);
+    }
+
+    private static long bucketOf(long value) {
+        FlooringMasteryHistogram histogram = new FlooringMasteryHistogram();
+        histogram.record(value);
+        return histogram.snapshot().getMax();
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        FlooringMasteryHistogram.Snapshot snapshot = new FlooringMasteryHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.getPercentile(0.99));
+        assertEquals(0, snapshot.getMax());
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, bucketOf(value));
+        }
+        assertEquals(0, bucketOf(-5));
+    }
+
+    @Test
+    public void testBucketsAreWithinOneSixteenth() {
+        long previous = -1;
+        for (long value : new long[] {
+            16, 17, 31, 32, 33, 100, 1023, 1024, 1025, 123_456_789, 1L << 40, Long.MAX_VALUE
+        }) {
+            long lowest = bucketOf(value);
+            assertTrue(lowest <= value, () -> value + " fell in a bucket from " + lowest);
+            assertTrue(value - lowest < Math.max(1, lowest / 16), () -> value + " fell in a bucket from " + lowest);
+            assertTrue(lowest >= previous);
+            previous = lowest;
+        }
+        assertEquals(1024, bucketOf(1024));
+        assertEquals(1024, bucketOf(1087));
+        assertEquals(1088, bucketOf(1088));
+    }
+
+    @Test
+    public void testPercentilesCountMeanAndMax() {
+        FlooringMasteryHistogram histogram = new FlooringMasteryHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        FlooringMasteryHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500.5, snapshot.getMean());
+        assertEquals(1, snapshot.getPercentile(0));
+        assertEquals(496, snapshot.getPercentile(0.50));
+        assertEquals(960, snapshot.getPercentile(0.99));
+        assertEquals(992, snapshot.getPercentile(1));
+        assertEquals(992, snapshot.getMax());
+    }
+
+    @Test
+    public void testSnapshotIsUnaffectedByLaterValues() {
+        FlooringMasteryHistogram histogram = new FlooringMasteryHistogram();
+        histogram.record(10);
+        FlooringMasteryHistogram.Snapshot snapshot = histogram.snapshot();
+        histogram.record(1_000_000);
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(10, snapshot.getMax());
+        assertEquals(2, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void testConcurrentRecordsAreAllKept() throws InterruptedException {
+        FlooringMasteryHistogram histogram = new FlooringMasteryHistogram();
+        FlooringMasteryCounter counter = new FlooringMasteryCounter();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(j);
+                    counter.increment();
+                }
+                counter.add(5);
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.snapshot().getCount());
+        assertEquals(4999.5, histogram.snapshot().getMean());
+        assertEquals(80_040, counter.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.bm.flooringmastery.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryMetricsTest {
+    @BeforeEach
+    public void setUp() {
+        // the build turns metrics on for the tests
+        assumeTrue(FlooringMasteryMetrics.ENABLED);
+    }
+
+    @Test
+    public void testMetricsAreLookedUpByName() {
+        assertSame(FlooringMasteryMetrics.counter("test.lookup"), FlooringMasteryMetrics.counter("test.lookup"));
+        assertSame(FlooringMasteryMetrics.histogram("test.lookup"), FlooringMasteryMetrics.histogram("test.lookup"));
+    }
+
+    @Test
+    public void testValuesReportEveryMetric() {
+        FlooringMasteryMetrics.counter("test.values.counter").add(3);
+        FlooringMasteryHistogram histogram = FlooringMasteryMetrics.histogram("test.values.histogram");
+        histogram.record(4);
+        histogram.record(8);
+        AtomicLong owner = new AtomicLong(42);
+        FlooringMasteryMetrics.gauge("test.values.gauge", owner, AtomicLong::get);
+
+        Map<String, Number> values = FlooringMasteryMetrics.values();
+
+        assertEquals(3L, values.get("test.values.counter"));
+        assertEquals(2L, values.get("test.values.histogram.count"));
+        assertEquals(6.0, values.get("test.values.histogram.mean"));
+        assertEquals(4L, values.get("test.values.histogram.p50"));
+        assertEquals(8L, values.get("test.values.histogram.p99"));
+        assertEquals(8L, values.get("test.values.histogram.max"));
+        assertEquals(42L, values.get("test.values.gauge"));
+
+        owner.set(43);
+        assertEquals(43L, FlooringMasteryMetrics.values().get("test.values.gauge"));
+    }
+
+    @Test
+    public void testFailingGaugeReportsMinusOne() {
+        FlooringMasteryMetrics.gauge("test.failing", new Object(), owner -> {
+            throw new IllegalStateException();
+        });
+
+        assertEquals(-1L, FlooringMasteryMetrics.values().get("test.failing"));
+    }
+
+    @Test
+    public void testLaterGaugeReplacesEarlier() {
+        FlooringMasteryMetrics.gauge("test.replaced", new AtomicLong(1), AtomicLong::get);
+        AtomicLong later = new AtomicLong(2);
+        FlooringMasteryMetrics.gauge("test.replaced", later, AtomicLong::get);
+
+        assertEquals(2L, FlooringMasteryMetrics.values().get("test.replaced"));
+    }
+
+    @Test
+    public void testGaugeOfCollectedOwnerIsDropped() throws InterruptedException {
+        FlooringMasteryMetrics.gauge("test.collected", new AtomicLong(7), AtomicLong::get);
+
+        for (int i = 0; i < 50 && FlooringMasteryMetrics.values().containsKey("test.collected"); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertFalse(FlooringMasteryMetrics.values().containsKey("test.collected"));
+    }
+
+    @Test
+    public void testDumpListsNamesAndValues() {
+        FlooringMasteryMetrics.counter("test.dump").add(12);
+        FlooringMasteryMetrics.histogram("test.dump.histogram").record(3);
+
+        String dump = FlooringMasteryMetrics.dump();
+
+        assertTrue(dump.startsWith("# metrics at "));
+        assertTrue(dump.contains("\ntest.dump 12\n"), dump);
+        assertTrue(dump.contains("\ntest.dump.histogram.mean 3.0\n"), dump);
+    }
+}
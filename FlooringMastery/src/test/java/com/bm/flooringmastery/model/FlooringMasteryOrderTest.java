@@ -0,0 +1,115 @@
+package com.bm.flooringmastery.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderTest {
+    private static final FlooringMasteryProduct TILE =
+        new FlooringMasteryProduct("Tile", new BigDecimal("3.50"), new BigDecimal("4.15"));
+
+    private static FlooringMasteryOrder order() {
+        return new FlooringMasteryOrder(
+            LocalDate.of(2030, 1, 1),
+            1,
+            "Ada Lovelace",
+            "TX",
+            new BigDecimal("4.45"),
+            TILE,
+            new BigDecimal("200.00")
+        );
+    }
+
+    @Test
+    public void testDerivedAmounts() {
+        FlooringMasteryOrder order = order();
+
+        assertEquals(new BigDecimal("700.0000"), order.getMaterialCost());
+        assertEquals(new BigDecimal("830.0000"), order.getLaborCost());
+        assertEquals(0, new BigDecimal("68.085").compareTo(order.getTax()));
+        assertEquals(0, new BigDecimal("1598.085").compareTo(order.getTotal()));
+        assertEquals(0, order.getMaterialCost().add(order.getLaborCost()).add(order.getTax())
+            .compareTo(order.getTotal()));
+    }
+
+    @Test
+    public void testDerivedAmountsAreComputedOnce() {
+        FlooringMasteryOrder order = order();
+
+        assertSame(order.getMaterialCost(), order.getMaterialCost());
+        assertSame(order.getLaborCost(), order.getLaborCost());
+        assertSame(order.getTax(), order.getTax());
+        assertSame(order.getTotal(), order.getTotal());
+    }
+
+    /**
+     * Threads reading the amounts of a new Order at once must all see the
+     * same, complete amounts
+     */
+    @Test
+    public void testFirstReadsRaceSafely() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            FlooringMasteryOrder order = order();
+            int threads = 4;
+            AtomicReferenceArray<BigDecimal> totals = new AtomicReferenceArray<>(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int slot = i;
+                Thread reader = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    totals.set(slot, order.getTotal());
+                });
+                readers.add(reader);
+                reader.start();
+            }
+            start.countDown();
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            for (int i = 0; i < threads; i++) {
+                assertEquals(0, new BigDecimal("1598.085").compareTo(totals.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testEqualityIgnoresWhetherAmountsWereComputed() {
+        FlooringMasteryOrder computed = order();
+        computed.getTotal();
+        FlooringMasteryOrder fresh = order();
+
+        assertEquals(computed, fresh);
+        assertEquals(computed.hashCode(), fresh.hashCode());
+    }
+
+    @Test
+    public void testEditIsANewOrder() {
+        FlooringMasteryOrder original = order();
+        FlooringMasteryOrder edited = new FlooringMasteryOrder(
+            original.getOrderDate(),
+            original.getOrderNum(),
+            original.getCustomerName(),
+            original.getState(),
+            original.getPercentTaxRate(),
+            original.getOrderedProduct(),
+            new BigDecimal("300.00")
+        );
+
+        assertNotEquals(original, edited);
+        assertEquals(new BigDecimal("700.0000"), original.getMaterialCost());
+        assertEquals(new BigDecimal("1050.0000"), edited.getMaterialCost());
+    }
+}
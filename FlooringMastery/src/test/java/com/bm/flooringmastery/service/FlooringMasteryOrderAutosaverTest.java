@@ -0,0 +1,163 @@
+package com.bm.flooringmastery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderAutosaverTest {
+    private static final long WAIT_MILLIS = 10_000;
+
+    private Path root;
+    private CountingDao dao;
+
+    /**
+     * Counts its saves, failing as many of the first ones as asked
+     */
+    private static final class CountingDao extends FlooringMasteryOrderDaoConcurrentFileImpl {
+        private final AtomicInteger SAVES = new AtomicInteger();
+        private final AtomicInteger FAILURES_LEFT = new AtomicInteger();
+
+        private CountingDao(Path root) {
+            super(root.resolve("Orders").toString(), root.resolve("DataExport.txt").toString());
+        }
+
+        @Override
+        public void saveToExternals() throws FlooringMasteryFailedSaveException {
+            SAVES.incrementAndGet();
+            if (FAILURES_LEFT.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new FlooringMasteryFailedSaveException("Disk full");
+            }
+            super.saveToExternals();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-autosave");
+        Files.createDirectory(root.resolve("Orders"));
+        dao = new CountingDao(root);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private FlooringMasteryOrderAutosaver started(long quietMillis, long maxDelayMillis) {
+        FlooringMasteryOrderAutosaver autosaver = new FlooringMasteryOrderAutosaver(dao, quietMillis, maxDelayMillis);
+        autosaver.start();
+        return autosaver;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for a save");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testRefusesDaoWithoutBackgroundSave() {
+        FlooringMasteryOrderDaoFileImpl fileDao = new FlooringMasteryOrderDaoFileImpl(
+            root.resolve("Orders").toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+
+        assertThrows(IllegalArgumentException.class, () -> new FlooringMasteryOrderAutosaver(fileDao, 10, 100));
+    }
+
+    @Test
+    public void testBurstIsCoalescedIntoOneSave() throws InterruptedException, FlooringMasteryFailedSaveException {
+        FlooringMasteryOrderAutosaver autosaver = started(100, 10_000);
+        for (int i = 0; i < 100; i++) {
+            autosaver.changed();
+        }
+
+        await(() -> autosaver.getFlushes() == 1);
+        Thread.sleep(300);
+
+        assertEquals(1, dao.SAVES.get());
+        assertEquals(0, autosaver.getPendingChanges());
+        autosaver.close();
+        assertEquals(1, dao.SAVES.get());
+    }
+
+    @Test
+    public void testSteadyChangesAreSavedByMaxDelay() throws InterruptedException, FlooringMasteryFailedSaveException {
+        FlooringMasteryOrderAutosaver autosaver = started(200, 250);
+        long end = System.currentTimeMillis() + 800;
+        while (System.currentTimeMillis() < end) {
+            autosaver.changed();
+            Thread.sleep(10);
+        }
+
+        // the quiet period never passed, so only the maximum delay saved
+        assertTrue(autosaver.getFlushes() >= 2, () -> "Saved " + autosaver.getFlushes() + " times");
+        autosaver.close();
+    }
+
+    @Test
+    public void testFailedSaveIsRetried() throws InterruptedException, FlooringMasteryFailedSaveException {
+        dao.FAILURES_LEFT.set(1);
+        FlooringMasteryOrderAutosaver autosaver = started(20, 20);
+        autosaver.changed();
+
+        await(() -> autosaver.getFlushes() == 1);
+
+        assertEquals(2, dao.SAVES.get());
+        assertNull(autosaver.getLastFailure());
+        assertEquals(0, autosaver.getPendingChanges());
+        autosaver.close();
+    }
+
+    @Test
+    public void testCloseSavesPendingChanges() throws FlooringMasteryFailedSaveException {
+        FlooringMasteryOrderAutosaver autosaver = started(60_000, 60_000);
+        autosaver.changed();
+        autosaver.changed();
+        assertEquals(2, autosaver.getPendingChanges());
+
+        autosaver.close();
+
+        assertEquals(1, dao.SAVES.get());
+        assertEquals(0, autosaver.getPendingChanges());
+    }
+
+    @Test
+    public void testCloseWithoutChangesDoesNotSave() throws FlooringMasteryFailedSaveException {
+        started(60_000, 60_000).close();
+
+        assertEquals(0, dao.SAVES.get());
+    }
+
+    @Test
+    public void testCloseReportsFailedLastSave() {
+        dao.FAILURES_LEFT.set(1);
+        FlooringMasteryOrderAutosaver autosaver = started(60_000, 60_000);
+        autosaver.changed();
+
+        FlooringMasteryFailedSaveException ex = assertThrows(FlooringMasteryFailedSaveException.class, autosaver::close);
+        assertSame(ex, autosaver.getLastFailure());
+    }
+}
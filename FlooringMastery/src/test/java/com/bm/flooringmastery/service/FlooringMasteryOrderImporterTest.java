@@ -0,0 +1,189 @@
+package com.bm.flooringmastery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderImporterTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 1);
+    private static final LocalDate ORDER_DATE = LocalDate.of(2030, 2, 1);
+
+    private Path root;
+    private FlooringMasteryService service;
+    private FlooringMasteryOrderImporter importer;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException {
+        root = Files.createTempDirectory("flooring-import");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15"
+        ));
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoFileImpl(
+                Files.createDirectory(root.resolve("Orders")).toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+        service.loadDaos();
+        importer = new FlooringMasteryOrderImporter(service, TODAY);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static List<String> rejects(FlooringMasteryImportReport report) {
+        return report.getRejects().stream()
+            .map(reject -> reject.getLineNumber() + ": " + reject.getReason())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testImportRejectsInvalidRows()
+        throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        Path file = Files.write(root.resolve("orders.csv"), List.of(
+            "OrderDate,CustomerName,State,ProductType,Area",
+            "2030-02-01,Ada Lovelace,TX,Tile,200",
+            "2030-02-01,Lovelace, Ada,TX,Tile,150",
+            "2030-02-01,Too Few,TX",
+            "not-a-date,Bob,TX,Tile,200",
+            "2030-01-01,Bob,TX,Tile,200",
+            "2030-02-01, ,TX,Tile,200",
+            "2030-02-01,Bob,ZZ,Tile,200",
+            "",
+            "2030-02-01,Bob,TX,Marble,200",
+            "2030-02-01,Bob,TX,Tile,lots",
+            "2030-02-01,Bob,TX,Tile,99",
+            "2030-02-01,Grace Hopper,TX,Tile,100"
+        ));
+
+        FlooringMasteryImportReport report = importer.importFrom(file);
+
+        assertEquals(11, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(8, report.getRejectedCount());
+        assertEquals(List.of(
+            "4: Expected 5 columns but found 3",
+            "5: Invalid order date \"not-a-date\"",
+            "6: The order date 2030-01-01 is not in the future",
+            "7: The customer name is empty",
+            "8: No tax data for the state \"ZZ\"",
+            "10: The product type \"Marble\" is not available",
+            "11: Invalid area \"lots\"",
+            "12: The area 99 is less than 100 sq. ft."
+        ), rejects(report));
+
+        List<String> names = new ArrayList<>();
+        for (FlooringMasteryOrder order : service.getOrdersByDate(ORDER_DATE)) {
+            names.add(order.getOrderNum() + " " + order.getCustomerName());
+        }
+        names.sort(null);
+        assertEquals(List.of("1 Ada Lovelace", "2 Lovelace, Ada", "3 Grace Hopper"), names);
+    }
+
+    @Test
+    public void testImportJsonLines()
+        throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+
+        Path file = Files.write(root.resolve("orders.jsonl"), List.of(
+            "{\"orderDate\":\"2030-02-01\",\"customerName\":\"Ada Lovelace\","
+                + "\"state\":\"TX\",\"productType\":\"Tile\",\"area\":\"200\"}",
+            "{\"orderDate\":\"2030-02-01\",\"customerName\":\"Alan Turing\"}",
+            "not json",
+            "{\"orderDate\":\"2030-02-01\",\"customerName\":\"Grace\\nHopper\","
+                + "\"state\":\"TX\",\"productType\":\"Tile\",\"area\":\"200\"}",
+            "{\"orderDate\":\"2030-02-01\",\"customerName\":\"Grace\\rHopper\","
+                + "\"state\":\"TX\",\"productType\":\"Tile\",\"area\":\"200\"}"
+        ));
+
+        FlooringMasteryImportReport report = importer.importFrom(file);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(1, report.getImported());
+        assertEquals("2: Missing state", rejects(report).get(0));
+        assertTrue(rejects(report).get(1).startsWith("3: Malformed JSON"));
+        assertEquals("4: The customer name holds a line break", rejects(report).get(2));
+        assertEquals("5: The customer name holds a line break", rejects(report).get(3));
+        FlooringMasteryOrder imported = service.getOrderByNumber(1).get();
+        assertEquals("Ada Lovelace", imported.getCustomerName());
+        assertEquals(0, new BigDecimal("200").compareTo(imported.getArea()));
+    }
+
+    @Test
+    public void testImportOfMissingFileFails() {
+        assertThrows(
+            FlooringMasteryFailedLoadException.class,
+            () -> importer.importFrom(root.resolve("missing.csv"))
+        );
+    }
+
+    /**
+     * A stage which fails on something other than reading must end the
+     * import with a load failure rather than leave it waiting forever
+     */
+    @Test
+    public void testFailingStageEndsImport() throws IOException {
+        FlooringMasteryService failingService = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoFileImpl(
+                root.resolve("Orders").toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        ) {
+            @Override
+            public Optional<BigDecimal> percentTaxRateForStateAbbr(String abbr) {
+                throw new IllegalStateException("No taxes today");
+            }
+        };
+        List<String> lines = new ArrayList<>();
+        lines.add("OrderDate,CustomerName,State,ProductType,Area");
+        for (int i = 0; i < 20 * FlooringMasteryOrderImporter.BATCH_ROWS; i++) {
+            lines.add("2030-02-01,Customer " + i + ",TX,Tile,200");
+        }
+        Path file = Files.write(root.resolve("orders.csv"), lines);
+        FlooringMasteryOrderImporter failingImporter = new FlooringMasteryOrderImporter(failingService, TODAY);
+
+        FlooringMasteryFailedLoadException ex = assertTimeoutPreemptively(
+            Duration.ofSeconds(10),
+            () -> assertThrows(FlooringMasteryFailedLoadException.class, () -> failingImporter.importFrom(file))
+        );
+        assertTrue(ex.getCause() instanceof IllegalStateException, String.valueOf(ex.getCause()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.bm.flooringmastery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryOrderQueryTest {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2030, 1, 1);
+    /**
+     * Enough dates for a summary over all of them to be folded in parallel
+     */
+    private static final int DATES = 60;
+
+    private Path root;
+    private FlooringMasteryService service;
+    private List<FlooringMasteryOrder> pushed;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-query");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45",
+            "WA,Washington,9.25"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15",
+            "Wood,5.15,4.75"
+        ));
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoFileImpl(
+                Files.createDirectory(root.resolve("Orders")).toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+        service.loadDaos();
+
+        pushed = new ArrayList<>();
+        int num = 1;
+        for (int d = 0; d < DATES; d++) {
+            for (int i = 0; i < 3; i++) {
+                String state = (d + i) % 2 == 0 ? "TX" : "WA";
+                String type = (d + i) % 3 == 0 ? "Wood" : "Tile";
+                FlooringMasteryOrder order = new FlooringMasteryOrder(
+                    FIRST_DATE.plusDays(d),
+                    num,
+                    "Customer " + num,
+                    state,
+                    service.percentTaxRateForStateAbbr(state).get(),
+                    service.getProductByType(type).get(),
+                    new BigDecimal(100 + num)
+                );
+                service.pushOrder(order);
+                pushed.add(order);
+                num++;
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static BigDecimal sum(List<FlooringMasteryOrder> orders, Function<FlooringMasteryOrder, BigDecimal> amount) {
+        return orders.stream().map(amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static void assertSummarizes(List<FlooringMasteryOrder> orders, FlooringMasteryOrderSummary summary) {
+        assertEquals(orders.size(), summary.getCount());
+        assertEquals(0, sum(orders, FlooringMasteryOrder::getArea).compareTo(summary.getArea()));
+        assertEquals(0, sum(orders, FlooringMasteryOrder::getMaterialCost).compareTo(summary.getMaterialCost()));
+        assertEquals(0, sum(orders, FlooringMasteryOrder::getLaborCost).compareTo(summary.getLaborCost()));
+        assertEquals(0, sum(orders, FlooringMasteryOrder::getTax).compareTo(summary.getTax()));
+        assertEquals(0, sum(orders, FlooringMasteryOrder::getTotal).compareTo(summary.getTotal()));
+    }
+
+    @Test
+    public void testFindOrdersFiltersByRangeStateAndType() {
+        LocalDate from = FIRST_DATE.plusDays(10);
+        LocalDate to = FIRST_DATE.plusDays(19);
+        FlooringMasteryOrderQuery query = new FlooringMasteryOrderQuery(from, to, Set.of("WA"), Set.of("Wood"));
+
+        List<FlooringMasteryOrder> expected = pushed.stream()
+            .filter(order -> !order.getOrderDate().isBefore(from) && !order.getOrderDate().isAfter(to))
+            .filter(order -> order.getState().equals("WA") && order.getProductType().equals("Wood"))
+            .collect(Collectors.toList());
+
+        assertTrue(!expected.isEmpty());
+        assertEquals(expected, service.findOrders(query));
+    }
+
+    @Test
+    public void testOpenRangeMatchesEverything() {
+        assertEquals(pushed, service.findOrders(new FlooringMasteryOrderQuery(null, null)));
+        assertTrue(service.findOrders(new FlooringMasteryOrderQuery(FIRST_DATE.minusDays(5), FIRST_DATE.minusDays(1)))
+            .isEmpty());
+    }
+
+    @Test
+    public void testSummaryMatchesOrders() {
+        assertSummarizes(pushed, service.summarizeOrders(new FlooringMasteryOrderQuery(null, null)));
+
+        FlooringMasteryOrderQuery texasTile = new FlooringMasteryOrderQuery(null, null, Set.of("TX"), Set.of("Tile"));
+        assertSummarizes(service.findOrders(texasTile), service.summarizeOrders(texasTile));
+
+        FlooringMasteryOrderSummary none = service.summarizeOrders(
+            new FlooringMasteryOrderQuery(FIRST_DATE.minusDays(5), FIRST_DATE.minusDays(1))
+        );
+        assertEquals(0, none.getCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(none.getTotal()));
+    }
+
+    @Test
+    public void testGroupedSummaries() {
+        FlooringMasteryOrderQuery all = new FlooringMasteryOrderQuery(null, null);
+        for (FlooringMasteryOrderQuery.GroupBy groupBy : FlooringMasteryOrderQuery.GroupBy.values()) {
+            SortedMap<String, FlooringMasteryOrderSummary> groups = service.summarizeOrders(all, groupBy);
+
+            Set<String> keys = pushed.stream().map(groupBy::keyOf).collect(Collectors.toSet());
+            assertEquals(keys, groups.keySet(), groupBy::toString);
+            for (String key : keys) {
+                assertSummarizes(
+                    pushed.stream().filter(order -> groupBy.keyOf(order).equals(key)).collect(Collectors.toList()),
+                    groups.get(key)
+                );
+            }
+        }
+        assertEquals(Set.of("2030-01", "2030-02", "2030-03"),
+            service.summarizeOrders(all, FlooringMasteryOrderQuery.GroupBy.MONTH).keySet());
+        assertEquals(Set.of("TX", "WA"),
+            service.summarizeOrders(all, FlooringMasteryOrderQuery.GroupBy.STATE).keySet());
+    }
+}
@@ -0,0 +1,196 @@
+package com.bm.flooringmastery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryServiceStartupTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private Path root;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("flooring-startup");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15"
+        ));
+        Files.createDirectory(root.resolve("Orders"));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private FlooringMasteryService service(String taxesFile, FlooringMasteryOrderDaoFileImpl orderDao) {
+        return new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve(taxesFile).toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            orderDao
+        );
+    }
+
+    /**
+     * An order Dao whose loading waits for a gate, then fails with a message
+     * if one is given
+     */
+    private class GatedOrderDao extends FlooringMasteryOrderDaoFileImpl {
+        private final CountDownLatch GATE = new CountDownLatch(1);
+        private final String ERROR;
+
+        private GatedOrderDao(String ERROR) {
+            super(root.resolve("Orders").toString(), root.resolve("DataExport.txt").toString());
+            this.ERROR = ERROR;
+        }
+
+        @Override
+        public void loadFromExternals() throws FlooringMasteryFailedLoadException {
+            try {
+                GATE.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (ERROR != null) {
+                throw new FlooringMasteryFailedLoadException(ERROR);
+            }
+            super.loadFromExternals();
+        }
+    }
+
+    private static List<String> phaseNames(List<FlooringMasteryStartupReport.Phase> phases) {
+        return phases.stream().map(FlooringMasteryStartupReport.Phase::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCatalogsAreReadyBeforeOrders() throws Exception {
+        GatedOrderDao orderDao = new GatedOrderDao(null);
+        FlooringMasteryService service = service("Taxes.txt", orderDao);
+
+        CompletableFuture<FlooringMasteryStartupReport> loading = service.startLoadingDaos();
+        assertTimeoutPreemptively(TIMEOUT, service::awaitCatalogs);
+
+        assertTrue(service.getProductByType("Tile").isPresent());
+        assertTrue(service.percentTaxRateForStateAbbr("TX").isPresent());
+        assertFalse(service.areOrdersReady());
+        assertFalse(loading.isDone());
+        assertEquals(List.of("taxes", "products"), phaseNames(service.getStartupReport().getPhases()));
+
+        orderDao.GATE.countDown();
+        FlooringMasteryStartupReport report = loading.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertTimeoutPreemptively(TIMEOUT, service::awaitOrders);
+
+        assertTrue(service.areOrdersReady());
+        assertTrue(report.getErrors().isEmpty());
+        assertEquals(List.of("taxes", "products", "orders"), phaseNames(report.getPhases()));
+        assertEquals(List.of("products", "orders"), phaseNames(report.getCriticalPath()));
+        FlooringMasteryStartupReport.Phase products = report.getPhases().get(1);
+        FlooringMasteryStartupReport.Phase orders = report.getPhases().get(2);
+        assertTrue(orders.getStartNanos() >= products.getStartNanos() + products.getNanos());
+        assertTrue(report.getWallNanos() >= report.getCriticalPathNanos());
+    }
+
+    @Test
+    public void testFailedCatalogIsReportedWithoutStoppingOrders() throws Exception {
+        GatedOrderDao orderDao = new GatedOrderDao(null);
+        orderDao.GATE.countDown();
+        FlooringMasteryService service = service("Missing.txt", orderDao);
+
+        FlooringMasteryStartupReport report =
+            service.startLoadingDaos().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertEquals(1, report.getErrors().size());
+        FlooringMasteryFailedLoadException ex =
+            assertThrows(FlooringMasteryFailedLoadException.class, service::awaitCatalogs);
+        assertEquals(report.getErrors().get(0), ex.getMessage());
+        service.awaitOrders();
+        assertTrue(service.areOrdersReady());
+    }
+
+    @Test
+    public void testFailedOrdersAreReportedAndReleaseTheLatch() throws Exception {
+        GatedOrderDao orderDao = new GatedOrderDao("The orders are unreadable");
+        FlooringMasteryService service = service("Taxes.txt", orderDao);
+
+        service.startLoadingDaos();
+        service.awaitCatalogs();
+        orderDao.GATE.countDown();
+
+        FlooringMasteryFailedLoadException ex = assertTimeoutPreemptively(
+            TIMEOUT,
+            () -> assertThrows(FlooringMasteryFailedLoadException.class, service::awaitOrders)
+        );
+        assertEquals("The orders are unreadable", ex.getMessage());
+        assertTrue(service.areOrdersReady());
+    }
+
+    @Test
+    public void testLoadDaosJoinsEveryFailure() {
+        GatedOrderDao orderDao = new GatedOrderDao("The orders are unreadable");
+        orderDao.GATE.countDown();
+        FlooringMasteryService service = service("Missing.txt", orderDao);
+
+        FlooringMasteryFailedLoadException ex = assertTimeoutPreemptively(
+            TIMEOUT,
+            () -> assertThrows(FlooringMasteryFailedLoadException.class, service::loadDaos)
+        );
+
+        List<String> errors = service.getStartupReport().getErrors();
+        assertEquals(2, errors.size());
+        assertEquals("The orders are unreadable", errors.get(1));
+        assertEquals(String.join(", ", errors), ex.getMessage());
+    }
+
+    @Test
+    public void testUnexpectedFailureIsReported() throws Exception {
+        FlooringMasteryOrderDaoFileImpl orderDao = new FlooringMasteryOrderDaoFileImpl(
+            root.resolve("Orders").toString(),
+            root.resolve("DataExport.txt").toString()
+        ) {
+            @Override
+            public void loadFromExternals() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        FlooringMasteryService service = service("Taxes.txt", orderDao);
+
+        FlooringMasteryStartupReport report =
+            service.startLoadingDaos().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertEquals(
+            List.of("Unable to load the orders: java.lang.IllegalStateException: broken"),
+            report.getErrors()
+        );
+        assertTrue(service.areOrdersReady());
+    }
+}
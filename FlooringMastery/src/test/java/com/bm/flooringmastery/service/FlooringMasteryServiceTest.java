@@ -0,0 +1,122 @@
+package com.bm.flooringmastery.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FlooringMasteryServiceTest {
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+
+    private Path root;
+    private FlooringMasteryService service;
+
+    @BeforeEach
+    public void setUp() throws IOException, FlooringMasteryFailedLoadException {
+        root = Files.createTempDirectory("flooring-service");
+        Files.write(root.resolve("Taxes.txt"), List.of(
+            "State,StateName,TaxRate",
+            "TX,Texas,4.45"
+        ));
+        Files.write(root.resolve("Products.txt"), List.of(
+            "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot",
+            "Tile,3.50,4.15"
+        ));
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(root.resolve("Taxes.txt").toString()),
+            new FlooringMasteryProductDaoFileImpl(root.resolve("Products.txt").toString()),
+            new FlooringMasteryOrderDaoFileImpl(
+                Files.createDirectory(root.resolve("Orders")).toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+        service.loadDaos();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private FlooringMasteryOrder draft(String customerName) {
+        return new FlooringMasteryOrder(
+            DATE,
+            0,
+            customerName,
+            "TX",
+            service.percentTaxRateForStateAbbr("TX").get(),
+            service.getProductByType("Tile").get(),
+            new BigDecimal("200")
+        );
+    }
+
+    @Test
+    public void testPushNewOrderNumbersOnlyPushedOrders() throws FlooringMasteryFailedSaveException {
+        // a draft which is abandoned takes no number
+        draft("Abandoned");
+
+        FlooringMasteryOrder first = service.pushNewOrder(draft("Ada Lovelace"));
+        FlooringMasteryOrder second = service.pushNewOrder(draft("Alan Turing"));
+
+        assertEquals(1, first.getOrderNum());
+        assertEquals(2, second.getOrderNum());
+        assertEquals("Ada Lovelace", service.getOrderByNumber(1).get().getCustomerName());
+    }
+
+    @Test
+    public void testPushNewOrderIgnoresDraftNumber() throws FlooringMasteryFailedSaveException {
+        service.pushOrder(new FlooringMasteryOrder(
+            DATE,
+            10,
+            "Grace Hopper",
+            "TX",
+            new BigDecimal("4.45"),
+            service.getProductByType("Tile").get(),
+            new BigDecimal("200")
+        ));
+
+        FlooringMasteryOrder pushed = service.pushNewOrder(draft("Ada Lovelace"));
+
+        assertEquals(11, pushed.getOrderNum());
+        assertTrue(service.getOrder(DATE, 10).isPresent());
+    }
+
+    @Test
+    public void testLineBreakInNameIsNotStored() throws FlooringMasteryFailedSaveException {
+        assertThrows(FlooringMasteryFailedSaveException.class, () -> service.pushNewOrder(draft("Ada\nLovelace")));
+        assertThrows(FlooringMasteryFailedSaveException.class, () -> service.pushOrder(new FlooringMasteryOrder(
+            DATE,
+            5,
+            "Ada\rLovelace",
+            "TX",
+            new BigDecimal("4.45"),
+            service.getProductByType("Tile").get(),
+            new BigDecimal("200")
+        )));
+
+        assertTrue(service.getOrdersByDate(DATE).isEmpty());
+        // the refused order took no number
+        assertEquals(1, service.pushNewOrder(draft("Ada Lovelace")).getOrderNum());
+    }
+}
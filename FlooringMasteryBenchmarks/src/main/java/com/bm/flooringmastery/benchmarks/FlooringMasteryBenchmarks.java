@@ -0,0 +1,29 @@
+package com.bm.flooringmastery.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes their results as JSON
+ *
+ * Build with "mvn -B package" from the top-level directory, then run
+ * "java -jar FlooringMasteryBenchmarks/target/benchmarks.jar [JMH options]".
+ * Results go to jmh-result.json unless -rff names another file; any other
+ * JMH option, such as a benchmark name filter or -p days=..., is passed on.
+ */
+public class FlooringMasteryBenchmarks {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .resultFormat(ResultFormatType.JSON)
+            .result(commandLine.getResult().orElse("jmh-result.json"))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,117 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of writers sharing one order DAO, at 1, 4 and 16
+ * threads
+ *
+ * Each operation pushes a new Order onto a random date of the archive, looks
+ * it up, and removes it again. "concurrent" is
+ * FlooringMasteryOrderDaoConcurrentFileImpl; "locked" is
+ * FlooringMasteryOrderDaoFileImpl with every call made under one lock, the
+ * only safe way to share it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryConcurrentDaoBenchmark {
+    @Param({"concurrent", "locked"})
+    public String impl;
+
+    @Param({"365"})
+    public int days;
+
+    @Param({"20"})
+    public int ordersPerDay;
+
+    private FlooringMasteryOrderDao dao;
+    private Object lock;
+    private List<FlooringMasteryOrder> templates;
+
+    @Setup(Level.Trial)
+    public void createDao() throws FlooringMasteryFailedSaveException {
+        if (impl.equals("concurrent")) {
+            dao = new FlooringMasteryOrderDaoConcurrentFileImpl("Orders", "DataExport.txt");
+        } else {
+            dao = new FlooringMasteryOrderDaoFileImpl("Orders", "DataExport.txt");
+            lock = new Object();
+        }
+        FlooringMasterySyntheticOrders archive =
+            new FlooringMasterySyntheticOrders(days, ordersPerDay, 4, 4);
+        archive.fill(dao);
+        templates = archive.orders().limit(days).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean writers1() throws FlooringMasteryFailedSaveException {
+        return pushLookUpRemove();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean writers4() throws FlooringMasteryFailedSaveException {
+        return pushLookUpRemove();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean writers16() throws FlooringMasteryFailedSaveException {
+        return pushLookUpRemove();
+    }
+
+    private boolean pushLookUpRemove() throws FlooringMasteryFailedSaveException {
+        FlooringMasteryOrder template = templates.get(
+            ThreadLocalRandom.current().nextInt(templates.size())
+        );
+        if (lock != null) {
+            synchronized (lock) {
+                return pushLookUpRemove(template);
+            }
+        }
+        return pushLookUpRemove(template);
+    }
+
+    private boolean pushLookUpRemove(FlooringMasteryOrder template)
+        throws FlooringMasteryFailedSaveException {
+
+        FlooringMasteryOrder order = new FlooringMasteryOrder(
+            template.getOrderDate(),
+            dao.nextOrderNumber(),
+            template.getCustomerName(),
+            template.getState(),
+            template.getPercentTaxRate(),
+            template.getOrderedProduct(),
+            template.getArea()
+        );
+        dao.pushOrder(order);
+        boolean found = dao.getOrderByDateAndNumber(order.getOrderDate(), order.getOrderNum()).isPresent();
+        dao.removeOrderByDateAndNumber(order.getOrderDate(), order.getOrderNum());
+        return found;
+    }
+}
@@ -0,0 +1,189 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Hammers one FlooringMasteryOrderDaoConcurrentFileImpl with writer threads
+ * pushing and removing Orders on overlapping dates while another thread keeps
+ * saving, then checks that no change was lost, in memory or on disk
+ *
+ * Run with "java -cp FlooringMasteryBenchmarks/target/benchmarks.jar
+ * com.bm.flooringmastery.benchmarks.FlooringMasteryConcurrentDaoStress
+ * [opsPerThread]"; it runs at 1, 4 and 16 writer threads, prints the
+ * throughput of each, and exits with status 1 if any check fails.
+ */
+public class FlooringMasteryConcurrentDaoStress {
+    private static final int[] WRITER_THREADS = {1, 4, 16};
+    private static final int DAYS = 30;
+
+    public static void main(String[] args) throws Exception {
+        int opsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        boolean passed = true;
+        for (int threads : WRITER_THREADS) {
+            passed &= run(threads, opsPerThread);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(int threads, int opsPerThread) throws Exception {
+        Path root = Files.createTempDirectory("flooring-stress");
+        Path ordersDirectory = root.resolve("Orders");
+        try {
+            Files.createDirectories(ordersDirectory);
+            FlooringMasteryOrderDaoConcurrentFileImpl dao = newDao(ordersDirectory);
+            dao.loadFromExternals();
+
+            List<FlooringMasteryOrder> templates = new FlooringMasterySyntheticOrders(DAYS, 1, 4, 4)
+                .orders()
+                .collect(Collectors.toList());
+
+            List<Map<Integer, FlooringMasteryOrder>> expected = new ArrayList<>();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicBoolean writing = new AtomicBoolean(true);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Map<Integer, FlooringMasteryOrder> mine = new HashMap<>();
+                expected.add(mine);
+                long seed = t;
+                writers.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        write(dao, templates, mine, new Random(seed), opsPerThread);
+                    } catch (Throwable ex) {
+                        failure.compareAndSet(null, ex);
+                    }
+                }));
+            }
+            Thread saver = new Thread(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        dao.saveToExternals();
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+
+            writers.forEach(Thread::start);
+            saver.start();
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            long nanos = System.nanoTime() - startNanos;
+            writing.set(false);
+            saver.join();
+            dao.saveToExternals();
+
+            Set<FlooringMasteryOrder> expectedOrders = new HashSet<>();
+            expected.forEach(mine -> expectedOrders.addAll(mine.values()));
+
+            FlooringMasteryOrderDaoConcurrentFileImpl reloaded = newDao(ordersDirectory);
+            reloaded.loadFromExternals();
+
+            boolean inMemory = failure.get() == null && expectedOrders.equals(dao.ordersSet());
+            boolean onDisk = failure.get() == null && sameOrders(expectedOrders, reloaded.ordersSet());
+            System.out.printf(
+                "%2d writer threads: %,.0f ops/s, %d orders left, in memory %s, on disk %s%n",
+                threads,
+                threads * (double) opsPerThread / (nanos / 1e9),
+                expectedOrders.size(),
+                inMemory ? "ok" : "MISMATCH",
+                onDisk ? "ok" : "MISMATCH"
+            );
+            if (failure.get() != null) {
+                failure.get().printStackTrace();
+            }
+            return inMemory && onDisk;
+        } finally {
+            FlooringMasterySyntheticOrders.deleteRecursively(root);
+        }
+    }
+
+    /**
+     * Pushes new Orders and removes earlier ones at random, recording which
+     * of this thread's Orders should remain
+     */
+    private static void write(
+        FlooringMasteryOrderDaoConcurrentFileImpl dao,
+        List<FlooringMasteryOrder> templates,
+        Map<Integer, FlooringMasteryOrder> mine,
+        Random random,
+        int ops) throws FlooringMasteryFailedSaveException {
+
+        List<Integer> live = new ArrayList<>();
+        for (int i = 0; i < ops; i++) {
+            if (live.isEmpty() || random.nextInt(100) < 55) {
+                FlooringMasteryOrder template = templates.get(random.nextInt(templates.size()));
+                FlooringMasteryOrder order = new FlooringMasteryOrder(
+                    template.getOrderDate(),
+                    dao.nextOrderNumber(),
+                    template.getCustomerName(),
+                    template.getState(),
+                    template.getPercentTaxRate(),
+                    template.getOrderedProduct(),
+                    template.getArea()
+                );
+                dao.pushOrder(order);
+                mine.put(order.getOrderNum(), order);
+                live.add(order.getOrderNum());
+            } else {
+                int idx = random.nextInt(live.size());
+                int num = live.get(idx);
+                live.set(idx, live.get(live.size() - 1));
+                live.remove(live.size() - 1);
+                FlooringMasteryOrder order = mine.remove(num);
+                if (dao.removeOrderByDateAndNumber(order.getOrderDate(), num).isEmpty()) {
+                    throw new IllegalStateException("Order " + num + " went missing");
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares reloaded Orders, whose amounts were rounded to the cent when
+     * written, by the columns that are stored
+     */
+    private static boolean sameOrders(Set<FlooringMasteryOrder> expected, Set<FlooringMasteryOrder> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        Map<Integer, FlooringMasteryOrder> byNum = new HashMap<>();
+        actual.forEach(order -> byNum.put(order.getOrderNum(), order));
+        for (FlooringMasteryOrder order : expected) {
+            FlooringMasteryOrder other = byNum.get(order.getOrderNum());
+            if (other == null
+                || !other.getOrderDate().equals(order.getOrderDate())
+                || !other.getCustomerName().equals(order.getCustomerName())
+                || other.getArea().compareTo(order.getArea()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FlooringMasteryOrderDaoConcurrentFileImpl newDao(Path ordersDirectory) {
+        return new FlooringMasteryOrderDaoConcurrentFileImpl(
+            ordersDirectory.toString(),
+            ordersDirectory.resolveSibling("DataExport.txt").toString()
+        );
+    }
+}
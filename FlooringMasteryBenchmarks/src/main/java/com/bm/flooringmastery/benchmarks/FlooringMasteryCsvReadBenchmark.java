@@ -0,0 +1,168 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading the order and product files through the byte-scanning
+ * reader the DAOs use, against the Scanner over BufferedReader over
+ * FileReader path they used before
+ *
+ * The scanner benchmarks repeat the code the DAOs had, splitting every line
+ * into Strings and parsing each number from one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryCsvReadBenchmark {
+    @Param({"365"})
+    public int days;
+
+    @Param({"50"})
+    public int ordersPerDay;
+
+    @Param({"10000"})
+    public int productRows;
+
+    private Path root;
+    private Path ordersDirectory;
+    private Path productsFile;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-bench");
+        ordersDirectory = root.resolve("Orders");
+        productsFile = root.resolve("Products.txt");
+        new FlooringMasterySyntheticOrders(days, ordersPerDay, 4, 4).writeTo(ordersDirectory);
+
+        try (Writer writer = Files.newBufferedWriter(productsFile)) {
+            writer.write("ProductType,CostPerSquareFoot,LaborCostPerSquareFoot\n");
+            for (int i = 0; i < productRows; i++) {
+                writer.write("Product" + i + "," + BigDecimal.valueOf(150 + i % 900, 2)
+                    + "," + BigDecimal.valueOf(200 + i % 700, 2) + "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        FlooringMasterySyntheticOrders.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public FlooringMasteryOrderDaoFileImpl readerOrders() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString()
+        );
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    @Benchmark
+    public Map<LocalDate, Map<Integer, FlooringMasteryOrder>> scannerOrders() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> listing = Files.list(ordersDirectory)) {
+            paths = listing.collect(Collectors.toList());
+        }
+
+        Map<LocalDate, Map<Integer, FlooringMasteryOrder>> ordersMap = new TreeMap<>();
+        for (Path path : paths) {
+            String filename = path.getFileName().toString();
+            LocalDate orderDate = LocalDate.parse(String.format(
+                "%s-%s-%s",
+                filename.substring(11, 15),
+                filename.substring(7, 9),
+                filename.substring(9, 11)
+            ));
+
+            Scanner reader = new Scanner(new BufferedReader(new FileReader(path.toFile())));
+            reader.nextLine(); // ignore header
+            while (reader.hasNextLine()) {
+                String[] tokens = reader.nextLine().split(",");
+                FlooringMasteryOrder order = new FlooringMasteryOrder(
+                    orderDate,
+                    Integer.parseInt(tokens[0]),
+                    tokens[1],
+                    tokens[2],
+                    new BigDecimal(tokens[3]),
+                    new FlooringMasteryProduct(
+                        tokens[4],
+                        new BigDecimal(tokens[6]),
+                        new BigDecimal(tokens[7])
+                    ),
+                    new BigDecimal(tokens[5])
+                );
+                ordersMap.computeIfAbsent(orderDate, date -> new TreeMap<>())
+                    .put(order.getOrderNum(), order);
+            }
+            reader.close();
+        }
+        return ordersMap;
+    }
+
+    @Benchmark
+    public FlooringMasteryProductDaoFileImpl readerProducts() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryProductDaoFileImpl dao = new FlooringMasteryProductDaoFileImpl(
+            productsFile.toString()
+        );
+        dao.loadDataFromExternals();
+        return dao;
+    }
+
+    @Benchmark
+    public Map<String, FlooringMasteryProduct> scannerProducts() throws IOException {
+        Map<String, FlooringMasteryProduct> productsMap = new HashMap<>();
+        Scanner reader = new Scanner(new BufferedReader(new FileReader(productsFile.toFile())));
+        reader.nextLine(); // ignore header
+        while (reader.hasNextLine()) {
+            String[] tokens = reader.nextLine().split(",");
+            productsMap.put(
+                tokens[0],
+                new FlooringMasteryProduct(
+                    tokens[0],
+                    new BigDecimal(tokens[1]),
+                    new BigDecimal(tokens[2])
+                )
+            );
+        }
+        reader.close();
+        return productsMap;
+    }
+}
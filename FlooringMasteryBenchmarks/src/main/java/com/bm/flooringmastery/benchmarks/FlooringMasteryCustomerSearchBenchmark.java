@@ -0,0 +1,98 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoColumnarFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding a customer's Orders through the customer index against a
+ * multi-million Order archive, next to the scan of every date it replaces
+ *
+ * The archive is held by the columnar DAO to fit in the heap. Each customer
+ * has some ordersPerDay * days / customers Orders spread over every date.
+ * The exact search asks for one whole name; the prefix search for a first
+ * name and the first letter of a last name, such as "ada l", matching 1 in
+ * 64 customers. Each returns the first LIMIT Orders, as the menu does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class FlooringMasteryCustomerSearchBenchmark {
+    private static final int LIMIT = 21;
+
+    @Param({"3650"})
+    public int days;
+
+    @Param({"1000"})
+    public int ordersPerDay;
+
+    @Param({"100000"})
+    public int customers;
+
+    private FlooringMasteryService service;
+    private FlooringMasterySyntheticOrders archive;
+
+    @Setup(Level.Trial)
+    public void fillService() throws FlooringMasteryFailedSaveException {
+        archive = new FlooringMasterySyntheticOrders(days, ordersPerDay, 4, 4, customers);
+        FlooringMasteryOrderDaoColumnarFileImpl orderDao =
+            new FlooringMasteryOrderDaoColumnarFileImpl("Orders", "DataExport.txt");
+        archive.fill(orderDao);
+        service = new FlooringMasteryService(null, null, orderDao);
+    }
+
+    private String randomCustomer() {
+        return FlooringMasterySyntheticOrders.customerName(ThreadLocalRandom.current().nextInt(customers));
+    }
+
+    @Benchmark
+    public List<FlooringMasteryOrder> exactIndexed() {
+        return service.findOrdersByCustomer(randomCustomer(), false, LIMIT);
+    }
+
+    @Benchmark
+    public List<FlooringMasteryOrder> prefixIndexed() {
+        String name = randomCustomer();
+        return service.findOrdersByCustomer(name.substring(0, name.indexOf(' ') + 2), true, LIMIT);
+    }
+
+    /**
+     * What finding a customer's Orders took before the index: a pass over
+     * every date comparing names, until enough are found
+     */
+    @Benchmark
+    public List<FlooringMasteryOrder> exactScan() {
+        String name = randomCustomer().toLowerCase(Locale.ROOT);
+        List<FlooringMasteryOrder> orders = new ArrayList<>();
+        for (FlooringMasteryOrder order : service.getOrdersByDateRange(archive.dateOf(0), archive.getLastDate())) {
+            if (order.getCustomerName().toLowerCase(Locale.ROOT).equals(name)) {
+                orders.add(order);
+                if (orders.size() == LIMIT) {
+                    break;
+                }
+            }
+        }
+        return orders;
+    }
+}
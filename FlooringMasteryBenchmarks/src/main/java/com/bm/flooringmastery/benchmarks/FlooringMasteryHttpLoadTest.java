@@ -0,0 +1,241 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.controller.FlooringMasteryHttpServer;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoConcurrentFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the HTTP API with a fixed number of concurrent clients and reports
+ * the requests per second and the latency percentiles of each kind of request
+ *
+ * Run with "java -cp FlooringMasteryBenchmarks/target/benchmarks.jar
+ * com.bm.flooringmastery.benchmarks.FlooringMasteryHttpLoadTest [clients]
+ * [seconds] [baseUrl]", 32 clients for 20 seconds by default. Without a base
+ * URL, a server is started in this process over a synthetic archive of 365
+ * days of 100 Orders. Each client sends its next request as soon as the last
+ * is answered: 80% list the orders of a random date, 10% the products, and
+ * 10% add an order. The first WARMUP_SECONDS are not measured.
+ */
+public class FlooringMasteryHttpLoadTest {
+    private static final int WARMUP_SECONDS = 5;
+    private static final int DAYS = 365;
+    private static final int ORDERS_PER_DAY = 100;
+
+    private static final String[] KINDS = {"GET /orders", "GET /products", "POST /orders"};
+    private static final int LIST = 0;
+    private static final int PRODUCTS = 1;
+    private static final int ADD = 2;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path root = null;
+        FlooringMasteryHttpServer server = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            root = Files.createTempDirectory("flooring-http");
+            server = startLocalServer(root);
+            baseUrl = "http://localhost:" + server.getAddress().getPort();
+            System.out.println(
+                "local server on " + baseUrl + " using "
+                + (server.isUsingVirtualThreads() ? "virtual threads" : "a bounded pool")
+            );
+        }
+
+        try {
+            run(baseUrl, clients, seconds);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+            if (root != null) {
+                FlooringMasterySyntheticOrders.deleteRecursively(root);
+            }
+        }
+    }
+
+    private static FlooringMasteryHttpServer startLocalServer(Path root) throws Exception {
+        new FlooringMasterySyntheticOrders(DAYS, ORDERS_PER_DAY, 4, 4).writeTo(root.resolve("Orders"));
+        Path taxes = root.resolve("Taxes.txt");
+        Path products = root.resolve("Products.txt");
+        Files.writeString(taxes, "State,StateName,TaxRate\n"
+            + "TX,Texas,4.45\nWA,Washington,9.25\nKY,Kentucky,6.00\nCA,California,25.00\n");
+        Files.writeString(products, "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot\n"
+            + "Carpet,2.25,2.10\nLaminate,1.75,2.10\nTile,3.50,4.15\nWood,5.15,4.75\n");
+
+        FlooringMasteryService service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(taxes.toString()),
+            new FlooringMasteryProductDaoFileImpl(products.toString()),
+            new FlooringMasteryOrderDaoConcurrentFileImpl(
+                root.resolve("Orders").toString(),
+                root.resolve("DataExport.txt").toString()
+            )
+        );
+        service.loadDaos();
+        FlooringMasteryHttpServer server = new FlooringMasteryHttpServer(
+            service,
+            new InetSocketAddress("localhost", 0)
+        );
+        server.start();
+        return server;
+    }
+
+    private static void run(String baseUrl, int clients, int seconds) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long measureFrom = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long measureUntil = measureFrom + seconds * 1_000_000_000L;
+
+        List<Client> running = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, baseUrl, measureFrom, measureUntil);
+            client.start();
+            running.add(client);
+        }
+        for (Client client : running) {
+            client.join();
+        }
+
+        long total = 0;
+        long failures = 0;
+        for (Client client : running) {
+            failures += client.failures;
+        }
+        System.out.printf("%d clients for %d s, %d failed requests%n", clients, seconds, failures);
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            int count = 0;
+            for (Client client : running) {
+                count += client.LATENCIES[kind].size;
+            }
+            long[] latencies = new long[count];
+            int filled = 0;
+            for (Client client : running) {
+                LongList list = client.LATENCIES[kind];
+                System.arraycopy(list.values, 0, latencies, filled, list.size);
+                filled += list.size;
+            }
+            total += count;
+            report(KINDS[kind], latencies, seconds);
+        }
+        System.out.printf("%-14s %,10.0f req/s%n", "all", (double) total / seconds);
+    }
+
+    private static void report(String kind, long[] latencies, int seconds) {
+        if (latencies.length == 0) {
+            System.out.printf("%-14s no requests%n", kind);
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf(
+            "%-14s %,10.0f req/s   p50 %,8.1f us   p99 %,8.1f us   p999 %,9.1f us   max %,9.1f us%n",
+            kind,
+            (double) latencies.length / seconds,
+            percentile(latencies, 0.50) / 1e3,
+            percentile(latencies, 0.99) / 1e3,
+            percentile(latencies, 0.999) / 1e3,
+            latencies[latencies.length - 1] / 1e3
+        );
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int idx = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    /**
+     * A client sending one request at a time, recording the latency of
+     * those sent while measuring
+     */
+    private static final class Client extends Thread {
+        private final HttpClient HTTP;
+        private final String BASE_URL;
+        private final long MEASURE_FROM;
+        private final long MEASURE_UNTIL;
+        private final LongList[] LATENCIES;
+        private long failures;
+
+        private Client(HttpClient HTTP, String BASE_URL, long MEASURE_FROM, long MEASURE_UNTIL) {
+            super("load-client");
+            this.HTTP = HTTP;
+            this.BASE_URL = BASE_URL;
+            this.MEASURE_FROM = MEASURE_FROM;
+            this.MEASURE_UNTIL = MEASURE_UNTIL;
+            this.LATENCIES = new LongList[KINDS.length];
+            for (int i = 0; i < KINDS.length; i++) {
+                LATENCIES[i] = new LongList();
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < MEASURE_UNTIL) {
+                int roll = random.nextInt(10);
+                int kind = roll < 8 ? LIST : roll < 9 ? PRODUCTS : ADD;
+                HttpRequest request = request(kind, random);
+                long startNanos = System.nanoTime();
+                boolean ok;
+                try {
+                    int status = HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    ok = status / 100 == 2;
+                } catch (Exception ex) {
+                    ok = false;
+                }
+                long latency = System.nanoTime() - startNanos;
+                if (now >= MEASURE_FROM) {
+                    if (ok) {
+                        LATENCIES[kind].add(latency);
+                    } else {
+                        failures++;
+                    }
+                }
+            }
+        }
+
+        private HttpRequest request(int kind, ThreadLocalRandom random) {
+            switch (kind) {
+                case LIST:
+                    LocalDate date = FlooringMasterySyntheticOrders.FIRST_DATE.plusDays(random.nextInt(DAYS));
+                    return HttpRequest.newBuilder(URI.create(BASE_URL + "/orders?date=" + date)).build();
+                case PRODUCTS:
+                    return HttpRequest.newBuilder(URI.create(BASE_URL + "/products")).build();
+                default:
+                    String body = "{\"orderDate\":\"" + LocalDate.now().plusDays(1 + random.nextInt(30))
+                        + "\",\"customerName\":\"Load Test\",\"state\":\"TX\",\"productType\":\"Wood\","
+                        + "\"area\":" + (100 + random.nextInt(900)) + "}";
+                    return HttpRequest.newBuilder(URI.create(BASE_URL + "/orders"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
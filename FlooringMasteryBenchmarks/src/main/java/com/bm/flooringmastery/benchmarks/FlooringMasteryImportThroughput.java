@@ -0,0 +1,104 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.service.FlooringMasteryImportReport;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Reports the sustained rate at which the service imports a large file of
+ * new Orders, in both of the formats it accepts
+ *
+ * Run with "java -cp FlooringMasteryBenchmarks/target/benchmarks.jar
+ * com.bm.flooringmastery.benchmarks.FlooringMasteryImportThroughput
+ * [rows] [rejectPercent]", 500000 rows of which 1% are invalid by default.
+ * Each round imports the whole file into a fresh, empty service, and the
+ * first rounds are there to warm up.
+ */
+public class FlooringMasteryImportThroughput {
+    private static final int ROUNDS = 5;
+    private static final String[] STATES = {"TX", "WA", "KY", "CA"};
+    private static final String[] TYPES = {"Carpet", "Laminate", "Tile", "Wood"};
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int rejectPercent = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        Path root = Files.createTempDirectory("flooring-import");
+        try {
+            Path ordersDirectory = Files.createDirectory(root.resolve("Orders"));
+            Path taxes = root.resolve("Taxes.txt");
+            Path products = root.resolve("Products.txt");
+            Files.writeString(taxes, "State,StateName,TaxRate\n"
+                + "TX,Texas,4.45\nWA,Washington,9.25\nKY,Kentucky,6.00\nCA,California,25.00\n");
+            Files.writeString(products, "ProductType,CostPerSquareFoot,LaborCostPerSquareFoot\n"
+                + "Carpet,2.25,2.10\nLaminate,1.75,2.10\nTile,3.50,4.15\nWood,5.15,4.75\n");
+
+            Path csv = root.resolve("orders.csv");
+            Path jsonLines = root.resolve("orders.jsonl");
+            writeRows(csv, jsonLines, rows, rejectPercent);
+            System.out.printf("%,d rows, %d%% invalid%n", rows, rejectPercent);
+
+            for (Path file : new Path[] {csv, jsonLines}) {
+                for (int round = 1; round <= ROUNDS; round++) {
+                    FlooringMasteryService service = new FlooringMasteryService(
+                        new FlooringMasteryTaxDaoFileImpl(taxes.toString()),
+                        new FlooringMasteryProductDaoFileImpl(products.toString()),
+                        new FlooringMasteryOrderDaoFileImpl(
+                            ordersDirectory.toString(),
+                            root.resolve("DataExport.txt").toString()
+                        )
+                    );
+                    service.loadDaos();
+                    FlooringMasteryImportReport report = service.importOrders(file);
+                    System.out.printf(
+                        "%-13s round %d: %,9d imported, %,7d rejected in %,6.0f ms, %,9.0f rows/s%n",
+                        file.getFileName(),
+                        round,
+                        report.getImported(),
+                        report.getRejectedCount(),
+                        report.getNanos() / 1e6,
+                        report.getRowsPerSecond()
+                    );
+                }
+            }
+        } finally {
+            FlooringMasterySyntheticOrders.deleteRecursively(root);
+        }
+    }
+
+    /**
+     * Writes the same rows as CSV and as JSON lines, with the given share of
+     * them given an unknown state
+     */
+    private static void writeRows(Path csv, Path jsonLines, int rows, int rejectPercent) throws IOException {
+        Random random = new Random(42);
+        LocalDate firstDate = LocalDate.now().plusDays(1);
+        try (Writer csvWriter = Files.newBufferedWriter(csv);
+            Writer jsonWriter = Files.newBufferedWriter(jsonLines)) {
+
+            csvWriter.write("OrderDate,CustomerName,State,ProductType,Area\n");
+            for (int i = 0; i < rows; i++) {
+                LocalDate date = firstDate.plusDays(random.nextInt(365));
+                String name = "Customer " + i;
+                String state = random.nextInt(100) < rejectPercent
+                    ? "ZZ"
+                    : STATES[random.nextInt(STATES.length)];
+                String type = TYPES[random.nextInt(TYPES.length)];
+                String area = (100 + random.nextInt(900)) + "." + random.nextInt(10);
+
+                csvWriter.write(date + "," + name + "," + state + "," + type + "," + area + "\n");
+                jsonWriter.write("{\"orderDate\":\"" + date + "\",\"customerName\":\"" + name
+                    + "\",\"state\":\"" + state + "\",\"productType\":\"" + type
+                    + "\",\"area\":" + area + "}\n");
+            }
+        }
+    }
+}
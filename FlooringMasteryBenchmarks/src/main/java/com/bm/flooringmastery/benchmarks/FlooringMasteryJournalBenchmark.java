@@ -0,0 +1,84 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderJournal;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures journaled pushes per second at several group-commit intervals
+ *
+ * An interval of 0 forces every record to disk before the push returns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryJournalBenchmark {
+    @Param({"0", "1", "10", "50"})
+    public long groupCommitMillis;
+
+    private Path root;
+    private FlooringMasteryOrderJournal journal;
+    private FlooringMasteryOrderDaoFileImpl dao;
+    private List<FlooringMasteryOrder> orders;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void openJournal() throws IOException, FlooringMasteryFailedLoadException {
+        root = Files.createTempDirectory("flooring-bench");
+        Files.createDirectories(root.resolve("Orders"));
+        journal = new FlooringMasteryOrderJournal(
+            root.resolve("Orders.journal").toString(), 
+            groupCommitMillis
+        );
+        dao = new FlooringMasteryOrderDaoFileImpl(
+            root.resolve("Orders").toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            journal
+        );
+        dao.loadFromExternals();
+        orders = new FlooringMasterySyntheticOrders(100, 100, 4, 4).orders()
+            .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateJournal() throws IOException {
+        journal.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeJournal() throws IOException {
+        journal.close();
+        FlooringMasterySyntheticOrders.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public void pushOrder() throws FlooringMasteryFailedSaveException {
+        dao.pushOrder(orders.get(next));
+        next = (next + 1) % orders.size();
+    }
+}
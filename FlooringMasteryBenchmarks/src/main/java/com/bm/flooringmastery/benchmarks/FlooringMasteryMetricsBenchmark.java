@@ -0,0 +1,102 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.metrics.FlooringMasteryHistogram;
+import com.bm.flooringmastery.metrics.FlooringMasteryMetrics;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures what the metrics cost an instrumented lookup, once with metrics
+ * disabled and once enabled, each in a JVM of its own
+ *
+ * The lookup is kept cheap, a date's orders already in memory plus a tax
+ * rate, so that the cost of counting and timing is not hidden by the work
+ * it measures. The bare recordSince benchmarks give that cost alone, the
+ * contended ones as several threads record into the same histogram.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class FlooringMasteryMetricsBenchmark {
+    private static final String ENABLE = "-Dflooringmastery.metrics=true";
+
+    private static final FlooringMasteryHistogram HISTOGRAM = 
+        FlooringMasteryMetrics.histogram("benchmark.nanos");
+
+    private FlooringMasterySyntheticOrders archive;
+    private FlooringMasteryService service;
+
+    @Setup(Level.Trial)
+    public void fillService() throws FlooringMasteryFailedSaveException {
+        archive = new FlooringMasterySyntheticOrders(365, 20, 4, 4);
+        FlooringMasteryOrderDaoFileImpl orderDao = 
+            new FlooringMasteryOrderDaoFileImpl("Orders", "DataExport.txt");
+        archive.fill(orderDao);
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(),
+            new FlooringMasteryProductDaoFileImpl(),
+            orderDao
+        );
+    }
+
+    private void lookup(Blackhole blackhole) {
+        LocalDate date = archive.dateOf(ThreadLocalRandom.current().nextInt(archive.getDays()));
+        Collection<FlooringMasteryOrder> orders = service.getOrdersByDate(date);
+        blackhole.consume(orders.size());
+        blackhole.consume(service.percentTaxRateForStateAbbr("TX"));
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void lookupDisabled(Blackhole blackhole) {
+        lookup(blackhole);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLE)
+    public void lookupEnabled(Blackhole blackhole) {
+        lookup(blackhole);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void recordSinceDisabled() {
+        HISTOGRAM.recordSince(FlooringMasteryMetrics.start());
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLE)
+    public void recordSinceEnabled() {
+        HISTOGRAM.recordSince(FlooringMasteryMetrics.start());
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = ENABLE)
+    @Threads(4)
+    public void recordSinceEnabledContended() {
+        HISTOGRAM.recordSince(FlooringMasteryMetrics.start());
+    }
+}
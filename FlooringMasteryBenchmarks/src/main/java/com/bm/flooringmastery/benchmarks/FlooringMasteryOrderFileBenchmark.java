@@ -0,0 +1,142 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedExportException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading, saving and exporting a synthetic Orders directory
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryOrderFileBenchmark {
+    @Param({"365"})
+    public int days;
+
+    @Param({"50"})
+    public int ordersPerDay;
+
+    @Param({"4"})
+    public int products;
+
+    @Param({"4"})
+    public int states;
+
+    @Param({"1", "4"})
+    public int loaderThreads;
+
+    private Path root;
+    private Path ordersDirectory;
+    private Path exportFile;
+    private FlooringMasteryOrderDaoFileImpl loadedDao;
+    private List<FlooringMasteryOrder> firstDayOrders;
+    private List<FlooringMasteryOrder> allOrders;
+
+    @Setup(Level.Trial)
+    public void createArchive() 
+        throws IOException, FlooringMasteryFailedSaveException, FlooringMasteryFailedLoadException {
+        
+        root = Files.createTempDirectory("flooring-bench");
+        ordersDirectory = root.resolve("Orders");
+        exportFile = root.resolve("DataExport.txt");
+        new FlooringMasterySyntheticOrders(days, ordersPerDay, products, states)
+            .writeTo(ordersDirectory);
+
+        loadedDao = newDao();
+        loadedDao.loadFromExternals();
+        allOrders = new ArrayList<>(loadedDao.ordersSet());
+        firstDayOrders = new ArrayList<>(
+            loadedDao.getOrdersByDate(FlooringMasterySyntheticOrders.FIRST_DATE)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArchive() throws IOException {
+        FlooringMasterySyntheticOrders.deleteRecursively(root);
+    }
+
+    private FlooringMasteryOrderDaoFileImpl newDao() {
+        return new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            exportFile.toString(),
+            loaderThreads
+        );
+    }
+
+    /**
+     * Marks a single date as changed before each save
+     */
+    @State(Scope.Benchmark)
+    public static class OneDirtyDate {
+        @Setup(Level.Invocation)
+        public void touch(FlooringMasteryOrderFileBenchmark archive) 
+            throws FlooringMasteryFailedSaveException {
+            
+            for (FlooringMasteryOrder order : archive.firstDayOrders) {
+                archive.loadedDao.pushOrder(order);
+            }
+        }
+    }
+
+    /**
+     * Marks every date as changed before each save
+     */
+    @State(Scope.Benchmark)
+    public static class AllDirtyDates {
+        @Setup(Level.Invocation)
+        public void touch(FlooringMasteryOrderFileBenchmark archive) 
+            throws FlooringMasteryFailedSaveException {
+            
+            for (FlooringMasteryOrder order : archive.allOrders) {
+                archive.loadedDao.pushOrder(order);
+            }
+        }
+    }
+
+    @Benchmark
+    public FlooringMasteryOrderDaoFileImpl loadFromExternals() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = newDao();
+        dao.loadFromExternals();
+        return dao;
+    }
+
+    @Benchmark
+    public void saveOneDirtyDate(OneDirtyDate dirty) throws FlooringMasteryFailedSaveException {
+        loadedDao.saveToExternals();
+    }
+
+    @Benchmark
+    public void saveAllDates(AllDirtyDates dirty) throws FlooringMasteryFailedSaveException {
+        loadedDao.saveToExternals();
+    }
+
+    @Benchmark
+    public void export() throws FlooringMasteryFailedExportException {
+        loadedDao.export();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryIoStats;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoColumnarFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reports how much heap each order DAO needs to hold a synthetic archive
+ * once loaded from its day files
+ *
+ * Run with "java -Xmx4g -cp FlooringMasteryBenchmarks/target/benchmarks.jar
+ * com.bm.flooringmastery.benchmarks.FlooringMasteryOrderHeapFootprint
+ * [days] [ordersPerDay]", 365 days of 2740 Orders (a million) by default.
+ * As when loaded by the service, each DAO is first offered the product
+ * catalog.
+ * The heap in use is measured after repeated garbage collections, before
+ * and after loading, so the figures are close to but not exactly the size
+ * of what each DAO retains.
+ */
+public class FlooringMasteryOrderHeapFootprint {
+    private static final int GC_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        int ordersPerDay = args.length > 1 ? Integer.parseInt(args[1]) : 2740;
+
+        Path root = Files.createTempDirectory("flooring-footprint");
+        Path ordersDirectory = root.resolve("Orders");
+        try {
+            FlooringMasterySyntheticOrders archive =
+                new FlooringMasterySyntheticOrders(days, ordersPerDay, 8, 50);
+            archive.writeTo(ordersDirectory);
+            System.out.printf("%,d orders over %d days%n", archive.getOrderCount(), days);
+
+            long fileBytes = measure(
+                "file",
+                archive,
+                new FlooringMasteryOrderDaoFileImpl(ordersDirectory.toString(), "DataExport.txt")
+            );
+            long columnarBytes = measure(
+                "columnar",
+                archive,
+                new FlooringMasteryOrderDaoColumnarFileImpl(ordersDirectory.toString(), "DataExport.txt")
+            );
+            System.out.printf(
+                "columnar holds the archive in %.1f%% of the heap (%.1fx less)%n",
+                100.0 * columnarBytes / fileBytes,
+                (double) fileBytes / columnarBytes
+            );
+        } finally {
+            FlooringMasterySyntheticOrders.deleteRecursively(root);
+        }
+    }
+
+    /**
+     * Loads a DAO and prints the heap it retains
+     *
+     * @return The heap retained, in bytes
+     */
+    private static long measure(
+        String name,
+        FlooringMasterySyntheticOrders archive,
+        FlooringMasteryOrderDao dao) throws Exception {
+
+        dao.registerCanonicalProducts(archive.products());
+        long before = usedHeap();
+        dao.loadFromExternals();
+        long after = usedHeap();
+        Reference.reachabilityFence(dao);
+
+        long retained = after - before;
+        FlooringMasteryIoStats stats = dao instanceof FlooringMasteryOrderDaoFileImpl
+            ? ((FlooringMasteryOrderDaoFileImpl) dao).getLastLoadStats()
+            : ((FlooringMasteryOrderDaoColumnarFileImpl) dao).getLastLoadStats();
+        System.out.printf(
+            "%-9s %,7.1f MB retained, %5.0f bytes/order, loaded in %,.0f ms%n",
+            name,
+            retained / 1e6,
+            (double) retained / stats.getRows(),
+            stats.getNanos() / 1e6
+        );
+        return retained;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
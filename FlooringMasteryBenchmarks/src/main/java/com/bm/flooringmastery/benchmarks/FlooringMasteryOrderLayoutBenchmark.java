@@ -0,0 +1,76 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderLayout;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedLoadException;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding the day files of a large Orders directory, flat or
+ * partitioned, which is all a lazy load does before the first date is read
+ *
+ * A flat directory is listed and every name in it parsed; a partitioned one
+ * is planned from its manifest. Both run against a warm file system cache,
+ * which flatters the listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryOrderLayoutBenchmark {
+    @Param({"20000"})
+    public int days;
+
+    @Param({"flat", "partitioned"})
+    public String layout;
+
+    private Path root;
+    private Path ordersDirectory;
+
+    @Setup(Level.Trial)
+    public void createArchive() throws IOException, FlooringMasteryFailedSaveException {
+        root = Files.createTempDirectory("flooring-bench");
+        ordersDirectory = root.resolve("Orders");
+        new FlooringMasterySyntheticOrders(days, 1, 4, 4).writeTo(ordersDirectory);
+        if (layout.equals("partitioned")) {
+            FlooringMasteryOrderLayout.migrateToPartitioned(ordersDirectory);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArchive() throws IOException {
+        FlooringMasterySyntheticOrders.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public long planLoad() throws FlooringMasteryFailedLoadException {
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            root.resolve("DataExport.txt").toString(),
+            1,
+            null,
+            1
+        );
+        dao.loadFromExternals();
+        return dao.getLastLoadStats().getFiles();
+    }
+}
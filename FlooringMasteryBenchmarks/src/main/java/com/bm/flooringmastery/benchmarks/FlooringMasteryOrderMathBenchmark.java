@@ -0,0 +1,92 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of obtaining every money amount of an Order, the way
+ * display, save and export each do
+ *
+ * legacyAmounts repeats the computation the Order getters performed before
+ * they were memoized, for comparison against a freshly created Order (the
+ * first, computing call) and an Order whose amounts are already cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlooringMasteryOrderMathBenchmark {
+    private FlooringMasteryOrder order;
+
+    @Setup(Level.Trial)
+    public void createOrder() {
+        order = new FlooringMasterySyntheticOrders(1, 1, 4, 4).orders().findFirst().get();
+        order.getTotal();
+    }
+
+    @Benchmark
+    public void legacyAmounts(Blackhole blackhole) {
+        BigDecimal area = order.getArea();
+        BigDecimal cost = order.getCostPerSqFt();
+        BigDecimal laborCost = order.getLaborCostPerSqFt();
+        BigDecimal rate = order.getPercentTaxRate();
+
+        blackhole.consume(area.multiply(cost));
+        blackhole.consume(area.multiply(laborCost));
+        blackhole.consume(legacyTax(area, cost, laborCost, rate));
+        blackhole.consume(
+            area.multiply(cost).add(area.multiply(laborCost))
+                .add(legacyTax(area, cost, laborCost, rate))
+        );
+    }
+
+    private static BigDecimal legacyTax(
+        BigDecimal area, 
+        BigDecimal cost, 
+        BigDecimal laborCost, 
+        BigDecimal rate) {
+        
+        BigDecimal trueTaxRate = rate.divide(new BigDecimal("100"));
+        return area.multiply(cost).add(area.multiply(laborCost)).multiply(trueTaxRate);
+    }
+
+    @Benchmark
+    public void memoizedAmountsFirstCall(Blackhole blackhole) {
+        FlooringMasteryOrder fresh = new FlooringMasteryOrder(
+            order.getOrderDate(),
+            order.getOrderNum(),
+            order.getCustomerName(),
+            order.getState(),
+            order.getPercentTaxRate(),
+            order.getOrderedProduct(),
+            order.getArea()
+        );
+        blackhole.consume(fresh.getMaterialCost());
+        blackhole.consume(fresh.getLaborCost());
+        blackhole.consume(fresh.getTax());
+        blackhole.consume(fresh.getTotal());
+    }
+
+    @Benchmark
+    public void memoizedAmountsCached(Blackhole blackhole) {
+        blackhole.consume(order.getMaterialCost());
+        blackhole.consume(order.getLaborCost());
+        blackhole.consume(order.getTax());
+        blackhole.consume(order.getTotal());
+    }
+}
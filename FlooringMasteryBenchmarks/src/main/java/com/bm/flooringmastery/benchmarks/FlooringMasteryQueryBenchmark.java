@@ -0,0 +1,114 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoColumnarFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.service.FlooringMasteryOrderQuery;
+import com.bm.flooringmastery.service.FlooringMasteryOrderSummary;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reports over a large synthetic archive, 10 million Orders by
+ * default (3650 days of 2740 Orders)
+ *
+ * The default archive needs a large heap; pass smaller -p days=... and
+ * -p ordersPerDay=... values to run it on a small machine. "file" holds the
+ * archive in FlooringMasteryOrderDaoFileImpl and "columnar" in
+ * FlooringMasteryOrderDaoColumnarFileImpl, which builds every Order read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g"})
+@State(Scope.Benchmark)
+public class FlooringMasteryQueryBenchmark {
+    @Param({"file", "columnar"})
+    public String impl;
+
+    @Param({"3650"})
+    public int days;
+
+    @Param({"2740"})
+    public int ordersPerDay;
+
+    @Param({"8"})
+    public int products;
+
+    @Param({"50"})
+    public int states;
+
+    private FlooringMasteryService service;
+    private LocalDate lastDate;
+
+    @Setup(Level.Trial)
+    public void fillService() throws FlooringMasteryFailedSaveException {
+        FlooringMasterySyntheticOrders archive = 
+            new FlooringMasterySyntheticOrders(days, ordersPerDay, products, states);
+        FlooringMasteryOrderDao orderDao = impl.equals("columnar")
+            ? new FlooringMasteryOrderDaoColumnarFileImpl("Orders", "DataExport.txt")
+            : new FlooringMasteryOrderDaoFileImpl("Orders", "DataExport.txt");
+        archive.fill(orderDao);
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(),
+            new FlooringMasteryProductDaoFileImpl(),
+            orderDao
+        );
+        lastDate = archive.getLastDate();
+    }
+
+    @Benchmark
+    public SortedMap<String, FlooringMasteryOrderSummary> revenuePerStateForAQuarter() {
+        LocalDate from = lastDate.minusMonths(3).withDayOfMonth(1);
+        return service.summarizeOrders(
+            new FlooringMasteryOrderQuery(from, from.plusMonths(3).minusDays(1)),
+            FlooringMasteryOrderQuery.GroupBy.STATE
+        );
+    }
+
+    @Benchmark
+    public SortedMap<String, FlooringMasteryOrderSummary> areaPerProductForAMonth() {
+        LocalDate from = lastDate.withDayOfMonth(1);
+        return service.summarizeOrders(
+            new FlooringMasteryOrderQuery(from, lastDate),
+            FlooringMasteryOrderQuery.GroupBy.PRODUCT_TYPE
+        );
+    }
+
+    @Benchmark
+    public SortedMap<String, FlooringMasteryOrderSummary> wholeArchivePerMonth() {
+        return service.summarizeOrders(
+            new FlooringMasteryOrderQuery(null, null),
+            FlooringMasteryOrderQuery.GroupBy.MONTH
+        );
+    }
+
+    @Benchmark
+    public List<FlooringMasteryOrder> oneStateForAMonth() {
+        LocalDate from = lastDate.withDayOfMonth(1);
+        return service.findOrders(
+            new FlooringMasteryOrderQuery(from, lastDate, Set.of("WA"), Set.of())
+        );
+    }
+}
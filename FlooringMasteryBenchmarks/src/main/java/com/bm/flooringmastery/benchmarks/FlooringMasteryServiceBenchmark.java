@@ -0,0 +1,88 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryProductDaoFileImpl;
+import com.bm.flooringmastery.dao.FlooringMasteryTaxDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.service.FlooringMasteryOrderQuery;
+import com.bm.flooringmastery.service.FlooringMasteryOrderSummary;
+import com.bm.flooringmastery.service.FlooringMasteryService;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the service's order lookups against an in-memory archive
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlooringMasteryServiceBenchmark {
+    @Param({"3650"})
+    public int days;
+
+    @Param({"50"})
+    public int ordersPerDay;
+
+    @Param({"4"})
+    public int products;
+
+    @Param({"4"})
+    public int states;
+
+    private FlooringMasterySyntheticOrders archive;
+    private FlooringMasteryService service;
+
+    @Setup(Level.Trial)
+    public void fillService() throws FlooringMasteryFailedSaveException {
+        archive = new FlooringMasterySyntheticOrders(days, ordersPerDay, products, states);
+        FlooringMasteryOrderDaoFileImpl orderDao = 
+            new FlooringMasteryOrderDaoFileImpl("Orders", "DataExport.txt");
+        archive.fill(orderDao);
+        service = new FlooringMasteryService(
+            new FlooringMasteryTaxDaoFileImpl(),
+            new FlooringMasteryProductDaoFileImpl(),
+            orderDao
+        );
+    }
+
+    private LocalDate randomDate() {
+        return archive.dateOf(ThreadLocalRandom.current().nextInt(archive.getDays()));
+    }
+
+    @Benchmark
+    public void getOrdersByDate(Blackhole blackhole) {
+        Collection<FlooringMasteryOrder> orders = service.getOrdersByDate(randomDate());
+        for (FlooringMasteryOrder order : orders) {
+            blackhole.consume(order);
+        }
+    }
+
+    @Benchmark
+    public SortedMap<String, FlooringMasteryOrderSummary> summarizeQuarterByState() {
+        LocalDate from = randomDate();
+        return service.summarizeOrders(
+            new FlooringMasteryOrderQuery(from, from.plusMonths(3)),
+            FlooringMasteryOrderQuery.GroupBy.STATE
+        );
+    }
+}
@@ -0,0 +1,202 @@
+package com.bm.flooringmastery.benchmarks;
+
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDao;
+import com.bm.flooringmastery.dao.FlooringMasteryOrderDaoFileImpl;
+import com.bm.flooringmastery.dao.exceptions.FlooringMasteryFailedSaveException;
+import com.bm.flooringmastery.model.FlooringMasteryOrder;
+import com.bm.flooringmastery.model.FlooringMasteryProduct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates a deterministic archive of Orders of a configurable size and mix
+ */
+public class FlooringMasterySyntheticOrders {
+    public static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+
+    private static final String[] KNOWN_TYPES = {"Carpet", "Laminate", "Tile", "Wood"};
+    private static final String[] KNOWN_STATES = {"TX", "WA", "KY", "CA"};
+    private static final String[] FIRST_NAMES = {
+        "Ada", "Alan", "Albert", "Grace", "Edsger", "Barbara", "Donald", "Margaret"
+    };
+    private static final String[] LAST_NAMES = {
+        "Lovelace", "Turing", "Einstein", "Hopper", "Dijkstra", "Liskov", "Knuth", "Hamilton"
+    };
+
+    private final int DAYS;
+    private final int ORDERS_PER_DAY;
+    private final int CUSTOMERS;
+    private final FlooringMasteryProduct[] PRODUCTS;
+    private final String[] STATES;
+    private final BigDecimal[] TAX_RATES;
+
+    /**
+     * @param days The number of consecutive dates, starting at FIRST_DATE
+     * @param ordersPerDay The number of Orders on each date
+     * @param productCount The number of distinct products ordered
+     * @param stateCount The number of distinct states ordered from
+     */
+    public FlooringMasterySyntheticOrders(int days, int ordersPerDay, int productCount, int stateCount) {
+        this(days, ordersPerDay, productCount, stateCount, 0);
+    }
+
+    /**
+     * @param days The number of consecutive dates, starting at FIRST_DATE
+     * @param ordersPerDay The number of Orders on each date
+     * @param productCount The number of distinct products ordered
+     * @param stateCount The number of distinct states ordered from
+     * @param customerCount The number of distinct customers ordering, named
+     *                      as by customerName; 0 for the 64 names made of a
+     *                      first and a last name alone
+     */
+    public FlooringMasterySyntheticOrders(
+        int days, 
+        int ordersPerDay, 
+        int productCount, 
+        int stateCount, 
+        int customerCount) {
+        
+        this.DAYS = days;
+        this.ORDERS_PER_DAY = ordersPerDay;
+        this.CUSTOMERS = customerCount;
+
+        this.PRODUCTS = new FlooringMasteryProduct[productCount];
+        for (int i = 0; i < productCount; i++) {
+            String type = i < KNOWN_TYPES.length ? KNOWN_TYPES[i] : "Product" + i;
+            PRODUCTS[i] = new FlooringMasteryProduct(
+                type,
+                BigDecimal.valueOf(150 + 75 * i, 2),
+                BigDecimal.valueOf(200 + 50 * i, 2)
+            );
+        }
+
+        this.STATES = new String[stateCount];
+        this.TAX_RATES = new BigDecimal[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            STATES[i] = i < KNOWN_STATES.length
+                ? KNOWN_STATES[i]
+                : "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+            TAX_RATES[i] = BigDecimal.valueOf(400 + 125 * i % 2100, 2);
+        }
+    }
+
+    /**
+     * @return The products Orders are placed for, as a product catalog would
+     *         hold them
+     */
+    public List<FlooringMasteryProduct> products() {
+        return List.of(PRODUCTS);
+    }
+
+    public int getDays() {
+        return DAYS;
+    }
+
+    public long getOrderCount() {
+        return (long) DAYS * ORDERS_PER_DAY;
+    }
+
+    /**
+     * @param dayIndex
+     * @return The date of the given day of the archive
+     */
+    public LocalDate dateOf(int dayIndex) {
+        return FIRST_DATE.plusDays(dayIndex);
+    }
+
+    public LocalDate getLastDate() {
+        return dateOf(DAYS - 1);
+    }
+
+    /**
+     * @param customerIndex Below the customer count given
+     * @return The name of the given customer: a first and a last name,
+     *         followed by a number from the 65th customer on
+     */
+    public static String customerName(int customerIndex) {
+        String name = FIRST_NAMES[customerIndex % FIRST_NAMES.length] + " "
+            + LAST_NAMES[customerIndex / FIRST_NAMES.length % LAST_NAMES.length];
+        int round = customerIndex / (FIRST_NAMES.length * LAST_NAMES.length);
+        return round == 0 ? name : name + " " + round;
+    }
+
+    /**
+     * Generates every Order of the archive, always in the same order and with
+     * the same contents, numbered from 1
+     *
+     * @return The aforementioned Orders
+     */
+    public Stream<FlooringMasteryOrder> orders() {
+        Random random = new Random(42);
+        return Stream.iterate(0L, i -> i < getOrderCount(), i -> i + 1).map(i -> {
+            int productIdx = random.nextInt(PRODUCTS.length);
+            int stateIdx = random.nextInt(STATES.length);
+            String customerName = CUSTOMERS > 0
+                ? customerName(random.nextInt(CUSTOMERS))
+                : FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            return new FlooringMasteryOrder(
+                dateOf((int) (i / ORDERS_PER_DAY)),
+                (int) (i + 1),
+                customerName,
+                STATES[stateIdx],
+                TAX_RATES[stateIdx],
+                PRODUCTS[productIdx],
+                BigDecimal.valueOf(10000 + random.nextInt(90000), 2)
+            );
+        });
+    }
+
+    /**
+     * Pushes every Order of the archive into the DAO
+     *
+     * @param dao
+     * @throws FlooringMasteryFailedSaveException
+     */
+    public void fill(FlooringMasteryOrderDao dao) throws FlooringMasteryFailedSaveException {
+        for (FlooringMasteryOrder order : (Iterable<FlooringMasteryOrder>) orders()::iterator) {
+            dao.pushOrder(order);
+        }
+    }
+
+    /**
+     * Writes the archive as Orders_MMDDYYYY.txt files into a directory
+     *
+     * @param ordersDirectory
+     * @throws IOException
+     * @throws FlooringMasteryFailedSaveException
+     */
+    public void writeTo(Path ordersDirectory) throws IOException, FlooringMasteryFailedSaveException {
+        Files.createDirectories(ordersDirectory);
+        FlooringMasteryOrderDaoFileImpl dao = new FlooringMasteryOrderDaoFileImpl(
+            ordersDirectory.toString(),
+            ordersDirectory.resolveSibling("DataExport.txt").toString()
+        );
+        fill(dao);
+        dao.saveToExternals();
+    }
+
+    /**
+     * Deletes a directory and everything beneath it
+     *
+     * @param directory
+     * @throws IOException
+     */
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}